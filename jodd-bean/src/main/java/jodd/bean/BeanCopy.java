@@ -42,6 +42,7 @@ public class BeanCopy extends BeanVisitorImplBase<BeanCopy> {
 	protected boolean forced;
 	protected boolean declaredTarget;
 	protected boolean isTargetMap;
+	protected boolean compiled;
 
 	// ---------------------------------------------------------------- ctor
 
@@ -153,6 +154,17 @@ public class BeanCopy extends BeanVisitorImplBase<BeanCopy> {
 		return this;
 	}
 
+	/**
+	 * Enables compiled copying between two POJO beans, using cached
+	 * {@link BeanCopyPlan}. Copying that involves a <code>Map</code>
+	 * is never compiled. Compiled copying doesn't invoke
+	 * {@link #visitProperty(String, Object)}.
+	 */
+	public BeanCopy compiled(boolean compiled) {
+		this.compiled = compiled;
+		return this;
+	}
+
 	// ---------------------------------------------------------------- visitor
 
 	protected BeanUtil beanUtil;
@@ -161,6 +173,11 @@ public class BeanCopy extends BeanVisitorImplBase<BeanCopy> {
 	 * Performs the copying.
 	 */
 	public void copy() {
+		if (compiled && !isSourceMap && !isTargetMap && !(source instanceof Map) && !(destination instanceof Map)) {
+			BeanCopyPlan.lookup(this, source.getClass(), destination.getClass()).copy(this, source, destination);
+			return;
+		}
+
 		beanUtil = new BeanUtilBean()
 						.declared(declared)
 						.forced(forced)
@@ -0,0 +1,358 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.bean;
+
+import jodd.cache.AbstractConcurrentCacheMap;
+import jodd.cache.ConcurrentLRUCache;
+import jodd.introspector.AccessorStrategy;
+import jodd.introspector.ClassDescriptor;
+import jodd.introspector.ClassIntrospector;
+import jodd.introspector.Getter;
+import jodd.introspector.PropertyDescriptor;
+import jodd.introspector.Setter;
+import jodd.typeconverter.TypeConverter;
+import jodd.typeconverter.TypeConverterManager;
+import jodd.util.ClassUtil;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Compiled {@link BeanCopy} plan between two bean types. Plan resolves all copied
+ * properties only once, with {@link AccessorStrategy#LAMBDA compiled} getters and
+ * setters and pre-resolved type converters. Properties of the same primitive
+ * type are copied without boxing, while strings and wrappers of the same type
+ * are copied without conversion. Plans are cached in a bounded cache. Plan is
+ * bound to the {@link TypeConverterManager} it is compiled with; when the
+ * manager is replaced, plan is simply compiled again.
+ *
+ * @see BeanCopy#compiled(boolean)
+ */
+public class BeanCopyPlan {
+
+	protected static final ConcurrentLRUCache<Key, BeanCopyPlan> cache = new ConcurrentLRUCache<>(1000);
+
+	/**
+	 * Returns the cache of compiled copy plans. Use it to monitor the hit rate or to clear it.
+	 */
+	public static AbstractConcurrentCacheMap<?, BeanCopyPlan> getPlanCache() {
+		return cache;
+	}
+
+	/**
+	 * Returns cached plan for source and destination type and flags of given {@link BeanCopy}.
+	 */
+	static BeanCopyPlan lookup(BeanCopy beanCopy, Class sourceType, Class destinationType) {
+		TypeConverterManager typeConverterManager = TypeConverterManager.get();
+
+		Key key = new Key(sourceType, destinationType, beanCopy.declared, beanCopy.includeFields);
+
+		BeanCopyPlan plan = cache.get(key);
+		if (plan == null || plan.typeConverterManager != typeConverterManager) {
+			plan = new BeanCopyPlan(beanCopy, sourceType, destinationType, typeConverterManager);
+			cache.put(key, plan);
+		}
+		return plan;
+	}
+
+	protected final PropertyCopy[] properties;
+	protected final TypeConverterManager typeConverterManager;
+
+	protected BeanCopyPlan(BeanCopy beanCopy, Class sourceType, Class destinationType, TypeConverterManager typeConverterManager) {
+		this.typeConverterManager = typeConverterManager;
+		boolean declared = beanCopy.declared;
+
+		String[] names = beanCopy.getAllBeanPropertyNames(sourceType, declared);
+
+		ClassDescriptor sourceDescriptor = ClassIntrospector.get().lookup(sourceType);
+		ClassDescriptor destinationDescriptor = ClassIntrospector.get().lookup(destinationType);
+
+		List<PropertyCopy> list = new ArrayList<>(names.length);
+
+		for (String name : names) {
+			PropertyDescriptor sourceProperty = sourceDescriptor.getPropertyDescriptor(name, true);
+			PropertyDescriptor destinationProperty = destinationDescriptor.getPropertyDescriptor(name, true);
+
+			if (sourceProperty == null || destinationProperty == null) {
+				continue;
+			}
+
+			Getter getter = sourceProperty.getGetter(declared);
+			Setter setter = destinationProperty.getSetter(declared);
+
+			if (getter == null || setter == null) {
+				continue;
+			}
+
+			list.add(new PropertyCopy(name, AccessorStrategy.LAMBDA.compile(getter), AccessorStrategy.LAMBDA.compile(setter), typeConverterManager));
+		}
+
+		this.properties = list.toArray(new PropertyCopy[list.size()]);
+	}
+
+	/**
+	 * Copies properties matched by the rules of given {@link BeanCopy}.
+	 */
+	void copy(BeanCopy beanCopy, Object source, Object destination) {
+		for (PropertyCopy property : properties) {
+			if (!beanCopy.rules.match(property.name, beanCopy.blacklist)) {
+				continue;
+			}
+			property.copy(source, destination, beanCopy.ignoreNullValues);
+		}
+	}
+
+	// ---------------------------------------------------------------- property
+
+	private static final int DIRECT = 0;
+	private static final int CONVERTER = 1;
+	private static final int COLLECTION = 2;
+	private static final int GENERIC = 3;
+	private static final int INT = 4;
+	private static final int LONG = 5;
+	private static final int DOUBLE = 6;
+	private static final int BOOLEAN = 7;
+
+	/**
+	 * Copy of a single property. Setter exceptions are ignored,
+	 * as it is done by non-compiled {@link BeanCopy}.
+	 */
+	protected static class PropertyCopy {
+		protected final String name;
+		protected final Getter getter;
+		protected final Setter setter;
+		protected final Class<?> type;
+		protected final Class<?> componentType;
+		protected final int kind;
+		protected final TypeConverter typeConverter;
+		protected final TypeConverterManager typeConverterManager;
+
+		protected PropertyCopy(String name, Getter getter, Setter setter, TypeConverterManager typeConverterManager) {
+			this.name = name;
+			this.getter = getter;
+			this.setter = setter;
+			this.type = setter.getSetterRawType();
+			this.componentType = setter.getSetterRawComponentType();
+			this.typeConverterManager = typeConverterManager;
+
+			Class<?> sourceType = getter.getGetterRawType();
+
+			TypeConverter typeConverter = null;
+			int kind;
+
+			if (ClassUtil.isTypeOf(type, Collection.class)) {
+				kind = COLLECTION;
+			}
+			else if (type == Object.class) {
+				kind = DIRECT;
+			}
+			else if (type == sourceType && type == int.class) {
+				kind = INT;
+			}
+			else if (type == sourceType && type == long.class) {
+				kind = LONG;
+			}
+			else if (type == sourceType && type == double.class) {
+				kind = DOUBLE;
+			}
+			else if (type == sourceType && type == boolean.class) {
+				kind = BOOLEAN;
+			}
+			else if (type == sourceType && isImmutable(type)) {
+				kind = DIRECT;
+			}
+			else if ((typeConverter = typeConverterManager.lookup(type)) != null) {
+				kind = CONVERTER;
+			}
+			else if (!type.isArray() && !type.isEnum() && type.isAssignableFrom(sourceType)) {
+				kind = DIRECT;
+			}
+			else {
+				kind = GENERIC;
+			}
+
+			this.kind = kind;
+			this.typeConverter = typeConverter;
+		}
+
+		protected void copy(Object source, Object destination, boolean ignoreNullValues) {
+			switch (kind) {
+				case INT:
+					int intValue = getInt(source);
+					try {
+						setter.invokeIntSetter(destination, intValue);
+					} catch (Exception ignore) {
+					}
+					return;
+				case LONG:
+					long longValue = getLong(source);
+					try {
+						setter.invokeLongSetter(destination, longValue);
+					} catch (Exception ignore) {
+					}
+					return;
+				case DOUBLE:
+					double doubleValue = getDouble(source);
+					try {
+						setter.invokeDoubleSetter(destination, doubleValue);
+					} catch (Exception ignore) {
+					}
+					return;
+				case BOOLEAN:
+					boolean booleanValue = getBoolean(source);
+					try {
+						setter.invokeBooleanSetter(destination, booleanValue);
+					} catch (Exception ignore) {
+					}
+					return;
+				default:
+			}
+
+			Object value;
+			try {
+				value = getter.invokeGetter(source);
+			} catch (Exception ex) {
+				throw new BeanException("Getter failed: " + getter, ex);
+			}
+
+			if (value == null && ignoreNullValues) {
+				return;
+			}
+
+			try {
+				setter.invokeSetter(destination, convert(value));
+			} catch (Exception ignore) {
+			}
+		}
+
+		private int getInt(Object source) {
+			try {
+				return getter.invokeIntGetter(source);
+			} catch (Exception ex) {
+				throw new BeanException("Getter failed: " + getter, ex);
+			}
+		}
+
+		private long getLong(Object source) {
+			try {
+				return getter.invokeLongGetter(source);
+			} catch (Exception ex) {
+				throw new BeanException("Getter failed: " + getter, ex);
+			}
+		}
+
+		private double getDouble(Object source) {
+			try {
+				return getter.invokeDoubleGetter(source);
+			} catch (Exception ex) {
+				throw new BeanException("Getter failed: " + getter, ex);
+			}
+		}
+
+		private boolean getBoolean(Object source) {
+			try {
+				return getter.invokeBooleanGetter(source);
+			} catch (Exception ex) {
+				throw new BeanException("Getter failed: " + getter, ex);
+			}
+		}
+
+		/**
+		 * Converts value to the destination type.
+		 */
+		@SuppressWarnings("unchecked")
+		protected Object convert(Object value) {
+			switch (kind) {
+				case DIRECT:
+					return value;
+				case CONVERTER:
+					return typeConverter.convert(value);
+				case COLLECTION:
+					return typeConverterManager.convertToCollection(value, (Class<? extends Collection>) type, componentType);
+				default:
+					return typeConverterManager.convertType(value, type);
+			}
+		}
+	}
+
+	/**
+	 * Returns <code>true</code> for strings and primitive wrappers, that
+	 * are not changed by the default type converters.
+	 */
+	private static boolean isImmutable(Class type) {
+		return
+			type == String.class ||
+			type == Integer.class || type == Long.class ||
+			type == Double.class || type == Float.class ||
+			type == Short.class || type == Byte.class ||
+			type == Boolean.class || type == Character.class;
+	}
+
+	// ---------------------------------------------------------------- key
+
+	/**
+	 * Plan cache key. Type converter manager is not part of the key,
+	 * so the replaced manager is not held by the cache.
+	 */
+	protected static class Key {
+		private final Class sourceType;
+		private final Class destinationType;
+		private final boolean declared;
+		private final boolean includeFields;
+		private final int hashCode;
+
+		private Key(Class sourceType, Class destinationType, boolean declared, boolean includeFields) {
+			this.sourceType = sourceType;
+			this.destinationType = destinationType;
+			this.declared = declared;
+			this.includeFields = includeFields;
+			this.hashCode = (31 * sourceType.hashCode() + destinationType.hashCode()) * 4 + (declared ? 2 : 0) + (includeFields ? 1 : 0);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Key)) {
+				return false;
+			}
+			Key key = (Key) o;
+			return
+				sourceType == key.sourceType &&
+				destinationType == key.destinationType &&
+				declared == key.declared &&
+				includeFields == key.includeFields;
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+	}
+
+}
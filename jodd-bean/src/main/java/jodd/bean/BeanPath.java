@@ -0,0 +1,400 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.bean;
+
+import jodd.introspector.ClassDescriptor;
+import jodd.introspector.Getter;
+import jodd.introspector.PropertyDescriptor;
+import jodd.introspector.Setter;
+
+import java.lang.reflect.Array;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiled property path, like <code>"a.b[3].c"</code>. Path is parsed only once,
+ * into a chain of segments. Each segment caches getter and setter resolved for
+ * the most recent bean type, so repeated access to beans of the same type
+ * doesn't have to resolve anything. When a type changes, segment simply
+ * resolves the property again.
+ * <p>
+ * Compiled path covers common usages: properties, map keys and indexed access of
+ * arrays, lists and maps. Everything else (e.g. forced mode, <code>null</code> values,
+ * missing properties) is delegated to the {@link BeanUtilBean} the path is
+ * compiled with, so the behavior is the same as of its
+ * {@link BeanUtil#getProperty(Object, String) getProperty()} and
+ * {@link BeanUtil#setProperty(Object, String, Object) setProperty()}.
+ * <p>
+ * Compiled path is thread-safe and should be reused.
+ */
+public class BeanPath {
+
+	private static final Object FALLBACK = new Object();
+
+	protected final BeanUtil beanUtil;
+	protected final BeanUtilBean beanUtilBean;
+	protected final String path;
+	protected final Segment[] segments;
+
+	/**
+	 * Compiles the property path for given {@link BeanUtil}. Only paths
+	 * of {@link BeanUtilBean} are compiled; for other implementations,
+	 * path simply delegates to the given <code>BeanUtil</code>.
+	 * @see BeanUtil#compilePath(String)
+	 */
+	public BeanPath(BeanUtil beanUtil, String path) {
+		this.beanUtil = beanUtil;
+		this.beanUtilBean = beanUtil instanceof BeanUtilBean ? (BeanUtilBean) beanUtil : null;
+		this.path = path;
+		this.segments = beanUtilBean == null || beanUtilBean.isForced ? null : parse(path);
+	}
+
+	/**
+	 * Returns property path.
+	 */
+	public String path() {
+		return path;
+	}
+
+	// ---------------------------------------------------------------- parse
+
+	/**
+	 * Parses property path into segments, exactly like {@link BeanUtilBean} does.
+	 * Returns <code>null</code> if path can not be compiled.
+	 */
+	protected Segment[] parse(String path) {
+		int count = 1;
+		String name = path;
+		int dotNdx;
+		while ((dotNdx = beanUtilBean.indexOfDot(name)) != -1) {
+			count++;
+			name = name.substring(dotNdx + 1);
+		}
+
+		Segment[] segments = new Segment[count];
+
+		name = path;
+		for (int i = 0; i < count; i++) {
+			dotNdx = beanUtilBean.indexOfDot(name);
+
+			String segmentName = dotNdx == -1 ? name : name.substring(0, dotNdx);
+			String index = null;
+
+			int lastNdx = segmentName.length() - 1;
+			if (lastNdx >= 0 && segmentName.charAt(lastNdx) == ']') {
+				int leftBracketNdx = segmentName.lastIndexOf('[');
+				if (leftBracketNdx != -1) {
+					index = segmentName.substring(leftBracketNdx + 1, lastNdx);
+					segmentName = segmentName.substring(0, leftBracketNdx);
+				}
+			}
+
+			if (segmentName.indexOf('[') != -1 || segmentName.indexOf(']') != -1) {
+				return null;
+			}
+			if (segmentName.isEmpty() && index == null) {
+				return null;
+			}
+
+			segments[i] = new Segment(segmentName, index);
+
+			name = name.substring(dotNdx + 1);
+		}
+		return segments;
+	}
+
+	// ---------------------------------------------------------------- get
+
+	/**
+	 * Returns value of the property.
+	 * @see BeanUtil#getProperty(Object, String)
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T get(Object bean) {
+		if (segments == null || bean == null) {
+			return beanUtil.getProperty(bean, path);
+		}
+
+		Object value;
+		if (!beanUtilBean.isSilent) {
+			value = resolve(bean, segments.length);
+		}
+		else {
+			try {
+				value = resolve(bean, segments.length);
+			}
+			catch (Exception ignore) {
+				return null;
+			}
+		}
+
+		if (value == FALLBACK) {
+			return beanUtil.getProperty(bean, path);
+		}
+		return (T) value;
+	}
+
+	/**
+	 * Resolves value of first <code>count</code> segments.
+	 */
+	private Object resolve(Object bean, int count) {
+		Object value = bean;
+		for (int i = 0; i < count; i++) {
+			value = segments[i].get(value);
+			if (value == FALLBACK) {
+				return FALLBACK;
+			}
+		}
+		return value;
+	}
+
+	// ---------------------------------------------------------------- set
+
+	/**
+	 * Sets the value of the property.
+	 * @see BeanUtil#setProperty(Object, String, Object)
+	 */
+	public void set(Object bean, Object value) {
+		if (segments == null || bean == null) {
+			beanUtil.setProperty(bean, path, value);
+			return;
+		}
+
+		boolean done;
+		if (!beanUtilBean.isSilent) {
+			done = assign(bean, value);
+		}
+		else {
+			try {
+				done = assign(bean, value);
+			}
+			catch (Exception ignore) {
+				return;
+			}
+		}
+
+		if (!done) {
+			beanUtil.setProperty(bean, path, value);
+		}
+	}
+
+	private boolean assign(Object bean, Object value) {
+		Object target = resolve(bean, segments.length - 1);
+
+		if (target == FALLBACK) {
+			return false;
+		}
+		return segments[segments.length - 1].set(target, value);
+	}
+
+	// ---------------------------------------------------------------- segment
+
+	/**
+	 * Single path segment: a property name with an optional index.
+	 */
+	protected class Segment {
+		protected final String name;
+		protected final String index;
+		protected final int intIndex;
+		private volatile Accessor accessor;
+
+		protected Segment(String name, String index) {
+			this.name = name;
+			this.index = index;
+			this.intIndex = parseIndex(index);
+		}
+
+		private int parseIndex(String index) {
+			if (index == null) {
+				return -1;
+			}
+			try {
+				return Integer.parseInt(index);
+			}
+			catch (NumberFormatException ignore) {
+				return -1;
+			}
+		}
+
+		/**
+		 * Returns accessor for given type, from the inline cache when type matches.
+		 */
+		protected Accessor accessor(Class type) {
+			Accessor accessor = this.accessor;
+			if (accessor == null || accessor.type != type) {
+				accessor = new Accessor(type, name, beanUtilBean);
+				this.accessor = accessor;
+			}
+			return accessor;
+		}
+
+		/**
+		 * Returns segment value or {@link #FALLBACK}.
+		 */
+		protected Object get(Object bean) {
+			if (bean == null) {
+				return FALLBACK;
+			}
+			Accessor accessor = accessor(bean.getClass());
+
+			Object value = property(accessor, bean);
+
+			if (index == null || value == FALLBACK) {
+				return value;
+			}
+			if (value == null) {
+				return FALLBACK;
+			}
+
+			if (value.getClass().isArray()) {
+				if (intIndex < 0 || intIndex >= Array.getLength(value)) {
+					return FALLBACK;
+				}
+				return Array.get(value, intIndex);
+			}
+			if (value instanceof List) {
+				List list = (List) value;
+				if (intIndex < 0 || intIndex >= list.size()) {
+					return FALLBACK;
+				}
+				return list.get(intIndex);
+			}
+			if (value instanceof Map) {
+				return ((Map) value).get(beanUtilBean.convertIndexToMapKey(accessor.getter, index));
+			}
+			return FALLBACK;
+		}
+
+		/**
+		 * Returns property value (without index) or {@link #FALLBACK}.
+		 */
+		private Object property(Accessor accessor, Object bean) {
+			if (name.isEmpty()) {
+				return bean;
+			}
+			if (accessor.getter != null) {
+				try {
+					return accessor.getter.invokeGetter(bean);
+				}
+				catch (Exception ex) {
+					// property is resolved, so the getter is not invoked again
+					throw new BeanException("Getter failed: " + accessor.getter, ex);
+				}
+			}
+			if (accessor.map) {
+				Map map = (Map) bean;
+				if (!map.containsKey(name)) {
+					return FALLBACK;
+				}
+				return map.get(name);
+			}
+			return FALLBACK;
+		}
+
+		/**
+		 * Sets the segment value. Returns <code>false</code> if value
+		 * can not be set and fallback has to be used.
+		 */
+		@SuppressWarnings("unchecked")
+		protected boolean set(Object bean, Object value) {
+			if (bean == null) {
+				return false;
+			}
+			Accessor accessor = accessor(bean.getClass());
+
+			if (index == null) {
+				if (accessor.setter != null) {
+					beanUtilBean.invokeSetter(accessor.setter, bean, value);
+					return true;
+				}
+				if (accessor.map) {
+					((Map) bean).put(name, value);
+					return true;
+				}
+				return false;
+			}
+
+			Object target = property(accessor, bean);
+			if (target == FALLBACK || target == null) {
+				return false;
+			}
+
+			if (target.getClass().isArray()) {
+				if (intIndex < 0 || intIndex >= Array.getLength(target)) {
+					return false;
+				}
+				Array.set(target, intIndex, value);
+				return true;
+			}
+
+			Class componentType = beanUtilBean.extractGenericComponentType(accessor.getter);
+
+			if (target instanceof List) {
+				List list = (List) target;
+				if (intIndex < 0 || intIndex >= list.size()) {
+					return false;
+				}
+				if (componentType != Object.class) {
+					value = beanUtilBean.convertType(value, componentType);
+				}
+				list.set(intIndex, value);
+				return true;
+			}
+			if (target instanceof Map) {
+				Object key = beanUtilBean.convertIndexToMapKey(accessor.getter, index);
+
+				if (componentType != Object.class) {
+					value = beanUtilBean.convertType(value, componentType);
+				}
+				((Map) target).put(key, value);
+				return true;
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * Getter and setter of a property, resolved for a bean type.
+	 */
+	protected static class Accessor {
+		protected final Class type;
+		protected final Getter getter;
+		protected final Setter setter;
+		protected final boolean map;
+
+		protected Accessor(Class type, String name, BeanUtilBean beanUtilBean) {
+			this.type = type;
+
+			ClassDescriptor cd = beanUtilBean.introspector.lookup(type);
+			PropertyDescriptor pd = name.isEmpty() ? null : cd.getPropertyDescriptor(name, true);
+
+			this.getter = pd == null ? null : pd.getGetter(beanUtilBean.isDeclared);
+			this.setter = pd == null ? null : pd.getSetter(beanUtilBean.isDeclared);
+			this.map = cd.isMap();
+		}
+	}
+
+}
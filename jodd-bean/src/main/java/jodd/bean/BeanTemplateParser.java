@@ -25,6 +25,8 @@
 
 package jodd.bean;
 
+import jodd.cache.Cache;
+import jodd.cache.ConcurrentLRUCache;
 import jodd.util.template.ContextTemplateParser;
 import jodd.util.template.StringTemplateParser;
 
@@ -47,9 +49,11 @@ public class BeanTemplateParser extends StringTemplateParser {
 		return template -> parseWithBean(template, context);
 	}
 
+	protected final Cache<String, BeanPath> paths = new ConcurrentLRUCache<>(256);
+
 	public String parseWithBean(String template, Object context) {
 		return super.parse(template, macroName -> {
-			Object value = BeanUtil.declaredSilent.getProperty(context, macroName);
+			Object value = compilePath(macroName).get(context);
 
 			if (value == null) {
 				return null;
@@ -57,4 +61,17 @@ public class BeanTemplateParser extends StringTemplateParser {
 			return value.toString();
 		});
 	}
+
+	/**
+	 * Returns compiled {@link BeanPath} of the macro name. Compiled paths are
+	 * cached, as the same macros are usually resolved many times.
+	 */
+	protected BeanPath compilePath(String macroName) {
+		BeanPath beanPath = paths.get(macroName);
+		if (beanPath == null) {
+			beanPath = BeanUtil.declaredSilent.compilePath(macroName);
+			paths.put(macroName, beanPath);
+		}
+		return beanPath;
+	}
 }
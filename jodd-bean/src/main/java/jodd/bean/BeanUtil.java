@@ -151,4 +151,12 @@ public interface BeanUtil {
 	 */
 	public String extractThisReference(String propertyName);
 
+	/**
+	 * Compiles property path into reusable {@link BeanPath}, that
+	 * gets and sets properties using flags of this <code>BeanUtil</code>.
+	 */
+	public default BeanPath compilePath(String name) {
+		return new BeanPath(this, name);
+	}
+
 }
\ No newline at end of file
@@ -103,6 +103,13 @@ abstract class BeanUtilUtil implements BeanUtil {
 	 * Invokes setter, but first converts type to match the setter type.
 	 */
 	protected Object invokeSetter(Setter setter, BeanProperty bp, Object value) {
+		return invokeSetter(setter, bp.bean, value);
+	}
+
+	/**
+	 * Invokes setter on given bean, but first converts type to match the setter type.
+	 */
+	protected Object invokeSetter(Setter setter, Object bean, Object value) {
 		try {
 			Class type = setter.getSetterRawType();
 
@@ -115,7 +122,7 @@ abstract class BeanUtilUtil implements BeanUtil {
 				value = convertType(value, type);
 			}
 
-			setter.invokeSetter(bp.bean, value);
+			setter.invokeSetter(bean, value);
 		} catch (Exception ex) {
 			if (isSilent) {
 				return null;
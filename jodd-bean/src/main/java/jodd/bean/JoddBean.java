@@ -26,8 +26,9 @@
 package jodd.bean;
 
 import jodd.Jodd;
-import jodd.introspector.CachingIntrospector;
+import jodd.introspector.AccessorStrategy;
 import jodd.introspector.ClassIntrospector;
+import jodd.introspector.ConcurrentIntrospector;
 import jodd.typeconverter.Converter;
 import jodd.typeconverter.TypeConverterManager;
 
@@ -55,12 +56,13 @@ public class JoddBean {
 
 	// ---------------------------------------------------------------- instance
 
-	private ClassIntrospector classIntrospector = new CachingIntrospector();
+	private ClassIntrospector classIntrospector = new ConcurrentIntrospector();
+	private AccessorStrategy accessorStrategy = AccessorStrategy.REFLECTION;
 	private Converter converter = new Converter();
 	private TypeConverterManager typeConverterManager = new TypeConverterManager(converter);
 
 	/**
-	 * Returns the {@link ClassIntrospector} implementation. Default is {@link CachingIntrospector}.
+	 * Returns the {@link ClassIntrospector} implementation. Default is {@link ConcurrentIntrospector}.
 	 */
 	public ClassIntrospector classIntrospector() {
 		return classIntrospector;
@@ -75,6 +77,25 @@ public class JoddBean {
 		return this;
 	}
 
+	/**
+	 * Returns the {@link AccessorStrategy} used for property getters and setters.
+	 * Default is {@link AccessorStrategy#REFLECTION}.
+	 */
+	public AccessorStrategy accessorStrategy() {
+		return accessorStrategy;
+	}
+
+	/**
+	 * Changes the {@link AccessorStrategy}. It is applied to the properties that
+	 * are not accessed yet, so it should be set before the introspection
+	 * (or the {@link ClassIntrospector} should be reset).
+	 */
+	public JoddBean accessorStrategy(AccessorStrategy accessorStrategy) {
+		Objects.requireNonNull(accessorStrategy);
+		this.accessorStrategy = accessorStrategy;
+		return this;
+	}
+
 	/**
 	 * Returns the {@link TypeConverterManager} instance.
 	 */
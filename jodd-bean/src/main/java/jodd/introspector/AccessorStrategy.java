@@ -0,0 +1,69 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.introspector;
+
+/**
+ * Defines how property {@link Getter getters} and {@link Setter setters}
+ * access the underlying methods and fields.
+ */
+public enum AccessorStrategy {
+
+	/**
+	 * Methods and fields are accessed using reflection. Getters and
+	 * setters are method and field descriptors themselves.
+	 */
+	REFLECTION,
+
+	/**
+	 * Getters and setters are compiled into <code>MethodHandle</code>s, with
+	 * primitive variants that don't box the values.
+	 */
+	METHOD_HANDLE,
+
+	/**
+	 * Getters and setters of public methods are compiled into functional objects
+	 * generated by <code>LambdaMetafactory</code>. Everything else is accessed
+	 * as with {@link #METHOD_HANDLE}.
+	 */
+	LAMBDA;
+
+	/**
+	 * Compiles method or field descriptor into a getter of this strategy.
+	 * Returns given getter if it can not be compiled.
+	 */
+	public Getter compile(Getter getter) {
+		return Accessors.getter(getter, this);
+	}
+
+	/**
+	 * Compiles method or field descriptor into a setter of this strategy.
+	 * Returns given setter if it can not be compiled.
+	 */
+	public Setter compile(Setter setter) {
+		return Accessors.setter(setter, this);
+	}
+
+}
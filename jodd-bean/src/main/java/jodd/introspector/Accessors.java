@@ -0,0 +1,555 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.introspector;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Compiles method and field descriptors into {@link CompiledGetter getters}
+ * and {@link CompiledSetter setters} for given {@link AccessorStrategy}.
+ * When descriptor can not be compiled, it is returned as it is, so
+ * reflection is used instead.
+ */
+final class Accessors {
+
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+	private Accessors() {
+	}
+
+	/**
+	 * Compiles method or field descriptor into a getter.
+	 */
+	static Getter getter(Getter getter, AccessorStrategy strategy) {
+		if (getter == null || strategy == AccessorStrategy.REFLECTION) {
+			return getter;
+		}
+
+		MethodHandle methodHandle;
+		try {
+			if (getter instanceof MethodDescriptor) {
+				methodHandle = LOOKUP.unreflect(((MethodDescriptor) getter).getMethod());
+			}
+			else if (getter instanceof FieldDescriptor) {
+				methodHandle = LOOKUP.unreflectGetter(((FieldDescriptor) getter).getField());
+			}
+			else {
+				return getter;
+			}
+		}
+		catch (IllegalAccessException ignore) {
+			return getter;
+		}
+
+		if (strategy == AccessorStrategy.LAMBDA && getter instanceof MethodDescriptor) {
+			Getter lambdaGetter = LambdaGetter.create(getter, ((MethodDescriptor) getter).getMethod(), methodHandle);
+			if (lambdaGetter != null) {
+				return lambdaGetter;
+			}
+		}
+
+		return new MethodHandleGetter(getter, methodHandle);
+	}
+
+	/**
+	 * Compiles method or field descriptor into a setter.
+	 */
+	static Setter setter(Setter setter, AccessorStrategy strategy) {
+		if (setter == null || strategy == AccessorStrategy.REFLECTION) {
+			return setter;
+		}
+
+		MethodHandle methodHandle;
+		try {
+			if (setter instanceof MethodDescriptor) {
+				methodHandle = LOOKUP.unreflect(((MethodDescriptor) setter).getMethod());
+			}
+			else if (setter instanceof FieldDescriptor) {
+				if (Modifier.isFinal(((FieldDescriptor) setter).getField().getModifiers())) {
+					return setter;
+				}
+				methodHandle = LOOKUP.unreflectSetter(((FieldDescriptor) setter).getField());
+			}
+			else {
+				return setter;
+			}
+		}
+		catch (IllegalAccessException ignore) {
+			return setter;
+		}
+
+		if (strategy == AccessorStrategy.LAMBDA && setter instanceof MethodDescriptor) {
+			Setter lambdaSetter = LambdaSetter.create(setter, ((MethodDescriptor) setter).getMethod(), methodHandle);
+			if (lambdaSetter != null) {
+				return lambdaSetter;
+			}
+		}
+
+		return new MethodHandleSetter(setter, methodHandle);
+	}
+
+	// ---------------------------------------------------------------- method handles
+
+	/**
+	 * Getter that invokes generic and, for primitive properties, exact method handle.
+	 */
+	static class MethodHandleGetter extends CompiledGetter {
+		private final MethodHandle handle;
+		private final MethodHandle primitiveHandle;
+		private final Class primitiveType;
+
+		MethodHandleGetter(Getter getter, MethodHandle methodHandle) {
+			super(getter);
+			this.handle = methodHandle.asType(MethodType.methodType(Object.class, Object.class));
+
+			Class returnType = methodHandle.type().returnType();
+			if (returnType.isPrimitive()) {
+				this.primitiveType = returnType;
+				this.primitiveHandle = methodHandle.asType(MethodType.methodType(returnType, Object.class));
+			} else {
+				this.primitiveType = null;
+				this.primitiveHandle = null;
+			}
+		}
+
+		@Override
+		public Object invokeGetter(Object target) throws InvocationTargetException {
+			try {
+				return (Object) handle.invokeExact(target);
+			}
+			catch (Throwable throwable) {
+				throw new InvocationTargetException(throwable);
+			}
+		}
+
+		@Override
+		public int invokeIntGetter(Object target) throws InvocationTargetException, IllegalAccessException {
+			if (primitiveType != int.class) {
+				return super.invokeIntGetter(target);
+			}
+			try {
+				return (int) primitiveHandle.invokeExact(target);
+			}
+			catch (Throwable throwable) {
+				throw new InvocationTargetException(throwable);
+			}
+		}
+
+		@Override
+		public long invokeLongGetter(Object target) throws InvocationTargetException, IllegalAccessException {
+			if (primitiveType != long.class) {
+				return super.invokeLongGetter(target);
+			}
+			try {
+				return (long) primitiveHandle.invokeExact(target);
+			}
+			catch (Throwable throwable) {
+				throw new InvocationTargetException(throwable);
+			}
+		}
+
+		@Override
+		public double invokeDoubleGetter(Object target) throws InvocationTargetException, IllegalAccessException {
+			if (primitiveType != double.class) {
+				return super.invokeDoubleGetter(target);
+			}
+			try {
+				return (double) primitiveHandle.invokeExact(target);
+			}
+			catch (Throwable throwable) {
+				throw new InvocationTargetException(throwable);
+			}
+		}
+
+		@Override
+		public boolean invokeBooleanGetter(Object target) throws InvocationTargetException, IllegalAccessException {
+			if (primitiveType != boolean.class) {
+				return super.invokeBooleanGetter(target);
+			}
+			try {
+				return (boolean) primitiveHandle.invokeExact(target);
+			}
+			catch (Throwable throwable) {
+				throw new InvocationTargetException(throwable);
+			}
+		}
+	}
+
+	/**
+	 * Setter that invokes generic and, for primitive properties, exact method handle.
+	 */
+	static class MethodHandleSetter extends CompiledSetter {
+		private final MethodHandle handle;
+		private final MethodHandle primitiveHandle;
+		private final Class primitiveType;
+
+		MethodHandleSetter(Setter setter, MethodHandle methodHandle) {
+			super(setter);
+			this.handle = methodHandle.asType(MethodType.methodType(void.class, Object.class, Object.class));
+
+			Class parameterType = methodHandle.type().parameterType(1);
+			if (parameterType.isPrimitive()) {
+				this.primitiveType = parameterType;
+				this.primitiveHandle = methodHandle.asType(MethodType.methodType(void.class, Object.class, parameterType));
+			} else {
+				this.primitiveType = null;
+				this.primitiveHandle = null;
+			}
+		}
+
+		@Override
+		public void invokeSetter(Object target, Object argument) throws InvocationTargetException {
+			try {
+				handle.invokeExact(target, argument);
+			}
+			catch (Throwable throwable) {
+				throw new InvocationTargetException(throwable);
+			}
+		}
+
+		@Override
+		public void invokeIntSetter(Object target, int argument) throws IllegalAccessException, InvocationTargetException {
+			if (primitiveType != int.class) {
+				super.invokeIntSetter(target, argument);
+				return;
+			}
+			try {
+				primitiveHandle.invokeExact(target, argument);
+			}
+			catch (Throwable throwable) {
+				throw new InvocationTargetException(throwable);
+			}
+		}
+
+		@Override
+		public void invokeLongSetter(Object target, long argument) throws IllegalAccessException, InvocationTargetException {
+			if (primitiveType != long.class) {
+				super.invokeLongSetter(target, argument);
+				return;
+			}
+			try {
+				primitiveHandle.invokeExact(target, argument);
+			}
+			catch (Throwable throwable) {
+				throw new InvocationTargetException(throwable);
+			}
+		}
+
+		@Override
+		public void invokeDoubleSetter(Object target, double argument) throws IllegalAccessException, InvocationTargetException {
+			if (primitiveType != double.class) {
+				super.invokeDoubleSetter(target, argument);
+				return;
+			}
+			try {
+				primitiveHandle.invokeExact(target, argument);
+			}
+			catch (Throwable throwable) {
+				throw new InvocationTargetException(throwable);
+			}
+		}
+
+		@Override
+		public void invokeBooleanSetter(Object target, boolean argument) throws IllegalAccessException, InvocationTargetException {
+			if (primitiveType != boolean.class) {
+				super.invokeBooleanSetter(target, argument);
+				return;
+			}
+			try {
+				primitiveHandle.invokeExact(target, argument);
+			}
+			catch (Throwable throwable) {
+				throw new InvocationTargetException(throwable);
+			}
+		}
+	}
+
+	// ---------------------------------------------------------------- lambdas
+
+	/**
+	 * Getter that invokes generated functional objects.
+	 */
+	static class LambdaGetter extends CompiledGetter {
+		private final Function<Object, Object> function;
+		private final ToIntFunction<Object> intFunction;
+		private final ToLongFunction<Object> longFunction;
+		private final ToDoubleFunction<Object> doubleFunction;
+		private final Predicate<Object> booleanFunction;
+
+		@SuppressWarnings("unchecked")
+		private LambdaGetter(Getter getter, MethodHandle methodHandle) throws Throwable {
+			super(getter);
+			this.function = (Function<Object, Object>) metafactory(
+				"apply", Function.class, MethodType.methodType(Object.class, Object.class), methodHandle, methodHandle.type().wrap());
+
+			Class returnType = methodHandle.type().returnType();
+
+			this.intFunction = returnType != int.class ? null : (ToIntFunction<Object>) metafactory(
+				"applyAsInt", ToIntFunction.class, MethodType.methodType(int.class, Object.class), methodHandle, methodHandle.type());
+			this.longFunction = returnType != long.class ? null : (ToLongFunction<Object>) metafactory(
+				"applyAsLong", ToLongFunction.class, MethodType.methodType(long.class, Object.class), methodHandle, methodHandle.type());
+			this.doubleFunction = returnType != double.class ? null : (ToDoubleFunction<Object>) metafactory(
+				"applyAsDouble", ToDoubleFunction.class, MethodType.methodType(double.class, Object.class), methodHandle, methodHandle.type());
+			this.booleanFunction = returnType != boolean.class ? null : (Predicate<Object>) metafactory(
+				"test", Predicate.class, MethodType.methodType(boolean.class, Object.class), methodHandle, methodHandle.type());
+		}
+
+		/**
+		 * Creates lambda getter or returns <code>null</code> if method can not be accessed this way.
+		 */
+		static Getter create(Getter getter, Method method, MethodHandle methodHandle) {
+			if (!isAccessible(method) || !isVisible(method.getReturnType())) {
+				return null;
+			}
+			try {
+				return new LambdaGetter(getter, methodHandle);
+			}
+			catch (Throwable ignore) {
+				return null;
+			}
+		}
+
+		@Override
+		public Object invokeGetter(Object target) throws InvocationTargetException {
+			try {
+				return function.apply(target);
+			}
+			catch (Throwable throwable) {
+				throw new InvocationTargetException(throwable);
+			}
+		}
+
+		@Override
+		public int invokeIntGetter(Object target) throws InvocationTargetException, IllegalAccessException {
+			if (intFunction == null) {
+				return super.invokeIntGetter(target);
+			}
+			try {
+				return intFunction.applyAsInt(target);
+			}
+			catch (Throwable throwable) {
+				throw new InvocationTargetException(throwable);
+			}
+		}
+
+		@Override
+		public long invokeLongGetter(Object target) throws InvocationTargetException, IllegalAccessException {
+			if (longFunction == null) {
+				return super.invokeLongGetter(target);
+			}
+			try {
+				return longFunction.applyAsLong(target);
+			}
+			catch (Throwable throwable) {
+				throw new InvocationTargetException(throwable);
+			}
+		}
+
+		@Override
+		public double invokeDoubleGetter(Object target) throws InvocationTargetException, IllegalAccessException {
+			if (doubleFunction == null) {
+				return super.invokeDoubleGetter(target);
+			}
+			try {
+				return doubleFunction.applyAsDouble(target);
+			}
+			catch (Throwable throwable) {
+				throw new InvocationTargetException(throwable);
+			}
+		}
+
+		@Override
+		public boolean invokeBooleanGetter(Object target) throws InvocationTargetException, IllegalAccessException {
+			if (booleanFunction == null) {
+				return super.invokeBooleanGetter(target);
+			}
+			try {
+				return booleanFunction.test(target);
+			}
+			catch (Throwable throwable) {
+				throw new InvocationTargetException(throwable);
+			}
+		}
+	}
+
+	/**
+	 * Setter that invokes generated functional objects.
+	 */
+	static class LambdaSetter extends CompiledSetter {
+		private final BiConsumer<Object, Object> consumer;
+		private final ObjIntConsumer<Object> intConsumer;
+		private final ObjLongConsumer<Object> longConsumer;
+		private final ObjDoubleConsumer<Object> doubleConsumer;
+
+		@SuppressWarnings("unchecked")
+		private LambdaSetter(Setter setter, MethodHandle methodHandle) throws Throwable {
+			super(setter);
+			MethodType type = methodHandle.type().changeReturnType(void.class);
+
+			this.consumer = (BiConsumer<Object, Object>) metafactory(
+				"accept", BiConsumer.class, MethodType.methodType(void.class, Object.class, Object.class), methodHandle, type.wrap().changeReturnType(void.class));
+
+			Class parameterType = type.parameterType(1);
+
+			this.intConsumer = parameterType != int.class ? null : (ObjIntConsumer<Object>) metafactory(
+				"accept", ObjIntConsumer.class, MethodType.methodType(void.class, Object.class, int.class), methodHandle, type);
+			this.longConsumer = parameterType != long.class ? null : (ObjLongConsumer<Object>) metafactory(
+				"accept", ObjLongConsumer.class, MethodType.methodType(void.class, Object.class, long.class), methodHandle, type);
+			this.doubleConsumer = parameterType != double.class ? null : (ObjDoubleConsumer<Object>) metafactory(
+				"accept", ObjDoubleConsumer.class, MethodType.methodType(void.class, Object.class, double.class), methodHandle, type);
+		}
+
+		/**
+		 * Creates lambda setter or returns <code>null</code> if method can not be accessed this way.
+		 */
+		static Setter create(Setter setter, Method method, MethodHandle methodHandle) {
+			if (!isAccessible(method) || !isVisible(method.getParameterTypes()[0])) {
+				return null;
+			}
+			try {
+				return new LambdaSetter(setter, methodHandle);
+			}
+			catch (Throwable ignore) {
+				return null;
+			}
+		}
+
+		@Override
+		public void invokeSetter(Object target, Object argument) throws InvocationTargetException {
+			try {
+				consumer.accept(target, argument);
+			}
+			catch (Throwable throwable) {
+				throw new InvocationTargetException(throwable);
+			}
+		}
+
+		@Override
+		public void invokeIntSetter(Object target, int argument) throws IllegalAccessException, InvocationTargetException {
+			if (intConsumer == null) {
+				super.invokeIntSetter(target, argument);
+				return;
+			}
+			try {
+				intConsumer.accept(target, argument);
+			}
+			catch (Throwable throwable) {
+				throw new InvocationTargetException(throwable);
+			}
+		}
+
+		@Override
+		public void invokeLongSetter(Object target, long argument) throws IllegalAccessException, InvocationTargetException {
+			if (longConsumer == null) {
+				super.invokeLongSetter(target, argument);
+				return;
+			}
+			try {
+				longConsumer.accept(target, argument);
+			}
+			catch (Throwable throwable) {
+				throw new InvocationTargetException(throwable);
+			}
+		}
+
+		@Override
+		public void invokeDoubleSetter(Object target, double argument) throws IllegalAccessException, InvocationTargetException {
+			if (doubleConsumer == null) {
+				super.invokeDoubleSetter(target, argument);
+				return;
+			}
+			try {
+				doubleConsumer.accept(target, argument);
+			}
+			catch (Throwable throwable) {
+				throw new InvocationTargetException(throwable);
+			}
+		}
+	}
+
+	// ---------------------------------------------------------------- utilities
+
+	private static Object metafactory(String name, Class functionalInterface, MethodType samType, MethodHandle methodHandle, MethodType instantiatedType) throws Throwable {
+		CallSite callSite = LambdaMetafactory.metafactory(
+			LOOKUP,
+			name,
+			MethodType.methodType(functionalInterface),
+			samType,
+			methodHandle,
+			instantiatedType);
+
+		return callSite.getTarget().invoke();
+	}
+
+	/**
+	 * Returns <code>true</code> if public method is declared in a public type
+	 * that is visible from this class loader.
+	 */
+	private static boolean isAccessible(Method method) {
+		Class declaringClass = method.getDeclaringClass();
+
+		return
+			Modifier.isPublic(method.getModifiers()) &&
+			Modifier.isPublic(declaringClass.getModifiers()) &&
+			isVisible(declaringClass);
+	}
+
+	/**
+	 * Returns <code>true</code> if type can be resolved from this class loader,
+	 * as generated lambdas are defined there.
+	 */
+	private static boolean isVisible(Class type) {
+		while (type.isArray()) {
+			type = type.getComponentType();
+		}
+		if (type.isPrimitive()) {
+			return true;
+		}
+		try {
+			return Class.forName(type.getName(), false, Accessors.class.getClassLoader()) == type;
+		}
+		catch (ClassNotFoundException ignore) {
+			return false;
+		}
+	}
+
+}
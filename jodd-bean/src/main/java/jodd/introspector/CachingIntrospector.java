@@ -25,8 +25,8 @@
 
 package jodd.introspector;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Default {@link jodd.introspector.ClassIntrospector introspector} that caches all class descriptors.
@@ -55,7 +55,7 @@ public class CachingIntrospector implements ClassIntrospector {
 	 * constructors.
 	 */
 	public CachingIntrospector(boolean scanAccessible, boolean enhancedProperties, boolean includeFieldsAsProperties, String[] propertyFieldPrefix) {
-		this.cache = new HashMap<>();
+		this.cache = new ConcurrentHashMap<>();
 		this.scanAccessible = scanAccessible;
 		this.enhancedProperties = enhancedProperties;
 		this.includeFieldsAsProperties = includeFieldsAsProperties;
@@ -178,15 +178,22 @@ public class ClassDescriptor {
 
 	// ---------------------------------------------------------------- fields
 
-	private Fields fields;
+	private volatile Fields fields;
 
 	/**
 	 * Returns {@link Fields fields collection}.
 	 * Creates new fields collection on first usage.
 	 */
 	protected Fields getFields() {
+		Fields fields = this.fields;
 		if (fields == null) {
-			fields = new Fields(this);
+			synchronized (this) {
+				fields = this.fields;
+				if (fields == null) {
+					fields = new Fields(this);
+					this.fields = fields;
+				}
+			}
 		}
 		return fields;
 	}
@@ -215,15 +222,22 @@ public class ClassDescriptor {
 
 	// ---------------------------------------------------------------- methods
 
-	private Methods methods;
+	private volatile Methods methods;
 
 	/**
 	 * Returns methods collection.
 	 * Creates new collection on first access.
 	 */
 	protected Methods getMethods() {
+		Methods methods = this.methods;
 		if (methods == null) {
-			methods = new Methods(this);
+			synchronized (this) {
+				methods = this.methods;
+				if (methods == null) {
+					methods = new Methods(this);
+					this.methods = methods;
+				}
+			}
 		}
 		return methods;
 	}
@@ -271,15 +285,22 @@ public class ClassDescriptor {
 
 	// ---------------------------------------------------------------- properties
 
-	private Properties properties;
+	private volatile Properties properties;
 
 	/**
 	 * Returns properties collection.
 	 * Creates new collection on first access.
 	 */
 	protected Properties getProperties() {
+		Properties properties = this.properties;
 		if (properties == null) {
-			properties = new Properties(this);
+			synchronized (this) {
+				properties = this.properties;
+				if (properties == null) {
+					properties = new Properties(this);
+					this.properties = properties;
+				}
+			}
 		}
 		return properties;
 	}
@@ -307,15 +328,22 @@ public class ClassDescriptor {
 
 	// ---------------------------------------------------------------- ctors
 
-	private Ctors ctors;
+	private volatile Ctors ctors;
 
 	/**
 	 * Returns constructors collection.
 	 * Creates new collection of first access.
 	 */
 	protected Ctors getCtors() {
+		Ctors ctors = this.ctors;
 		if (ctors == null) {
-			ctors = new Ctors(this);
+			synchronized (this) {
+				ctors = this.ctors;
+				if (ctors == null) {
+					ctors = new Ctors(this);
+					this.ctors = ctors;
+				}
+			}
 		}
 		return ctors;
 	}
@@ -0,0 +1,68 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.introspector;
+
+/**
+ * {@link Getter} compiled from a method or field descriptor,
+ * that is still used for all type information.
+ * @see AccessorStrategy
+ */
+public abstract class CompiledGetter implements Getter {
+
+	protected final Getter getter;
+
+	protected CompiledGetter(Getter getter) {
+		this.getter = getter;
+	}
+
+	/**
+	 * Returns the method or field descriptor this getter is compiled from.
+	 */
+	public Getter getDescriptor() {
+		return getter;
+	}
+
+	@Override
+	public Class getGetterRawType() {
+		return getter.getGetterRawType();
+	}
+
+	@Override
+	public Class getGetterRawComponentType() {
+		return getter.getGetterRawComponentType();
+	}
+
+	@Override
+	public Class getGetterRawKeyComponentType() {
+		return getter.getGetterRawKeyComponentType();
+	}
+
+	@Override
+	public String toString() {
+		return getter.toString();
+	}
+
+}
@@ -0,0 +1,172 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.introspector;
+
+import jodd.bean.BeanException;
+import jodd.io.findfile.ClassScanner;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Thread-safe {@link ClassIntrospector} that caches class descriptors in a
+ * concurrent map. Each descriptor is computed only once, even when many threads
+ * look up the same type on cold start; the other threads simply wait for it.
+ * Lookups of already described classes are lock-free and do not update any
+ * shared state, so {@link ClassDescriptor#getUsageCount() usage count} is not
+ * tracked. Descriptor sections (fields, methods, properties, ctors) are still
+ * built lazily, on first access.
+ * <p>
+ * Descriptors may be created eagerly by {@link #warmUp(Class[]) warming up}
+ * the introspector, either with given types or with classes found by
+ * the {@link ClassScanner}.
+ */
+public class ConcurrentIntrospector implements ClassIntrospector {
+
+	protected final ConcurrentMap<Class, ClassDescriptor> cache;
+	protected final boolean scanAccessible;
+	protected final boolean enhancedProperties;
+	protected final boolean includeFieldsAsProperties;
+	protected final String[] propertyFieldPrefix;
+
+	/**
+	 * Default constructor.
+	 */
+	public ConcurrentIntrospector() {
+		this(true, true, true, null);
+	}
+
+	/**
+	 * Creates new concurrent {@link ClassIntrospector}. It may scan
+	 * <b>accessible</b> or <b>supported</b> fields, methods or
+	 * constructors.
+	 */
+	public ConcurrentIntrospector(boolean scanAccessible, boolean enhancedProperties, boolean includeFieldsAsProperties, String[] propertyFieldPrefix) {
+		this.cache = new ConcurrentHashMap<>();
+		this.scanAccessible = scanAccessible;
+		this.enhancedProperties = enhancedProperties;
+		this.includeFieldsAsProperties = includeFieldsAsProperties;
+		this.propertyFieldPrefix = propertyFieldPrefix;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public ClassDescriptor lookup(Class type) {
+		ClassDescriptor cd = cache.get(type);
+		if (cd != null) {
+			return cd;
+		}
+		return cache.computeIfAbsent(type, this::describeClass);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public ClassDescriptor register(Class type) {
+		ClassDescriptor cd = describeClass(type);
+		cache.put(type, cd);
+		return cd;
+	}
+
+	/**
+	 * Describes a class by creating a new instance of {@link ClassDescriptor}
+	 * that examines all accessible methods and fields.
+	 */
+	protected ClassDescriptor describeClass(Class type) {
+		return new ClassDescriptor(type, scanAccessible, enhancedProperties, includeFieldsAsProperties, propertyFieldPrefix);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void reset() {
+		cache.clear();
+	}
+
+	/**
+	 * Returns number of cached class descriptors.
+	 */
+	public int size() {
+		return cache.size();
+	}
+
+	// ---------------------------------------------------------------- warm-up
+
+	/**
+	 * Eagerly describes given types, including all their descriptor sections.
+	 */
+	public ConcurrentIntrospector warmUp(Class... types) {
+		for (Class type : types) {
+			warmUp(type);
+		}
+		return this;
+	}
+
+	/**
+	 * Eagerly describes a single type and builds all its sections.
+	 */
+	protected void warmUp(Class type) {
+		ClassDescriptor cd = lookup(type);
+
+		cd.getFields();
+		cd.getMethods();
+		cd.getProperties();
+		cd.getCtors();
+	}
+
+	/**
+	 * Registers a callback on given {@link ClassScanner} that warms up
+	 * every scanned class. Resources are ignored, as well as classes that
+	 * can not be loaded when scanner ignores exceptions. Returns the scanner,
+	 * so the scanning may be started right away.
+	 */
+	public ClassScanner warmUp(ClassScanner classScanner) {
+		return classScanner.onEntry(entryData -> {
+			String name = entryData.name();
+
+			if (name.startsWith("/")) {
+				return;
+			}
+
+			Class type;
+			try {
+				type = classScanner.loadClass(name);
+			}
+			catch (ClassNotFoundException cnfex) {
+				throw new BeanException("Unable to load class: " + cnfex, cnfex);
+			}
+
+			if (type != null) {
+				warmUp(type);
+			}
+		});
+	}
+
+}
@@ -34,6 +34,34 @@ public interface Getter {
 
 	Object invokeGetter(Object target) throws InvocationTargetException, IllegalAccessException;
 
+	/**
+	 * Returns <code>int</code> value without boxing, when supported by implementation.
+	 */
+	default int invokeIntGetter(Object target) throws InvocationTargetException, IllegalAccessException {
+		return ((Number) invokeGetter(target)).intValue();
+	}
+
+	/**
+	 * Returns <code>long</code> value without boxing, when supported by implementation.
+	 */
+	default long invokeLongGetter(Object target) throws InvocationTargetException, IllegalAccessException {
+		return ((Number) invokeGetter(target)).longValue();
+	}
+
+	/**
+	 * Returns <code>double</code> value without boxing, when supported by implementation.
+	 */
+	default double invokeDoubleGetter(Object target) throws InvocationTargetException, IllegalAccessException {
+		return ((Number) invokeGetter(target)).doubleValue();
+	}
+
+	/**
+	 * Returns <code>boolean</code> value without boxing, when supported by implementation.
+	 */
+	default boolean invokeBooleanGetter(Object target) throws InvocationTargetException, IllegalAccessException {
+		return ((Boolean) invokeGetter(target)).booleanValue();
+	}
+
 	Class getGetterRawType();
 
 	Class getGetterRawComponentType();
@@ -25,6 +25,8 @@
 
 package jodd.introspector;
 
+import jodd.bean.JoddBean;
+
 /**
  * Property descriptor. It consist of read, write and field descriptor.
  * Only one of those three descriptors may exist.
@@ -197,13 +199,16 @@ public class PropertyDescriptor extends Descriptor {
 
 	/**
 	 * Returns {@link Getter}. May return <code>null</code>
-	 * if no matched getter is found.
+	 * if no matched getter is found. Getter is compiled
+	 * using the {@link AccessorStrategy} defined in {@link JoddBean}.
 	 */
 	public Getter getGetter(boolean declared) {
 		if (getters == null) {
+			AccessorStrategy strategy = JoddBean.get().accessorStrategy();
+
 			getters = new Getter[] {
-					createGetter(false),
-					createGetter(true),
+					Accessors.getter(createGetter(false), strategy),
+					Accessors.getter(createGetter(true), strategy),
 			};
 		}
 
@@ -230,13 +235,16 @@ public class PropertyDescriptor extends Descriptor {
 
 	/**
 	 * Returns {@link Setter}. May return <code>null</code>
-	 * if no matched setter is found.
+	 * if no matched setter is found. Setter is compiled
+	 * using the {@link AccessorStrategy} defined in {@link JoddBean}.
 	 */
 	public Setter getSetter(boolean declared) {
 		if (setters == null) {
+			AccessorStrategy strategy = JoddBean.get().accessorStrategy();
+
 			setters = new Setter[] {
-					createSetter(false),
-					createSetter(true),
+					Accessors.setter(createSetter(false), strategy),
+					Accessors.setter(createSetter(true), strategy),
 			};
 		}
 
@@ -34,6 +34,34 @@ public interface Setter {
 
 	void invokeSetter(Object target, Object argument) throws IllegalAccessException, InvocationTargetException;
 
+	/**
+	 * Sets <code>int</code> value without boxing, when supported by implementation.
+	 */
+	default void invokeIntSetter(Object target, int argument) throws IllegalAccessException, InvocationTargetException {
+		invokeSetter(target, Integer.valueOf(argument));
+	}
+
+	/**
+	 * Sets <code>long</code> value without boxing, when supported by implementation.
+	 */
+	default void invokeLongSetter(Object target, long argument) throws IllegalAccessException, InvocationTargetException {
+		invokeSetter(target, Long.valueOf(argument));
+	}
+
+	/**
+	 * Sets <code>double</code> value without boxing, when supported by implementation.
+	 */
+	default void invokeDoubleSetter(Object target, double argument) throws IllegalAccessException, InvocationTargetException {
+		invokeSetter(target, Double.valueOf(argument));
+	}
+
+	/**
+	 * Sets <code>boolean</code> value without boxing, when supported by implementation.
+	 */
+	default void invokeBooleanSetter(Object target, boolean argument) throws IllegalAccessException, InvocationTargetException {
+		invokeSetter(target, Boolean.valueOf(argument));
+	}
+
 	Class getSetterRawType();
 
 	Class getSetterRawComponentType();
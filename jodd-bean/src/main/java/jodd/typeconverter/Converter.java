@@ -27,6 +27,9 @@ package jodd.typeconverter;
 
 import jodd.bean.JoddBean;
 import jodd.datetime.JDateTime;
+import jodd.typeconverter.impl.DoubleConverter;
+import jodd.typeconverter.impl.IntegerConverter;
+import jodd.typeconverter.impl.LongConverter;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
@@ -103,6 +106,74 @@ public class Converter {
 		}
 	}
 
+	// ---------------------------------------------------------------- char sequence
+
+	/**
+	 * Converts char sequence to <code>int</code> without boxing. Returns
+	 * default value for <code>null</code>. Parsing is done in place
+	 * unless custom <code>int</code> converter is registered.
+	 */
+	public int toIntValue(CharSequence value, int defaultValue) {
+		if (value == null) {
+			return defaultValue;
+		}
+		if (typeConverters[3].getClass() == IntegerConverter.class) {
+			return IntegerConverter.parseInt(value);
+		}
+		return toIntValue((Object) value, defaultValue);
+	}
+
+	/**
+	 * Converts char sequence to <code>int</code> with common default value.
+	 */
+	public int toIntValue(CharSequence value) {
+		return toIntValue(value, 0);
+	}
+
+	/**
+	 * Converts char sequence to <code>long</code> without boxing. Returns
+	 * default value for <code>null</code>. Parsing is done in place
+	 * unless custom <code>long</code> converter is registered.
+	 */
+	public long toLongValue(CharSequence value, long defaultValue) {
+		if (value == null) {
+			return defaultValue;
+		}
+		if (typeConverters[5].getClass() == LongConverter.class) {
+			return LongConverter.parseLong(value);
+		}
+		return toLongValue((Object) value, defaultValue);
+	}
+
+	/**
+	 * Converts char sequence to <code>long</code> with common default value.
+	 */
+	public long toLongValue(CharSequence value) {
+		return toLongValue(value, 0);
+	}
+
+	/**
+	 * Converts char sequence to <code>double</code> without boxing. Returns
+	 * default value for <code>null</code>. Parsing is done in place
+	 * unless custom <code>double</code> converter is registered.
+	 */
+	public double toDoubleValue(CharSequence value, double defaultValue) {
+		if (value == null) {
+			return defaultValue;
+		}
+		if (typeConverters[9].getClass() == DoubleConverter.class) {
+			return DoubleConverter.parseDouble(value);
+		}
+		return toDoubleValue((Object) value, defaultValue);
+	}
+
+	/**
+	 * Converts char sequence to <code>double</code> with common default value.
+	 */
+	public double toDoubleValue(CharSequence value) {
+		return toDoubleValue(value, 0);
+	}
+
 	// ---------------------------------------------------------------- @@generated
 
 	/**
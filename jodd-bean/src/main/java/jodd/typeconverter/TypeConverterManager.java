@@ -26,6 +26,7 @@
 package jodd.typeconverter;
 
 import jodd.bean.JoddBean;
+import jodd.cache.ConcurrentLRUCache;
 import jodd.datetime.JDateTime;
 import jodd.mutable.MutableByte;
 import jodd.mutable.MutableDouble;
@@ -88,6 +89,7 @@ import java.util.Collection;
 import java.util.GregorianCalendar;
 import java.util.HashMap;
 import java.util.Locale;
+import java.util.Map;
 import java.util.TimeZone;
 
 /**
@@ -104,6 +106,7 @@ public class TypeConverterManager {
 	}
 
 	private final HashMap<Class, TypeConverter> converters = new HashMap<>(70);
+	private volatile ConcurrentLRUCache<Conversion, TypeConverter> conversions = newConversionsCache();
 	private final Converter converter;
 
 	// ---------------------------------------------------------------- methods
@@ -259,6 +262,7 @@ public class TypeConverterManager {
 	public void register(Class type, TypeConverter typeConverter) {
 		converter.register(type, typeConverter);
 		converters.put(type, typeConverter);
+		conversions = newConversionsCache();
 	}
 
 	/**
@@ -267,6 +271,7 @@ public class TypeConverterManager {
 	public void unregister(Class type) {
 		converter.register(type, null);
 		converters.remove(type);
+		conversions = newConversionsCache();
 	}
 
 	// ---------------------------------------------------------------- lookup
@@ -281,68 +286,155 @@ public class TypeConverterManager {
 		return converters.get(type);
 	}
 
-	// ---------------------------------------------------------------- converter
+	/**
+	 * Resolves conversion from source type to the destination type. Resolved
+	 * conversions are cached per type pair in a bounded cache, so arrays, enums,
+	 * collections and instances are examined only once. Cache is replaced on
+	 * (un)registration, so conversions resolved concurrently with the old
+	 * converters are discarded.
+	 * Returned converter expects non-<code>null</code> values of exactly
+	 * the source type.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> TypeConverter<T> lookup(Class sourceType, Class<T> destinationType) {
+		final ConcurrentLRUCache<Conversion, TypeConverter> conversions = this.conversions;
+
+		Conversion conversion = new Conversion(sourceType, destinationType);
+
+		TypeConverter typeConverter = conversions.get(conversion);
+
+		if (typeConverter == null) {
+			typeConverter = resolve(sourceType, destinationType);
+			conversions.put(conversion, typeConverter);
+		}
+		return typeConverter;
+	}
+
+	private static ConcurrentLRUCache<Conversion, TypeConverter> newConversionsCache() {
+		return new ConcurrentLRUCache<>(1000);
+	}
 
 	/**
-	 * Converts an object to destination type. If type is registered, it's
-	 * {@link TypeConverter} will be used. If not, it scans of destination is
-	 * an array or enum, as those two cases are handled in a special way.
-	 * <p>
-	 * If destination type is one of common types, consider using {@link Converter}
-	 * instead for somewhat faster approach (no lookup).
+	 * Conversion cache key: a pair of source and destination type.
 	 */
-	@SuppressWarnings({"unchecked"})
-	public <T> T convertType(Object value, Class<T> destinationType) {
-		if (destinationType == Object.class) {
-			// no conversion :)
-			return (T) value;
+	private static final class Conversion {
+		private final Class sourceType;
+		private final Class destinationType;
+		private final int hashCode;
+
+		private Conversion(Class sourceType, Class destinationType) {
+			this.sourceType = sourceType;
+			this.destinationType = destinationType;
+			this.hashCode = 31 * sourceType.hashCode() + destinationType.hashCode();
 		}
-		TypeConverter converter = lookup(destinationType);
 
-		if (converter != null) {
-			return (T) converter.convert(value);
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Conversion)) {
+				return false;
+			}
+			Conversion conversion = (Conversion) o;
+			return sourceType == conversion.sourceType && destinationType == conversion.destinationType;
 		}
 
-		// no converter
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+	}
 
-		if (value == null) {
-			return null;
+	/**
+	 * Resolves conversion for a type pair, following the rules
+	 * of {@link #convertType(Object, Class)}.
+	 */
+	@SuppressWarnings("unchecked")
+	protected TypeConverter resolve(Class sourceType, Class destinationType) {
+		if (destinationType == Object.class) {
+			return value -> value;
+		}
+
+		TypeConverter typeConverter = lookup(destinationType);
+
+		if (typeConverter != null) {
+			return typeConverter;
 		}
 
 		// handle destination arrays
 		if (destinationType.isArray()) {
-			ArrayConverter<T> arrayConverter = new ArrayConverter(this, destinationType.getComponentType());
-
-			return (T) arrayConverter.convert(value);
+			return new ArrayConverter(this, destinationType.getComponentType());
 		}
 
+		TypeConverter fallback = resolveInstance(sourceType, destinationType);
+
 		// handle enums
 		if (destinationType.isEnum()) {
-			Object[] enums = destinationType.getEnumConstants();
-			String valStr = value.toString();
-			for (Object e : enums) {
-				if (e.toString().equals(valStr)) {
-					return (T) e;
-				}
+			Map<String, Object> enums = new HashMap<>();
+			for (Object e : destinationType.getEnumConstants()) {
+				enums.putIfAbsent(e.toString(), e);
 			}
+			return value -> {
+				Object e = enums.get(value.toString());
+				if (e != null) {
+					return e;
+				}
+				return fallback.convert(value);
+			};
 		}
 
+		return fallback;
+	}
+
+	@SuppressWarnings("unchecked")
+	private TypeConverter resolveInstance(Class sourceType, Class destinationType) {
 		// check same instances
-		if (ClassUtil.isInstanceOf(value, destinationType)) {
-			return (T) value;
+		if (ClassUtil.isTypeOf(sourceType, destinationType)) {
+			return value -> value;
 		}
 
 		// collection
 		if (ClassUtil.isTypeOf(destinationType, Collection.class)) {
 			// component type is unknown because of Java's type-erasure
-			CollectionConverter<T> collectionConverter =
-					new CollectionConverter(this, destinationType, Object.class);
-
-			return (T) collectionConverter.convert(value);
+			return new CollectionConverter(this, destinationType, Object.class);
 		}
 
 		// fail
-		throw new TypeConversionException("Conversion failed: " + destinationType.getName());
+		return value -> {
+			throw new TypeConversionException("Conversion failed: " + destinationType.getName());
+		};
+	}
+
+	// ---------------------------------------------------------------- converter
+
+	/**
+	 * Converts an object to destination type. If type is registered, it's
+	 * {@link TypeConverter} will be used. If not, it scans of destination is
+	 * an array or enum, as those two cases are handled in a special way.
+	 * <p>
+	 * If destination type is one of common types, consider using {@link Converter}
+	 * instead for somewhat faster approach (no lookup).
+	 */
+	@SuppressWarnings({"unchecked"})
+	public <T> T convertType(Object value, Class<T> destinationType) {
+		if (destinationType == Object.class) {
+			// no conversion :)
+			return (T) value;
+		}
+		TypeConverter converter = lookup(destinationType);
+
+		if (converter != null) {
+			return (T) converter.convert(value);
+		}
+
+		// no converter
+
+		if (value == null) {
+			return null;
+		}
+
+		return (T) lookup(value.getClass(), destinationType).convert(value);
 	}
 
 	/**
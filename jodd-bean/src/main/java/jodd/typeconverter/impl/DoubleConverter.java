@@ -56,12 +56,87 @@ public class DoubleConverter implements TypeConverter<Double> {
 			return ((Boolean) value).booleanValue() ? Double.valueOf(1) : Double.valueOf(0);
 		}
 
+		if (value instanceof CharSequence) {
+			return Double.valueOf(parseDouble((CharSequence) value));
+		}
+		return Double.valueOf(parseDouble(value.toString()));
+	}
+
+	private static final double[] POW10 = {
+		1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15
+	};
+
+	/**
+	 * Parses char sequence to <code>double</code> using the same rules as
+	 * {@link #convert(Object)}, without creating intermediate strings or
+	 * wrappers. Plain decimal numbers with up to 15 digits are parsed in
+	 * place, as both the digits and the power of ten are exact doubles and
+	 * single division gives the correctly rounded result. Everything else
+	 * (exponents, long numbers, NaN...) falls back to <code>Double.parseDouble</code>.
+	 */
+	public static double parseDouble(CharSequence value) {
+		int end = value.length();
+		int ndx = 0;
+
+		while (ndx < end && value.charAt(ndx) <= ' ') {
+			ndx++;
+		}
+		while (end > ndx && value.charAt(end - 1) <= ' ') {
+			end--;
+		}
+		if (ndx < end && value.charAt(ndx) == '+') {
+			ndx++;
+		}
+
+		boolean negative = false;
+
+		if (ndx < end) {
+			char c = value.charAt(ndx);
+			if (c == '-') {
+				negative = true;
+				ndx++;
+			}
+			else if (c == '+') {
+				ndx++;
+			}
+		}
+
+		long mantissa = 0;
+		int digits = 0;
+		int dot = -1;
+
+		for (int i = ndx; i < end; i++) {
+			char c = value.charAt(i);
+			if (c == '.' && dot == -1) {
+				dot = digits;
+				continue;
+			}
+			int digit = c - '0';
+			if (digit < 0 || digit > 9 || digits == 15) {
+				return parseDoubleValue(value);
+			}
+			mantissa = mantissa * 10 + digit;
+			digits++;
+		}
+
+		if (digits == 0) {
+			return parseDoubleValue(value);
+		}
+
+		double result = mantissa;
+		if (dot != -1) {
+			result /= POW10[digits - dot];
+		}
+		return negative ? -result : result;
+	}
+
+	private static double parseDoubleValue(CharSequence value) {
 		try {
 			String stringValue = value.toString().trim();
 			if (StringUtil.startsWithChar(stringValue, '+')) {
 				stringValue = stringValue.substring(1);
 			}
-			return Double.valueOf(stringValue);
+			return Double.parseDouble(stringValue);
 		} catch (NumberFormatException nfex) {
 			throw new TypeConversionException(value, nfex);
 		}
@@ -56,12 +56,69 @@ public class IntegerConverter implements TypeConverter<Integer> {
 			return ((Boolean) value).booleanValue() ? Integer.valueOf(1) : Integer.valueOf(0);
 		}
 
+		if (value instanceof CharSequence) {
+			return Integer.valueOf(parseInt((CharSequence) value));
+		}
+		return Integer.valueOf(parseInt(value.toString()));
+	}
+
+	/**
+	 * Parses char sequence to <code>int</code> using the same rules as
+	 * {@link #convert(Object)}, without creating intermediate strings or
+	 * wrappers. Plain decimal numbers are parsed in place; everything else
+	 * falls back to <code>Integer.parseInt</code>.
+	 */
+	public static int parseInt(CharSequence value) {
+		int end = value.length();
+		int ndx = 0;
+
+		while (ndx < end && value.charAt(ndx) <= ' ') {
+			ndx++;
+		}
+		while (end > ndx && value.charAt(end - 1) <= ' ') {
+			end--;
+		}
+		if (ndx < end && value.charAt(ndx) == '+') {
+			ndx++;
+		}
+
+		boolean negative = false;
+
+		if (ndx < end) {
+			char c = value.charAt(ndx);
+			if (c == '-') {
+				negative = true;
+				ndx++;
+			}
+			else if (c == '+') {
+				ndx++;
+			}
+		}
+
+		int digits = end - ndx;
+
+		if (digits > 0 && digits <= 9) {
+			int result = 0;
+			for (int i = ndx; i < end; i++) {
+				int digit = value.charAt(i) - '0';
+				if (digit < 0 || digit > 9) {
+					return parseIntValue(value);
+				}
+				result = result * 10 + digit;
+			}
+			return negative ? -result : result;
+		}
+
+		return parseIntValue(value);
+	}
+
+	private static int parseIntValue(CharSequence value) {
 		try {
 			String stringValue = value.toString().trim();
 			if (StringUtil.startsWithChar(stringValue, '+')) {
 				stringValue = stringValue.substring(1);
 			}
-			return Integer.valueOf(stringValue);
+			return Integer.parseInt(stringValue);
 		} catch (NumberFormatException nfex) {
 			throw new TypeConversionException(value, nfex);
 		}
@@ -56,12 +56,69 @@ public class LongConverter implements TypeConverter<Long> {
 			return ((Boolean) value).booleanValue() ? Long.valueOf(1L) : Long.valueOf(0L);
 		}
 
+		if (value instanceof CharSequence) {
+			return Long.valueOf(parseLong((CharSequence) value));
+		}
+		return Long.valueOf(parseLong(value.toString()));
+	}
+
+	/**
+	 * Parses char sequence to <code>long</code> using the same rules as
+	 * {@link #convert(Object)}, without creating intermediate strings or
+	 * wrappers. Plain decimal numbers are parsed in place; everything else
+	 * falls back to <code>Long.parseLong</code>.
+	 */
+	public static long parseLong(CharSequence value) {
+		int end = value.length();
+		int ndx = 0;
+
+		while (ndx < end && value.charAt(ndx) <= ' ') {
+			ndx++;
+		}
+		while (end > ndx && value.charAt(end - 1) <= ' ') {
+			end--;
+		}
+		if (ndx < end && value.charAt(ndx) == '+') {
+			ndx++;
+		}
+
+		boolean negative = false;
+
+		if (ndx < end) {
+			char c = value.charAt(ndx);
+			if (c == '-') {
+				negative = true;
+				ndx++;
+			}
+			else if (c == '+') {
+				ndx++;
+			}
+		}
+
+		int digits = end - ndx;
+
+		if (digits > 0 && digits <= 18) {
+			long result = 0;
+			for (int i = ndx; i < end; i++) {
+				int digit = value.charAt(i) - '0';
+				if (digit < 0 || digit > 9) {
+					return parseLongValue(value);
+				}
+				result = result * 10 + digit;
+			}
+			return negative ? -result : result;
+		}
+
+		return parseLongValue(value);
+	}
+
+	private static long parseLongValue(CharSequence value) {
 		try {
 			String stringValue = value.toString().trim();
 			if (StringUtil.startsWithChar(stringValue, '+')) {
 				stringValue = stringValue.substring(1);
 			}
-			return Long.valueOf(stringValue);
+			return Long.parseLong(stringValue);
 		} catch (NumberFormatException nfex) {
 			throw new TypeConversionException(value, nfex);
 		}
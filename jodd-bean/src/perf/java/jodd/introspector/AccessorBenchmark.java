@@ -0,0 +1,129 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.introspector;
+
+import jodd.bean.JoddBean;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares reflective and compiled property getters and setters.
+ *
+ * Run:
+ * <code>
+ * gw :jodd-bean:AccessorBenchmark
+ * </code>
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@State(Scope.Benchmark)
+public class AccessorBenchmark {
+
+	public static class Item {
+		private String name = "jodd";
+		private int count = 173;
+
+		public String getName() {
+			return name;
+		}
+		public void setName(String name) {
+			this.name = name;
+		}
+		public int getCount() {
+			return count;
+		}
+		public void setCount(int count) {
+			this.count = count;
+		}
+	}
+
+	@Param({"REFLECTION", "METHOD_HANDLE", "LAMBDA"})
+	public AccessorStrategy strategy;
+
+	private final Item item = new Item();
+	private Getter nameGetter;
+	private Setter nameSetter;
+	private Getter countGetter;
+	private Setter countSetter;
+
+	private int value;
+
+	@Setup
+	public void setup() {
+		JoddBean.get().accessorStrategy(strategy);
+
+		ClassDescriptor cd = new ConcurrentIntrospector().lookup(Item.class);
+
+		nameGetter = cd.getPropertyDescriptor("name", true).getGetter(true);
+		nameSetter = cd.getPropertyDescriptor("name", true).getSetter(true);
+		countGetter = cd.getPropertyDescriptor("count", true).getGetter(true);
+		countSetter = cd.getPropertyDescriptor("count", true).getSetter(true);
+	}
+
+	@TearDown
+	public void tearDown() {
+		JoddBean.get().accessorStrategy(AccessorStrategy.REFLECTION);
+	}
+
+	@Benchmark
+	public Object getObject() throws Exception {
+		return nameGetter.invokeGetter(item);
+	}
+
+	@Benchmark
+	public void setObject() throws Exception {
+		nameSetter.invokeSetter(item, "jodd");
+	}
+
+	@Benchmark
+	public Object getBoxed() throws Exception {
+		return countGetter.invokeGetter(item);
+	}
+
+	@Benchmark
+	public void setBoxed() throws Exception {
+		countSetter.invokeSetter(item, Integer.valueOf(value++));
+	}
+
+	@Benchmark
+	public int getInt() throws Exception {
+		return countGetter.invokeIntGetter(item);
+	}
+
+	@Benchmark
+	public void setInt() throws Exception {
+		countSetter.invokeIntSetter(item, value++);
+	}
+
+}
@@ -0,0 +1,135 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.typeconverter;
+
+import jodd.bean.JoddBean;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * Compares boxing conversions with char sequence fast paths and
+ * measures conversions resolved by type pair.
+ *
+ * Run:
+ * <code>
+ * gw :jodd-bean:ConverterBenchmark
+ * </code>
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@State(Scope.Benchmark)
+public class ConverterBenchmark {
+
+	public enum Level {
+		LOW, MEDIUM, HIGH
+	}
+
+	private final Converter converter = JoddBean.get().converter();
+	private final TypeConverterManager typeConverterManager = JoddBean.get().typeConverterManager();
+
+	private final String intString = " 1234567 ";
+	private final String longString = "123456789012";
+	private final String doubleString = "-12345.678";
+	private final String dateString = "2017-07-22 10:20:30.400";
+	private final String enumString = "HIGH";
+
+	// ---------------------------------------------------------------- int
+
+	@Benchmark
+	public int int_toIntValue_Object() {
+		return converter.toIntValue((Object) intString);
+	}
+
+	@Benchmark
+	public int int_toIntValue_CharSequence() {
+		return converter.toIntValue(intString);
+	}
+
+	@Benchmark
+	public int int_parseInt() {
+		return Integer.parseInt(intString.trim());
+	}
+
+	// ---------------------------------------------------------------- long
+
+	@Benchmark
+	public long long_toLongValue_Object() {
+		return converter.toLongValue((Object) longString);
+	}
+
+	@Benchmark
+	public long long_toLongValue_CharSequence() {
+		return converter.toLongValue(longString);
+	}
+
+	// ---------------------------------------------------------------- double
+
+	@Benchmark
+	public double double_toDoubleValue_Object() {
+		return converter.toDoubleValue((Object) doubleString);
+	}
+
+	@Benchmark
+	public double double_toDoubleValue_CharSequence() {
+		return converter.toDoubleValue(doubleString);
+	}
+
+	@Benchmark
+	public double double_parseDouble() {
+		return Double.parseDouble(doubleString);
+	}
+
+	@Benchmark
+	public BigDecimal bigDecimal_convertType() {
+		return typeConverterManager.convertType(doubleString, BigDecimal.class);
+	}
+
+	// ---------------------------------------------------------------- other
+
+	@Benchmark
+	public Date date_convertType() {
+		return typeConverterManager.convertType(dateString, Date.class);
+	}
+
+	@Benchmark
+	public Level enum_convertType() {
+		return typeConverterManager.convertType(enumString, Level.class);
+	}
+
+	@Benchmark
+	public Level enum_valueOf() {
+		return Level.valueOf(enumString);
+	}
+
+}
@@ -27,6 +27,8 @@ package jodd.bean;
 
 import jodd.bean.fixtures.FooBean;
 import jodd.bean.fixtures.FooBeanString;
+import jodd.typeconverter.Converter;
+import jodd.typeconverter.TypeConverterManager;
 import jodd.util.Wildcard;
 import org.junit.jupiter.api.Test;
 
@@ -654,4 +656,101 @@ class BeanCopyTest {
 		assertEquals(43, beanDest.child.number);
 	}
 
+	@Test
+	void testCompiledCopy() {
+		FooBean fb = createFooBean();
+
+		FooBean dest = new FooBean();
+		FooBean expected = new FooBean();
+		BeanCopy.beans(fb, dest).compiled(true).copy();
+		BeanCopy.beans(fb, expected).copy();
+		assertSameProperties(expected, dest);
+
+		Converted converted = new Converted();
+		Converted expectedConverted = new Converted();
+		BeanCopy.beans(fb, converted).compiled(true).copy();
+		BeanCopy.beans(fb, expectedConverted).copy();
+		assertSameProperties(expectedConverted, converted);
+		assertEquals("202", converted.getFooint());
+		assertEquals(203, converted.getFooLong());
+		assertEquals(Double.valueOf(212.0), converted.getFoodouble());
+
+		FooBean empty = new FooBean();
+		BeanCopy.beans(empty, dest).compiled(true).copy();
+		BeanCopy.beans(empty, expected).copy();
+		assertSameProperties(expected, dest);
+		assertNull(dest.getFooInteger());
+	}
+
+	@Test
+	void testCompiledCopyRules() {
+		FooBean fb = createFooBean();
+
+		FooBean dest = new FooBean();
+		BeanCopy.beans(fb, dest).exclude("fooint", "fooString").compiled(true).copy();
+		assertEquals(0, dest.getFooint());
+		assertNull(dest.getFooString());
+		assertEquals(204, dest.getFoolong());
+
+		dest = new FooBean();
+		dest.setFooString("keep");
+		BeanCopy.beans(new FooBean(), dest).ignoreNulls(true).compiled(true).copy();
+		assertEquals("keep", dest.getFooString());
+
+		BeanCopyPlan.getPlanCache().clear();
+		BeanCopy.beans(fb, new FooBean()).compiled(true).copy();
+		BeanCopy.beans(fb, new FooBean()).compiled(true).copy();
+		assertEquals(1, BeanCopyPlan.getPlanCache().size());
+
+		// plan is compiled again for the replaced type converter manager
+		BeanCopyPlan plan = BeanCopyPlan.lookup(BeanCopy.beans(fb, new FooBean()), FooBean.class, FooBean.class);
+		TypeConverterManager typeConverterManager = JoddBean.get().typeConverterManager();
+		try {
+			JoddBean.get().typeConverterManager(new TypeConverterManager(new Converter()));
+			BeanCopyPlan newPlan = BeanCopyPlan.lookup(BeanCopy.beans(fb, new FooBean()), FooBean.class, FooBean.class);
+			assertNotSame(plan, newPlan);
+			assertEquals(1, BeanCopyPlan.getPlanCache().size());
+		}
+		finally {
+			JoddBean.get().typeConverterManager(typeConverterManager);
+		}
+	}
+
+	public static class Converted {
+		private String fooint;
+		private int fooLong;
+		private Double foodouble;
+
+		public String getFooint() {
+			return fooint;
+		}
+		public void setFooint(String fooint) {
+			this.fooint = fooint;
+		}
+		public int getFooLong() {
+			return fooLong;
+		}
+		public void setFooLong(int fooLong) {
+			this.fooLong = fooLong;
+		}
+		public Double getFoodouble() {
+			return foodouble;
+		}
+		public void setFoodouble(Double foodouble) {
+			this.foodouble = foodouble;
+		}
+	}
+
+	private void assertSameProperties(Object expected, Object actual) {
+		for (String name : new BeanCopy(expected, actual).getAllBeanPropertyNames(expected.getClass(), false)) {
+			Object expectedValue = BeanUtil.pojo.getProperty(expected, name);
+			Object actualValue = BeanUtil.pojo.getProperty(actual, name);
+
+			if (expectedValue instanceof Object[]) {
+				assertArrayEquals((Object[]) expectedValue, (Object[]) actualValue, name);
+			} else {
+				assertEquals(expectedValue, actualValue, name);
+			}
+		}
+	}
 }
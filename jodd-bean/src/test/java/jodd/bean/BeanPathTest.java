@@ -0,0 +1,175 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.bean;
+
+import jodd.bean.fixtures.Abean;
+import jodd.bean.fixtures.Cbean;
+import jodd.bean.fixtures.FooBean;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BeanPathTest {
+
+	@Test
+	void testNested() {
+		Cbean cbean = new Cbean();
+		BeanPath path = BeanUtil.pojo.compilePath("bbean.abean.fooProp");
+
+		assertEquals("bbean.abean.fooProp", path.path());
+		assertEquals("abean_value", path.get(cbean));
+
+		path.set(cbean, "jodd");
+		assertEquals("jodd", path.get(cbean));
+		assertEquals("jodd", BeanUtil.pojo.getProperty(cbean, "bbean.abean.fooProp"));
+
+		// map property of the bean that is a map
+		BeanPath mapPath = BeanUtil.pojo.compilePath("bbean.abean.mval");
+		mapPath.set(cbean, Integer.valueOf(173));
+		assertEquals(Integer.valueOf(173), cbean.getBbean().getAbean().get("mval"));
+		assertEquals(Integer.valueOf(173), mapPath.get(cbean));
+	}
+
+	@Test
+	void testIndexed() {
+		FooBean fooBean = new FooBean();
+		fooBean.setFooStringA(new String[] {"one", "two"});
+
+		List<Object> list = new ArrayList<>();
+		list.add("a");
+		list.add(new Abean());
+		fooBean.setFooList(list);
+
+		Map<String, Object> map = new HashMap<>();
+		map.put("key", "value");
+		map.put("dd.dd", "dot");
+		fooBean.setFooMap(map);
+
+		assertEquals("two", BeanUtil.pojo.compilePath("fooStringA[1]").get(fooBean));
+		assertEquals("abean_value", BeanUtil.pojo.compilePath("fooList[1].fooProp").get(fooBean));
+		assertEquals("value", BeanUtil.pojo.compilePath("fooMap[key]").get(fooBean));
+		assertEquals("dot", BeanUtil.pojo.compilePath("fooMap[dd.dd]").get(fooBean));
+		assertNull(BeanUtil.pojo.compilePath("fooMap[none]").get(fooBean));
+
+		BeanUtil.pojo.compilePath("fooStringA[0]").set(fooBean, "zero");
+		assertEquals("zero", fooBean.getFooStringA()[0]);
+
+		BeanUtil.pojo.compilePath("fooList[0]").set(fooBean, "b");
+		assertEquals("b", list.get(0));
+
+		BeanUtil.pojo.compilePath("fooMap[key]").set(fooBean, "new");
+		assertEquals("new", map.get("key"));
+
+		BeanUtil.pojo.compilePath("fooint").set(fooBean, "12");
+		assertEquals(12, fooBean.getFooint());
+	}
+
+	@Test
+	void testTypeChange() {
+		BeanPath path = BeanUtil.pojo.compilePath("abean.fooProp");
+
+		Map<String, Object> map = new HashMap<>();
+		map.put("abean", new Abean());
+		assertEquals("abean_value", path.get(map));
+
+		Cbean cbean = new Cbean();
+		assertEquals("abean_value", path.get(cbean.getBbean()));
+
+		assertEquals("abean_value", path.get(map));
+	}
+
+	@Test
+	void testFallback() {
+		FooBean fooBean = new FooBean();
+
+		// null value is reported by BeanUtil
+		BeanPath path = BeanUtil.pojo.compilePath("fooList[0]");
+		assertThrows(BeanException.class, () -> path.get(fooBean));
+		assertNull(BeanUtil.silent.compilePath("fooList[0]").get(fooBean));
+
+		// missing property
+		assertThrows(BeanException.class, () -> BeanUtil.pojo.compilePath("foo.bar").get(fooBean));
+		BeanUtil.silent.compilePath("foo.bar").set(fooBean, "value");
+
+		// forced mode is delegated
+		BeanUtil.forced.compilePath("fooMap[key]").set(fooBean, "value");
+		assertEquals("value", fooBean.getFooMap().get("key"));
+
+		// index out of bounds is reported by BeanUtil
+		fooBean.setFooStringA(new String[0]);
+		assertThrows(ArrayIndexOutOfBoundsException.class, () -> BeanUtil.pojo.compilePath("fooStringA[2]").get(fooBean));
+	}
+
+	@Test
+	void testSameAsBeanUtil() {
+		Cbean cbean = new Cbean();
+		BeanPath path = BeanUtil.declared.compilePath("bbean.abean");
+
+		assertSame(BeanUtil.declared.getProperty(cbean, "bbean.abean"), path.get(cbean));
+	}
+
+	public static class FailingBean {
+		int count;
+
+		public String getValue() {
+			count++;
+			throw new IllegalStateException();
+		}
+	}
+
+	@Test
+	void testGetterFailure() {
+		FailingBean failingBean = new FailingBean();
+
+		assertThrows(BeanException.class, () -> BeanUtil.pojo.compilePath("value").get(failingBean));
+		assertEquals(1, failingBean.count);
+
+		assertNull(BeanUtil.silent.compilePath("value").get(failingBean));
+		assertEquals(2, failingBean.count);
+	}
+
+	@Test
+	void testCustomBeanUtil() {
+		BeanUtil beanUtil = (BeanUtil) java.lang.reflect.Proxy.newProxyInstance(
+			BeanUtil.class.getClassLoader(), new Class[] {BeanUtil.class},
+			(proxy, method, args) -> {
+				if (method.getName().equals("getProperty")) {
+					return "custom:" + args[1];
+				}
+				throw new UnsupportedOperationException();
+			});
+
+		assertEquals("custom:a.b", new BeanPath(beanUtil, "a.b").get(new Object()));
+	}
+}
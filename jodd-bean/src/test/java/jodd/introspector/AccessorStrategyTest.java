@@ -0,0 +1,159 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.introspector;
+
+import jodd.bean.JoddBean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.lang.reflect.InvocationTargetException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AccessorStrategyTest {
+
+	public static class Item {
+		private int count;
+		private long total;
+		private double price;
+		private boolean active;
+		private String name;
+		private String hidden = "hidden";
+
+		public int getCount() {
+			return count;
+		}
+		public void setCount(int count) {
+			this.count = count;
+		}
+		public long getTotal() {
+			return total;
+		}
+		public void setTotal(long total) {
+			this.total = total;
+		}
+		public double getPrice() {
+			return price;
+		}
+		public void setPrice(double price) {
+			this.price = price;
+		}
+		public boolean isActive() {
+			return active;
+		}
+		public void setActive(boolean active) {
+			this.active = active;
+		}
+		public String getName() {
+			return name;
+		}
+		public Item setName(String name) {
+			if (name.isEmpty()) {
+				throw new IllegalArgumentException();
+			}
+			this.name = name;
+			return this;
+		}
+	}
+
+	@AfterEach
+	void tearDown() {
+		JoddBean.get().accessorStrategy(AccessorStrategy.REFLECTION);
+	}
+
+	private PropertyDescriptor property(AccessorStrategy strategy, String name) {
+		JoddBean.get().accessorStrategy(strategy);
+		return new ConcurrentIntrospector().lookup(Item.class).getPropertyDescriptor(name, true);
+	}
+
+	@ParameterizedTest
+	@EnumSource(AccessorStrategy.class)
+	void testGettersAndSetters(AccessorStrategy strategy) throws Exception {
+		Item item = new Item();
+
+		PropertyDescriptor pd = property(strategy, "count");
+		Getter getter = pd.getGetter(true);
+		Setter setter = pd.getSetter(true);
+
+		assertEquals(strategy != AccessorStrategy.REFLECTION, getter instanceof CompiledGetter);
+		assertEquals(strategy != AccessorStrategy.REFLECTION, setter instanceof CompiledSetter);
+		assertEquals(int.class, getter.getGetterRawType());
+		assertEquals(int.class, setter.getSetterRawType());
+
+		setter.invokeSetter(item, Integer.valueOf(7));
+		assertEquals(Integer.valueOf(7), getter.invokeGetter(item));
+		setter.invokeIntSetter(item, 8);
+		assertEquals(8, getter.invokeIntGetter(item));
+		assertEquals(8L, getter.invokeLongGetter(item));
+
+		pd = property(strategy, "total");
+		pd.getSetter(true).invokeLongSetter(item, 9L);
+		assertEquals(9L, pd.getGetter(true).invokeLongGetter(item));
+
+		pd = property(strategy, "price");
+		pd.getSetter(true).invokeDoubleSetter(item, 1.5);
+		assertEquals(1.5, pd.getGetter(true).invokeDoubleGetter(item));
+
+		pd = property(strategy, "active");
+		pd.getSetter(true).invokeBooleanSetter(item, true);
+		assertTrue(pd.getGetter(true).invokeBooleanGetter(item));
+		pd.getSetter(true).invokeSetter(item, Boolean.FALSE);
+		assertFalse(pd.getGetter(true).invokeBooleanGetter(item));
+
+		pd = property(strategy, "name");
+		pd.getSetter(true).invokeSetter(item, "jodd");
+		assertEquals("jodd", pd.getGetter(true).invokeGetter(item));
+
+		Setter nameSetter = pd.getSetter(true);
+		InvocationTargetException itex = assertThrows(InvocationTargetException.class, () -> nameSetter.invokeSetter(item, ""));
+		assertTrue(itex.getCause() instanceof IllegalArgumentException);
+
+		pd = property(strategy, "hidden");
+		assertEquals("hidden", pd.getGetter(true).invokeGetter(item));
+		pd.getSetter(true).invokeSetter(item, "visible");
+		assertEquals("visible", pd.getGetter(true).invokeGetter(item));
+	}
+
+	@ParameterizedTest
+	@EnumSource(AccessorStrategy.class)
+	void testDescriptor(AccessorStrategy strategy) {
+		PropertyDescriptor pd = property(strategy, "count");
+		Getter getter = pd.getGetter(true);
+
+		assertEquals(strategy == AccessorStrategy.LAMBDA, getter instanceof Accessors.LambdaGetter);
+		assertEquals(strategy == AccessorStrategy.METHOD_HANDLE, getter instanceof Accessors.MethodHandleGetter);
+
+		if (getter instanceof CompiledGetter) {
+			getter = ((CompiledGetter) getter).getDescriptor();
+		}
+		assertSame(pd.getReadMethodDescriptor(), getter);
+	}
+}
@@ -0,0 +1,116 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.introspector;
+
+import jodd.introspector.fixtures.Abean;
+import jodd.introspector.fixtures.Bbean;
+import jodd.io.findfile.ClassScanner;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.net.URISyntaxException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrentIntrospectorTest {
+
+	@Test
+	void testConcurrentLookup() throws Exception {
+		AtomicInteger described = new AtomicInteger();
+
+		ConcurrentIntrospector introspector = new ConcurrentIntrospector() {
+			@Override
+			protected ClassDescriptor describeClass(Class type) {
+				described.incrementAndGet();
+				return super.describeClass(type);
+			}
+		};
+
+		int threads = 16;
+		ExecutorService executorService = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+
+		Future<ClassDescriptor>[] futures = new Future[threads];
+		for (int i = 0; i < threads; i++) {
+			futures[i] = executorService.submit(() -> {
+				start.await();
+				ClassDescriptor cd = introspector.lookup(Abean.class);
+				cd.getAllPropertyDescriptors();
+				return cd;
+			});
+		}
+		start.countDown();
+
+		ClassDescriptor first = futures[0].get();
+		for (Future<ClassDescriptor> future : futures) {
+			ClassDescriptor cd = future.get();
+			assertSame(first, cd);
+			assertSame(first.getAllPropertyDescriptors(), cd.getAllPropertyDescriptors());
+		}
+
+		executorService.shutdown();
+		assertTrue(executorService.awaitTermination(10, TimeUnit.SECONDS));
+
+		assertEquals(1, described.get());
+		assertEquals(1, introspector.size());
+
+		introspector.reset();
+		assertEquals(0, introspector.size());
+	}
+
+	@Test
+	void testWarmUp() throws URISyntaxException {
+		ConcurrentIntrospector introspector = new ConcurrentIntrospector();
+
+		introspector.warmUp(Abean.class, Bbean.class);
+		assertEquals(2, introspector.size());
+		assertNotNull(introspector.lookup(Abean.class).getPropertyDescriptor("fooProp", true));
+
+		introspector.reset();
+
+		File root = new File(Abean.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+
+		ClassScanner classScanner = new ClassScanner();
+		classScanner.includeResources(true);
+		classScanner.excludeAllEntries(true);
+		classScanner.includeEntries(Abean.class.getPackage().getName() + ".*");
+
+		introspector.warmUp(classScanner).scan(root);
+
+		assertTrue(introspector.size() > 2);
+		assertTrue(introspector.cache.containsKey(Abean.class));
+		assertTrue(introspector.cache.containsKey(Bbean.class));
+	}
+}
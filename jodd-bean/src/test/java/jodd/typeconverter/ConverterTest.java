@@ -194,4 +194,29 @@ class ConverterTest {
 		typeConverterManager.register(boolean.class, tc);
 	}
 
+	@Test
+	void testCharSequenceConversion() {
+		Converter converter = Converter.get();
+
+		assertEquals(173, converter.toIntValue(new StringBuilder("173")));
+		assertEquals(7, converter.toIntValue((CharSequence) null, 7));
+		assertEquals(-173L, converter.toLongValue(" -173 "));
+		assertEquals(0L, converter.toLongValue((CharSequence) null));
+		assertEquals(1.73, converter.toDoubleValue("+1.73"));
+		assertEquals(2.5, converter.toDoubleValue((CharSequence) null, 2.5));
+
+		// custom converters are still respected
+
+		TypeConverterManager typeConverterManager = JoddBean.get().typeConverterManager();
+		TypeConverter tc = typeConverterManager.lookup(int.class);
+
+		typeConverterManager.register(int.class, value -> Integer.valueOf(value.toString().length()));
+
+		try {
+			assertEquals(3, converter.toIntValue("abc"));
+		} finally {
+			typeConverterManager.register(int.class, tc);
+		}
+		assertEquals(3, converter.toIntValue("3"));
+	}
 }
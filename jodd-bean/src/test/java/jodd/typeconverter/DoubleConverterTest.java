@@ -29,6 +29,7 @@ import jodd.typeconverter.impl.DoubleConverter;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -54,4 +55,28 @@ class DoubleConverterTest {
 		} catch (TypeConversionException ignore) {
 		}
 	}
+
+	@Test
+	void testParseCharSequence() {
+		assertEquals(1.73, DoubleConverter.parseDouble(new StringBuilder(" +1.73 ")));
+		assertEquals(-0.5, DoubleConverter.parseDouble("-.5"));
+		assertEquals(1.0, DoubleConverter.parseDouble("1."));
+		assertEquals(1.5e10, DoubleConverter.parseDouble("1.5e10"));
+		assertEquals(Double.doubleToLongBits(-0.0), Double.doubleToLongBits(DoubleConverter.parseDouble("-0")));
+		assertTrue(Double.isNaN(DoubleConverter.parseDouble("NaN")));
+
+		Random random = new Random(173);
+		for (int i = 0; i < 10000; i++) {
+			String number = BigDecimal.valueOf(random.nextLong() % 1000000000000000L, random.nextInt(16)).toPlainString();
+			assertEquals(Double.doubleToLongBits(Double.parseDouble(number)), Double.doubleToLongBits(DoubleConverter.parseDouble(number)), number);
+		}
+
+		for (String invalid : new String[] {"", ".", "-", "1..0", "1.0.0", "1,0"}) {
+			try {
+				DoubleConverter.parseDouble(invalid);
+				fail("error");
+			} catch (TypeConversionException ignore) {
+			}
+		}
+	}
 }
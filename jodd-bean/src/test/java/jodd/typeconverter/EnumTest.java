@@ -29,6 +29,9 @@ import jodd.bean.JoddBean;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.fail;
 
 class EnumTest {
 
@@ -44,4 +47,31 @@ class EnumTest {
 		assertEquals(En.TWO, en);
 	}
 
+	@Test
+	void testLookupPair() {
+		TypeConverterManager typeConverterManager = JoddBean.get().typeConverterManager();
+
+		TypeConverter<En> typeConverter = typeConverterManager.lookup(String.class, En.class);
+		assertSame(typeConverter, typeConverterManager.lookup(String.class, En.class));
+		assertEquals(En.TWO, typeConverter.convert("TWO"));
+		assertSame(En.ONE, typeConverterManager.lookup(En.class, En.class).convert(En.ONE));
+
+		try {
+			typeConverter.convert("THREE");
+			fail("error");
+		} catch (TypeConversionException ignore) {
+		}
+
+		// registration clears resolved conversions
+
+		typeConverterManager.register(En.class, value -> En.ONE);
+		try {
+			assertNotSame(typeConverter, typeConverterManager.lookup(String.class, En.class));
+			assertEquals(En.ONE, typeConverterManager.convertType("TWO", En.class));
+			assertEquals(En.ONE, typeConverterManager.lookup(String.class, En.class).convert("TWO"));
+		} finally {
+			typeConverterManager.unregister(En.class);
+		}
+		assertEquals(En.TWO, typeConverterManager.convertType("TWO", En.class));
+	}
 }
@@ -66,4 +66,23 @@ class IntegerConverterTest {
 		} catch (TypeConversionException ignore) {
 		}
 	}
+
+	@Test
+	void testParseCharSequence() {
+		assertEquals(173, IntegerConverter.parseInt("173"));
+		assertEquals(173, IntegerConverter.parseInt(new StringBuilder(" +173\t")));
+		assertEquals(-173, IntegerConverter.parseInt(" -173 "));
+		assertEquals(-173, IntegerConverter.parseInt("+-173"));
+		assertEquals(0, IntegerConverter.parseInt("-0"));
+		assertEquals(Integer.MAX_VALUE, IntegerConverter.parseInt("2147483647"));
+		assertEquals(Integer.MIN_VALUE, IntegerConverter.parseInt("-2147483648"));
+
+		for (String invalid : new String[] {"", " ", "+", "-", "-+1", "+ 1", "1a", "1.0", "2147483648"}) {
+			try {
+				IntegerConverter.parseInt(invalid);
+				fail("error");
+			} catch (TypeConversionException ignore) {
+			}
+		}
+	}
 }
@@ -69,4 +69,17 @@ class LongConverterTest {
 		}
 	}
 
+	@Test
+	void testParseCharSequence() {
+		assertEquals(173L, LongConverter.parseLong(new StringBuilder(" +173 ")));
+		assertEquals(-123456789012345678L, LongConverter.parseLong("-123456789012345678"));
+		assertEquals(Long.MAX_VALUE, LongConverter.parseLong("9223372036854775807"));
+		assertEquals(Long.MIN_VALUE, LongConverter.parseLong("-9223372036854775808"));
+
+		try {
+			LongConverter.parseLong("9223372036854775808");
+			fail("error");
+		} catch (TypeConversionException ignore) {
+		}
+	}
 }
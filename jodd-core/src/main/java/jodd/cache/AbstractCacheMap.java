@@ -134,6 +134,7 @@ public abstract class AbstractCacheMap<K,V> implements Cache<K,V> {
 				pruneCache();
 			}
 			cacheMap.put(key, co);
+			onAdd(co);
 		}
 		finally {
 			lock.unlockWrite(stamp);
@@ -269,6 +270,7 @@ public abstract class AbstractCacheMap<K,V> implements Cache<K,V> {
 		final long stamp = lock.writeLock();
 		try {
 			cacheMap.clear();
+			onClear();
 		}
 		finally {
 			lock.unlockWrite(stamp);
@@ -307,10 +309,22 @@ public abstract class AbstractCacheMap<K,V> implements Cache<K,V> {
 
 	// ---------------------------------------------------------------- protected
 
+	/**
+	 * Callback called after the item is added. The cache is still locked.
+	 */
+	protected void onAdd(CacheObject<K,V> co) {
+	}
+
 	/**
 	 * Callback called on item removal. The cache is still locked.
 	 */
 	protected void onRemove(K key, V cachedObject) {
 	}
 
+	/**
+	 * Callback called after the cache is cleared. The cache is still locked.
+	 */
+	protected void onClear() {
+	}
+
 }
@@ -0,0 +1,447 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.cache;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrent counterpart of {@link AbstractCacheMap}. Cache is split into
+ * number of independent segments; keys are distributed among segments by their
+ * hash code. Cached objects are stored in a <code>ConcurrentHashMap</code>, so
+ * {@link #get(Object)} never takes a lock on a hit. Writes and evictions take
+ * only the lock of the affected segment, so threads working on different
+ * segments never block each other. Hit and miss statistics are kept in
+ * <code>LongAdder</code>s and are therefore correct under contention.
+ * <p>
+ * Cache size limit is distributed evenly among segments, so eviction
+ * is performed per segment and not over the whole cache. This makes
+ * eviction strategies approximate: evicted object is the best candidate
+ * in its segment, not necessarily in the whole cache. Use concurrency
+ * level of <code>1</code> for the exact behavior.
+ * <p>
+ * Implementations should:
+ * <ul>
+ * <li>create a new segment and track accessed objects in it</li>
+ * <li>implements own segment <code>prune</code> strategy</li>
+ * </ul>
+ */
+public abstract class AbstractConcurrentCacheMap<K, V> implements Cache<K, V> {
+
+	/**
+	 * Default number of segments.
+	 */
+	public static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+
+	static class CacheObject<K2, V2> {
+		CacheObject(K2 key, V2 object, long ttl) {
+			this.key = key;
+			this.cachedObject = object;
+			this.ttl = ttl;
+			this.lastAccess = System.currentTimeMillis();
+		}
+
+		final K2 key;
+		final V2 cachedObject;
+		final long ttl;					// objects timeout (time-to-live), 0 = no timeout
+		volatile long lastAccess;		// time of last access
+		volatile long accessCount;		// number of accesses, approximate
+
+		boolean isExpired() {
+			if (ttl == 0) {
+				return false;
+			}
+			return lastAccess + ttl < System.currentTimeMillis();
+		}
+	}
+
+	/**
+	 * Cache segment: the map with cached objects and the lock that guards
+	 * all modifications of the segment. Subclasses may extend segment to
+	 * keep the data needed by the eviction strategy.
+	 */
+	class Segment {
+		final ReentrantLock lock = new ReentrantLock();
+		final Map<K, CacheObject<K, V>> map = new ConcurrentHashMap<>();
+		final int size;
+
+		Segment(int size) {
+			this.size = size;
+		}
+
+		/**
+		 * Invoked after the object is added. Segment is locked.
+		 */
+		void added(CacheObject<K, V> co) {
+		}
+
+		/**
+		 * Invoked after the object is removed. Segment is locked.
+		 */
+		void removed(CacheObject<K, V> co) {
+		}
+
+		/**
+		 * Invoked on cache hit. Segment is <b>not</b> locked.
+		 */
+		void accessed(CacheObject<K, V> co) {
+		}
+
+		/**
+		 * Removes an object from the segment and notifies the cache.
+		 * Segment is locked.
+		 */
+		void evict(CacheObject<K, V> co) {
+			if (map.remove(co.key, co)) {
+				removed(co);
+				onRemove(co.key, co.cachedObject);
+			}
+		}
+
+		boolean isFull() {
+			if (size == 0) {
+				return false;
+			}
+			return map.size() >= size;
+		}
+
+		boolean isReallyFull(K key) {
+			if (size == 0) {
+				return false;
+			}
+			if (map.size() >= size) {
+				return !map.containsKey(key);
+			}
+			return false;
+		}
+	}
+
+	protected final int cacheSize;      // max cache size, 0 = no limit
+	protected final long timeout;       // default timeout, 0 = no timeout
+	private final Segment[] segments;
+	private final int segmentMask;
+	private final int segmentShift;
+
+	/**
+	 * Creates new concurrent cache. Number of segments is the power of two
+	 * not greater than the given concurrency level; it is also never
+	 * greater than the cache size.
+	 */
+	@SuppressWarnings("unchecked")
+	protected AbstractConcurrentCacheMap(int cacheSize, long timeout, int concurrencyLevel) {
+		if (concurrencyLevel <= 0) {
+			throw new IllegalArgumentException("Invalid concurrency level: " + concurrencyLevel);
+		}
+		this.cacheSize = cacheSize;
+		this.timeout = timeout;
+
+		if (cacheSize > 0 && cacheSize < concurrencyLevel) {
+			concurrencyLevel = cacheSize;
+		}
+		int segmentsCount = Integer.highestOneBit(concurrencyLevel);
+
+		int segmentSize = 0;
+		if (cacheSize > 0) {
+			segmentSize = (cacheSize + segmentsCount - 1) / segmentsCount;
+		}
+
+		this.segments = new AbstractConcurrentCacheMap.Segment[segmentsCount];
+		for (int i = 0; i < segmentsCount; i++) {
+			segments[i] = createSegment(segmentSize);
+		}
+		this.segmentMask = segmentsCount - 1;
+		this.segmentShift = 32 - Integer.numberOfTrailingZeros(segmentsCount);
+	}
+
+	/**
+	 * Creates cache segment of given size. Invoked from the constructor.
+	 */
+	protected Segment createSegment(int segmentSize) {
+		return new Segment(segmentSize);
+	}
+
+	/**
+	 * Prunes single segment. Segment is locked during the prune.
+	 */
+	protected abstract int pruneSegment(Segment segment);
+
+	/**
+	 * Returns segment for given key. Segment is selected by the upper bits
+	 * of scrambled hash, as lower bits are used by the segment map itself.
+	 */
+	private Segment segmentFor(Object key) {
+		int h = key.hashCode() * 0x9E3779B9;
+		return segments[(h >>> segmentShift) & segmentMask];
+	}
+
+	// ---------------------------------------------------------------- properties
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int limit() {
+		return cacheSize;
+	}
+
+	/**
+	 * Returns default cache timeout or <code>0</code> if it is not set.
+	 * Timeout can be set individually for each object.
+	 */
+	@Override
+	public long timeout() {
+		return timeout;
+	}
+
+	/**
+	 * Returns number of cache segments.
+	 */
+	public int segmentsCount() {
+		return segments.length;
+	}
+
+	/**
+	 * Identifies if objects has custom timeouts.
+	 * Should be used to determine if prune for existing objects is needed.
+	 */
+	protected volatile boolean existCustomTimeout;
+
+	/**
+	 * Returns <code>true</code> if prune of expired objects should be invoked.
+	 * For internal use.
+	 */
+	protected boolean isPruneExpiredActive() {
+		return (timeout != 0) || existCustomTimeout;
+	}
+
+	// ---------------------------------------------------------------- put
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void put(K key, V object) {
+		put(key, object, timeout);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void put(K key, V object, long timeout) {
+		CacheObject<K, V> co = new CacheObject<>(key, object, timeout);
+		if (timeout != 0) {
+			existCustomTimeout = true;
+		}
+
+		Segment segment = segmentFor(key);
+		segment.lock.lock();
+		try {
+			if (segment.isReallyFull(key)) {
+				pruneSegment(segment);
+			}
+			CacheObject<K, V> old = segment.map.put(key, co);
+			if (old != null) {
+				segment.removed(old);
+			}
+			segment.added(co);
+		}
+		finally {
+			segment.lock.unlock();
+		}
+	}
+
+	// ---------------------------------------------------------------- get
+
+	private final LongAdder hitCount = new LongAdder();
+	private final LongAdder missCount = new LongAdder();
+
+	/**
+	 * Returns hit count.
+	 */
+	public long getHitCount() {
+		return hitCount.sum();
+	}
+
+	/**
+	 * Returns miss count.
+	 */
+	public long getMissCount() {
+		return missCount.sum();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * Lock is taken only when expired object has to be removed.
+	 */
+	@Override
+	public V get(K key) {
+		Segment segment = segmentFor(key);
+
+		CacheObject<K, V> co = segment.map.get(key);
+		if (co == null) {
+			missCount.increment();
+			return null;
+		}
+		if (co.isExpired()) {
+			segment.lock.lock();
+			try {
+				segment.evict(co);
+			}
+			finally {
+				segment.lock.unlock();
+			}
+			missCount.increment();
+			return null;
+		}
+
+		if (co.ttl != 0) {
+			co.lastAccess = System.currentTimeMillis();
+		}
+		segment.accessed(co);
+
+		hitCount.increment();
+		return co.cachedObject;
+	}
+
+	// ---------------------------------------------------------------- prune
+
+	/**
+	 * {@inheritDoc}
+	 * Segments are pruned one by one.
+	 */
+	@Override
+	public int prune() {
+		int count = 0;
+		for (Segment segment : segments) {
+			segment.lock.lock();
+			try {
+				count += pruneSegment(segment);
+			}
+			finally {
+				segment.lock.unlock();
+			}
+		}
+		return count;
+	}
+
+	// ---------------------------------------------------------------- common
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isFull() {
+		if (cacheSize == 0) {
+			return false;
+		}
+		return size() >= cacheSize;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void remove(K key) {
+		Segment segment = segmentFor(key);
+		segment.lock.lock();
+		try {
+			CacheObject<K, V> co = segment.map.get(key);
+			if (co != null) {
+				segment.evict(co);
+			}
+		}
+		finally {
+			segment.lock.unlock();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void clear() {
+		for (Segment segment : segments) {
+			segment.lock.lock();
+			try {
+				for (CacheObject<K, V> co : segment.map.values()) {
+					segment.removed(co);
+				}
+				segment.map.clear();
+			}
+			finally {
+				segment.lock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * Returned value is an estimate while other threads are modifying the cache.
+	 */
+	@Override
+	public int size() {
+		int size = 0;
+		for (Segment segment : segments) {
+			size += segment.map.size();
+		}
+		return size;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * Cache is not locked, snapshot reflects the state of each
+	 * segment at some point during the snapshot creation.
+	 */
+	@Override
+	public Map<K, V> snapshot() {
+		Map<K, V> map = new HashMap<>(size());
+		for (Segment segment : segments) {
+			segment.map.forEach((key, cacheValue) -> map.put(key, cacheValue.cachedObject));
+		}
+		return map;
+	}
+
+	// ---------------------------------------------------------------- protected
+
+	/**
+	 * Callback called on item removal. The segment of removed item is still locked.
+	 */
+	protected void onRemove(K key, V cachedObject) {
+	}
+
+}
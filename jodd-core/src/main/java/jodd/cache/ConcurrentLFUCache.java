@@ -0,0 +1,117 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.cache;
+
+/**
+ * Concurrent LFU (least frequently used) cache. Uses the same normalization
+ * of access counts as {@link LFUCache}, but only within the segment that
+ * became full. Access counts are incremented without locking, so under
+ * contention they are an approximation of the real frequency.
+ * @see AbstractConcurrentCacheMap
+ */
+public class ConcurrentLFUCache<K, V> extends AbstractConcurrentCacheMap<K, V> {
+
+	public ConcurrentLFUCache(int maxSize) {
+		this(maxSize, 0);
+	}
+
+	public ConcurrentLFUCache(int maxSize, long timeout) {
+		this(maxSize, timeout, DEFAULT_CONCURRENCY_LEVEL);
+	}
+
+	public ConcurrentLFUCache(int maxSize, long timeout, int concurrencyLevel) {
+		super(maxSize, timeout, concurrencyLevel);
+	}
+
+	/**
+	 * Segment that counts the accesses of its objects.
+	 */
+	class LFUSegment extends Segment {
+
+		LFUSegment(int size) {
+			super(size);
+		}
+
+		@Override
+		void accessed(CacheObject<K, V> co) {
+			co.accessCount++;
+		}
+	}
+
+	@Override
+	protected Segment createSegment(int segmentSize) {
+		return new LFUSegment(segmentSize);
+	}
+
+	// ---------------------------------------------------------------- prune
+
+	/**
+	 * Prunes expired and, if segment is still full, the LFU element(s) from the segment.
+	 * On LFU removal, access count is normalized to value which had removed object.
+	 * Returns the number of removed objects.
+	 */
+	@Override
+	protected int pruneSegment(Segment segment) {
+		int count = 0;
+		CacheObject<K, V> comin = null;
+
+		// remove expired items and find cached object with minimal access count
+		for (CacheObject<K, V> co : segment.map.values()) {
+			if (co.isExpired()) {
+				segment.evict(co);
+				count++;
+				continue;
+			}
+
+			if (comin == null) {
+				comin = co;
+			} else {
+				if (co.accessCount < comin.accessCount) {
+					comin = co;
+				}
+			}
+		}
+
+		if (!segment.isFull()) {
+			return count;
+		}
+
+		// decrease access count to all cached objects
+		if (comin != null) {
+			long minAccessCount = comin.accessCount;
+
+			for (CacheObject<K, V> co : segment.map.values()) {
+				co.accessCount -= minAccessCount;
+				if (co.accessCount <= 0) {
+					segment.evict(co);
+					count++;
+				}
+			}
+		}
+		return count;
+	}
+
+}
@@ -0,0 +1,126 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.cache;
+
+import java.util.LinkedHashMap;
+
+/**
+ * Concurrent LRU (least recently used) cache. Each segment keeps its objects
+ * in an access-ordered <code>LinkedHashMap</code>, so the least recently used
+ * object is ejected from the segment that became full. Order is updated
+ * on cache hit only when segment lock is free, so under heavy contention
+ * the order is approximate, but reads are never blocked. Unlike {@link LRUCache},
+ * the <code>onRemove</code> callback is invoked for ejected objects as well.
+ * @see AbstractConcurrentCacheMap
+ */
+public class ConcurrentLRUCache<K, V> extends AbstractConcurrentCacheMap<K, V> {
+
+	public ConcurrentLRUCache(int cacheSize) {
+		this(cacheSize, 0);
+	}
+
+	public ConcurrentLRUCache(int cacheSize, long timeout) {
+		this(cacheSize, timeout, DEFAULT_CONCURRENCY_LEVEL);
+	}
+
+	/**
+	 * Creates a new concurrent LRU cache.
+	 */
+	public ConcurrentLRUCache(int cacheSize, long timeout, int concurrencyLevel) {
+		super(cacheSize, timeout, concurrencyLevel);
+	}
+
+	/**
+	 * Segment that tracks the access order of its objects.
+	 */
+	class LRUSegment extends Segment {
+		private final LinkedHashMap<K, CacheObject<K, V>> order;
+
+		LRUSegment(int size) {
+			super(size);
+			this.order = new LinkedHashMap<>(size + 1, 1.0f, true);
+		}
+
+		@Override
+		void added(CacheObject<K, V> co) {
+			if (size == 0) {
+				return;
+			}
+			order.put(co.key, co);
+			if (order.size() > size) {
+				evict(order.values().iterator().next());
+			}
+		}
+
+		@Override
+		void removed(CacheObject<K, V> co) {
+			if (size == 0) {
+				return;
+			}
+			order.remove(co.key, co);
+		}
+
+		@Override
+		void accessed(CacheObject<K, V> co) {
+			if (size == 0) {
+				return;
+			}
+			if (lock.tryLock()) {
+				try {
+					order.get(co.key);
+				}
+				finally {
+					lock.unlock();
+				}
+			}
+		}
+	}
+
+	@Override
+	protected Segment createSegment(int segmentSize) {
+		return new LRUSegment(segmentSize);
+	}
+
+	// ---------------------------------------------------------------- prune
+
+	/**
+	 * Prune only expired objects, segment will take care of LRU if needed.
+	 */
+	@Override
+	protected int pruneSegment(Segment segment) {
+		if (!isPruneExpiredActive()) {
+			return 0;
+		}
+		int count = 0;
+		for (CacheObject<K, V> co : segment.map.values()) {
+			if (co.isExpired()) {
+				segment.evict(co);
+				count++;
+			}
+		}
+		return count;
+	}
+}
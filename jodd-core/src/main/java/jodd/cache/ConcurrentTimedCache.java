@@ -0,0 +1,111 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.cache;
+
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Concurrent timed cache. Not limited by size, objects are removed only when
+ * they are expired. Since segments are pruned one by one, scheduled prune
+ * never blocks the whole cache.
+ * @see TimedCache
+ */
+public class ConcurrentTimedCache<K, V> extends AbstractConcurrentCacheMap<K, V> {
+
+	public ConcurrentTimedCache(long timeout) {
+		this(timeout, DEFAULT_CONCURRENCY_LEVEL);
+	}
+
+	public ConcurrentTimedCache(long timeout, int concurrencyLevel) {
+		super(0, timeout, concurrencyLevel);
+	}
+
+	// ---------------------------------------------------------------- prune
+
+	/**
+	 * Prunes expired elements from the segment. Returns the number of removed objects.
+	 */
+	@Override
+	protected int pruneSegment(Segment segment) {
+		int count = 0;
+		for (CacheObject<K, V> co : segment.map.values()) {
+			if (co.isExpired()) {
+				segment.evict(co);
+				count++;
+			}
+		}
+		return count;
+	}
+
+	// ---------------------------------------------------------------- auto prune
+
+	protected Timer pruneTimer;
+	protected ScheduledFuture<?> pruneFuture;
+
+	/**
+	 * Schedules prune.
+	 */
+	public void schedulePrune(long delay) {
+		cancelPruneSchedule();
+		pruneTimer = new Timer();
+		pruneTimer.schedule(
+				new TimerTask() {
+					@Override
+					public void run() {
+						prune();
+					}
+				}, delay, delay
+		);
+	}
+
+	/**
+	 * Schedules prune on given scheduler, that may be shared among many caches.
+	 * @see TimedCache#schedulePrune(long, ScheduledExecutorService)
+	 */
+	public void schedulePrune(long delay, ScheduledExecutorService scheduler) {
+		cancelPruneSchedule();
+		pruneFuture = scheduler.scheduleWithFixedDelay(this::prune, delay, delay, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Cancels prune schedules.
+	 */
+	public void cancelPruneSchedule() {
+		if (pruneTimer != null) {
+			pruneTimer.cancel();
+			pruneTimer = null;
+		}
+		if (pruneFuture != null) {
+			pruneFuture.cancel(false);
+			pruneFuture = null;
+		}
+	}
+
+}
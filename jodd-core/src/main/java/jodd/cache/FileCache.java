@@ -28,6 +28,8 @@ import jodd.io.FileUtil;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.function.BiConsumer;
+import java.util.function.ToIntBiFunction;
 
 /**
  * Base in-memory files cache.
@@ -40,6 +42,8 @@ public abstract class FileCache {
 	protected final long timeout;
 
 	protected int usedSize;
+	protected ToIntBiFunction<File, byte[]> weigher = (file, bytes) -> bytes.length;
+	protected BiConsumer<File, byte[]> evictionListener;
 
 	/**
 	 * Creates new File LFU cache.
@@ -56,9 +60,41 @@ public abstract class FileCache {
 
 	/**
 	 * Creates new cache instance for files content.
+	 * Created cache must invoke {@link #onRemove(File, byte[])} on each removal.
 	 */
 	protected abstract Cache<File, byte[]> createCache();
 
+	// ---------------------------------------------------------------- config
+
+	/**
+	 * Defines weigher that calculates the size of cached file, in bytes.
+	 * By default, it is the length of file content. Weigher should be
+	 * defined before any file is cached.
+	 */
+	public FileCache weigher(ToIntBiFunction<File, byte[]> weigher) {
+		this.weigher = weigher;
+		return this;
+	}
+
+	/**
+	 * Defines listener invoked when some file is removed from the cache,
+	 * either because it has expired or to make room for other files.
+	 */
+	public FileCache onEviction(BiConsumer<File, byte[]> evictionListener) {
+		this.evictionListener = evictionListener;
+		return this;
+	}
+
+	/**
+	 * Callback invoked by the cache on file removal.
+	 */
+	protected void onRemove(File file, byte[] bytes) {
+		usedSize -= weigher.applyAsInt(file, bytes);
+		if (evictionListener != null) {
+			evictionListener.accept(file, bytes);
+		}
+	}
+
 	// ---------------------------------------------------------------- get
 
 	/**
@@ -126,7 +162,7 @@ public abstract class FileCache {
 			return bytes;
 		}
 
-		usedSize += bytes.length;
+		usedSize += weigher.applyAsInt(file, bytes);
 
 		// put file into cache
 		// if used size > total, purge() will be invoked
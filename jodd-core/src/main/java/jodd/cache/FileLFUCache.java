@@ -70,7 +70,7 @@ public class FileLFUCache extends FileCache {
 
 			@Override
 			protected void onRemove(File key, byte[] cachedObject) {
-				usedSize -= cachedObject.length;
+				FileLFUCache.this.onRemove(key, cachedObject);
 			}
 		};
 	}
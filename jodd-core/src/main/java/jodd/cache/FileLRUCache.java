@@ -25,6 +25,7 @@
 package jodd.cache;
 
 import java.io.File;
+import java.util.Iterator;
 
 /**
  * Cache of recently used files.
@@ -66,9 +67,27 @@ public class FileLRUCache extends FileCache {
 				return isFull();
 			}
 
+			/**
+			 * Prunes expired files and then, while the cache is still full,
+			 * the least recently used files.
+			 */
+			@Override
+			protected int pruneCache() {
+				int count = super.pruneCache();
+
+				Iterator<CacheObject<File, byte[]>> values = cacheMap.values().iterator();
+				while (isFull() && values.hasNext()) {
+					CacheObject<File, byte[]> co = values.next();
+					values.remove();
+					onRemove(co.key, co.cachedObject);
+					count++;
+				}
+				return count;
+			}
+
 			@Override
 			protected void onRemove(File key, byte[] cachedObject) {
-				usedSize -= cachedObject.length;
+				FileLRUCache.this.onRemove(key, cachedObject);
 			}
 		};
 	}
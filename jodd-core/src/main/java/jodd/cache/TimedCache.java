@@ -26,14 +26,24 @@
 package jodd.cache;
 
 import java.util.HashMap;
-import java.util.Iterator;
+import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Timed cache. Not limited by size, objects are removed only when they are expired.
  * Prune is not invoked explicitly by standard {@link Cache} methods, however,
  * it is possible to schedule prunes on fined-rate delays.
+ * <p>
+ * Objects are kept in a queue ordered by their expiration time, so prune
+ * visits only objects that might be expired and never scans the whole cache.
+ * Prune may be limited to some number of removed objects per run, so large
+ * number of simultaneously expired objects is removed incrementally, in
+ * several short runs instead of one long-lasting lock of the cache.
  */
 public class TimedCache<K, V> extends AbstractCacheMap<K, V> {
 
@@ -43,21 +53,131 @@ public class TimedCache<K, V> extends AbstractCacheMap<K, V> {
 		cacheMap = new HashMap<>();
 	}
 
+	// ---------------------------------------------------------------- expiration
+
+	/**
+	 * Cached object scheduled for expiration. Since expiration time of
+	 * cached object moves on every access, deadline is the earliest
+	 * time when the object may become expired. When the object is removed
+	 * or replaced, expiration is invalidated and its reference released.
+	 */
+	protected class Expiration implements Comparable<Expiration> {
+		CacheObject<K,V> co;
+		final long deadline;
+
+		Expiration(CacheObject<K,V> co) {
+			this.co = co;
+			this.deadline = co.lastAccess + co.ttl;
+		}
+
+		@Override
+		public int compareTo(Expiration o) {
+			return Long.compare(deadline, o.deadline);
+		}
+	}
+
+	protected final PriorityQueue<Expiration> expirationQueue = new PriorityQueue<>();
+	protected final Map<K, Expiration> expirations = new HashMap<>();
+
+	protected int pruneLimit;	// max number of removed objects per prune, 0 = no limit
+
+	/**
+	 * Limits the number of objects removed in a single prune.
+	 * Remaining expired objects are removed in the next prunes.
+	 */
+	public TimedCache<K, V> pruneLimit(int pruneLimit) {
+		this.pruneLimit = pruneLimit;
+		return this;
+	}
+
+	@Override
+	protected void onAdd(CacheObject<K,V> co) {
+		if (co.ttl != 0) {
+			schedule(co);
+		}
+		else {
+			invalidate(expirations.remove(co.key));
+		}
+	}
+
+	@Override
+	protected void onRemove(K key, V cachedObject) {
+		invalidate(expirations.remove(key));
+	}
+
+	@Override
+	protected void onClear() {
+		expirationQueue.clear();
+		expirations.clear();
+	}
+
+	/**
+	 * Schedules expiration of cached object, replacing the previous one for the same key.
+	 */
+	private void schedule(CacheObject<K,V> co) {
+		Expiration expiration = new Expiration(co);
+		invalidate(expirations.put(co.key, expiration));
+		expirationQueue.add(expiration);
+	}
+
+	/**
+	 * Invalidates the expiration. Invalidated expirations are skipped
+	 * by prune and purged from the queue once they outnumber the valid ones.
+	 */
+	private void invalidate(Expiration expiration) {
+		if (expiration == null) {
+			return;
+		}
+		expiration.co = null;
+
+		if (expirationQueue.size() > (expirations.size() << 1) + 16) {
+			expirationQueue.removeIf(e -> e.co == null);
+		}
+	}
+
 	// ---------------------------------------------------------------- prune
 
 	/**
 	 * Prunes expired elements from the cache. Returns the number of removed objects.
+	 * Objects that has been accessed in the meantime are re-scheduled.
 	 */
 	@Override
 	protected int pruneCache() {
-        int count = 0;
-		Iterator<CacheObject<K,V>> values = cacheMap.values().iterator();
-		while (values.hasNext()) {
-			CacheObject co = values.next();
+		if (cacheMap.isEmpty()) {
+			expirationQueue.clear();
+			expirations.clear();
+			return 0;
+		}
+
+		final long now = System.currentTimeMillis();
+		int count = 0;
+
+		while (pruneLimit == 0 || count < pruneLimit) {
+			Expiration expiration = expirationQueue.peek();
+			if (expiration == null || expiration.deadline >= now) {
+				break;
+			}
+			expirationQueue.poll();
+
+			CacheObject<K,V> co = expiration.co;
+			if (co == null) {
+				// already removed or replaced
+				continue;
+			}
+			if (cacheMap.get(co.key) != co) {
+				// removed without the callback
+				expirations.remove(co.key, expiration);
+				continue;
+			}
 			if (co.isExpired()) {
-				values.remove();
+				cacheMap.remove(co.key);
+				expirations.remove(co.key);
+				onRemove(co.key, co.cachedObject);
 				count++;
 			}
+			else {
+				schedule(co);
+			}
 		}
 		return count;
 	}
@@ -66,14 +186,13 @@ public class TimedCache<K, V> extends AbstractCacheMap<K, V> {
 	// ---------------------------------------------------------------- auto prune
 
 	protected Timer pruneTimer;
+	protected ScheduledFuture<?> pruneFuture;
 
 	/**
 	 * Schedules prune.
 	 */
 	public void schedulePrune(long delay) {
-		if (pruneTimer != null) {
-			pruneTimer.cancel();
-		}
+		cancelPruneSchedule();
 		pruneTimer = new Timer();
 		pruneTimer.schedule(
 				new TimerTask() {
@@ -85,6 +204,15 @@ public class TimedCache<K, V> extends AbstractCacheMap<K, V> {
 		);
 	}
 
+	/**
+	 * Schedules prune on given scheduler. Unlike {@link #schedulePrune(long)},
+	 * no new thread is created, so one scheduler may be shared among many caches.
+	 */
+	public void schedulePrune(long delay, ScheduledExecutorService scheduler) {
+		cancelPruneSchedule();
+		pruneFuture = scheduler.scheduleWithFixedDelay(this::prune, delay, delay, TimeUnit.MILLISECONDS);
+	}
+
 	/**
 	 * Cancels prune schedules.
 	 */
@@ -93,6 +221,10 @@ public class TimedCache<K, V> extends AbstractCacheMap<K, V> {
 			pruneTimer.cancel();
 			pruneTimer = null;
 		}
+		if (pruneFuture != null) {
+			pruneFuture.cancel(false);
+			pruneFuture = null;
+		}
 	}
 
 }
@@ -68,12 +68,23 @@ public class FastByteBuffer {
 	 */
 	private void needNewBuffer(int newSize) {
 		int delta = newSize - size;
-		int newBufferSize = Math.max(minChunkLen, delta);
 
 		currentBufferIndex++;
-		currentBuffer = new byte[newBufferSize];
 		offset = 0;
 
+		// reuse chunk allocated before clearing
+		if (currentBufferIndex < buffersCount) {
+			currentBuffer = buffers[currentBufferIndex];
+
+			if (currentBuffer.length >= delta) {
+				return;
+			}
+		}
+
+		int newBufferSize = Math.max(minChunkLen, delta);
+
+		currentBuffer = new byte[newBufferSize];
+
 		// add buffer
 		if (currentBufferIndex >= buffers.length) {
 			int newLen = buffers.length << 1;
@@ -82,7 +93,9 @@ public class FastByteBuffer {
 			buffers = newBuffers;
 		}
 		buffers[currentBufferIndex] = currentBuffer;
-		buffersCount++;
+		if (currentBufferIndex >= buffersCount) {
+			buffersCount = currentBufferIndex + 1;
+		}
 	}
 
 	/**
@@ -200,14 +213,14 @@ public class FastByteBuffer {
 	}
 
 	/**
-	 * Resets the buffer content.
+	 * Resets the buffer content. Allocated chunks are kept
+	 * and reused for the new content.
 	 */
 	public void clear() {
 		size = 0;
 		offset = 0;
 		currentBufferIndex = -1;
 		currentBuffer = null;
-		buffersCount = 0;
 	}
 
 	/**
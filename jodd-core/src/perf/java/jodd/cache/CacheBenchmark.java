@@ -0,0 +1,96 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.cache;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Compares locking caches with their concurrent, segmented counterparts
+ * under mixed read/write workload: 90% of reads and 10% of writes over
+ * a key space twice the size of the cache.
+ *
+ * Run:
+ * <code>
+ * gw :jodd-core:CacheBenchmark
+ * </code>
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Threads(32)
+@State(Scope.Benchmark)
+public class CacheBenchmark {
+
+	private static final int CACHE_SIZE = 10000;
+	private static final int KEY_SPACE = CACHE_SIZE * 2;
+
+	@Param({"LRUCache", "ConcurrentLRUCache", "LFUCache", "ConcurrentLFUCache"})
+	public String cacheType;
+
+	private Cache<Integer, Integer> cache;
+
+	@Setup
+	public void setup() {
+		switch (cacheType) {
+			case "LRUCache": cache = new LRUCache<>(CACHE_SIZE); break;
+			case "ConcurrentLRUCache": cache = new ConcurrentLRUCache<>(CACHE_SIZE); break;
+			case "LFUCache": cache = new LFUCache<>(CACHE_SIZE); break;
+			case "ConcurrentLFUCache": cache = new ConcurrentLFUCache<>(CACHE_SIZE); break;
+			default: throw new IllegalArgumentException(cacheType);
+		}
+		for (int i = 0; i < CACHE_SIZE; i++) {
+			cache.put(i, i);
+		}
+	}
+
+	@Benchmark
+	public Integer readWrite() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		Integer key = random.nextInt(KEY_SPACE);
+
+		if (random.nextInt(10) == 0) {
+			cache.put(key, key);
+			return key;
+		}
+		return cache.get(key);
+	}
+
+	@Benchmark
+	public Integer readOnly() {
+		Integer key = ThreadLocalRandom.current().nextInt(CACHE_SIZE);
+		return cache.get(key);
+	}
+}
@@ -0,0 +1,135 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.cache;
+
+import jodd.mutable.MutableInteger;
+import jodd.util.ThreadUtil;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentLRUCacheTest extends BaseCacheTest {
+
+	@Test
+	void testCache() {
+		Cache<String, String> cache = new ConcurrentLRUCache<>(3, 0, 1);
+		cache.put("1", "1");
+		cache.put("2", "2");
+		assertFalse(cache.isFull());
+		cache.put("3", "3");
+		assertTrue(cache.isFull());
+
+		assertNotNull(cache.get("1"));
+		assertNotNull(cache.get("2"));
+		cache.put("4", "4");
+		assertNull(cache.get("3"));
+		assertNotNull(cache.get("1"));
+		assertNotNull(cache.get("2"));
+		cache.put("3", "3");
+		assertNull(cache.get("4"));
+	}
+
+	@Test
+	void testCacheTime() {
+		Cache<String, String> cache = new ConcurrentLRUCache<>(3, 0, 1);
+		cache.put("3", "3");
+		cache.put("2", "2");
+		assertNotNull(cache.get("2"));
+		cache.put("1", "1", 50);
+		assertNotNull(cache.get("1"));
+		assertTrue(cache.isFull());
+
+		ThreadUtil.sleep(100);
+		assertNull(cache.get("1"));     // expired
+		assertFalse(cache.isFull());
+	}
+
+	@Test
+	void testOnRemove() {
+		final MutableInteger mutableInteger = new MutableInteger();
+		Cache<String, String> cache = new ConcurrentLRUCache<String, String>(2, 0, 1) {
+			@Override
+			protected void onRemove(String key, String cachedObject) {
+				mutableInteger.value++;
+			}
+		};
+
+		cache.put("1", "val1");
+		cache.put("2", "val2");
+		assertEquals(0, mutableInteger.value);
+		cache.put("3", "val3");
+		assertEquals(1, mutableInteger.value);
+		assertNull(cache.get("1"));
+	}
+
+	@Test
+	void testSegments() {
+		ConcurrentLRUCache<Integer, String> cache = new ConcurrentLRUCache<>(1000);
+		assertEquals(16, cache.segmentsCount());
+		assertEquals(1, new ConcurrentLRUCache<>(1).segmentsCount());
+		assertEquals(4, new ConcurrentLRUCache<>(100, 0, 5).segmentsCount());
+
+		for (int i = 0; i < 2000; i++) {
+			cache.put(i, "value");
+		}
+		assertTrue(cache.size() <= 1000 + cache.segmentsCount());
+		assertTrue(cache.isFull());
+	}
+
+	@Test
+	void testStatistics() throws InterruptedException {
+		final int threads = 32;
+		final int loops = 10000;
+
+		ConcurrentLRUCache<Integer, String> cache = new ConcurrentLRUCache<>(100);
+		ExecutorService executorService = Executors.newFixedThreadPool(threads);
+
+		for (int t = 0; t < threads; t++) {
+			executorService.submit(() -> {
+				for (int i = 0; i < loops; i++) {
+					int key = i % 200;
+					if (cache.get(key) == null) {
+						cache.put(key, "value");
+					}
+				}
+			});
+		}
+
+		executorService.shutdown();
+		executorService.awaitTermination(1, TimeUnit.DAYS);
+
+		assertEquals(threads * loops, cache.getHitCount() + cache.getMissCount());
+	}
+
+	@Override
+	protected final <K,V> Cache<K,V> createCache(int size) {
+		return new ConcurrentLRUCache<>(size, 0, 1);
+	}
+}
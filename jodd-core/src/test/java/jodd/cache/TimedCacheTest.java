@@ -0,0 +1,135 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.cache;
+
+import jodd.mutable.MutableInteger;
+import jodd.util.ThreadUtil;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimedCacheTest {
+
+	@Test
+	void testPrune() {
+		TimedCache<String, String> cache = new TimedCache<>(50);
+		cache.put("1", "1");
+		cache.put("2", "2");
+		cache.put("3", "3", 0);
+		cache.put("4", "4", 1000);
+		assertEquals(4, cache.size());
+		assertEquals(0, cache.prune());
+
+		ThreadUtil.sleep(100);
+		assertEquals(2, cache.prune());
+		assertEquals(2, cache.size());
+		assertNotNull(cache.get("3"));
+		assertNotNull(cache.get("4"));
+	}
+
+	@Test
+	void testPruneAccessedAndReplaced() {
+		TimedCache<String, String> cache = new TimedCache<>(200);
+		cache.put("1", "1");
+		cache.put("2", "2");
+		cache.put("2", "2");
+		cache.put("3", "3");
+
+		ThreadUtil.sleep(120);
+		assertNotNull(cache.get("1"));      // moves the expiration
+		cache.remove("3");
+
+		ThreadUtil.sleep(120);
+		assertEquals(1, cache.prune());
+		assertNotNull(cache.get("1"));
+		assertNull(cache.get("2"));
+	}
+
+	@Test
+	void testPruneLimit() {
+		final MutableInteger removed = new MutableInteger();
+		TimedCache<Integer, String> cache = new TimedCache<Integer, String>(10) {
+			@Override
+			protected void onRemove(Integer key, String cachedObject) {
+				removed.value++;
+			}
+		}.pruneLimit(3);
+
+		for (int i = 0; i < 10; i++) {
+			cache.put(i, "value");
+		}
+
+		ThreadUtil.sleep(50);
+		assertEquals(3, cache.prune());
+		assertEquals(3, cache.prune());
+		assertEquals(3, cache.prune());
+		assertEquals(1, cache.prune());
+		assertEquals(0, cache.prune());
+		assertEquals(10, removed.value);
+		assertTrue(cache.isEmpty());
+	}
+
+	@Test
+	void testReplacedAndRemovedExpirations() {
+		TimedCache<String, String> cache = new TimedCache<>(60000);
+		for (int i = 0; i < 10000; i++) {
+			cache.put("1", "value" + i);
+		}
+		assertEquals(1, cache.size());
+		assertTrue(cache.expirationQueue.size() <= 18);
+
+		for (int i = 0; i < 10000; i++) {
+			cache.put("k" + i, "value");
+			cache.remove("k" + i);
+		}
+		assertEquals(1, cache.size());
+		assertTrue(cache.expirationQueue.size() <= 18);
+		assertEquals(1, cache.expirations.size());
+
+		cache.clear();
+		assertEquals(0, cache.expirationQueue.size());
+		assertEquals(0, cache.expirations.size());
+	}
+
+	@Test
+	void testSchedulePrune() {
+		ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+		TimedCache<String, String> cache = new TimedCache<>(10);
+		cache.schedulePrune(20, scheduler);
+		cache.put("1", "1");
+		assertEquals(1, cache.size());
+
+		ThreadUtil.sleep(200);
+		assertEquals(0, cache.size());
+
+		cache.cancelPruneSchedule();
+		scheduler.shutdown();
+	}
+}
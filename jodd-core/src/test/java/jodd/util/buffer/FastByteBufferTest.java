@@ -59,6 +59,28 @@ class FastByteBufferTest extends FastBufferTestBase {
 		assertEquals(7, buff2.toArray().length);
 	}
 
+	@Test
+	void testClearReusesChunks() {
+		FastByteBuffer buff = new FastByteBuffer(2);
+
+		buff.append(array((byte)1, (byte)2, (byte)3, (byte)4, (byte)5));
+
+		byte[] first = buff.array(0);
+
+		buff.clear();
+
+		assertTrue(buff.isEmpty());
+		assertEquals(-1, buff.index());
+
+		buff.append((byte)6);
+		buff.append(array((byte)7, (byte)8, (byte)9, (byte)10, (byte)11, (byte)12));
+
+		assertTrue(first == buff.array(0));
+		assertArrayEquals(array((byte)6, (byte)7, (byte)8, (byte)9, (byte)10, (byte)11, (byte)12), buff.toArray());
+		assertArrayEquals(array((byte)8, (byte)9, (byte)10), buff.toArray(2, 3));
+		assertEquals(12, buff.get(6));
+	}
+
 	@Test
 	void testChunks() {
 		FastByteBuffer buff = new FastByteBuffer();
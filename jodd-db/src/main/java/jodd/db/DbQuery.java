@@ -1239,6 +1239,48 @@ public class DbQuery<Q extends DbQuery> extends DbQueryBase<Q> {
 		return (Q) this;
 	}
 
+	// ---------------------------------------------------------------- batch parameters
+
+	/**
+	 * Sets parameters from the bean and adds them to the batch.
+	 * @see #setBean(String, Object)
+	 */
+	public Q addBatch(String beanName, Object bean) {
+		setBean(beanName, bean);
+		return addBatch();
+	}
+
+	/**
+	 * Sets parameters from the map and adds them to the batch.
+	 * @see #setMap(Map)
+	 */
+	public Q addBatch(Map parameters) {
+		setMap(parameters);
+		return addBatch();
+	}
+
+	/**
+	 * Adds parameters of all beans to the batch.
+	 */
+	@SuppressWarnings({"unchecked"})	// Q is the type of this query
+	public Q addBatchBeans(String beanName, Iterable<?> beans) {
+		for (Object bean : beans) {
+			addBatch(beanName, bean);
+		}
+		return (Q) this;
+	}
+
+	/**
+	 * Adds parameters of all maps to the batch.
+	 */
+	@SuppressWarnings({"unchecked"})	// Q is the type of this query
+	public Q addBatchMaps(Iterable<? extends Map> maps) {
+		for (Map parameters : maps) {
+			addBatch(parameters);
+		}
+		return (Q) this;
+	}
+
 	// ---------------------------------------------------------------- utils
 
 	private void initPrepared() {
@@ -25,9 +25,11 @@
 
 package jodd.db;
 
+import jodd.cache.AbstractConcurrentCacheMap;
 import jodd.db.debug.LogabbleStatementFactory;
 import jodd.log.Logger;
 import jodd.log.LoggerFactory;
+import jodd.util.collection.IntArrayList;
 
 import java.sql.CallableStatement;
 import java.sql.Connection;
@@ -61,6 +63,7 @@ abstract class DbQueryBase<Q extends DbQueryBase> implements AutoCloseable {
 		this.debug = debug;
 		this.fetchSize = dbQueryConfig.getFetchSize();
 		this.maxRows = dbQueryConfig.getMaxRows();
+		this.batchSize = dbQueryConfig.getBatchSize();
 	}
 
 	// ---------------------------------------------------------------- query states
@@ -156,6 +159,7 @@ abstract class DbQueryBase<Q extends DbQueryBase> implements AutoCloseable {
 	protected CallableStatement callableStatement;
 	protected Set<ResultSet> resultSets;
 	protected DbQueryParser query;
+	protected DbStatementCache.Key statementKey;
 
 	/**
 	 * Stores result set.
@@ -232,7 +236,7 @@ abstract class DbQueryBase<Q extends DbQueryBase> implements AutoCloseable {
 			connection = session.getConnection();
 		}
 
-		this.query = new DbQueryParser(sqlString);
+		this.query = DbQueryParser.parse(sqlString);
 
 		// callable statement
 
@@ -266,6 +270,18 @@ abstract class DbQueryBase<Q extends DbQueryBase> implements AutoCloseable {
 		// prepared statement
 
 		if (query.prepared || forcePreparedStatement) {
+			DbStatementCache statementCache = (debug || session == null) ? null : session.getStatementCache();
+
+			if (statementCache != null) {
+				statementKey = new DbStatementCache.Key(query.sql, generatedColumns, type, concurrencyType, holdability);
+				preparedStatement = statementCache.take(statementKey);
+
+				if (preparedStatement != null) {
+					statement = preparedStatement;
+					return;
+				}
+			}
+
 			try {
 				if (debug) {
 					if (generatedColumns != null) {
@@ -346,6 +362,13 @@ abstract class DbQueryBase<Q extends DbQueryBase> implements AutoCloseable {
 		return (Q) this;
 	}
 
+	/**
+	 * Returns <code>true</code> if query is in auto-close mode.
+	 */
+	public boolean isAutoClose() {
+		return autoClose;
+	}
+
 	/**
 	 * Closes all result sets opened by this query. Query remains active.
 	 * Returns <code>SQLException</code> (stacked with all exceptions)
@@ -392,7 +415,13 @@ abstract class DbQueryBase<Q extends DbQueryBase> implements AutoCloseable {
 		SQLException sqlException = closeQueryResultSets();
 		if (statement != null) {
 			try {
-				statement.close();
+				DbStatementCache statementCache = session == null ? null : session.getStatementCache();
+
+				if (statementKey != null && statementCache != null) {
+					releaseStatement(statementCache);
+				} else {
+					statement.close();
+				}
 			} catch (SQLException sex) {
 				if (sqlException == null) {
 					sqlException = sex;
@@ -403,10 +432,36 @@ abstract class DbQueryBase<Q extends DbQueryBase> implements AutoCloseable {
 			statement = null;
 		}
 		query = null;
+		statementKey = null;
+		batchCount = 0;
 		queryState = CLOSED;
 		return sqlException;
 	}
 
+	/**
+	 * Resets the prepared statement and returns it to the session statement cache.
+	 * Statement is closed if it can't be reset.
+	 */
+	protected void releaseStatement(DbStatementCache statementCache) throws SQLException {
+		try {
+			preparedStatement.clearParameters();
+			if (batchCount > 0) {
+				preparedStatement.clearBatch();
+			}
+			if (fetchSize != 0) {
+				preparedStatement.setFetchSize(0);
+			}
+			if (maxRows != 0) {
+				preparedStatement.setMaxRows(0);
+			}
+			preparedStatement.clearWarnings();
+		} catch (SQLException sex) {
+			preparedStatement.close();
+			throw sex;
+		}
+		statementCache.release(statementKey, preparedStatement);
+	}
+
 	/**
 	 * Closes the query and all created results sets and detaches itself from the session.
 	 */
@@ -835,6 +890,161 @@ abstract class DbQueryBase<Q extends DbQueryBase> implements AutoCloseable {
 		}
 	}
 
+	// ---------------------------------------------------------------- batch
+
+	protected int batchSize;
+	protected int batchCount;
+	protected boolean batchExecuted;
+	protected IntArrayList batchUpdateCounts;
+	protected List<Long> batchGeneratedKeys;
+
+	/**
+	 * Returns batch size.
+	 * @see #setBatchSize(int)
+	 */
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * Sets the number of parameter sets after which the batch is sent
+	 * to the database. Update counts and generated keys are collected
+	 * until the {@link #executeBatch()}. Zero means that the batch is
+	 * sent only when it is executed.
+	 */
+	@SuppressWarnings({"unchecked"})	// Q is the type of this query
+	public Q setBatchSize(int batchSize) {
+		checkNotClosed();
+		this.batchSize = batchSize;
+		return (Q) this;
+	}
+
+	/**
+	 * Adds current parameters to the batch. For non-prepared statements,
+	 * the SQL string is added instead. When batch size is reached,
+	 * all added parameter sets are sent to the database.
+	 * @see PreparedStatement#addBatch()
+	 */
+	@SuppressWarnings({"unchecked"})	// Q is the type of this query
+	public Q addBatch() {
+		init();
+		if (batchExecuted) {
+			batchExecuted = false;
+			batchUpdateCounts = null;
+			batchGeneratedKeys = null;
+		}
+		try {
+			if (preparedStatement == null) {
+				statement.addBatch(query.sql);
+			} else {
+				preparedStatement.addBatch();
+			}
+		} catch (SQLException sex) {
+			throw new DbSqlException(this, "Adding to batch failed", sex);
+		}
+		batchCount++;
+
+		if (batchSize > 0 && batchCount >= batchSize) {
+			flushBatch();
+		}
+		return (Q) this;
+	}
+
+	/**
+	 * Executes the batch and returns update counts of all parameter sets added
+	 * since the previous execution. Query is not closed afterwards
+	 * unless {@link #autoClose() auto close mode} is set.
+	 * @see Statement#executeBatch()
+	 */
+	public int[] executeBatch() {
+		return executeBatch(autoClose);
+	}
+
+	/**
+	 * Executes the batch and optionally closes the query.
+	 */
+	protected int[] executeBatch(boolean closeQuery) {
+		init();
+		flushBatch();
+
+		batchExecuted = true;
+		int[] result = batchUpdateCounts == null ? new int[0] : batchUpdateCounts.toArray();
+
+		if (closeQuery) {
+			close();
+		}
+		return result;
+	}
+
+	/**
+	 * Sends added parameter sets to the database and collects
+	 * update counts and generated keys.
+	 */
+	protected void flushBatch() {
+		if (batchCount == 0) {
+			return;
+		}
+		start = System.currentTimeMillis();
+
+		if (log.isDebugEnabled()) {
+			log.debug("Executing batch of " + batchCount + ": " + getQueryString());
+		}
+
+		int[] updateCounts;
+		try {
+			updateCounts = statement.executeBatch();
+		} catch (SQLException sex) {
+			throw new DbSqlException(this, "Batch execution failed", sex);
+		} finally {
+			batchCount = 0;
+		}
+
+		if (batchUpdateCounts == null) {
+			batchUpdateCounts = new IntArrayList(updateCounts.length);
+		}
+		batchUpdateCounts.addAll(updateCounts);
+
+		if (generatedColumns != null && preparedStatement != null) {
+			if (batchGeneratedKeys == null) {
+				batchGeneratedKeys = new ArrayList<>(updateCounts.length);
+			}
+			ResultSet rs = null;
+			try {
+				rs = preparedStatement.getGeneratedKeys();
+				while (rs.next()) {
+					batchGeneratedKeys.add(Long.valueOf(rs.getLong(1)));
+				}
+			} catch (SQLException sex) {
+				throw new DbSqlException(this, "No generated keys", sex);
+			} finally {
+				DbUtil.close(rs);
+			}
+		}
+
+		elapsed = System.currentTimeMillis() - start;
+		if (log.isDebugEnabled()) {
+			log.debug("execution time: " + elapsed + "ms");
+		}
+	}
+
+	/**
+	 * Returns keys generated by the last executed batch, as <code>long</code>s.
+	 * Requires {@link #setGeneratedKey() generated key} to be specified.
+	 */
+	public long[] getBatchGeneratedKeys() {
+		if (generatedColumns == null) {
+			throw new DbSqlException(this, "No column is specified as auto-generated");
+		}
+		if (batchGeneratedKeys == null) {
+			return new long[0];
+		}
+		long[] keys = new long[batchGeneratedKeys.size()];
+		for (int i = 0; i < keys.length; i++) {
+			keys[i] = batchGeneratedKeys.get(i).longValue();
+		}
+		return keys;
+	}
+
 	// ---------------------------------------------------------------- result set mapper
 
 	/**
@@ -995,4 +1205,12 @@ abstract class DbQueryBase<Q extends DbQueryBase> implements AutoCloseable {
 	public int getOpenResultSetCount() {
 		return resultSets == null ? 0 : resultSets.size();
 	}
+
+	/**
+	 * Returns the cache of parsed query strings, shared by all queries.
+	 * Use it to monitor the hit rate or to clear it.
+	 */
+	public static AbstractConcurrentCacheMap<String, ?> getParsedQueryCache() {
+		return DbQueryParser.cache;
+	}
 }
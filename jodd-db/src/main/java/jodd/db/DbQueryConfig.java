@@ -36,6 +36,8 @@ public class DbQueryConfig {
 	protected int holdability = DbQuery.DEFAULT_HOLDABILITY;
 	protected int fetchSize = 0;
 	protected int maxRows = 0;
+	protected int batchSize = 0;
+	protected int statementCacheSize = 0;
 
 	public boolean isForcePreparedStatement() {
 		return forcePreparedStatement;
@@ -111,4 +113,35 @@ public class DbQueryConfig {
 		this.maxRows = maxRows;
 	}
 
-}
\ No newline at end of file
+	/**
+	 * Returns default batch size.
+	 */
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * Sets default batch size.
+	 * @see DbQuery#setBatchSize(int)
+	 */
+	public void setBatchSize(int batchSize) {
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Returns default size of the sessions prepared statement cache.
+	 */
+	public int getStatementCacheSize() {
+		return statementCacheSize;
+	}
+
+	/**
+	 * Sets default size of the sessions prepared statement cache.
+	 * Statement cache is disabled by default (<code>0</code>).
+	 * @see DbSession#setStatementCacheSize(int)
+	 */
+	public void setStatementCacheSize(int statementCacheSize) {
+		this.statementCacheSize = statementCacheSize;
+	}
+
+}
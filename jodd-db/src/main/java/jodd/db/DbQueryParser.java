@@ -25,6 +25,7 @@
 
 package jodd.db;
 
+import jodd.cache.ConcurrentLRUCache;
 import jodd.util.CharUtil;
 import jodd.util.StringUtil;
 import jodd.util.collection.IntArrayList;
@@ -35,6 +36,7 @@ import java.util.Iterator;
 
 /**
  * SQL parameters parser that recognizes named and ordinal parameters.
+ * Parsed queries are immutable and shared, see {@link #parse(String)}.
  */
 class DbQueryParser {
 
@@ -50,6 +52,23 @@ class DbQueryParser {
 		parseSql(sql);
 	}
 
+	// ---------------------------------------------------------------- cache
+
+	static final ConcurrentLRUCache<String, DbQueryParser> cache = new ConcurrentLRUCache<>(1000);
+
+	/**
+	 * Returns parsed SQL query from the shared cache. The query string
+	 * is parsed only on the first usage.
+	 */
+	static DbQueryParser parse(String sql) {
+		DbQueryParser query = cache.get(sql);
+		if (query == null) {
+			query = new DbQueryParser(sql);
+			cache.put(sql, query);
+		}
+		return query;
+	}
+
 	// ---------------------------------------------------------------- parameters
 
 	private Map<String, IntArrayList> namedParameterLocationMap;
@@ -77,6 +77,7 @@ public class DbSession implements AutoCloseable {
 		this.txActive = false;
 		this.txMode = JoddDb.get().defaults().getTransactionMode();
 		this.queries = new HashSet<>();
+		setStatementCacheSize(JoddDb.get().defaults().getQueryConfig().getStatementCacheSize());
 	}
 
 
@@ -103,6 +104,9 @@ public class DbSession implements AutoCloseable {
 				}
 			}
 		}
+		if (statementCache != null) {
+			statementCache.clear();
+		}
 		if (connection != null) {
 			if (txActive) {
 				throw new DbSqlException("TX was not closed before closing the session");
@@ -195,6 +199,29 @@ public class DbSession implements AutoCloseable {
 		}
 	}
 
+	// ---------------------------------------------------------------- statement cache
+
+	protected DbStatementCache statementCache;
+
+	/**
+	 * Sets the size of prepared statement cache. Cached statements are reused by
+	 * queries of this session with the same SQL and statement settings. Use
+	 * <code>0</code> to disable the cache, which closes all cached statements.
+	 */
+	public void setStatementCacheSize(int statementCacheSize) {
+		if (statementCache != null) {
+			statementCache.clear();
+		}
+		statementCache = statementCacheSize > 0 ? new DbStatementCache(statementCacheSize) : null;
+	}
+
+	/**
+	 * Returns prepared statement cache or <code>null</code> if statements are not cached.
+	 */
+	public DbStatementCache getStatementCache() {
+		return statementCache;
+	}
+
 	// ---------------------------------------------------------------- transaction
 
 	protected boolean txActive;
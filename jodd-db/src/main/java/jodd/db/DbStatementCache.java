@@ -0,0 +1,198 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.db;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * LRU cache of prepared statements of a single {@link DbSession}, so
+ * repeated queries skip re-preparation on drivers that don't cache statements.
+ * Only idle statements are stored: query takes the statement out of the cache
+ * and returns it when closed, with cleared parameters. Evicted statements are closed.
+ * <p>
+ * Like the session, cache is not thread-safe.
+ */
+public class DbStatementCache {
+
+	protected final int cacheSize;
+	protected final Map<Key, PreparedStatement> statements;
+	protected long hitCount;
+	protected long missCount;
+
+	public DbStatementCache(int cacheSize) {
+		this.cacheSize = cacheSize;
+		this.statements = new LinkedHashMap<Key, PreparedStatement>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, PreparedStatement> eldest) {
+				if (size() <= DbStatementCache.this.cacheSize) {
+					return false;
+				}
+				closeStatement(eldest.getValue());
+				return true;
+			}
+		};
+	}
+
+	// ---------------------------------------------------------------- key
+
+	/**
+	 * Key of the prepared statement: SQL and all statement creation arguments.
+	 */
+	public static final class Key {
+		private final String sql;
+		private final String[] generatedColumns;
+		private final int type;
+		private final int concurrencyType;
+		private final int holdability;
+		private final int hashCode;
+
+		public Key(String sql, String[] generatedColumns, int type, int concurrencyType, int holdability) {
+			this.sql = sql;
+			this.generatedColumns = generatedColumns;
+			this.type = type;
+			this.concurrencyType = concurrencyType;
+			this.holdability = holdability;
+
+			int result = sql.hashCode();
+			result = 31 * result + (generatedColumns == null ? -1 : Arrays.hashCode(generatedColumns));
+			result = 31 * result + type;
+			result = 31 * result + concurrencyType;
+			result = 31 * result + holdability;
+			this.hashCode = result;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Key)) {
+				return false;
+			}
+			Key key = (Key) o;
+			return hashCode == key.hashCode
+				&& type == key.type
+				&& concurrencyType == key.concurrencyType
+				&& holdability == key.holdability
+				&& sql.equals(key.sql)
+				&& (generatedColumns == null ? key.generatedColumns == null : Arrays.equals(generatedColumns, key.generatedColumns));
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+	}
+
+	// ---------------------------------------------------------------- take & release
+
+	/**
+	 * Takes idle statement out of the cache. Returns <code>null</code>
+	 * if there is no cached statement for given key.
+	 */
+	public PreparedStatement take(Key key) {
+		PreparedStatement preparedStatement = statements.remove(key);
+
+		if (preparedStatement == null) {
+			missCount++;
+		} else {
+			hitCount++;
+		}
+		return preparedStatement;
+	}
+
+	/**
+	 * Returns statement to the cache. Statement must be already reset.
+	 * If there is already an idle statement for the same key, it is closed.
+	 */
+	public void release(Key key, PreparedStatement preparedStatement) {
+		Objects.requireNonNull(preparedStatement);
+
+		PreparedStatement existing = statements.put(key, preparedStatement);
+
+		if (existing != null && existing != preparedStatement) {
+			closeStatement(existing);
+		}
+	}
+
+	/**
+	 * Closes all cached statements and clears the cache.
+	 */
+	public void clear() {
+		Iterator<PreparedStatement> iterator = statements.values().iterator();
+		while (iterator.hasNext()) {
+			closeStatement(iterator.next());
+			iterator.remove();
+		}
+	}
+
+	/**
+	 * Closes the statement and ignores the exception, as the statement is not used anymore.
+	 */
+	protected void closeStatement(PreparedStatement preparedStatement) {
+		try {
+			preparedStatement.close();
+		} catch (SQLException ignore) {
+		}
+	}
+
+	// ---------------------------------------------------------------- stats
+
+	/**
+	 * Returns number of idle statements in the cache.
+	 */
+	public int size() {
+		return statements.size();
+	}
+
+	/**
+	 * Returns cache size limit.
+	 */
+	public int limit() {
+		return cacheSize;
+	}
+
+	/**
+	 * Returns number of reused statements.
+	 */
+	public long getHitCount() {
+		return hitCount;
+	}
+
+	/**
+	 * Returns number of statements that had to be prepared.
+	 */
+	public long getMissCount() {
+		return missCount;
+	}
+
+}
@@ -25,9 +25,12 @@
 
 package jodd.db.oom;
 
+import jodd.cache.AbstractConcurrentCacheMap;
+import jodd.cache.ConcurrentLRUCache;
 import jodd.db.JoddDb;
 import jodd.db.oom.naming.ColumnNamingStrategy;
 import jodd.db.oom.naming.TableNamingStrategy;
+import jodd.db.oom.sqlgen.ParsedSql;
 import jodd.log.Logger;
 import jodd.log.LoggerFactory;
 import jodd.util.ClassUtil;
@@ -134,6 +137,7 @@ public class DbEntityManager {
 	public <E> DbEntityDescriptor<E> registerType(Class<E> type) {
 		DbEntityDescriptor<E> ded = createDbEntityDescriptor(type);
 		DbEntityDescriptor<E> existing = descriptorsMap.put(type, ded);
+		clearSqlCache();
 
 		if (log.isDebugEnabled()) {
 			log.debug("Register " + type.getName() + " as " + ded.getTableName());
@@ -160,6 +164,7 @@ public class DbEntityManager {
 	public <E> DbEntityDescriptor<E> registerEntity(Class<E> type) {
 		DbEntityDescriptor<E> ded = registerType(type);
 		DbEntityDescriptor existing = tableNamesMap.put(ded.getTableName(), ded);
+		clearSqlCache();
 
 		if (existing != null) {
 			if (ded.getType() == type) {
@@ -190,6 +195,7 @@ public class DbEntityManager {
 		}
 		entityNamesMap.remove(ded.getEntityName());
 		tableNamesMap.remove(ded.getTableName());
+		clearSqlCache();
 		return ded;
 	}
 
@@ -234,6 +240,64 @@ public class DbEntityManager {
 		descriptorsMap.clear();
 		entityNamesMap.clear();
 		tableNamesMap.clear();
+		clearSqlCache();
+	}
+
+	// ---------------------------------------------------------------- sql cache
+
+	protected ConcurrentLRUCache<String, ParsedSql> sqlCache = new ConcurrentLRUCache<>(1000);
+
+	/**
+	 * Sets the size of the generated SQL cache. Cache stores queries generated by
+	 * {@link jodd.db.oom.sqlgen.DbSqlBuilder} that do not depend on the data,
+	 * keyed by the chunks and the entity types. Use <code>0</code> to disable the cache.
+	 */
+	public void setSqlCacheSize(int sqlCacheSize) {
+		sqlCache = sqlCacheSize > 0 ? new ConcurrentLRUCache<>(sqlCacheSize) : null;
+	}
+
+	/**
+	 * Returns <code>true</code> if generated SQL is cached.
+	 */
+	public boolean isSqlCacheEnabled() {
+		return sqlCache != null;
+	}
+
+	/**
+	 * Returns the generated SQL cache, or <code>null</code> if caching is disabled.
+	 * Use it to monitor the hit rate.
+	 */
+	public AbstractConcurrentCacheMap<String, ParsedSql> getSqlCache() {
+		return sqlCache;
+	}
+
+	/**
+	 * Lookups for the cached generated SQL. Returns <code>null</code> if not found.
+	 */
+	public ParsedSql lookupSql(String key) {
+		if (sqlCache == null) {
+			return null;
+		}
+		return sqlCache.get(key);
+	}
+
+	/**
+	 * Caches the generated SQL.
+	 */
+	public void cacheSql(String key, ParsedSql parsedSql) {
+		if (sqlCache != null) {
+			sqlCache.put(key, parsedSql);
+		}
+	}
+
+	/**
+	 * Clears the generated SQL cache. Invoked on every change of
+	 * registered entities, as generated queries depend on them.
+	 */
+	protected void clearSqlCache() {
+		if (sqlCache != null) {
+			sqlCache.clear();
+		}
 	}
 
 	/**
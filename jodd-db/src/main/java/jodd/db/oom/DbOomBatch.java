@@ -0,0 +1,183 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.db.oom;
+
+import jodd.db.DbSession;
+import jodd.db.JoddDb;
+import jodd.db.oom.sqlgen.DbEntitySql;
+import jodd.db.oom.sqlgen.DbSqlBuilder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Bulk insert and update of entities using JDBC batches. SQL is generated
+ * for each entity with {@link DbEntitySql}; consecutive entities that render
+ * the same SQL share a single prepared statement and are sent to the
+ * database in batches, instead of one round-trip per entity.
+ */
+public class DbOomBatch {
+
+	protected final DbSession session;
+	protected int batchSize = JoddDb.get().defaults().getQueryConfig().getBatchSize();
+	protected boolean generatedKeys;
+
+	/**
+	 * Creates batch that uses default session.
+	 */
+	public DbOomBatch() {
+		this(null);
+	}
+
+	/**
+	 * Creates batch that uses given session.
+	 */
+	public DbOomBatch(DbSession session) {
+		this.session = session;
+	}
+
+	/**
+	 * Sets the number of entities after which the batch is sent to the database.
+	 * Zero means that all entities rendering the same SQL are sent at once.
+	 */
+	public DbOomBatch batchSize(int batchSize) {
+		this.batchSize = batchSize;
+		return this;
+	}
+
+	/**
+	 * Specifies that IDs of inserted entities are generated by the database
+	 * and should be set back to the entities.
+	 */
+	public DbOomBatch generatedKeys(boolean generatedKeys) {
+		this.generatedKeys = generatedKeys;
+		return this;
+	}
+
+	// ---------------------------------------------------------------- execute
+
+	/**
+	 * Inserts all entities.
+	 * @see DbEntitySql#insert(Object)
+	 */
+	public int[] insert(Collection<?> entities) {
+		return execute(entities, DbEntitySql::insert);
+	}
+
+	/**
+	 * Updates all values of all entities, matched by their IDs.
+	 * @see DbEntitySql#updateAll(Object)
+	 */
+	public int[] update(Collection<?> entities) {
+		return execute(entities, DbEntitySql::updateAll);
+	}
+
+	/**
+	 * Executes SQL generated for each entity in batches. Returns
+	 * update counts, in the order of entities.
+	 */
+	public int[] execute(Collection<?> entities, Function<Object, DbSqlBuilder> sqlFactory) {
+		int[] updateCounts = new int[entities.size()];
+		int count = 0;
+
+		List<Object> batchEntities = new ArrayList<>();
+		DbOomQuery query = null;
+		String querySql = null;
+
+		try {
+			for (Object entity : entities) {
+				DbSqlBuilder sqlgen = sqlFactory.apply(entity);
+				String sql = sqlgen.generateQuery();
+
+				if (query != null && !sql.equals(querySql)) {
+					count = executeBatch(query, batchEntities, updateCounts, count);
+					query.close();
+					query = null;
+				}
+
+				if (query == null) {
+					query = new DbOomQuery(session, sqlgen);
+					query.setBatchSize(batchSize);
+					if (generatedKeys) {
+						query.setGeneratedKey();
+					}
+					querySql = sql;
+					query.addBatch();
+				}
+				else {
+					query.setSqlGeneratorParameters(sqlgen);
+					query.addBatch();
+				}
+
+				batchEntities.add(entity);
+			}
+
+			if (query != null) {
+				count = executeBatch(query, batchEntities, updateCounts, count);
+			}
+		}
+		finally {
+			if (query != null) {
+				query.close();
+			}
+		}
+		return updateCounts;
+	}
+
+	/**
+	 * Executes the batch, collects update counts and populates generated keys.
+	 */
+	protected int executeBatch(DbOomQuery query, List<Object> batchEntities, int[] updateCounts, int count) {
+		int[] batchCounts = query.executeBatch();
+
+		System.arraycopy(batchCounts, 0, updateCounts, count, batchCounts.length);
+
+		if (generatedKeys) {
+			long[] keys = query.getBatchGeneratedKeys();
+
+			if (keys.length != batchEntities.size()) {
+				throw new DbOomException(query, "Expected " + batchEntities.size() + " generated keys, got: " + keys.length);
+			}
+
+			DbEntityManager dbEntityManager = DbEntityManager.get();
+
+			for (int i = 0; i < keys.length; i++) {
+				Object entity = batchEntities.get(i);
+				// descriptor is looked up by the class of the entity
+				@SuppressWarnings("unchecked")
+				DbEntityDescriptor<Object> ded = (DbEntityDescriptor<Object>) dbEntityManager.lookupType(entity.getClass());
+
+				ded.setIdValue(entity, Long.valueOf(keys[i]));
+			}
+		}
+
+		batchEntities.clear();
+		return count + batchCounts.length;
+	}
+
+}
@@ -66,6 +66,23 @@ public class DbOomConfig {
 		this.cacheEntitiesInResultSet = cacheEntitiesInResultSet;
 	}
 
+	protected boolean compiledResultSetMapper = false;
+
+	/**
+	 * Returns <code>true</code> if result sets are mapped using compiled row plans.
+	 */
+	public boolean isCompiledResultSetMapper() {
+		return compiledResultSetMapper;
+	}
+
+	/**
+	 * Enables {@link jodd.db.oom.mapper.CompiledResultSetMapper} that resolves column
+	 * mappings once, on the first row, instead of on every row. Recommended for large result sets.
+	 */
+	public void setCompiledResultSetMapper(boolean compiledResultSetMapper) {
+		this.compiledResultSetMapper = compiledResultSetMapper;
+	}
+
 	// ---------------------------------------------------------------- db list
 
 	protected boolean entityAwareMode = false;
@@ -29,6 +29,7 @@ import jodd.db.DbQuery;
 import jodd.db.DbSession;
 import jodd.db.DbUtil;
 import jodd.db.JoddDb;
+import jodd.db.oom.mapper.CompiledResultSetMapper;
 import jodd.db.oom.mapper.DefaultResultSetMapper;
 import jodd.db.oom.mapper.ResultSetMapper;
 import jodd.db.oom.sqlgen.ParameterValue;
@@ -137,7 +138,13 @@ public class DbOomQuery extends DbQuery<DbOomQuery> {
 				withHints(joinHints);
 			}
 		}
-		// insert parameters
+		setSqlGeneratorParameters(sqlgen);
+	}
+
+	/**
+	 * Sets query parameters defined by the SQL generator.
+	 */
+	protected void setSqlGeneratorParameters(DbSqlGenerator sqlgen) {
 		Map<String, ParameterValue> parameters = sqlgen.getQueryParameters();
 		if (parameters == null) {
 			return;
@@ -186,6 +193,27 @@ public class DbOomQuery extends DbQuery<DbOomQuery> {
 	}
 
 
+	// ---------------------------------------------------------------- batch
+
+	/**
+	 * Sets parameters of the SQL generator and adds them to the batch.
+	 * Generator must render the same SQL as this query, e.g. when
+	 * {@link jodd.db.oom.sqlgen.DbEntitySql} updates entities of the same type.
+	 * @see DbOomBatch
+	 */
+	public DbOomQuery addBatch(DbSqlGenerator sqlgen) {
+		init();
+		if (sqlgen != this.sqlgen) {
+			String sql = sqlgen.generateQuery();
+
+			if (!sql.equals(sqlString)) {
+				throw new DbOomException(this, "Batched SQL differs from the query SQL: " + sql);
+			}
+			setSqlGeneratorParameters(sqlgen);
+		}
+		return addBatch();
+	}
+
 	// ---------------------------------------------------------------- join hints
 
 	protected final JoinHintResolver hintResolver = JoinHintResolver.get();
@@ -231,6 +259,18 @@ public class DbOomQuery extends DbQuery<DbOomQuery> {
 		return this;
 	}
 
+	protected boolean compiledResultSetMapper = JoddDb.get().defaults().getDbOomConfig().isCompiledResultSetMapper();
+
+	/**
+	 * Defines if result set should be mapped using compiled row plans.
+	 * Overrides default value in {@link DbOomConfig}.
+	 * @see CompiledResultSetMapper
+	 */
+	public DbOomQuery compiledResultSetMapper(boolean compiledResultSetMapper) {
+		this.compiledResultSetMapper = compiledResultSetMapper;
+		return this;
+	}
+
 	/**
 	 * Executes the query and returns {@link #createResultSetMapper(java.sql.ResultSet) builded ResultSet mapper}.
 	 */
@@ -246,6 +286,9 @@ public class DbOomQuery extends DbQuery<DbOomQuery> {
 	protected ResultSetMapper createResultSetMapper(ResultSet resultSet) {
 		Map<String, ColumnData> columnAliases = sqlgen != null ? sqlgen.getColumnData() : null;
 
+		if (compiledResultSetMapper) {
+			return new CompiledResultSetMapper(resultSet, columnAliases, cacheEntities, this);
+		}
 		return new DefaultResultSetMapper(resultSet, columnAliases, cacheEntities, this);
 	}
 
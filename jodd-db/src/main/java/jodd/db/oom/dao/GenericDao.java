@@ -29,6 +29,7 @@ import jodd.bean.BeanUtil;
 import jodd.db.DbQuery;
 import jodd.db.oom.DbEntityDescriptor;
 import jodd.db.oom.DbEntityManager;
+import jodd.db.oom.DbOomBatch;
 import jodd.db.oom.DbOomException;
 import jodd.db.oom.sqlgen.DbEntitySql;
 
@@ -140,13 +141,11 @@ public class GenericDao {
 	}
 
 	/**
-	 * Inserts bunch of objects into the database.
+	 * Inserts bunch of objects into the database, using JDBC batches.
 	 * @see #save(Object)
 	 */
 	public void saveAll(Collection entities) {
-		for (Object entity: entities) {
-			save(entity);
-		}
+		new DbOomBatch().insert(entities);
 	}
 
 	// ---------------------------------------------------------------- update
@@ -159,13 +158,11 @@ public class GenericDao {
 	}
 
 	/**
-	 * Updates all entities.
+	 * Updates all entities, using JDBC batches.
 	 * @see #update(Object)
 	 */
 	public void updateAll(Collection entities) {
-		for (Object entity : entities) {
-			update(entity);
-		}
+		new DbOomBatch().update(entities);
 	}
 
 	/**
@@ -0,0 +1,100 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.db.oom.export;
+
+import jodd.util.Base64;
+import jodd.util.CsvUtil;
+import jodd.util.StringPool;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes rows as CSV lines, with the header line of column names.
+ * Binary values are encoded in Base64.
+ * @see CsvUtil
+ */
+public class CsvRowWriter implements RowWriter {
+
+	protected final Writer out;
+	protected final boolean header;
+	protected String newLine = StringPool.CRLF;
+
+	public CsvRowWriter(Writer out) {
+		this(out, true);
+	}
+
+	public CsvRowWriter(Writer out, boolean header) {
+		this.out = out;
+		this.header = header;
+	}
+
+	/**
+	 * Specifies line separator, CRLF by default.
+	 */
+	public CsvRowWriter newLine(String newLine) {
+		this.newLine = newLine;
+		return this;
+	}
+
+	@Override
+	public void start(String[] names) throws IOException {
+		if (header) {
+			out.write(CsvUtil.toCsvString((Object[]) names));
+			out.write(newLine);
+		}
+	}
+
+	@Override
+	public void row(Object[] values) throws IOException {
+		out.write(CsvUtil.toCsvString(encodeBinaryValues(values)));
+		out.write(newLine);
+	}
+
+	/**
+	 * Returns values with byte arrays encoded in Base64. Given
+	 * values are not modified, a copy is made when needed.
+	 */
+	protected Object[] encodeBinaryValues(Object[] values) {
+		Object[] result = values;
+
+		for (int i = 0; i < values.length; i++) {
+			if (values[i] instanceof byte[]) {
+				if (result == values) {
+					result = values.clone();
+				}
+				result[i] = Base64.encodeToString((byte[]) values[i]);
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public void end() throws IOException {
+		out.flush();
+	}
+
+}
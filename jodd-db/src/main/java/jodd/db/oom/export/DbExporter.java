@@ -0,0 +1,189 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.db.oom.export;
+
+import jodd.db.DbQuery;
+import jodd.db.oom.DbEntityColumnDescriptor;
+import jodd.db.oom.DbEntityDescriptor;
+import jodd.db.oom.DbEntityManager;
+import jodd.db.oom.DbOomException;
+import jodd.db.type.SqlType;
+import jodd.db.type.SqlTypeManager;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+/**
+ * Streams query results directly to the {@link RowWriter}, one row at a time,
+ * without creating entities or collecting rows. Memory usage does not depend
+ * on the number of rows: query is forward-only with the fetch size set, and
+ * the writer blocks when the output is not consumed.
+ * <p>
+ * When entity type is set, columns are named by entity properties and read using
+ * the column {@link SqlType}s. Otherwise, column labels and plain JDBC values are used.
+ */
+public class DbExporter {
+
+	protected final DbQuery query;
+	protected int fetchSize = 1000;
+	protected Class<?> entityType;
+
+	public DbExporter(DbQuery query) {
+		this.query = query;
+	}
+
+	/**
+	 * Sets the fetch size, i.e. number of rows fetched from database at once.
+	 */
+	public DbExporter fetchSize(int fetchSize) {
+		this.fetchSize = fetchSize;
+		return this;
+	}
+
+	/**
+	 * Specifies entity type used to resolve the column names and types.
+	 */
+	public DbExporter entity(Class<?> entityType) {
+		this.entityType = entityType;
+		return this;
+	}
+
+	// ---------------------------------------------------------------- export
+
+	/**
+	 * Exports all rows to the writer and returns number of exported rows.
+	 * Query is closed in {@link DbQuery#autoClose() auto-close mode}.
+	 */
+	public long export(RowWriter rowWriter) {
+		return export(rowWriter, query.isAutoClose());
+	}
+
+	/**
+	 * Exports all rows to the writer and optionally closes the query.
+	 * Result set is always closed.
+	 */
+	public long export(RowWriter rowWriter, boolean closeQuery) {
+		if (query.getQueryState() == DbQuery.State.CREATED) {
+			query.setType(DbQuery.TYPE_FORWARD_ONLY);
+			query.setConcurrencyType(DbQuery.CONCUR_READ_ONLY);
+		}
+		query.setFetchSize(fetchSize);
+
+		ResultSet resultSet = query.execute();
+		long count = 0;
+
+		try {
+			Column[] columns = resolveColumns(resultSet.getMetaData());
+
+			String[] names = new String[columns.length];
+			for (int i = 0; i < columns.length; i++) {
+				names[i] = columns[i].name;
+			}
+			Object[] values = new Object[columns.length];
+
+			rowWriter.start(names);
+
+			while (resultSet.next()) {
+				for (int i = 0; i < columns.length; i++) {
+					values[i] = columns[i].read(resultSet, i + 1);
+				}
+				rowWriter.row(values);
+				count++;
+			}
+
+			rowWriter.end();
+		} catch (SQLException sex) {
+			throw new DbOomException(query, "Export failed at row " + count, sex);
+		} catch (IOException ioex) {
+			throw new DbOomException(query, "Writing export failed at row " + count, ioex);
+		} finally {
+			query.closeResultSet(resultSet);
+			if (closeQuery) {
+				query.close();
+			}
+		}
+		return count;
+	}
+
+	// ---------------------------------------------------------------- columns
+
+	/**
+	 * Exported column.
+	 */
+	protected static class Column {
+		protected final String name;
+		protected final Class type;
+		protected final SqlType sqlType;
+		protected final int dbSqlType;
+
+		protected Column(String name, Class type, SqlType sqlType, int dbSqlType) {
+			this.name = name;
+			this.type = type;
+			this.sqlType = sqlType;
+			this.dbSqlType = dbSqlType;
+		}
+
+		@SuppressWarnings("unchecked")
+		protected Object read(ResultSet resultSet, int index) throws SQLException {
+			if (sqlType == null) {
+				return resultSet.getObject(index);
+			}
+			return sqlType.readValue(resultSet, index, type, dbSqlType);
+		}
+	}
+
+	/**
+	 * Resolves columns from result set meta-data, once per export.
+	 */
+	protected Column[] resolveColumns(ResultSetMetaData metaData) throws SQLException {
+		DbEntityDescriptor<?> ded = entityType == null ? null : DbEntityManager.get().lookupType(entityType);
+
+		int totalColumns = metaData.getColumnCount();
+		Column[] columns = new Column[totalColumns];
+
+		for (int i = 0; i < totalColumns; i++) {
+			String label = metaData.getColumnLabel(i + 1);
+			int dbSqlType = metaData.getColumnType(i + 1);
+
+			DbEntityColumnDescriptor dec = ded == null ? null : ded.findByColumnName(label);
+
+			if (dec == null) {
+				columns[i] = new Column(label, null, null, dbSqlType);
+				continue;
+			}
+
+			Class<? extends SqlType> sqlTypeClass = dec.getSqlTypeClass();
+			SqlType sqlType = sqlTypeClass != null ?
+				SqlTypeManager.lookupSqlType(sqlTypeClass) : SqlTypeManager.lookup(dec.getPropertyType());
+
+			columns[i] = new Column(dec.getPropertyName(), dec.getPropertyType(), sqlType, dbSqlType);
+		}
+		return columns;
+	}
+
+}
@@ -0,0 +1,163 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.db.oom.export;
+
+import jodd.util.Base64;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes rows as JSON array of objects. Numbers and booleans are written
+ * as JSON values, binary values are Base64 encoded and all other
+ * values are written as strings.
+ */
+public class JsonRowWriter implements RowWriter {
+
+	protected final Writer out;
+	protected String[] names;
+	protected boolean first;
+
+	public JsonRowWriter(Writer out) {
+		this.out = out;
+	}
+
+	@Override
+	public void start(String[] names) throws IOException {
+		this.names = new String[names.length];
+		for (int i = 0; i < names.length; i++) {
+			StringBuilder name = new StringBuilder(names[i].length() + 3);
+			appendString(name, names[i]);
+			name.append(':');
+			this.names[i] = name.toString();
+		}
+		this.first = true;
+		out.write('[');
+	}
+
+	@Override
+	public void row(Object[] values) throws IOException {
+		StringBuilder row = new StringBuilder();
+		if (!first) {
+			row.append(',');
+		}
+		first = false;
+
+		row.append('{');
+		for (int i = 0; i < values.length; i++) {
+			if (i != 0) {
+				row.append(',');
+			}
+			row.append(names[i]);
+			appendValue(row, values[i]);
+		}
+		row.append('}');
+
+		out.append(row);
+	}
+
+	@Override
+	public void end() throws IOException {
+		out.write(']');
+		out.flush();
+	}
+
+	/**
+	 * Appends single JSON value.
+	 */
+	protected void appendValue(StringBuilder out, Object value) {
+		if (value == null) {
+			out.append("null");
+			return;
+		}
+		if (value instanceof Boolean) {
+			out.append(value.toString());
+			return;
+		}
+		if (value instanceof Number) {
+			if (value instanceof Double && !Double.isFinite((Double) value)) {
+				appendString(out, value.toString());
+				return;
+			}
+			if (value instanceof Float && !Float.isFinite((Float) value)) {
+				appendString(out, value.toString());
+				return;
+			}
+			out.append(value.toString());
+			return;
+		}
+		if (value instanceof byte[]) {
+			appendString(out, Base64.encodeToString((byte[]) value));
+			return;
+		}
+		appendString(out, value.toString());
+	}
+
+	/**
+	 * Appends quoted and escaped JSON string.
+	 */
+	protected void appendString(StringBuilder out, String value) {
+		out.append('"');
+		int len = value.length();
+		for (int i = 0; i < len; i++) {
+			char c = value.charAt(i);
+			switch (c) {
+				case '"':
+					out.append("\\\"");
+					break;
+				case '\\':
+					out.append("\\\\");
+					break;
+				case '\n':
+					out.append("\\n");
+					break;
+				case '\r':
+					out.append("\\r");
+					break;
+				case '\t':
+					out.append("\\t");
+					break;
+				case '\b':
+					out.append("\\b");
+					break;
+				case '\f':
+					out.append("\\f");
+					break;
+				default:
+					if (c < 0x20) {
+						out.append("\\u00");
+						out.append(HEX[c >> 4]).append(HEX[c & 0xF]);
+					} else {
+						out.append(c);
+					}
+			}
+		}
+		out.append('"');
+	}
+
+	private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+}
@@ -0,0 +1,414 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.db.oom.mapper;
+
+import jodd.bean.BeanUtil;
+import jodd.cache.AbstractConcurrentCacheMap;
+import jodd.cache.ConcurrentLRUCache;
+import jodd.db.oom.ColumnData;
+import jodd.db.oom.DbEntityColumnDescriptor;
+import jodd.db.oom.DbEntityDescriptor;
+import jodd.db.oom.DbEntityManager;
+import jodd.db.oom.DbOomException;
+import jodd.db.oom.DbOomQuery;
+import jodd.db.type.SqlType;
+import jodd.db.type.SqlTypeManager;
+import jodd.introspector.ClassIntrospector;
+import jodd.introspector.CompiledSetter;
+import jodd.introspector.FieldDescriptor;
+import jodd.introspector.Getter;
+import jodd.introspector.MethodDescriptor;
+import jodd.introspector.PropertyDescriptor;
+import jodd.introspector.Setter;
+import jodd.typeconverter.TypeConverterManager;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Result set mapper that maps rows using compiled row plans. On the first row,
+ * columns are matched to the result types in the same way as in
+ * {@link DefaultResultSetMapper}, and the result is stored as a plan: fixed
+ * column indexes, resolved {@link SqlType}s and <code>MethodHandle</code>
+ * setters. Each row is then populated without any lookups.
+ * <p>
+ * Plans are shared between result sets with the same columns and types.
+ */
+public class CompiledResultSetMapper extends DefaultResultSetMapper {
+
+	protected static final ConcurrentLRUCache<PlanKey, RowPlan> plans = new ConcurrentLRUCache<>(1000);
+
+	public CompiledResultSetMapper(ResultSet resultSet, Map<String, ColumnData> columnAliases, boolean cacheEntities, DbOomQuery dbOomQuery) {
+		super(resultSet, columnAliases, cacheEntities, dbOomQuery);
+	}
+
+	// ---------------------------------------------------------------- parse
+
+	protected Class[] planTypes;
+	protected RowPlan plan;
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Object[] parseObjects(Class... types) {
+		RowPlan rowPlan = resolvePlan(types);
+		resolveDbEntityDescriptors(types);
+
+		Object[] result = new Object[types.length];
+		boolean[] resultUsage = new boolean[types.length];
+
+		try {
+			for (ColumnMapping mapping : rowPlan.mappings) {
+				mapping.map(resultSet, result, resultUsage);
+			}
+		} catch (SQLException sex) {
+			throw new DbOomException(dbOomQuery, "Reading ResultSet failed", sex);
+		}
+
+		for (int i = 0; i < resultUsage.length; i++) {
+			if (!resultUsage[i]) {
+				result[i] = null;
+			}
+		}
+
+		if (cacheEntities) {
+			cacheResultSetEntities(result);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Resolves row plan for given types, from the shared cache or by compiling it.
+	 */
+	protected RowPlan resolvePlan(Class[] types) {
+		if (plan != null && (types == planTypes || Arrays.equals(types, planTypes))) {
+			return plan;
+		}
+
+		PlanKey key = new PlanKey(columnNames, tableNames, columnDbSqlTypes, types);
+		RowPlan rowPlan = plans.get(key);
+
+		if (rowPlan == null || !rowPlan.isValid()) {
+			rowPlan = compilePlan(types);
+			plans.put(key, rowPlan);
+		}
+
+		plan = rowPlan;
+		planTypes = types;
+		return rowPlan;
+	}
+
+	/**
+	 * Returns the cache of compiled row plans. Use it to monitor the hit rate or to clear it.
+	 */
+	public static AbstractConcurrentCacheMap<?, ?> getPlanCache() {
+		return plans;
+	}
+
+	// ---------------------------------------------------------------- compile
+
+	/**
+	 * Compiles row plan by matching columns to types. Matching follows
+	 * the rules of {@link DefaultResultSetMapper#parseObjects(Class[])}.
+	 */
+	protected RowPlan compilePlan(Class[] types) {
+		int totalTypes = types.length;
+		DbEntityDescriptor[] dbEntityDescriptors = new DbEntityDescriptor[totalTypes];
+		for (int i = 0; i < totalTypes; i++) {
+			Class<?> type = types[i];
+			if (type != null) {
+				dbEntityDescriptors[i] = DbEntityManager.get().lookupType(type);
+			}
+		}
+		String[] typesTableNames = createTypesTableNames(types);
+		String[][] mappedNames = new String[totalTypes][];
+		for (int i = 0; i < totalTypes; i++) {
+			DbEntityDescriptor ded = dbEntityDescriptors[i];
+			if (ded != null && ded.getMappedTypes() != null) {
+				mappedNames[i] = createTypesTableNames(ded.getMappedTypes());
+			}
+		}
+
+		List<ColumnMapping> mappings = new ArrayList<>();
+		Set<String> resultColumns = new HashSet<>();
+
+		int currentResult = 0;
+		int colNdx = 0;
+		while (colNdx < totalColumns) {
+			if (currentResult >= totalTypes) {
+				break;
+			}
+
+			Class currentType = types[currentResult];
+			if (currentType == null) {
+				colNdx++;
+				currentResult++;
+				resultColumns.clear();
+				continue;
+			}
+
+			String columnName = columnNames[colNdx];
+			int columnDbSqlType = columnDbSqlTypes[colNdx];
+			String tableName = tableNames[colNdx];
+			String resultTableName = typesTableNames[currentResult];
+
+			if (resultTableName == null) {
+				// simple type
+				mappings.add(new ColumnMapping(colNdx, currentResult, currentType, columnDbSqlType,
+					SqlTypeManager.lookup(currentType), null, null, null));
+				colNdx++;
+				currentResult++;
+				resultColumns.clear();
+				continue;
+			}
+
+			boolean tableMatched = tableName == null || resultTableName.equals(tableName);
+
+			if (!tableMatched && mappedNames[currentResult] != null) {
+				for (String m : mappedNames[currentResult]) {
+					if (m.equals(tableName)) {
+						tableMatched = true;
+						break;
+					}
+				}
+			}
+
+			if (tableMatched && !resultColumns.contains(columnName)) {
+				DbEntityDescriptor ded = dbEntityDescriptors[currentResult];
+				DbEntityColumnDescriptor dec = ded.findByColumnName(columnName);
+				String propertyName = (dec == null ? null : dec.getPropertyName());
+
+				if (propertyName != null) {
+					PropertyDescriptor pd = ClassIntrospector.get().lookup(currentType).getPropertyDescriptor(propertyName, true);
+					Getter getter = pd == null ? null : pd.getGetter(true);
+
+					if (getter != null) {
+						Class type = getter.getGetterRawType();
+
+						dec.updateDbSqlType(columnDbSqlType);
+						Class<? extends SqlType> sqlTypeClass = dec.getSqlTypeClass();
+						SqlType sqlType = sqlTypeClass != null ?
+							SqlTypeManager.lookupSqlType(sqlTypeClass) : SqlTypeManager.lookup(type);
+
+						mappings.add(new ColumnMapping(colNdx, currentResult, type, columnDbSqlType,
+							sqlType, currentType, propertyName, resolveSetter(pd, type)));
+
+						colNdx++;
+						resultColumns.add(columnName);
+						continue;
+					}
+				}
+			}
+
+			currentResult++;
+			resultColumns.clear();
+		}
+
+		return new RowPlan(mappings.toArray(new ColumnMapping[mappings.size()]), types, dbEntityDescriptors);
+	}
+
+	/**
+	 * Resolves <code>MethodHandle</code> of the property setter. Returns <code>null</code>
+	 * if setter can't be resolved or if the value needs conversion; then the
+	 * property is set using {@link BeanUtil}.
+	 */
+	protected MethodHandle resolveSetter(PropertyDescriptor pd, Class propertyType) {
+		Setter setter = pd.getSetter(true);
+		if (setter == null || setter.getSetterRawType() != propertyType) {
+			return null;
+		}
+		if (setter instanceof CompiledSetter) {
+			setter = ((CompiledSetter) setter).getDescriptor();
+		}
+
+		MethodHandle methodHandle;
+		try {
+			if (setter instanceof MethodDescriptor) {
+				methodHandle = MethodHandles.lookup().unreflect(((MethodDescriptor) setter).getMethod());
+			} else if (setter instanceof FieldDescriptor) {
+				methodHandle = MethodHandles.lookup().unreflectSetter(((FieldDescriptor) setter).getField());
+			} else {
+				return null;
+			}
+		} catch (IllegalAccessException ignore) {
+			return null;
+		}
+		return methodHandle.asType(MethodType.methodType(void.class, Object.class, Object.class));
+	}
+
+	// ---------------------------------------------------------------- plan
+
+	/**
+	 * Compiled row plan.
+	 */
+	protected static class RowPlan {
+		protected final ColumnMapping[] mappings;
+		protected final Class[] types;
+		protected final DbEntityDescriptor[] dbEntityDescriptors;
+
+		protected RowPlan(ColumnMapping[] mappings, Class[] types, DbEntityDescriptor[] dbEntityDescriptors) {
+			this.mappings = mappings;
+			this.types = types;
+			this.dbEntityDescriptors = dbEntityDescriptors;
+		}
+
+		/**
+		 * Returns <code>true</code> if plan uses currently registered entity descriptors.
+		 */
+		protected boolean isValid() {
+			for (int i = 0; i < types.length; i++) {
+				Class<?> type = types[i];
+				if (type == null) {
+					continue;
+				}
+				if (DbEntityManager.get().lookupType(type) != dbEntityDescriptors[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * Mapping of a single column to the result.
+	 */
+	protected static class ColumnMapping {
+		protected final int index;
+		protected final int resultNdx;
+		protected final Class destinationType;
+		protected final int dbSqlType;
+		protected final SqlType sqlType;
+		protected final Class entityType;
+		protected final String propertyName;
+		protected final MethodHandle setter;
+
+		protected ColumnMapping(int colNdx, int resultNdx, Class destinationType, int dbSqlType, SqlType sqlType, Class entityType, String propertyName, MethodHandle setter) {
+			this.index = colNdx + 1;
+			this.resultNdx = resultNdx;
+			this.destinationType = destinationType;
+			this.dbSqlType = dbSqlType;
+			this.sqlType = sqlType;
+			this.entityType = entityType;
+			this.propertyName = propertyName;
+			this.setter = setter;
+		}
+
+		@SuppressWarnings("unchecked")
+		protected void map(ResultSet resultSet, Object[] result, boolean[] resultUsage) throws SQLException {
+			Object value;
+			if (sqlType != null) {
+				value = sqlType.readValue(resultSet, index, destinationType, dbSqlType);
+			} else {
+				value = resultSet.getObject(index);
+				value = TypeConverterManager.get().convertType(value, destinationType);
+			}
+
+			if (entityType == null) {
+				result[resultNdx] = value;
+				resultUsage[resultNdx] = true;
+				return;
+			}
+
+			Object entity = result[resultNdx];
+			if (entity == null) {
+				entity = DbEntityManager.get().createEntityInstance(entityType);
+				result[resultNdx] = entity;
+			}
+
+			if (value == null) {
+				return;
+			}
+
+			if (setter != null) {
+				try {
+					setter.invokeExact(entity, value);
+				} catch (Throwable throwable) {
+					throw new DbOomException("Setting property failed: " + entityType.getName() + '#' + propertyName, throwable);
+				}
+			} else {
+				BeanUtil.declared.setProperty(entity, propertyName, value);
+			}
+			resultUsage[resultNdx] = true;
+		}
+	}
+
+	/**
+	 * Key of the row plan: result set columns and result types.
+	 */
+	protected static final class PlanKey {
+		private final String[] columnNames;
+		private final String[] tableNames;
+		private final int[] columnDbSqlTypes;
+		private final Class[] types;
+		private final int hashCode;
+
+		protected PlanKey(String[] columnNames, String[] tableNames, int[] columnDbSqlTypes, Class[] types) {
+			this.columnNames = columnNames;
+			this.tableNames = tableNames;
+			this.columnDbSqlTypes = columnDbSqlTypes;
+			this.types = types.clone();
+
+			int result = Arrays.hashCode(columnNames);
+			result = 31 * result + Arrays.hashCode(tableNames);
+			result = 31 * result + Arrays.hashCode(columnDbSqlTypes);
+			result = 31 * result + Arrays.hashCode(types);
+			this.hashCode = result;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof PlanKey)) {
+				return false;
+			}
+			PlanKey key = (PlanKey) o;
+			return hashCode == key.hashCode
+				&& Arrays.equals(types, key.types)
+				&& Arrays.equals(columnNames, key.columnNames)
+				&& Arrays.equals(tableNames, key.tableNames)
+				&& Arrays.equals(columnDbSqlTypes, key.columnDbSqlTypes);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+	}
+
+}
@@ -40,8 +40,11 @@ import jodd.db.oom.sqlgen.chunks.ValueChunk;
 import jodd.db.oom.sqlgen.chunks.UpdateSetChunk;
 import jodd.db.oom.sqlgen.chunks.MatchChunk;
 import jodd.db.DbSession;
+import jodd.db.JoddDb;
+import jodd.db.oom.DbEntityManager;
 import jodd.util.StringPool;
 
+import java.util.Arrays;
 import java.util.Map;
 
 /**
@@ -208,6 +211,25 @@ public class DbSqlBuilder extends TemplateData implements DbSqlGenerator {
 			chunk = chunk.getNextChunk();
 		} 
 
+		// cache lookup
+		DbEntityManager dbEntityManager = DbEntityManager.get();
+		String cacheKey = null;
+
+		if (dbEntityManager.isSqlCacheEnabled()) {
+			cacheKey = resolveCacheKey();
+
+			if (cacheKey != null) {
+				ParsedSql parsedSql = dbEntityManager.lookupSql(cacheKey);
+
+				if (parsedSql != null) {
+					generatedQuery = parsedSql.generatedQuery;
+					columnData = parsedSql.columnData;
+					hints = parsedSql.joinHints == null ? null : Arrays.asList(parsedSql.joinHints);
+					return generatedQuery;
+				}
+			}
+		}
+
 		// process
 		StringBuilder query = new StringBuilder();
 		chunk = firstChunk;
@@ -223,9 +245,37 @@ public class DbSqlBuilder extends TemplateData implements DbSqlGenerator {
 
 		generatedQuery = query.toString();
 
+		if (cacheKey != null) {
+			dbEntityManager.cacheSql(cacheKey, new ParsedSql(generatedQuery, null, columnData, getJoinHints()));
+		}
+
 		return generatedQuery;
 	}
 
+	/**
+	 * Resolves the key of generated query for initialized chunks.
+	 * Returns <code>null</code> if some chunk depends on the data,
+	 * so the generated query can not be cached.
+	 */
+	protected String resolveCacheKey() {
+		StringBuilder key = new StringBuilder();
+
+		if (columnAliasType != null) {
+			key.append(columnAliasType.ordinal());
+			key.append(JoddDb.get().defaults().getDbOomConfig().getColumnAliasSeparator());
+		}
+		key.append('|');
+
+		SqlChunk chunk = firstChunk;
+		while (chunk != null) {
+			if (!chunk.appendCacheKey(key)) {
+				return null;
+			}
+			chunk = chunk.getNextChunk();
+		}
+		return key.toString();
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -48,6 +48,13 @@ public class ParsedSql implements DbSqlGenerator {
 		joinHints = dbSqlGenerator.getJoinHints();
 	}
 
+	public ParsedSql(String generatedQuery, Map<String, ParameterValue> queryParameters, Map<String, ColumnData> columnData, String[] joinHints) {
+		this.generatedQuery = generatedQuery;
+		this.queryParameters = queryParameters;
+		this.columnData = columnData;
+		this.joinHints = joinHints;
+	}
+
 	public String generateQuery() {
 		return generatedQuery;
 	}
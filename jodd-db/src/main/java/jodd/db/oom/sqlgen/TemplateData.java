@@ -63,15 +63,11 @@ public abstract class TemplateData {
 			tableRefs.clear();
 		}
 //		objectRefs = null;
-		if (columnData != null) {
-			columnData.clear();
-		}
+		columnData = null;        // may be shared with the cache
 		if (parameters != null) {
 			parameters.clear();
 		}
-		if (hints != null) {
-			hints.clear();
-		}
+		hints = null;
 		//columnAliasType = dbEntityManager.getDefaultColumnAliasType();
 	}
 
@@ -25,12 +25,18 @@
 
 package jodd.db.oom.sqlgen;
 
+import jodd.cache.ConcurrentLRUCache;
 import jodd.util.StringUtil;
 import jodd.util.StringPool;
+
+import java.util.ArrayList;
+import java.util.List;
+
 import static jodd.util.CharUtil.*;
 
 /**
- * Internal template parser.
+ * Internal template parser. Parsed templates are cached as the list
+ * of macros that are replayed on the sql builder.
  */
 class TemplateParser {
 
@@ -42,17 +48,76 @@ class TemplateParser {
 	protected static final String MACRO_MATCH = "$M{";
 	protected static final String MACRO_VALUE = "$V{";
 
+	protected static final char RAW = 'R';
+	protected static final char TABLE = 'T';
+	protected static final char COLUMN = 'C';
+	protected static final char REFERENCE = 'F';
+	protected static final char MATCH = 'M';
+	protected static final char VALUE = 'V';
+
+	/**
+	 * Single parsed macro or raw text of the template.
+	 */
+	protected static class Macro {
+		protected final char type;
+		protected final String value;
+
+		protected Macro(char type, String value) {
+			this.type = type;
+			this.value = value;
+		}
+	}
+
+	protected final ConcurrentLRUCache<String, Macro[]> cache = new ConcurrentLRUCache<>(1000);
+
 	/**
-	 * Parses template and returns generated sql builder.
+	 * Parses template and appends chunks to the sql builder.
 	 */
 	public void parse(DbSqlBuilder sqlBuilder, String template) {
+		Macro[] macros = cache.get(template);
+
+		if (macros == null) {
+			List<Macro> list = new ArrayList<>();
+			parse(list, template);
+			macros = list.toArray(new Macro[list.size()]);
+			cache.put(template, macros);
+		}
+
+		for (Macro macro : macros) {
+			switch (macro.type) {
+				case RAW:
+					sqlBuilder.appendRaw(macro.value);
+					break;
+				case TABLE:
+					sqlBuilder.table(macro.value);
+					break;
+				case COLUMN:
+					sqlBuilder.column(macro.value);
+					break;
+				case REFERENCE:
+					sqlBuilder.ref(macro.value);
+					break;
+				case MATCH:
+					sqlBuilder.match(macro.value);
+					break;
+				case VALUE:
+					sqlBuilder.columnValue(macro.value);
+					break;
+			}
+		}
+	}
+
+	/**
+	 * Parses template into the list of macros.
+	 */
+	protected void parse(List<Macro> macros, String template) {
 		int length = template.length();
 		int last = 0;
 		while (true) {
 			int mark = template.indexOf('$', last);
 			if (mark == -1) {
 				if (last < length) {
-					sqlBuilder.appendRaw(template.substring(last));
+					macros.add(new Macro(RAW, template.substring(last)));
 				}
 				break;
 			}
@@ -61,13 +126,13 @@ class TemplateParser {
 			if (escapesCount > 0) {
 				boolean isEscaped = escapesCount % 2 != 0;
 				int escapesToAdd = escapesCount >> 1;
-				sqlBuilder.appendRaw(template.substring(last, mark - escapesCount + escapesToAdd) + '$');
+				macros.add(new Macro(RAW, template.substring(last, mark - escapesCount + escapesToAdd) + '$'));
 				if (isEscaped) {
 					last = mark + 1;
 					continue;
 				}
 			} else {
-				sqlBuilder.appendRaw(template.substring(last, mark));
+				macros.add(new Macro(RAW, template.substring(last, mark)));
 			}
 
 			int end;
@@ -75,19 +140,19 @@ class TemplateParser {
 			if (template.startsWith(MACRO_TABLE, mark)) {
 				mark += MACRO_TABLE.length();
 				end = findMacroEnd(template, mark);
-				onTable(sqlBuilder, template.substring(mark, end));
+				onTable(macros, template.substring(mark, end));
 			} else if (template.startsWith(MACRO_COLUMN, mark)) {
 				mark += MACRO_COLUMN.length();
 				end = findMacroEnd(template, mark);
-				onColumn(sqlBuilder, template.substring(mark, end));
+				onColumn(macros, template.substring(mark, end));
 			} else if (template.startsWith(MACRO_MATCH, mark)) {
 				mark += MACRO_MATCH.length();
 				end = findMacroEnd(template, mark);
-				onMatch(sqlBuilder, template.substring(mark, end));
+				onMatch(macros, template.substring(mark, end));
 			} else if (template.startsWith(MACRO_VALUE, mark)) {
 				mark += MACRO_VALUE.length();
 				end = findMacroEnd(template, mark);
-				onValue(sqlBuilder, template.substring(mark, end));
+				onValue(macros, template.substring(mark, end));
 			} else {
 				mark++;           // reference found
 				end = mark;       // find macro end
@@ -97,7 +162,7 @@ class TemplateParser {
 					}
 					end++;
 				}
-				onReference(sqlBuilder, template.substring(mark, end));
+				onReference(macros, template.substring(mark, end));
 				end--;
 			}
 			end++;
@@ -144,14 +209,14 @@ class TemplateParser {
 
 	// ---------------------------------------------------------------- handlers
 
-	protected void onTable(DbSqlBuilder sqlBuilder, String allTables) {
+	protected void onTable(List<Macro> macros, String allTables) {
 		String[] tables = StringUtil.split(allTables, StringPool.COMMA);
 		for (String table : tables) {
-			sqlBuilder.table(table);
+			macros.add(new Macro(TABLE, table));
 		}
 	}
 
-	protected void onColumn(DbSqlBuilder sqlBuilder, String allColumns) {
+	protected void onColumn(List<Macro> macros, String allColumns) {
 		int len = allColumns.length();
 		int lastNdx = 0;
 
@@ -159,7 +224,7 @@ class TemplateParser {
 			char c = allColumns.charAt(i);
 
 			if (c == ',') {
-				sqlBuilder.column(allColumns.substring(lastNdx, i));
+				macros.add(new Macro(COLUMN, allColumns.substring(lastNdx, i)));
 				lastNdx = i + 1;
 				continue;
 			}
@@ -172,19 +237,19 @@ class TemplateParser {
 			}
 		}
 
-		sqlBuilder.column(allColumns.substring(lastNdx));
+		macros.add(new Macro(COLUMN, allColumns.substring(lastNdx)));
 	}
 
-	protected void onReference(DbSqlBuilder sqlBuilder, String reference) {
-		sqlBuilder.ref(reference);
+	protected void onReference(List<Macro> macros, String reference) {
+		macros.add(new Macro(REFERENCE, reference));
 	}
 
-	protected void onMatch(DbSqlBuilder sqlBuilder, String expression) {
-		sqlBuilder.match(expression);
+	protected void onMatch(List<Macro> macros, String expression) {
+		macros.add(new Macro(MATCH, expression));
 	}
 
-	protected void onValue(DbSqlBuilder sqlBuilder, String expression) {
-		sqlBuilder.columnValue(expression);
+	protected void onValue(List<Macro> macros, String expression) {
+		macros.add(new Macro(VALUE, expression));
 	}
 
 
@@ -243,6 +243,21 @@ public class ColumnsSelectChunk extends SqlChunk {
 		}
 	}
 
+	@Override
+	public boolean appendCacheKey(StringBuilder key) {
+		key.append('C').append(includeColumns);
+		appendKey(key, tableRef);
+		appendKey(key, columnRef);
+		appendKey(key, hint);
+		if (columnRefArr != null) {
+			key.append(columnRefArr.length);
+			for (String ref : columnRefArr) {
+				appendKey(key, ref);
+			}
+		}
+		return true;
+	}
+
 	/**
 	 * Appends alias.
 	 */
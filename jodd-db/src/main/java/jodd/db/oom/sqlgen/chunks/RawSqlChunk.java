@@ -42,4 +42,11 @@ public class RawSqlChunk extends SqlChunk {
 		out.append(sql);
 	}
 
+	@Override
+	public boolean appendCacheKey(StringBuilder key) {
+		key.append('R');
+		appendKey(key, sql);
+		return true;
+	}
+
 }
\ No newline at end of file
@@ -120,4 +120,12 @@ public class ReferenceChunk extends SqlChunk {
 		}
 	}
 
+	@Override
+	public boolean appendCacheKey(StringBuilder key) {
+		key.append(onlyId ? 'I' : 'F');
+		appendKey(key, tableRef);
+		appendKey(key, columnRef);
+		return true;
+	}
+
 }
\ No newline at end of file
@@ -148,6 +148,27 @@ public abstract class SqlChunk {
 	 */
 	public abstract void process(StringBuilder out);
 
+	/**
+	 * Appends the key that uniquely describes the output of this chunk, after
+	 * it has been {@link #init(TemplateData) initialized}. Returns <code>false</code>
+	 * when the output depends on the data (i.e. values), so the generated
+	 * query can not be cached. By default, chunks are not cacheable.
+	 */
+	public boolean appendCacheKey(StringBuilder key) {
+		return false;
+	}
+
+	/**
+	 * Appends a single value to the cache key.
+	 */
+	protected static void appendKey(StringBuilder key, String value) {
+		if (value == null) {
+			key.append('-');
+			return;
+		}
+		key.append(value.length()).append(':').append(value);
+	}
+
 
 	// ---------------------------------------------------------------- lookup
 
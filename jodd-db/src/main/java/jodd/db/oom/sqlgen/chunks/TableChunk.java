@@ -138,4 +138,14 @@ public class TableChunk extends SqlChunk {
 		}
 	}
 
+	@Override
+	public boolean appendCacheKey(StringBuilder key) {
+		key.append('T');
+		appendKey(key, ded.getType().getName());
+		appendKey(key, entityName);
+		appendKey(key, tableAlias);
+		appendKey(key, tableReference);
+		return true;
+	}
+
 }
\ No newline at end of file
@@ -0,0 +1,1019 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.db.pool;
+
+import jodd.db.DbSqlException;
+import jodd.db.connection.ConnectionProvider;
+import jodd.log.Logger;
+import jodd.log.LoggerFactory;
+import jodd.util.concurrent.ThreadFactoryBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Connection pool for highly concurrent usage.
+ * <p>
+ * Connections are borrowed and returned without locking: each connection
+ * has an atomic state, and a thread first tries connections it used
+ * recently before scanning the shared list. When no connection is idle,
+ * the thread waits (up to the {@link #setConnectionTimeout(long) connection timeout})
+ * for a returned or newly created connection to be handed off directly.
+ * <p>
+ * New connections are created asynchronously, on a single background thread
+ * that also evicts connections idle for too long or past their maximum
+ * lifetime, keeps the pool filled up to minimal size and reports leaked
+ * connections. Validation runs in the borrowing thread, not blocking others.
+ */
+public class ConcurrentConnectionPool implements ConnectionProvider {
+
+	private static final Logger log = LoggerFactory.getLogger(ConcurrentConnectionPool.class);
+
+	// ---------------------------------------------------------------- properties
+
+	private static final String DEFAULT_VALIDATION_QUERY = "select 1";
+
+	private String driver;
+	private String url;
+	private String user;
+	private String password;
+	private int maxConnections = 10;
+	private int minConnections = 5;
+	private long connectionTimeout = 30000L;		// 30 seconds
+	private long idleTimeout = 600000L;				// 10 minutes
+	private long maxLifetime = 1800000L;			// 30 minutes
+	private long leakDetectionThreshold;
+	private long housekeepingPeriod = 30000L;		// 30 seconds
+	private boolean validateConnection = true;
+	private long validationTimeout = 500L;
+	private String validationQuery;
+	private int validationQueryTimeout = 5;
+
+	public String getDriver() {
+		return driver;
+	}
+
+	/**
+	 * Specifies driver class name.
+	 */
+	public void setDriver(String driver) {
+		this.driver = driver;
+	}
+
+	public String getUrl() {
+		return url;
+	}
+
+	/**
+	 * Specifies JDBC url.
+	 */
+	public void setUrl(String url) {
+		this.url = url;
+	}
+
+	public String getUser() {
+		return user;
+	}
+
+	/**
+	 * Specifies db username.
+	 */
+	public void setUser(String user) {
+		this.user = user;
+	}
+
+	public String getPassword() {
+		return password;
+	}
+
+	/**
+	 * Specifies db password.
+	 */
+	public void setPassword(String password) {
+		this.password = password;
+	}
+
+	public int getMaxConnections() {
+		return maxConnections;
+	}
+
+	/**
+	 * Sets max number of connections.
+	 */
+	public void setMaxConnections(int maxConnections) {
+		this.maxConnections = maxConnections;
+	}
+
+	public int getMinConnections() {
+		return minConnections;
+	}
+
+	/**
+	 * Sets minimum number of open connections. Idle connections
+	 * are not evicted below this number.
+	 */
+	public void setMinConnections(int minConnections) {
+		this.minConnections = minConnections;
+	}
+
+	public long getConnectionTimeout() {
+		return connectionTimeout;
+	}
+
+	/**
+	 * Sets maximum number of milliseconds to wait for a connection
+	 * when none is available. Exception is thrown after the timeout.
+	 */
+	public void setConnectionTimeout(long connectionTimeout) {
+		this.connectionTimeout = connectionTimeout;
+	}
+
+	public long getIdleTimeout() {
+		return idleTimeout;
+	}
+
+	/**
+	 * Sets number of milliseconds after which an unused connection is closed.
+	 * Set to <code>0</code> to keep idle connections open.
+	 */
+	public void setIdleTimeout(long idleTimeout) {
+		this.idleTimeout = idleTimeout;
+	}
+
+	public long getMaxLifetime() {
+		return maxLifetime;
+	}
+
+	/**
+	 * Sets maximum number of milliseconds a connection may live. Connections
+	 * in use are closed when they are returned. Set to <code>0</code> for
+	 * unlimited lifetime.
+	 */
+	public void setMaxLifetime(long maxLifetime) {
+		this.maxLifetime = maxLifetime;
+	}
+
+	public long getLeakDetectionThreshold() {
+		return leakDetectionThreshold;
+	}
+
+	/**
+	 * Sets number of milliseconds a connection may be used before it is reported
+	 * as possibly leaked, together with the stack trace of the code that borrowed
+	 * it. Set to <code>0</code> (default) to disable leak detection.
+	 */
+	public void setLeakDetectionThreshold(long leakDetectionThreshold) {
+		this.leakDetectionThreshold = leakDetectionThreshold;
+	}
+
+	public long getHousekeepingPeriod() {
+		return housekeepingPeriod;
+	}
+
+	/**
+	 * Sets period in milliseconds for evicting idle and expired connections,
+	 * filling the pool and detecting leaks. Set before the {@link #init()}.
+	 */
+	public void setHousekeepingPeriod(long housekeepingPeriod) {
+		this.housekeepingPeriod = housekeepingPeriod;
+	}
+
+	public boolean isValidateConnection() {
+		return validateConnection;
+	}
+
+	/**
+	 * Specifies if connections should be validated before returned.
+	 */
+	public void setValidateConnection(boolean validateConnection) {
+		this.validateConnection = validateConnection;
+	}
+
+	public long getValidationTimeout() {
+		return validationTimeout;
+	}
+
+	/**
+	 * Specifies number of milliseconds from the last connection usage
+	 * when connection is considered as valid, without validation.
+	 */
+	public void setValidationTimeout(long validationTimeout) {
+		this.validationTimeout = validationTimeout;
+	}
+
+	public String getValidationQuery() {
+		return validationQuery;
+	}
+
+	/**
+	 * Specifies query to be used for validating connections.
+	 * If set to <code>null</code> validation will be performed
+	 * by invoking <code>Connection#isValid</code> method.
+	 */
+	public void setValidationQuery(String validationQuery) {
+		this.validationQuery = validationQuery;
+	}
+
+	/**
+	 * Sets default validation query (select 1);
+	 */
+	public void setDefaultValidationQuery() {
+		this.validationQuery = DEFAULT_VALIDATION_QUERY;
+	}
+
+	public int getValidationQueryTimeout() {
+		return validationQueryTimeout;
+	}
+
+	/**
+	 * Sets number of seconds to wait for the validation to complete.
+	 */
+	public void setValidationQueryTimeout(int validationQueryTimeout) {
+		this.validationQueryTimeout = validationQueryTimeout;
+	}
+
+	// ---------------------------------------------------------------- init
+
+	private final CopyOnWriteArrayList<PooledConnection> connections = new CopyOnWriteArrayList<>();
+	private final SynchronousQueue<PooledConnection> handoffQueue = new SynchronousQueue<>(true);
+	private final ThreadLocal<List<PooledConnection>> recentConnections = ThreadLocal.withInitial(() -> new ArrayList<>(RECENT_SIZE));
+	private final AtomicInteger totalConnections = new AtomicInteger();
+	private final AtomicInteger pendingConnections = new AtomicInteger();
+	private final AtomicInteger waiters = new AtomicInteger();
+
+	private static final int RECENT_SIZE = 16;
+
+	private volatile ScheduledThreadPoolExecutor executor;
+	private volatile SQLException lastCreateException;
+	private volatile boolean initialised;
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized void init() {
+		if (initialised) {
+			return;
+		}
+		if (log.isInfoEnabled()) {
+			log.info("Concurrent connection pool initialization");
+		}
+		try {
+			Class.forName(driver);
+		}
+		catch (ClassNotFoundException cnfex) {
+			throw new DbSqlException("Database driver not found: " + driver, cnfex);
+		}
+
+		if (minConnections > maxConnections) {
+			minConnections = maxConnections;
+		}
+		totalConnections.set(connections.size());
+		pendingConnections.set(0);
+
+		// the first connection is opened right away, to detect misconfiguration
+
+		if (minConnections > 0) {
+			try {
+				connections.add(new PooledConnection(openConnection(), maxLifetime));
+				totalConnections.incrementAndGet();
+				metrics.created.increment();
+			} catch (SQLException sex) {
+				throw new DbSqlException("No database connection", sex);
+			}
+		}
+
+		executor = new ScheduledThreadPoolExecutor(1,
+			ThreadFactoryBuilder.newThreadFactory()
+				.setNameFormat("jodd-db-pool-%d")
+				.setDaemon(true)
+				.build());
+		executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+		executor.scheduleWithFixedDelay(this::runHousekeeping, housekeepingPeriod, housekeepingPeriod, TimeUnit.MILLISECONDS);
+
+		initialised = true;
+
+		fillPool();
+	}
+
+	/**
+	 * Opens new database connection.
+	 */
+	protected Connection openConnection() throws SQLException {
+		return DriverManager.getConnection(url, user, password);
+	}
+
+	// ---------------------------------------------------------------- get/close
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Connection getConnection() {
+		if (!initialised) {
+			throw new DbSqlException("Connection pool is not initialized");
+		}
+
+		final long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(connectionTimeout);
+
+		while (true) {
+			PooledConnection pooledConnection = borrow(timeoutNanos);
+
+			if (pooledConnection == null) {
+				metrics.timeouts.increment();
+				throw new DbSqlException(
+					"Connection not available, timed out after " + connectionTimeout + "ms; " + getMetrics(),
+					lastCreateException);
+			}
+
+			long now = System.currentTimeMillis();
+
+			if (pooledConnection.isExpired(now) || !isConnectionValid(pooledConnection, now)) {
+				if (log.isDebugEnabled()) {
+					log.debug("Pooled connection not valid, resetting");
+				}
+				removeConnection(pooledConnection);
+				fillPool();
+				continue;
+			}
+
+			pooledConnection.lastUsed = now;
+			pooledConnection.borrowedTime = now;
+			if (leakDetectionThreshold > 0) {
+				pooledConnection.borrowedAt = new Throwable("Connection borrowed here");
+				pooledConnection.leakReported = false;
+			}
+
+			metrics.borrows.increment();
+			return pooledConnection.connection;
+		}
+	}
+
+	/**
+	 * Borrows idle connection, waiting for the given number of nanoseconds.
+	 * Returns <code>null</code> on timeout.
+	 */
+	private PooledConnection borrow(long timeoutNanos) {
+		final List<PooledConnection> recent = recentConnections.get();
+
+		for (int i = recent.size() - 1; i >= 0; i--) {
+			PooledConnection pooledConnection = recent.get(i);
+
+			if (pooledConnection.state == PooledConnection.STATE_REMOVED) {
+				recent.remove(i);
+				continue;
+			}
+			if (pooledConnection.compareAndSet(PooledConnection.STATE_IDLE, PooledConnection.STATE_IN_USE)) {
+				return pooledConnection;
+			}
+		}
+
+		final int waiting = waiters.incrementAndGet();
+		try {
+			for (PooledConnection pooledConnection : connections) {
+				if (pooledConnection.compareAndSet(PooledConnection.STATE_IDLE, PooledConnection.STATE_IN_USE)) {
+					if (waiting > 1) {
+						// the connection might have been handed to another waiting thread
+						requestConnections(waiting - 1);
+					}
+					remember(recent, pooledConnection);
+					return pooledConnection;
+				}
+			}
+
+			requestConnections(waiting);
+
+			final long start = System.nanoTime();
+			final long deadline = start + timeoutNanos;
+
+			while (timeoutNanos > 0) {
+				PooledConnection pooledConnection = handoffQueue.poll(timeoutNanos, TimeUnit.NANOSECONDS);
+
+				if (pooledConnection == null) {
+					break;
+				}
+				if (pooledConnection.compareAndSet(PooledConnection.STATE_IDLE, PooledConnection.STATE_IN_USE)) {
+					metrics.waited(System.nanoTime() - start);
+					remember(recent, pooledConnection);
+					return pooledConnection;
+				}
+				timeoutNanos = deadline - System.nanoTime();
+			}
+			metrics.waited(System.nanoTime() - start);
+			return null;
+		}
+		catch (InterruptedException iex) {
+			Thread.currentThread().interrupt();
+			throw new DbSqlException("Interrupted while waiting for connection", iex);
+		}
+		finally {
+			waiters.decrementAndGet();
+		}
+	}
+
+	/**
+	 * Remembers connection as recently used by the current thread.
+	 */
+	private void remember(List<PooledConnection> recent, PooledConnection pooledConnection) {
+		if (recent.contains(pooledConnection)) {
+			return;
+		}
+		if (recent.size() == RECENT_SIZE) {
+			recent.remove(0);
+		}
+		recent.add(pooledConnection);
+	}
+
+	/**
+	 * Checks if existing connection is valid. It may happen
+	 * that if connection is not used for a while it becomes inactive,
+	 * although not technically closed.
+	 */
+	private boolean isConnectionValid(PooledConnection pooledConnection, long now) {
+		if (!validateConnection) {
+			return true;
+		}
+		if (now < pooledConnection.lastUsed + validationTimeout) {
+			return true;
+		}
+
+		Connection conn = pooledConnection.connection;
+
+		if (validationQuery == null) {
+			try {
+				return conn.isValid(validationQueryTimeout);
+			} catch (SQLException sex) {
+				return false;
+			}
+		}
+
+		try (Statement st = conn.createStatement()) {
+			st.setQueryTimeout(validationQueryTimeout);
+			st.execute(validationQuery);
+			return true;
+		} catch (SQLException sex) {
+			return false;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void closeConnection(Connection connection) {
+		PooledConnection pooledConnection = lookup(connection);
+
+		if (pooledConnection == null) {
+			if (log.isWarnEnabled()) {
+				log.warn("Closing connection that does not belong to the pool");
+			}
+			closeQuietly(connection);
+			return;
+		}
+		if (pooledConnection.state != PooledConnection.STATE_IN_USE) {
+			return;
+		}
+
+		long now = System.currentTimeMillis();
+
+		pooledConnection.lastUsed = now;
+		pooledConnection.borrowedAt = null;
+
+		if (!initialised || pooledConnection.isExpired(now)) {
+			removeConnection(pooledConnection);
+			fillPool();
+			return;
+		}
+
+		if (pooledConnection.compareAndSet(PooledConnection.STATE_IN_USE, PooledConnection.STATE_IDLE)) {
+			handoff(pooledConnection);
+		}
+	}
+
+	/**
+	 * Hands off idle connection to one of the waiting threads, if any.
+	 */
+	private void handoff(PooledConnection pooledConnection) {
+		for (int i = 0; waiters.get() > 0; i++) {
+			if (pooledConnection.state != PooledConnection.STATE_IDLE || handoffQueue.offer(pooledConnection)) {
+				return;
+			}
+			if ((i & 0xFF) == 0xFF) {
+				LockSupport.parkNanos(10_000);
+			}
+			else {
+				Thread.yield();
+			}
+		}
+	}
+
+	/**
+	 * Finds pooled connection, looking at the recently used connections first.
+	 */
+	private PooledConnection lookup(Connection connection) {
+		List<PooledConnection> recent = recentConnections.get();
+
+		for (int i = recent.size() - 1; i >= 0; i--) {
+			PooledConnection pooledConnection = recent.get(i);
+			if (pooledConnection.connection == connection) {
+				return pooledConnection;
+			}
+		}
+		for (PooledConnection pooledConnection : connections) {
+			if (pooledConnection.connection == connection) {
+				return pooledConnection;
+			}
+		}
+		return null;
+	}
+
+	// ---------------------------------------------------------------- add/remove
+
+	/**
+	 * Requests new connections, unless already requested ones
+	 * are enough for the waiting threads.
+	 */
+	private void requestConnections(int waiting) {
+		if (pendingConnections.get() < waiting) {
+			addConnection();
+		}
+	}
+
+	/**
+	 * Ensures that pool has minimal number of connections and requests
+	 * new connections for the waiting threads, e.g. to replace the removed
+	 * ones. Number of connections is limited by the maximal pool size.
+	 */
+	private void fillPool() {
+		int count = minConnections - totalConnections.get();
+
+		for (int i = 0; i < count; i++) {
+			if (!addConnection()) {
+				return;
+			}
+		}
+
+		int waiting = waiters.get();
+
+		while (pendingConnections.get() < waiting) {
+			if (!addConnection()) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Reserves a place for new connection and opens it in the background.
+	 * Returns <code>false</code> if the pool is full or closed.
+	 */
+	private boolean addConnection() {
+		final ScheduledThreadPoolExecutor executor = this.executor;
+
+		if (executor == null) {
+			// pool is closed
+			return false;
+		}
+
+		while (true) {
+			int total = totalConnections.get();
+
+			if (total >= maxConnections) {
+				return false;
+			}
+			if (totalConnections.compareAndSet(total, total + 1)) {
+				break;
+			}
+		}
+
+		pendingConnections.incrementAndGet();
+
+		try {
+			executor.execute(this::createConnection);
+		}
+		catch (RejectedExecutionException rejex) {
+			pendingConnections.decrementAndGet();
+			totalConnections.decrementAndGet();
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Opens new connection on the reserved place and offers it
+	 * to waiting threads.
+	 */
+	private void createConnection() {
+		PooledConnection pooledConnection;
+
+		try {
+			pooledConnection = new PooledConnection(openConnection(), maxLifetime);
+		}
+		catch (SQLException sex) {
+			lastCreateException = sex;
+			pendingConnections.decrementAndGet();
+			totalConnections.decrementAndGet();
+
+			if (log.isWarnEnabled()) {
+				log.warn("Failed to open new connection", sex);
+			}
+			return;
+		}
+
+		lastCreateException = null;
+		metrics.created.increment();
+		connections.add(pooledConnection);
+		pendingConnections.decrementAndGet();
+
+		if (!initialised) {
+			removeConnection(pooledConnection);
+			return;
+		}
+
+		handoff(pooledConnection);
+	}
+
+	/**
+	 * Removes connection from the pool and closes it.
+	 */
+	private void removeConnection(PooledConnection pooledConnection) {
+		pooledConnection.state = PooledConnection.STATE_REMOVED;
+
+		if (connections.remove(pooledConnection)) {
+			totalConnections.decrementAndGet();
+			metrics.closed.increment();
+			closeQuietly(pooledConnection.connection);
+		}
+	}
+
+	private void closeQuietly(Connection connection) {
+		try {
+			if (!connection.isClosed()) {
+				connection.close();
+			}
+		} catch (SQLException sex) {
+			// ignore
+		}
+	}
+
+	// ---------------------------------------------------------------- housekeeping
+
+	private void runHousekeeping() {
+		try {
+			housekeep();
+		}
+		catch (RuntimeException rex) {
+			// keep the scheduled task running
+			log.error("Connection pool housekeeping failed", rex);
+		}
+	}
+
+	/**
+	 * Evicts idle and expired connections, reports leaked connections
+	 * and fills the pool.
+	 */
+	protected void housekeep() {
+		long now = System.currentTimeMillis();
+
+		for (PooledConnection pooledConnection : connections) {
+			int state = pooledConnection.state;
+
+			if (state == PooledConnection.STATE_IDLE) {
+				boolean evict = pooledConnection.isExpired(now)
+					|| (idleTimeout > 0
+						&& now - pooledConnection.lastUsed > idleTimeout
+						&& totalConnections.get() > minConnections);
+
+				if (evict && pooledConnection.compareAndSet(PooledConnection.STATE_IDLE, PooledConnection.STATE_REMOVED)) {
+					removeConnection(pooledConnection);
+				}
+			}
+			else if (state == PooledConnection.STATE_IN_USE) {
+				detectLeak(pooledConnection, now);
+			}
+		}
+
+		fillPool();
+	}
+
+	/**
+	 * Reports connection used longer than the leak detection threshold.
+	 */
+	private void detectLeak(PooledConnection pooledConnection, long now) {
+		if (leakDetectionThreshold <= 0 || pooledConnection.leakReported) {
+			return;
+		}
+
+		Throwable borrowedAt = pooledConnection.borrowedAt;
+
+		if (borrowedAt == null || now - pooledConnection.borrowedTime <= leakDetectionThreshold) {
+			return;
+		}
+
+		pooledConnection.leakReported = true;
+		metrics.leaks.increment();
+
+		if (log.isWarnEnabled()) {
+			log.warn("Possible connection leak, connection in use for "
+				+ (now - pooledConnection.borrowedTime) + "ms", borrowedAt);
+		}
+	}
+
+	// ---------------------------------------------------------------- close
+
+	/**
+	 * Closes all the connections, including the ones in use. Threads
+	 * waiting for connections will time out.
+	 */
+	@Override
+	public synchronized void close() {
+		if (!initialised) {
+			return;
+		}
+		if (log.isInfoEnabled()) {
+			log.info("Concurrent connection pool shutdown");
+		}
+		initialised = false;
+
+		executor.shutdownNow();
+		executor = null;
+
+		for (PooledConnection pooledConnection : connections) {
+			removeConnection(pooledConnection);
+		}
+	}
+
+	// ---------------------------------------------------------------- pooled connection
+
+	/**
+	 * Pooled connection with its state and timestamps.
+	 */
+	static final class PooledConnection {
+		static final int STATE_REMOVED = -1;
+		static final int STATE_IDLE = 0;
+		static final int STATE_IN_USE = 1;
+
+		private static final AtomicIntegerFieldUpdater<PooledConnection> STATE =
+			AtomicIntegerFieldUpdater.newUpdater(PooledConnection.class, "state");
+
+		final Connection connection;
+		final long expiresAt;
+		volatile int state;
+		volatile long lastUsed;
+		volatile long borrowedTime;
+		volatile Throwable borrowedAt;
+		volatile boolean leakReported;
+
+		PooledConnection(Connection connection, long maxLifetime) {
+			this.connection = connection;
+			this.lastUsed = System.currentTimeMillis();
+
+			if (maxLifetime > 0) {
+				// up to 2.5% shorter lifetime, so connections do not expire at once
+				long variance = maxLifetime > 10000 ? ThreadLocalRandom.current().nextLong(maxLifetime / 40) : 0;
+				this.expiresAt = lastUsed + maxLifetime - variance;
+			}
+			else {
+				this.expiresAt = Long.MAX_VALUE;
+			}
+		}
+
+		boolean compareAndSet(int expect, int update) {
+			return STATE.compareAndSet(this, expect, update);
+		}
+
+		boolean isExpired(long now) {
+			return now >= expiresAt;
+		}
+	}
+
+	// ---------------------------------------------------------------- metrics
+
+	private final Counters metrics = new Counters();
+
+	/**
+	 * Cumulative pool counters.
+	 */
+	static final class Counters {
+		final LongAdder borrows = new LongAdder();
+		final LongAdder waits = new LongAdder();
+		final LongAdder timeouts = new LongAdder();
+		final LongAdder created = new LongAdder();
+		final LongAdder closed = new LongAdder();
+		final LongAdder leaks = new LongAdder();
+		final LongAdder waitNanos = new LongAdder();
+		final AtomicLong maxWaitNanos = new AtomicLong();
+
+		void waited(long waitTime) {
+			waits.increment();
+			waitNanos.add(waitTime);
+
+			if (waitTime > maxWaitNanos.get()) {
+				maxWaitNanos.accumulateAndGet(waitTime, Math::max);
+			}
+		}
+	}
+
+	/**
+	 * Returns connection stats.
+	 */
+	public CoreConnectionPool.SizeSnapshot getConnectionsCount() {
+		int idle = countIdle();
+		return new CoreConnectionPool.SizeSnapshot(idle, connections.size() - idle);
+	}
+
+	/**
+	 * Returns snapshot of pool metrics.
+	 */
+	public Metrics getMetrics() {
+		return new Metrics(this);
+	}
+
+	private int countIdle() {
+		int count = 0;
+		for (PooledConnection pooledConnection : connections) {
+			if (pooledConnection.state == PooledConnection.STATE_IDLE) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Pool metrics snapshot.
+	 */
+	public static class Metrics {
+		final int totalCount;
+		final int idleCount;
+		final int activeCount;
+		final int pendingCount;
+		final int waitingCount;
+		final long borrowCount;
+		final long waitCount;
+		final long timeoutCount;
+		final long createdCount;
+		final long closedCount;
+		final long leakCount;
+		final long totalWaitNanos;
+		final long maxWaitNanos;
+
+		Metrics(ConcurrentConnectionPool pool) {
+			Counters counters = pool.metrics;
+
+			this.idleCount = pool.countIdle();
+			this.totalCount = pool.connections.size();
+			this.activeCount = totalCount - idleCount;
+			this.pendingCount = pool.pendingConnections.get();
+			this.waitingCount = pool.waiters.get();
+			this.borrowCount = counters.borrows.sum();
+			this.waitCount = counters.waits.sum();
+			this.timeoutCount = counters.timeouts.sum();
+			this.createdCount = counters.created.sum();
+			this.closedCount = counters.closed.sum();
+			this.leakCount = counters.leaks.sum();
+			this.totalWaitNanos = counters.waitNanos.sum();
+			this.maxWaitNanos = counters.maxWaitNanos.get();
+		}
+
+		/**
+		 * Returns number of open connections.
+		 */
+		public int getTotalCount() {
+			return totalCount;
+		}
+
+		/**
+		 * Returns number of idle connections.
+		 */
+		public int getIdleCount() {
+			return idleCount;
+		}
+
+		/**
+		 * Returns number of connections in use.
+		 */
+		public int getActiveCount() {
+			return activeCount;
+		}
+
+		/**
+		 * Returns number of connections being opened.
+		 */
+		public int getPendingCount() {
+			return pendingCount;
+		}
+
+		/**
+		 * Returns number of threads waiting for a connection.
+		 */
+		public int getWaitingCount() {
+			return waitingCount;
+		}
+
+		/**
+		 * Returns total number of borrowed connections.
+		 */
+		public long getBorrowCount() {
+			return borrowCount;
+		}
+
+		/**
+		 * Returns number of times a thread had to wait for a connection.
+		 */
+		public long getWaitCount() {
+			return waitCount;
+		}
+
+		/**
+		 * Returns number of failed borrows due to timeout.
+		 */
+		public long getTimeoutCount() {
+			return timeoutCount;
+		}
+
+		/**
+		 * Returns total number of opened connections.
+		 */
+		public long getCreatedCount() {
+			return createdCount;
+		}
+
+		/**
+		 * Returns total number of closed connections.
+		 */
+		public long getClosedCount() {
+			return closedCount;
+		}
+
+		/**
+		 * Returns number of reported connection leaks.
+		 */
+		public long getLeakCount() {
+			return leakCount;
+		}
+
+		/**
+		 * Returns average time in nanoseconds a thread waited for a connection.
+		 */
+		public long getAverageWaitNanos() {
+			return waitCount == 0 ? 0 : totalWaitNanos / waitCount;
+		}
+
+		/**
+		 * Returns maximal time in nanoseconds spent waiting for a connection.
+		 */
+		public long getMaxWaitNanos() {
+			return maxWaitNanos;
+		}
+
+		@Override
+		public String toString() {
+			return "Pool metrics: {total=" + totalCount +
+					", idle=" + idleCount +
+					", active=" + activeCount +
+					", pending=" + pendingCount +
+					", waiting=" + waitingCount +
+					", borrowed=" + borrowCount +
+					", waits=" + waitCount +
+					", timeouts=" + timeoutCount + '}';
+		}
+	}
+
+}
@@ -0,0 +1,112 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.db.oom;
+
+import jodd.db.DbQuery;
+import jodd.db.DbSession;
+import jodd.db.JoddDb;
+import jodd.db.pool.CoreConnectionPool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+
+/**
+ * Compares mapping of large result sets to entities with default
+ * and compiled result set mapper.
+ *
+ * Run:
+ * <code>
+ * gw :jodd-db:ResultSetMapperBenchmark
+ * </code>
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@State(Scope.Benchmark)
+public class ResultSetMapperBenchmark {
+
+	private static final int ROWS = 10000;
+
+	public static class Item {
+		public long id;
+		public String name;
+		public int amount;
+		public double price;
+	}
+
+	private CoreConnectionPool pool;
+	private DbSession session;
+
+	@Setup
+	public void setup() {
+		pool = new CoreConnectionPool();
+		pool.setDriver("org.hsqldb.jdbcDriver");
+		pool.setUrl("jdbc:hsqldb:mem:mapper");
+		pool.setUser("sa");
+		pool.setPassword("");
+		pool.init();
+
+		JoddDb.get().dbEntityManager().registerEntity(Item.class);
+
+		session = new DbSession(pool);
+		new DbQuery(session, "create table ITEM (ID bigint primary key, NAME varchar(20), AMOUNT integer, PRICE double)").autoClose().executeUpdate();
+
+		DbQuery query = new DbQuery(session, "insert into ITEM values (:id, :name, :amount, :price)");
+		for (int i = 0; i < ROWS; i++) {
+			query.setLong("id", i);
+			query.setString("name", "item" + i);
+			query.setInteger("amount", i % 100);
+			query.setDouble("price", i / 10.0);
+			query.addBatch();
+		}
+		query.executeBatch();
+		query.close();
+	}
+
+	@TearDown
+	public void tearDown() {
+		session.closeSession();
+		pool.close();
+	}
+
+	@Benchmark
+	public List<Item> defaultMapper() {
+		return new DbOomQuery(session, "select * from ITEM").autoClose().list(Item.class);
+	}
+
+	@Benchmark
+	public List<Item> compiledMapper() {
+		return new DbOomQuery(session, "select * from ITEM").compiledResultSetMapper(true).autoClose().list(Item.class);
+	}
+
+}
@@ -0,0 +1,106 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.db.pool;
+
+import jodd.db.connection.ConnectionProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+
+/**
+ * Compares borrowing and returning of connections under contention:
+ * more threads than pooled connections.
+ *
+ * Run:
+ * <code>
+ * gw :jodd-db:ConnectionPoolBenchmark
+ * </code>
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Threads(8)
+@State(Scope.Benchmark)
+public class ConnectionPoolBenchmark {
+
+	private static final int POOL_SIZE = 4;
+
+	private CoreConnectionPool corePool;
+	private ConcurrentConnectionPool concurrentPool;
+
+	@Setup
+	public void setup() {
+		corePool = new CoreConnectionPool();
+		corePool.setDriver("org.hsqldb.jdbcDriver");
+		corePool.setUrl("jdbc:hsqldb:mem:bench");
+		corePool.setUser("sa");
+		corePool.setPassword("");
+		corePool.setMinConnections(POOL_SIZE);
+		corePool.setMaxConnections(POOL_SIZE);
+		corePool.setWaitIfBusy(true);
+		corePool.init();
+
+		concurrentPool = new ConcurrentConnectionPool();
+		concurrentPool.setDriver("org.hsqldb.jdbcDriver");
+		concurrentPool.setUrl("jdbc:hsqldb:mem:bench");
+		concurrentPool.setUser("sa");
+		concurrentPool.setPassword("");
+		concurrentPool.setMinConnections(POOL_SIZE);
+		concurrentPool.setMaxConnections(POOL_SIZE);
+		concurrentPool.init();
+	}
+
+	@TearDown
+	public void tearDown() {
+		corePool.close();
+		concurrentPool.close();
+	}
+
+	@Benchmark
+	public Connection corePool() {
+		return borrowAndReturn(corePool);
+	}
+
+	@Benchmark
+	public Connection concurrentPool() {
+		return borrowAndReturn(concurrentPool);
+	}
+
+	private Connection borrowAndReturn(ConnectionProvider connectionProvider) {
+		Connection connection = connectionProvider.getConnection();
+		connectionProvider.closeConnection(connection);
+		return connection;
+	}
+
+}
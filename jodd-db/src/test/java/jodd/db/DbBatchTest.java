@@ -0,0 +1,148 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.db;
+
+import jodd.db.fixtures.DbHsqldbTestCase;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DbBatchTest extends DbHsqldbTestCase {
+
+	public static class GirlBean {
+		private int id;
+		private String name;
+
+		public GirlBean(int id, String name) {
+			this.id = id;
+			this.name = name;
+		}
+
+		public int getId() {
+			return id;
+		}
+
+		public String getName() {
+			return name;
+		}
+	}
+
+	@Test
+	void testBatchWithParameters() {
+		DbSession session = new DbSession(cp);
+
+		DbQuery query = new DbQuery(session, "insert into GIRL (ID, NAME) values (:id, :name)");
+		for (int i = 1; i <= 3; i++) {
+			query.setInteger("id", i);
+			query.setString("name", "girl" + i);
+			query.addBatch();
+		}
+		int[] counts = query.executeBatch();
+		query.close();
+
+		assertArrayEquals(new int[] {1, 1, 1}, counts);
+		assertEquals(3, executeCount(session, "select count(*) from GIRL"));
+
+		session.closeSession();
+	}
+
+	@Test
+	void testBatchWithBeansAndMaps() {
+		DbSession session = new DbSession(cp);
+
+		List<GirlBean> girls = new ArrayList<>();
+		for (int i = 1; i <= 5; i++) {
+			girls.add(new GirlBean(i, "girl" + i));
+		}
+
+		DbQuery query = new DbQuery(session, "insert into GIRL (ID, NAME) values (:girl.id, :girl.name)");
+		query.setBatchSize(2);
+		query.addBatchBeans("girl", girls);
+
+		// two batches are already sent
+		assertEquals(4, executeCount(session, "select count(*) from GIRL"));
+
+		int[] counts = query.executeBatch();
+		assertEquals(5, counts.length);
+		assertEquals(5, executeCount(session, "select count(*) from GIRL"));
+
+		query.close();
+
+		List<Map<String, Object>> maps = new ArrayList<>();
+		for (int i = 1; i <= 5; i++) {
+			Map<String, Object> map = new HashMap<>();
+			map.put("id", Integer.valueOf(i));
+			map.put("speciality", "skill" + i);
+			maps.add(map);
+		}
+
+		query = new DbQuery(session, "update GIRL set SPECIALITY = :speciality where ID = :id");
+		counts = query.addBatchMaps(maps).autoClose().executeBatch();
+
+		assertArrayEquals(new int[] {1, 1, 1, 1, 1}, counts);
+		assertTrue(query.isClosed());
+		assertEquals(5, executeCount(session, "select count(*) from GIRL where SPECIALITY like 'skill%'"));
+
+		session.closeSession();
+	}
+
+	@Test
+	void testBatchGeneratedKeys() {
+		DbSession session = new DbSession(cp);
+
+		executeUpdate(session, "drop table KEYS if exists");
+		executeUpdate(session, "create table KEYS (ID integer generated by default as identity (start with 10) primary key, NAME varchar(20))");
+
+		DbQuery query = new DbQuery(session, "insert into KEYS (NAME) values (:name)");
+		query.setGeneratedKey();
+		query.setBatchSize(2);
+
+		for (int i = 0; i < 3; i++) {
+			query.setString("name", "key" + i);
+			query.addBatch();
+		}
+		assertEquals(3, query.executeBatch().length);
+		assertArrayEquals(new long[] {10, 11, 12}, query.getBatchGeneratedKeys());
+
+		// new batch resets results
+
+		query.setString("name", "key3");
+		query.addBatch();
+		assertEquals(1, query.executeBatch().length);
+		assertArrayEquals(new long[] {13}, query.getBatchGeneratedKeys());
+
+		query.close();
+		session.closeSession();
+	}
+
+}
@@ -94,4 +94,17 @@ class DbQueryTest {
 
 		assertTrue(dbp.prepared);
 	}
+
+	@Test
+	void testParsedQueryCache() {
+		String sql = "select * from FOO where id = :id and name = :name";
+
+		long hits = DbQueryBase.getParsedQueryCache().getHitCount();
+
+		DbQueryParser query = DbQueryParser.parse(sql);
+		assertEquals("select * from FOO where id = ? and name = ?", query.sql);
+		assertSame(query, DbQueryParser.parse(sql));
+		assertEquals(hits + 1, DbQueryBase.getParsedQueryCache().getHitCount());
+	}
+
 }
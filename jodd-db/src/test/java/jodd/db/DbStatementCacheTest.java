@@ -0,0 +1,124 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.db;
+
+import jodd.db.fixtures.DbHsqldbTestCase;
+import org.junit.jupiter.api.Test;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DbStatementCacheTest extends DbHsqldbTestCase {
+
+	@Test
+	void testStatementReuse() throws SQLException {
+		DbSession session = new DbSession(cp);
+		session.setStatementCacheSize(2);
+
+		executeUpdate(session, "insert into GIRL (ID, NAME) values (1, 'Anna')");
+		executeUpdate(session, "insert into GIRL (ID, NAME) values (2, 'Sandra')");
+
+		DbQuery query = new DbQuery(session, "select count(*) from GIRL where ID = :id");
+		query.setInteger("id", 1);
+		query.setMaxRows(10);
+		assertEquals(1, query.executeCount());
+		PreparedStatement ps = query.preparedStatement;
+		query.close();
+
+		assertEquals(1, session.getStatementCache().size());
+		assertEquals(0, ps.getMaxRows());
+
+		// same statement is reused with cleared parameters
+		query = new DbQuery(session, "select count(*) from GIRL where ID = :id");
+		query.init();
+		assertSame(ps, query.preparedStatement);
+		assertEquals(0, session.getStatementCache().size());
+		assertEquals(1, session.getStatementCache().getHitCount());
+		assertThrows(DbSqlException.class, query::executeCount);
+		query.close();
+
+		query = new DbQuery(session, "select count(*) from GIRL where ID = :id");
+		query.setInteger("id", 3);
+		assertEquals(0, query.executeCount());
+
+		// statement in use is not shared
+		DbQuery query2 = new DbQuery(session, "select count(*) from GIRL where ID = :id");
+		query2.setInteger("id", 2);
+		assertEquals(1, query2.executeCount());
+		assertNotSame(query.preparedStatement, query2.preparedStatement);
+
+		query.close();
+		query2.close();
+		assertEquals(1, session.getStatementCache().size());
+
+		session.closeSession();
+
+		assertEquals(0, session.getStatementCache().size());
+		assertTrue(ps.isClosed());
+	}
+
+	@Test
+	void testStatementEviction() throws SQLException {
+		DbSession session = new DbSession(cp);
+		session.setStatementCacheSize(2);
+
+		PreparedStatement[] statements = new PreparedStatement[3];
+
+		for (int i = 0; i < 3; i++) {
+			DbQuery query = new DbQuery(session, "select count(*) from GIRL where ID > :id + " + i);
+			query.setInteger("id", 0);
+			assertEquals(0, query.executeCount());
+			statements[i] = query.preparedStatement;
+			query.close();
+		}
+
+		assertEquals(2, session.getStatementCache().size());
+		assertEquals(3, session.getStatementCache().getMissCount());
+		assertTrue(statements[0].isClosed());
+
+		// different statement settings are not shared
+		DbQuery query = new DbQuery(session, "select count(*) from GIRL where ID > :id + 2");
+		query.setType(DbQuery.TYPE_SCROLL_INSENSITIVE);
+		query.setInteger("id", 0);
+		assertEquals(0, query.executeCount());
+		assertNotSame(statements[2], query.preparedStatement);
+		query.close();
+
+		session.setStatementCacheSize(0);
+		assertNull(session.getStatementCache());
+		assertTrue(statements[2].isClosed());
+
+		session.closeSession();
+	}
+
+}
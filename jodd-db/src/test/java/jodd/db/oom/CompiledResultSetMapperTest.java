@@ -0,0 +1,149 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.db.oom;
+
+import jodd.db.DbSession;
+import jodd.db.DbTestUtil;
+import jodd.db.DbThreadSession;
+import jodd.db.JoddDb;
+import jodd.db.fixtures.DbHsqldbTestCase;
+import jodd.db.oom.fixtures.Boy2;
+import jodd.db.oom.fixtures.Girl;
+import jodd.db.oom.mapper.CompiledResultSetMapper;
+import jodd.db.oom.meta.DbColumn;
+import jodd.db.oom.meta.DbId;
+import jodd.db.oom.meta.DbTable;
+import jodd.db.oom.sqlgen.DbEntitySql;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static jodd.db.oom.sqlgen.DbSqlBuilder.sql;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CompiledResultSetMapperTest extends DbHsqldbTestCase {
+
+	@DbTable("GIRL")
+	public static class GirlBean {
+		@DbId
+		private long id;
+		@DbColumn
+		private String name;
+		@DbColumn
+		private String speciality;
+
+		public long getId() {
+			return id;
+		}
+
+		public void setId(long id) {
+			this.id = id;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		public String getSpeciality() {
+			return speciality;
+		}
+
+		public void setSpeciality(String speciality) {
+			this.speciality = speciality;
+		}
+	}
+
+	@Override
+	@BeforeEach
+	public void setUp() throws Exception {
+		super.setUp();
+
+		DbTestUtil.resetAll();
+		DbEntityManager dbEntityManager = JoddDb.get().dbEntityManager();
+		dbEntityManager.registerEntity(Boy2.class);
+		dbEntityManager.registerEntity(Girl.class);
+	}
+
+	@Test
+	void testCompiledMapper() {
+		DbSession dbSession = new DbThreadSession(cp);
+
+		assertEquals(1, DbEntitySql.insert(new Girl(1, "Anna", "swim")).query().executeUpdate());
+		assertEquals(1, DbEntitySql.insert(new Girl(2, "Sandra", null)).query().executeUpdate());
+		assertEquals(1, DbEntitySql.insert(new Boy2(1, "John", 1)).query().executeUpdate());
+		assertEquals(1, DbEntitySql.insert(new Boy2(2, "Mark", 2)).query().executeUpdate());
+
+		String template = "select $C{boy.*}, $C{girl.*}, 7 from $T{Boy2 boy} join $T{Girl girl} on $boy.girlId=$girl.id order by $boy.id";
+
+		List<Object[]> expected = new DbOomQuery(sql(template)).list(Boy2.class, Girl.class, Integer.class);
+
+		long misses = CompiledResultSetMapper.getPlanCache().getMissCount();
+		long hits = CompiledResultSetMapper.getPlanCache().getHitCount();
+
+		for (int i = 0; i < 2; i++) {
+			List<Object[]> result = new DbOomQuery(sql(template)).compiledResultSetMapper(true).list(Boy2.class, Girl.class, Integer.class);
+
+			assertEquals(expected.size(), result.size());
+			for (int j = 0; j < result.size(); j++) {
+				Boy2 expectedBoy = (Boy2) expected.get(j)[0];
+				Boy2 boy = (Boy2) result.get(j)[0];
+				assertEquals(expectedBoy.id, boy.id);
+				assertEquals(expectedBoy.name, boy.name);
+				assertEquals(expectedBoy.girlId, boy.girlId);
+
+				Girl expectedGirl = (Girl) expected.get(j)[1];
+				Girl girl = (Girl) result.get(j)[1];
+				assertEquals(expectedGirl.id, girl.id);
+				assertEquals(expectedGirl.name, girl.name);
+				assertEquals(expectedGirl.speciality, girl.speciality);
+
+				assertEquals(Integer.valueOf(7), result.get(j)[2]);
+			}
+		}
+
+		assertNull(((Girl) expected.get(1)[1]).speciality);
+
+		// plan is compiled once and then shared
+		assertEquals(misses + 1, CompiledResultSetMapper.getPlanCache().getMissCount());
+		assertEquals(hits + 1, CompiledResultSetMapper.getPlanCache().getHitCount());
+
+		// setters
+		List<GirlBean> girls = new DbOomQuery("select * from GIRL order by ID").compiledResultSetMapper(true).list(GirlBean.class);
+		assertEquals(2, girls.size());
+		assertEquals(2, girls.get(1).getId());
+		assertEquals("Sandra", girls.get(1).getName());
+		assertEquals("swim", girls.get(0).getSpeciality());
+
+		dbSession.closeSession();
+	}
+
+}
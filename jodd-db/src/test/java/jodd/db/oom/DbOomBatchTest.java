@@ -0,0 +1,135 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.db.oom;
+
+import jodd.db.DbSession;
+import jodd.db.DbTestUtil;
+import jodd.db.JoddDb;
+import jodd.db.fixtures.DbHsqldbTestCase;
+import jodd.db.oom.fixtures.Girl2;
+import jodd.db.oom.sqlgen.DbEntitySql;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class DbOomBatchTest extends DbHsqldbTestCase {
+
+	@Override
+	@BeforeEach
+	protected void setUp() throws Exception {
+		super.setUp();
+
+		DbTestUtil.resetAll();
+		JoddDb.get().dbEntityManager().registerEntity(Girl2.class);
+	}
+
+	@Override
+	protected void initDb(DbSession session) {
+		executeUpdate(session, "drop table BOY if exists");
+		executeUpdate(session, "drop table GIRL if exists");
+
+		String sql = "create table GIRL (" +
+				"ID			integer generated by default as identity (start with 1)," +
+				"NAME		varchar(20)	not null," +
+				"SPECIALITY	varchar(20)	null," +
+				"TIME		timestamp default CURRENT_TIMESTAMP not null," +
+				"primary key (ID)" +
+				')';
+
+		executeUpdate(session, sql);
+	}
+
+	@Test
+	void testInsertAndUpdate() {
+		DbSession session = new DbSession(cp);
+
+		List<Girl2> girls = new ArrayList<>();
+		girls.add(new Girl2("Anna"));
+		girls.add(new Girl2("Sandra"));
+		girls.get(1).speciality = "piano";
+		girls.add(new Girl2("Monica"));
+		girls.get(2).speciality = "hacking";
+		girls.add(new Girl2("Emma"));
+
+		int[] counts = new DbOomBatch(session).batchSize(10).generatedKeys(true).insert(girls);
+
+		assertArrayEquals(new int[] {1, 1, 1, 1}, counts);
+		assertEquals(1, girls.get(0).id.intValue());
+		assertEquals(2, girls.get(1).id.intValue());
+		assertEquals(3, girls.get(2).id.intValue());
+		assertEquals(4, girls.get(3).id.intValue());
+
+		List<Girl2> dbGirls = DbEntitySql.from(Girl2.class).$("order by ID").query(session).list(Girl2.class);
+		assertEquals(4, dbGirls.size());
+		assertEquals("hacking", dbGirls.get(2).speciality);
+
+		for (Girl2 girl : dbGirls) {
+			girl.speciality = "swim";
+		}
+		counts = new DbOomBatch(session).batchSize(3).update(dbGirls);
+		assertArrayEquals(new int[] {1, 1, 1, 1}, counts);
+
+		assertEquals(4, executeCount(session, "select count(*) from GIRL where SPECIALITY = 'swim'"));
+
+		session.closeSession();
+	}
+
+	@Test
+	void testAddBatchOfGenerators() {
+		DbSession session = new DbSession(cp);
+
+		DbOomQuery query = DbOomQuery.query(session, DbEntitySql.insert(new Girl2("Anna")));
+		query.addBatch();
+		query.addBatch(DbEntitySql.insert(new Girl2("Sandra")));
+		query.addBatch(DbEntitySql.insert(new Girl2("Monica")));
+
+		assertEquals(3, query.executeBatch().length);
+		query.close();
+
+		assertEquals(3, executeCount(session, "select count(*) from GIRL"));
+
+		query = DbOomQuery.query(session, DbEntitySql.insert(new Girl2("Anna")));
+		Girl2 girl = new Girl2("Sandra");
+		girl.speciality = "piano";
+
+		try {
+			query.addBatch(DbEntitySql.insert(girl));
+			fail("error");
+		}
+		catch (DbOomException ignore) {
+		}
+		query.close();
+
+		session.closeSession();
+	}
+
+}
@@ -45,6 +45,7 @@ import static jodd.db.oom.ColumnAliasType.TABLE_NAME;
 import static jodd.db.oom.ColumnAliasType.TABLE_REFERENCE;
 import static jodd.db.oom.sqlgen.DbSqlBuilder.sql;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
 class DbSqlBuilderTest {
@@ -381,4 +382,45 @@ class DbSqlBuilderTest {
 
 	}
 
+	@Test
+	void testGeneratedSqlCache() {
+		DbEntityManager dbOom = JoddDb.get().dbEntityManager();
+		dbOom.getSqlCache().clear();
+
+		String template = "select $C{b.*} from $T{Boy b} where $b.id=:id";
+
+		DbSqlBuilder s1 = sql(template).aliasColumnsAs(COLUMN_CODE);
+		String query = s1.generateQuery();
+		assertEquals(1, dbOom.getSqlCache().size());
+
+		long hits = dbOom.getSqlCache().getHitCount();
+		DbSqlBuilder s2 = sql(template).aliasColumnsAs(COLUMN_CODE);
+		assertEquals(query, s2.generateQuery());
+		assertEquals(hits + 1, dbOom.getSqlCache().getHitCount());
+		assertEquals(s1.getColumnData().size(), s2.getColumnData().size());
+		assertNotNull(s2.getTableDescriptor("b"));
+
+		// regenerated builder gets the same result
+		assertEquals(query, s2.generateQuery());
+		assertEquals(hits + 2, dbOom.getSqlCache().getHitCount());
+
+		// alias type is part of the key
+		assertNotEquals(query, sql(template).aliasColumnsAs(TABLE_NAME).generateQuery());
+		assertEquals(2, dbOom.getSqlCache().size());
+
+		// values are not cached
+		DbSqlBuilder s3 = sql("select * from $T{Boy b} where $b.id=").value(Integer.valueOf(1));
+		assertEquals("select * from BOY b where b.ID=:p0", s3.generateQuery());
+		assertEquals(1, s3.getQueryParameters().size());
+		assertEquals(2, dbOom.getSqlCache().size());
+
+		// entity types are part of the key
+		assertEquals("BOY", sql().table("b").use("b", Boy.class).generateQuery());
+		assertEquals("GIRL", sql().table("b").use("b", Girl.class).generateQuery());
+
+		// changes of registered entities clear the cache
+		dbOom.removeEntity(BadBoy.class);
+		assertEquals(0, dbOom.getSqlCache().size());
+	}
+
 }
@@ -0,0 +1,129 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.db.oom.export;
+
+import jodd.db.DbQuery;
+import jodd.db.DbSession;
+import jodd.db.DbTestUtil;
+import jodd.db.JoddDb;
+import jodd.db.fixtures.DbHsqldbTestCase;
+import jodd.db.oom.fixtures.Girl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DbExporterTest extends DbHsqldbTestCase {
+
+	@Override
+	@BeforeEach
+	public void setUp() throws Exception {
+		super.setUp();
+
+		DbTestUtil.resetAll();
+		JoddDb.get().dbEntityManager().registerEntity(Girl.class);
+	}
+
+	private void insertGirls(DbSession session) {
+		executeUpdate(session, "insert into GIRL (ID, NAME, SPECIALITY) values (1, 'Anna', 'swim')");
+		executeUpdate(session, "insert into GIRL (ID, NAME, SPECIALITY) values (2, 'Sandra \"Sandy\"', null)");
+		executeUpdate(session, "insert into GIRL (ID, NAME, SPECIALITY) values (3, 'Monica', 'c, java')");
+	}
+
+	@Test
+	void testExportJson() {
+		DbSession session = new DbSession(cp);
+		insertGirls(session);
+
+		StringWriter out = new StringWriter();
+		DbQuery query = new DbQuery(session, "select ID, NAME, SPECIALITY from GIRL order by ID");
+
+		long count = new DbExporter(query).entity(Girl.class).fetchSize(2).export(new JsonRowWriter(out));
+
+		assertEquals(3, count);
+		assertEquals(
+			"[{\"id\":1,\"name\":\"Anna\",\"speciality\":\"swim\"}," +
+			"{\"id\":2,\"name\":\"Sandra \\\"Sandy\\\"\",\"speciality\":null}," +
+			"{\"id\":3,\"name\":\"Monica\",\"speciality\":\"c, java\"}]",
+			out.toString());
+		assertFalse(query.isClosed());
+		assertEquals(0, query.getOpenResultSetCount());
+
+		// empty result, column labels, auto-close
+
+		out = new StringWriter();
+		query = new DbQuery(session, "select ID as GIRL_ID from GIRL where ID > 10").autoClose();
+		assertEquals(0, new DbExporter(query).export(new JsonRowWriter(out)));
+		assertEquals("[]", out.toString());
+		assertTrue(query.isClosed());
+
+		session.closeSession();
+	}
+
+	@Test
+	void testExportCsv() {
+		DbSession session = new DbSession(cp);
+		insertGirls(session);
+
+		StringWriter out = new StringWriter();
+		DbQuery query = new DbQuery(session, "select ID, NAME, SPECIALITY from GIRL where ID > :id order by ID");
+		query.setInteger("id", 0);
+
+		long count = new DbExporter(query).export(new CsvRowWriter(out).newLine("\n"), true);
+
+		assertEquals(3, count);
+		assertEquals(
+			"ID,NAME,SPECIALITY\n" +
+			"1,Anna,swim\n" +
+			"2,\"Sandra \"\"Sandy\"\"\",\n" +
+			"3,Monica,\"c, java\"\n",
+			out.toString());
+		assertTrue(query.isClosed());
+
+		session.closeSession();
+	}
+
+	@Test
+	void testExportCsvBinary() {
+		DbSession session = new DbSession(cp);
+		insertGirls(session);
+
+		StringWriter out = new StringWriter();
+		DbQuery query = new DbQuery(session, "select ID, X'010203' as DATA from GIRL where ID = 1");
+
+		long count = new DbExporter(query).export(new CsvRowWriter(out, false).newLine("\n"), true);
+
+		assertEquals(1, count);
+		assertEquals("1,AQID\n", out.toString());
+
+		session.closeSession();
+	}
+
+}
@@ -0,0 +1,323 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.db.pool;
+
+import jodd.db.DbQuery;
+import jodd.db.DbSession;
+import jodd.db.DbSqlException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class ConcurrentConnectionPoolTest {
+
+	private ConcurrentConnectionPool pool;
+
+	@BeforeEach
+	void setUp() {
+		pool = new ConcurrentConnectionPool();
+		pool.setDriver("org.hsqldb.jdbcDriver");
+		pool.setUrl("jdbc:hsqldb:mem:pool");
+		pool.setUser("sa");
+		pool.setPassword("");
+	}
+
+	@AfterEach
+	void tearDown() {
+		pool.close();
+	}
+
+	@Test
+	void testBorrowAndReturn() {
+		pool.setMinConnections(1);
+		pool.setMaxConnections(2);
+		pool.init();
+
+		Connection connection = pool.getConnection();
+		pool.closeConnection(connection);
+
+		assertSame(connection, pool.getConnection());
+		Connection connection2 = pool.getConnection();
+		assertNotSame(connection, connection2);
+
+		ConcurrentConnectionPool.Metrics metrics = pool.getMetrics();
+		assertEquals(2, metrics.getTotalCount());
+		assertEquals(2, metrics.getActiveCount());
+		assertEquals(0, metrics.getIdleCount());
+		assertEquals(3, metrics.getBorrowCount());
+
+		pool.closeConnection(connection);
+		pool.closeConnection(connection2);
+
+		assertEquals(2, pool.getConnectionsCount().getAvailableCount());
+	}
+
+	@Test
+	void testTimeout() {
+		pool.setMinConnections(1);
+		pool.setMaxConnections(1);
+		pool.setConnectionTimeout(100);
+		pool.init();
+
+		Connection connection = pool.getConnection();
+
+		long start = System.currentTimeMillis();
+		assertThrows(DbSqlException.class, () -> pool.getConnection());
+		assertTrue(System.currentTimeMillis() - start >= 90);
+		assertEquals(1, pool.getMetrics().getTimeoutCount());
+
+		pool.closeConnection(connection);
+		assertSame(connection, pool.getConnection());
+	}
+
+	@Test
+	void testHandoffToWaitingThread() throws Exception {
+		pool.setMinConnections(1);
+		pool.setMaxConnections(1);
+		pool.init();
+
+		Connection connection = pool.getConnection();
+		Connection[] received = new Connection[1];
+
+		Thread thread = new Thread(() -> received[0] = pool.getConnection());
+		thread.start();
+
+		while (pool.getMetrics().getWaitingCount() == 0) {
+			Thread.sleep(1);
+		}
+		pool.closeConnection(connection);
+		thread.join();
+
+		assertSame(connection, received[0]);
+	}
+
+	@Test
+	void testConcurrentBorrowing() throws Exception {
+		pool.setMinConnections(0);
+		pool.setMaxConnections(3);
+		pool.init();
+
+		int threads = 8;
+		Set<Connection> inUse = ConcurrentHashMap.newKeySet();
+		AtomicInteger errors = new AtomicInteger();
+		CountDownLatch latch = new CountDownLatch(threads);
+
+		for (int t = 0; t < threads; t++) {
+			new Thread(() -> {
+				try {
+					for (int i = 0; i < 200; i++) {
+						Connection connection = pool.getConnection();
+						if (!inUse.add(connection) || inUse.size() > 3) {
+							errors.incrementAndGet();
+						}
+						Thread.yield();
+						inUse.remove(connection);
+						pool.closeConnection(connection);
+					}
+				}
+				catch (Exception ex) {
+					errors.incrementAndGet();
+				}
+				finally {
+					latch.countDown();
+				}
+			}).start();
+		}
+		latch.await();
+
+		assertEquals(0, errors.get());
+
+		ConcurrentConnectionPool.Metrics metrics = pool.getMetrics();
+		assertEquals(threads * 200, metrics.getBorrowCount());
+		assertTrue(metrics.getTotalCount() <= 3);
+		assertEquals(0, metrics.getActiveCount());
+	}
+
+	@Test
+	void testMaxLifetime() throws Exception {
+		pool.setMinConnections(1);
+		pool.setMaxConnections(1);
+		pool.setMaxLifetime(50);
+		pool.init();
+
+		Connection connection = pool.getConnection();
+		Thread.sleep(60);
+		pool.closeConnection(connection);
+
+		assertTrue(connection.isClosed());
+
+		Connection connection2 = pool.getConnection();
+		assertNotSame(connection, connection2);
+		assertFalse(connection2.isClosed());
+	}
+
+	@Test
+	void testExpiredConnectionReplacedForWaitingThread() throws Exception {
+		pool.setMinConnections(0);
+		pool.setMaxConnections(2);
+		pool.setMaxLifetime(200);
+		pool.setConnectionTimeout(1500);
+		pool.init();
+
+		Connection connection1 = pool.getConnection();
+		Connection connection2 = pool.getConnection();
+		Connection[] received = new Connection[1];
+
+		Thread thread = new Thread(() -> received[0] = pool.getConnection());
+		thread.start();
+
+		while (pool.getMetrics().getWaitingCount() == 0) {
+			Thread.sleep(1);
+		}
+		Thread.sleep(250);
+
+		long start = System.currentTimeMillis();
+		pool.closeConnection(connection1);
+		thread.join();
+
+		assertTrue(connection1.isClosed());
+		assertNotNull(received[0]);
+		assertNotSame(connection1, received[0]);
+		assertNotSame(connection2, received[0]);
+		assertTrue(System.currentTimeMillis() - start < 1000);
+		assertEquals(2, pool.getMetrics().getTotalCount());
+
+		pool.closeConnection(received[0]);
+		pool.closeConnection(connection2);
+	}
+
+	@Test
+	void testIdleEvictionAndFilling() throws Exception {
+		pool.setMinConnections(1);
+		pool.setMaxConnections(3);
+		pool.setIdleTimeout(20);
+		pool.init();
+
+		List<Connection> list = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			list.add(pool.getConnection());
+		}
+		for (Connection connection : list) {
+			pool.closeConnection(connection);
+		}
+		assertEquals(3, pool.getMetrics().getTotalCount());
+
+		Thread.sleep(30);
+		pool.housekeep();
+
+		assertEquals(1, pool.getMetrics().getTotalCount());
+		assertEquals(2, pool.getMetrics().getClosedCount());
+	}
+
+	@Test
+	void testLeakDetection() throws Exception {
+		pool.setMinConnections(1);
+		pool.setLeakDetectionThreshold(10);
+		pool.setHousekeepingPeriod(10);
+		pool.init();
+
+		Connection connection = pool.getConnection();
+		Thread.sleep(100);
+
+		assertEquals(1, pool.getMetrics().getLeakCount());
+
+		pool.closeConnection(connection);
+	}
+
+	@Test
+	void testValidation() throws Exception {
+		pool.setMinConnections(1);
+		pool.setMaxConnections(1);
+		pool.setValidationTimeout(0);
+		pool.setDefaultValidationQuery();
+		pool.setValidationQuery("select 1 from INFORMATION_SCHEMA.SYSTEM_USERS");
+		pool.init();
+
+		Connection connection = pool.getConnection();
+		pool.closeConnection(connection);
+
+		connection.close();
+
+		Connection connection2 = pool.getConnection();
+		assertNotSame(connection, connection2);
+		assertFalse(connection2.isClosed());
+		assertEquals(1, pool.getMetrics().getClosedCount());
+	}
+
+	@Test
+	void testWithDbSession() {
+		pool.init();
+
+		DbSession session = new DbSession(pool);
+		DbQuery query = new DbQuery(session, "select count(*) from INFORMATION_SCHEMA.SYSTEM_USERS");
+		assertTrue(query.autoClose().executeCount() > 0);
+		session.closeSession();
+
+		assertEquals(0, pool.getMetrics().getActiveCount());
+	}
+
+	@Test
+	void testReturnAfterClose() {
+		pool.setMinConnections(1);
+		pool.setMaxConnections(2);
+		pool.init();
+
+		Connection connection = pool.getConnection();
+		pool.close();
+
+		pool.closeConnection(connection);
+
+		assertEquals(0, pool.getMetrics().getTotalCount());
+	}
+
+	@Test
+	void testNotInitialized() {
+		try {
+			pool.getConnection();
+			fail("error");
+		}
+		catch (DbSqlException ignore) {
+		}
+	}
+
+}
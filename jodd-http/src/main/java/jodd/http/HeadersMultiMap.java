@@ -38,11 +38,11 @@ public class HeadersMultiMap extends HttpMultiMap<String> {
 	 * so the store the new key value.
 	 */
 	public void addHeader(String name, String value) {
-		List<String> valuesList = super.getAll(name);
-		if (valuesList.isEmpty()) {
+		if (!super.contains(name)) {
 			super.add(name, value);
 			return;
 		}
+		List<String> valuesList = super.getAll(name);
 		super.remove(name);
 		valuesList.add(value);
 		super.addAll(name, valuesList);
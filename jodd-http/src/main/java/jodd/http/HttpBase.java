@@ -847,7 +847,9 @@ public abstract class HttpBase<T> {
 
 	/**
 	 * Parses headers.
+	 * @deprecated use {@link HttpParser#readHeaders(HttpBase)}
 	 */
+	@Deprecated
 	protected void readHeaders(BufferedReader reader) {
 		while (true) {
 			String line;
@@ -872,7 +874,9 @@ public abstract class HttpBase<T> {
 
 	/**
 	 * Parses body.
+	 * @deprecated use {@link #readBody(HttpParser)}
 	 */
+	@Deprecated
 	protected void readBody(BufferedReader reader) {
 		String bodyString = null;
 
@@ -943,7 +947,59 @@ public abstract class HttpBase<T> {
 			bodyString = fastCharArrayWriter.toString();
 		}
 
-		// BODY READY - PARSE BODY
+		parseBody(bodyString);
+	}
+
+	/**
+	 * Reads and parses body from the parser stream. Body may be chunked,
+	 * of specified content length or it ends with the stream.
+	 */
+	protected void readBody(HttpParser parser) {
+		String bodyString = null;
+
+		boolean isChunked = false;
+
+		String transferEncoding = header("Transfer-Encoding");
+		if (transferEncoding != null && transferEncoding.equalsIgnoreCase("chunked")) {
+			isChunked = true;
+		}
+
+		String contentLen = contentLength();
+		int contentLenValue = -1;
+
+		try {
+			byte[] bodyBytes = null;
+
+			if (isChunked) {
+				bodyBytes = StreamUtil.readBytes(new HttpBodyInputStream(parser, this, true, -1));
+			}
+			else if (contentLen != null) {
+				contentLenValue = Integer.parseInt(contentLen);
+
+				if (contentLenValue > 0) {
+					bodyBytes = parser.readBytes(contentLenValue);
+				}
+			}
+
+			if (bodyBytes == null && contentLenValue != 0) {
+				// body ends when stream closes
+				bodyBytes = StreamUtil.readBytes(parser);
+			}
+
+			if (bodyBytes != null) {
+				bodyString = parser.decode(bodyBytes, 0, bodyBytes.length);
+			}
+		} catch (IOException ioex) {
+			throw new HttpException(ioex);
+		}
+
+		parseBody(bodyString);
+	}
+
+	/**
+	 * Sets the raw body and parses the form parameters from it.
+	 */
+	protected void parseBody(String bodyString) {
 		String charset = this.charset;
 		if (charset == null) {
 			charset = StringPool.ISO_8859_1;
@@ -0,0 +1,244 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.http;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+/**
+ * Input stream of a streamed HTTP message body. Reads exactly the body
+ * from the underlying connection stream: bounded by the content length,
+ * decoded on-the-fly from the chunked transfer encoding, or read
+ * until the end of the stream. Closing the stream does not close
+ * the underlying stream; instead, the end listener is notified
+ * whether the connection may be reused or not.
+ */
+class HttpBodyInputStream extends InputStream {
+
+	/**
+	 * Maximum number of remaining body bytes that are drained on
+	 * {@link #close()}, so the connection can be reused.
+	 */
+	private static final int DRAIN_LIMIT = 8192;
+
+	private final HttpParser in;
+	private final byte[] single = new byte[1];
+	private final HttpBase<?> httpMessage;
+	private final boolean chunked;
+	private final boolean untilEof;
+	private long remaining;				// remaining bytes of the body or of the current chunk; -1 means until EOF
+	private boolean chunkRead;
+	private boolean eof;
+	private boolean closed;
+	private Boolean completed;
+	private Consumer<Boolean> endListener;
+
+	/**
+	 * Creates body input stream.
+	 * @param in parser of the message, positioned at the body start
+	 * @param httpMessage message to which trailing headers are added
+	 * @param chunked <code>true</code> for chunked transfer encoding
+	 * @param contentLength body length, or <code>-1</code> when body ends with the stream
+	 */
+	HttpBodyInputStream(HttpParser in, HttpBase<?> httpMessage, boolean chunked, long contentLength) {
+		this.in = in;
+		this.httpMessage = httpMessage;
+		this.chunked = chunked;
+		this.untilEof = !chunked && contentLength < 0;
+		this.remaining = chunked ? 0 : contentLength;
+
+		if (!chunked && contentLength == 0) {
+			end(true);
+		}
+	}
+
+	/**
+	 * Registers listener that is invoked once, when the body ends. Listener
+	 * receives <code>true</code> if body has been fully read and the connection
+	 * may be reused. It receives <code>false</code> if stream has been closed
+	 * or failed before, or if the body ended with the stream, as the connection
+	 * is closed then. If body already ended, listener is invoked immediately.
+	 */
+	void onEnd(Consumer<Boolean> endListener) {
+		this.endListener = endListener;
+		if (completed != null) {
+			endListener.accept(isReusable());
+		}
+	}
+
+	/**
+	 * Returns <code>true</code> if body has been fully read.
+	 */
+	boolean isCompleted() {
+		return completed != null && completed.booleanValue();
+	}
+
+	/**
+	 * Returns <code>true</code> if body has been fully read and
+	 * its end did not close the connection.
+	 */
+	boolean isReusable() {
+		return isCompleted() && !untilEof;
+	}
+
+	// ---------------------------------------------------------------- read
+
+	@Override
+	public int read() throws IOException {
+		int n = read(single, 0, 1);
+		return n == -1 ? -1 : single[0] & 0xFF;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		if (closed) {
+			throw new IOException("Stream closed");
+		}
+		if (eof) {
+			return -1;
+		}
+		if (len == 0) {
+			return 0;
+		}
+
+		try {
+			if (chunked && remaining == 0) {
+				if (!nextChunk()) {
+					return -1;
+				}
+			}
+
+			int toRead = remaining < 0 ? len : (int) Math.min(len, remaining);
+
+			int n = in.read(b, off, toRead);
+
+			if (n == -1) {
+				if (remaining < 0) {
+					end(true);
+					return -1;
+				}
+				throw new EOFException("Unexpected end of HTTP body");
+			}
+
+			if (remaining > 0) {
+				remaining -= n;
+
+				if (remaining == 0 && !chunked) {
+					end(true);
+				}
+			}
+			return n;
+		}
+		catch (IOException ioex) {
+			end(false);
+			throw ioex;
+		}
+	}
+
+	/**
+	 * Reads the next chunk size. Returns <code>false</code> when the
+	 * last chunk is reached; trailing headers are consumed then.
+	 */
+	private boolean nextChunk() throws IOException {
+		if (chunkRead) {
+			// CRLF after the chunk data
+			in.skipLine();
+		}
+
+		remaining = in.readChunkSize();
+		chunkRead = true;
+
+		if (remaining == 0) {
+			in.readHeaders(httpMessage);
+			end(true);
+			return false;
+		}
+		return true;
+	}
+
+	@Override
+	public int available() throws IOException {
+		if (closed || eof) {
+			return 0;
+		}
+		int available = in.available();
+		if (remaining >= 0) {
+			available = (int) Math.min(available, remaining);
+		}
+		return available;
+	}
+
+	/**
+	 * Closes the body stream. Small body remainder of known length is
+	 * drained first. If the body has still not been fully consumed,
+	 * the end listener is notified with <code>false</code>.
+	 */
+	@Override
+	public void close() {
+		if (closed) {
+			return;
+		}
+		if (!eof && remaining >= 0) {
+			drain();
+		}
+		closed = true;
+		end(false);
+	}
+
+	private void drain() {
+		byte[] buffer = new byte[1024];
+		int drained = 0;
+
+		try {
+			while (!eof && drained < DRAIN_LIMIT) {
+				if (!chunked && remaining > DRAIN_LIMIT - drained) {
+					break;
+				}
+				int n = read(buffer, 0, buffer.length);
+				if (n == -1) {
+					break;
+				}
+				drained += n;
+			}
+		}
+		catch (IOException ignore) {
+		}
+	}
+
+	private void end(boolean fullyRead) {
+		if (completed != null) {
+			return;
+		}
+		eof = true;
+		completed = Boolean.valueOf(fullyRead);
+
+		if (endListener != null) {
+			endListener.accept(isReusable());
+		}
+	}
+}
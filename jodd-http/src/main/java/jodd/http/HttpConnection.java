@@ -62,4 +62,12 @@ public interface HttpConnection {
 	 */
 	void setTimeout(int milliseconds);
 
-}
\ No newline at end of file
+	/**
+	 * Returns <code>true</code> if connection has already been used for some
+	 * previous request, so the server might have closed it in the meantime.
+	 */
+	public default boolean isReused() {
+		return false;
+	}
+
+}
@@ -50,4 +50,25 @@ public interface HttpConnectionProvider {
 	 */
 	public HttpConnection createHttpConnection(HttpRequest httpRequest) throws IOException;
 
-}
\ No newline at end of file
+	/**
+	 * Creates new {@link HttpConnection} that was not used before. Invoked when
+	 * the {@link HttpConnection#isReused() reused} connection fails before the
+	 * response, so the request is sent again. By default, it is the same as
+	 * {@link #createHttpConnection(HttpRequest)}.
+	 */
+	public default HttpConnection createNewHttpConnection(HttpRequest httpRequest) throws IOException {
+		return createHttpConnection(httpRequest);
+	}
+
+	/**
+	 * Invoked when request is done with the persistent connection, i.e. when the
+	 * response is completely received and connection is still open. Returns
+	 * <code>true</code> if provider took the connection back (e.g. to reuse it for
+	 * some other request); request then stops using the connection. By default,
+	 * connection remains assigned to the request.
+	 */
+	public default boolean releaseHttpConnection(HttpConnection httpConnection, HttpResponse httpResponse) {
+		return false;
+	}
+
+}
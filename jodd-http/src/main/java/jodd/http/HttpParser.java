@@ -0,0 +1,443 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.http;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Byte-oriented HTTP/1.1 message parser. Reads the input stream into an
+ * internal byte buffer and parses lines, headers and chunk sizes directly from
+ * the bytes, without decoding the stream to characters first. Common header
+ * names and values are shared instead of being allocated for each message.
+ * <p>
+ * Parser is also a buffered input stream of the message body, positioned
+ * right after the parsed content. Buffers are reused per thread when
+ * parser is {@link #release() released}.
+ */
+public class HttpParser extends InputStream {
+
+	private static final int BUFFER_SIZE = 8192;
+	private static final int MAX_LINE_LENGTH = 64 * 1024;
+
+	private static final ThreadLocal<byte[]> BUFFERS = new ThreadLocal<>();
+
+	private final InputStream in;
+	private final Charset charset;
+	private final boolean latin1;
+	private byte[] buffer;
+	private int pos;
+	private int limit;
+
+	public HttpParser(InputStream in) {
+		this(in, StandardCharsets.ISO_8859_1);
+	}
+
+	/**
+	 * Creates parser that decodes message with given charset.
+	 * By default, and as specified, HTTP messages are in ISO-8859-1.
+	 */
+	public HttpParser(InputStream in, Charset charset) {
+		this.in = in;
+		this.charset = charset;
+		this.latin1 = charset.equals(StandardCharsets.ISO_8859_1);
+
+		byte[] buffer = BUFFERS.get();
+		if (buffer != null) {
+			BUFFERS.set(null);
+		}
+		else {
+			buffer = new byte[BUFFER_SIZE];
+		}
+		this.buffer = buffer;
+	}
+
+	/**
+	 * Releases the parser buffer for reuse by the current thread.
+	 * Parser must not be used after the release.
+	 */
+	public void release() {
+		if (buffer != null && buffer.length == BUFFER_SIZE) {
+			BUFFERS.set(buffer);
+		}
+		buffer = null;
+	}
+
+	/**
+	 * Returns <code>true</code> if parser has received any byte.
+	 */
+	boolean isStarted() {
+		return limit > 0 || pos > 0;
+	}
+
+	// ---------------------------------------------------------------- lines
+
+	/**
+	 * Reads a single line, terminated with LF or CRLF. Line terminator is
+	 * not included. Returns <code>null</code> if stream ends before any byte is read.
+	 */
+	public String readLine() throws IOException {
+		int lf = nextLine();
+		if (lf == -1) {
+			return null;
+		}
+		String line = decode(pos, lineEnd(lf));
+		pos = Math.min(lf + 1, limit);
+		return line;
+	}
+
+	/**
+	 * Skips a single line.
+	 */
+	public void skipLine() throws IOException {
+		int lf = nextLine();
+		if (lf != -1) {
+			pos = Math.min(lf + 1, limit);
+		}
+	}
+
+	/**
+	 * Parses headers and adds them to the HTTP message. Headers end with
+	 * a blank line or the end of the stream.
+	 */
+	public void readHeaders(HttpBase<?> httpMessage) throws IOException {
+		while (true) {
+			int lf = nextLine();
+			if (lf == -1) {
+				return;
+			}
+
+			int start = pos;
+			int end = lineEnd(lf);
+			pos = Math.min(lf + 1, limit);
+
+			int colon = -1;
+			boolean blank = true;
+
+			for (int i = start; i < end; i++) {
+				byte b = buffer[i];
+				if (b > ' ') {
+					blank = false;
+				}
+				if (b == ':') {
+					colon = i;
+					break;
+				}
+			}
+
+			if (blank && colon == -1) {
+				return;
+			}
+			if (colon == -1) {
+				throw new HttpException("Invalid header: " + decode(start, end));
+			}
+
+			String name = headerName(start, trimEnd(start, colon));
+			String value = headerValue(trimStart(colon + 1, end), trimEnd(colon + 1, end));
+
+			httpMessage.header(name, value);
+		}
+	}
+
+	/**
+	 * Parses hexadecimal chunk size line of chunked transfer encoding.
+	 * Chunk extensions are ignored.
+	 */
+	public long readChunkSize() throws IOException {
+		int lf = nextLine();
+		if (lf == -1) {
+			throw new EOFException("Unexpected end of HTTP body");
+		}
+
+		int start = trimStart(pos, lineEnd(lf));
+		int end = lineEnd(lf);
+		pos = Math.min(lf + 1, limit);
+
+		long size = 0;
+		int i = start;
+
+		for (; i < end; i++) {
+			int digit = Character.digit(buffer[i], 16);
+			if (digit == -1) {
+				break;
+			}
+			if (size > (Long.MAX_VALUE >> 4)) {
+				throw new IOException("Invalid chunk size");
+			}
+			size = (size << 4) + digit;
+		}
+
+		if (i == start || (i < end && buffer[i] != ';' && buffer[i] > ' ')) {
+			throw new IOException("Invalid chunk size: " + decode(start, end));
+		}
+		return size;
+	}
+
+	/**
+	 * Decodes bytes with the parser charset.
+	 */
+	public String decode(byte[] bytes, int off, int len) {
+		return new String(bytes, off, len, charset);
+	}
+
+	// ---------------------------------------------------------------- buffer
+
+	/**
+	 * Returns the index of LF that terminates the line starting at
+	 * the current position, filling the buffer as needed. If stream
+	 * ends without LF, returns the buffer limit. Returns <code>-1</code>
+	 * if there are no more bytes.
+	 */
+	private int nextLine() throws IOException {
+		int scanned = 0;
+
+		while (true) {
+			for (int i = pos + scanned; i < limit; i++) {
+				if (buffer[i] == '\n') {
+					return i;
+				}
+			}
+			scanned = limit - pos;
+
+			if (!fill()) {
+				return pos == limit ? -1 : limit;
+			}
+		}
+	}
+
+	/**
+	 * Returns the line end, excluding the CR before LF.
+	 */
+	private int lineEnd(int lf) {
+		if (lf > pos && lf < limit && buffer[lf - 1] == '\r') {
+			return lf - 1;
+		}
+		return lf;
+	}
+
+	/**
+	 * Reads more bytes into the buffer, keeping the unread bytes.
+	 * Returns <code>false</code> if stream ended.
+	 */
+	private boolean fill() throws IOException {
+		if (pos > 0) {
+			System.arraycopy(buffer, pos, buffer, 0, limit - pos);
+			limit -= pos;
+			pos = 0;
+		}
+		if (limit == buffer.length) {
+			if (buffer.length >= MAX_LINE_LENGTH) {
+				throw new HttpException("HTTP line too long");
+			}
+			byte[] newBuffer = new byte[buffer.length << 1];
+			System.arraycopy(buffer, 0, newBuffer, 0, limit);
+			buffer = newBuffer;
+		}
+
+		int n = in.read(buffer, limit, buffer.length - limit);
+		if (n == -1) {
+			return false;
+		}
+		limit += n;
+		return true;
+	}
+
+	private int trimStart(int start, int end) {
+		while (start < end && buffer[start] <= ' ') {
+			start++;
+		}
+		return start;
+	}
+
+	private int trimEnd(int start, int end) {
+		while (end > start && buffer[end - 1] <= ' ') {
+			end--;
+		}
+		return end;
+	}
+
+	private String decode(int start, int end) {
+		return new String(buffer, start, end - start, charset);
+	}
+
+	// ---------------------------------------------------------------- input stream
+
+	@Override
+	public int read() throws IOException {
+		if (pos == limit) {
+			pos = limit = 0;
+			if (!fill()) {
+				return -1;
+			}
+		}
+		return buffer[pos++] & 0xFF;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		if (len == 0) {
+			return 0;
+		}
+		int available = limit - pos;
+
+		if (available == 0) {
+			if (len >= buffer.length) {
+				// large reads bypass the buffer
+				return in.read(b, off, len);
+			}
+			pos = limit = 0;
+			if (!fill()) {
+				return -1;
+			}
+			available = limit;
+		}
+
+		int n = Math.min(available, len);
+		System.arraycopy(buffer, pos, b, off, n);
+		pos += n;
+		return n;
+	}
+
+	/**
+	 * Reads up to <code>count</code> bytes, until the stream ends.
+	 */
+	public byte[] readBytes(int count) throws IOException {
+		byte[] bytes = new byte[count];
+		int total = 0;
+
+		while (total < count) {
+			int n = read(bytes, total, count - total);
+			if (n == -1) {
+				byte[] result = new byte[total];
+				System.arraycopy(bytes, 0, result, 0, total);
+				return result;
+			}
+			total += n;
+		}
+		return bytes;
+	}
+
+	@Override
+	public int available() throws IOException {
+		return (limit - pos) + in.available();
+	}
+
+	// ---------------------------------------------------------------- shared strings
+
+	private static final String[] COMMON_HEADER_NAMES = {
+		"Accept", "Accept-Charset", "Accept-Encoding", "Accept-Language", "Accept-Ranges",
+		"Access-Control-Allow-Origin", "Age", "Allow", "Authorization", "Cache-Control",
+		"Connection", "Content-Disposition", "Content-Encoding", "Content-Language",
+		"Content-Length", "Content-Location", "Content-Type", "Cookie", "Date", "ETag",
+		"Expires", "Host", "If-Modified-Since", "If-None-Match", "Keep-Alive", "Last-Modified",
+		"Link", "Location", "Origin", "Pragma", "Proxy-Authenticate", "Proxy-Authorization",
+		"Referer", "Retry-After", "Server", "Set-Cookie", "Strict-Transport-Security",
+		"Transfer-Encoding", "Upgrade", "User-Agent", "Vary", "Via", "WWW-Authenticate",
+		"X-Content-Type-Options", "X-Frame-Options", "X-Powered-By", "X-Requested-With",
+	};
+
+	private static final String[] COMMON_HEADER_VALUES = {
+		"0", "application/json", "application/x-www-form-urlencoded", "bytes", "chunked",
+		"close", "deflate", "gzip", "keep-alive", "Keep-Alive", "Close", "max-age=0",
+		"no-cache", "nosniff", "text/html", "text/html; charset=utf-8", "text/html;charset=UTF-8",
+		"text/plain", "text/plain; charset=utf-8", "Accept-Encoding", "*/*",
+	};
+
+	private static final String[][] HEADER_NAMES = table(COMMON_HEADER_NAMES, true);
+	private static final String[][] HEADER_VALUES = table(COMMON_HEADER_VALUES, false);
+
+	/**
+	 * Builds table of common strings, indexed by the string length.
+	 */
+	private static String[][] table(String[] strings, boolean withLowerCase) {
+		int maxLength = 0;
+		for (String string : strings) {
+			maxLength = Math.max(maxLength, string.length());
+		}
+
+		String[][] table = new String[maxLength + 1][];
+
+		for (String string : strings) {
+			add(table, string);
+			if (withLowerCase) {
+				add(table, string.toLowerCase());
+			}
+		}
+		return table;
+	}
+
+	private static void add(String[][] table, String string) {
+		int len = string.length();
+		String[] row = table[len];
+
+		if (row == null) {
+			table[len] = new String[] {string};
+			return;
+		}
+
+		String[] newRow = new String[row.length + 1];
+		System.arraycopy(row, 0, newRow, 0, row.length);
+		newRow[row.length] = string;
+		table[len] = newRow;
+	}
+
+	private String headerName(int start, int end) {
+		return shared(HEADER_NAMES, start, end);
+	}
+
+	private String headerValue(int start, int end) {
+		return shared(HEADER_VALUES, start, end);
+	}
+
+	/**
+	 * Returns shared string from the table if it matches the bytes,
+	 * otherwise decodes the bytes into a new string.
+	 */
+	private String shared(String[][] table, int start, int end) {
+		int len = end - start;
+
+		if (latin1 && len < table.length && table[len] != null) {
+			for (String string : table[len]) {
+				if (matches(string, start)) {
+					return string;
+				}
+			}
+		}
+		return decode(start, end);
+	}
+
+	private boolean matches(String string, int start) {
+		for (int i = 0, len = string.length(); i < len; i++) {
+			if ((buffer[start + i] & 0xFF) != string.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -25,19 +25,21 @@
 
 package jodd.http;
 
+import jodd.io.StreamUtil;
 import jodd.util.Base64;
 import jodd.util.StringBand;
 import jodd.util.StringPool;
 import jodd.util.StringUtil;
 import jodd.util.net.HttpMethod;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.OutputStream;
-import java.io.UnsupportedEncodingException;
+import java.nio.charset.Charset;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 import static jodd.util.StringPool.CRLF;
 import static jodd.util.StringPool.SPACE;
@@ -622,6 +624,7 @@ public class HttpRequest extends HttpBase<HttpRequest> {
 	protected int timeout = -1;
 	protected int connectTimeout = -1;
 	protected boolean followRedirects = false;
+	protected boolean streamResponse = false;
 
 	/**
 	 * Defines the socket timeout (SO_TIMEOUT) in milliseconds, which is the timeout for waiting for data or,
@@ -684,6 +687,23 @@ public class HttpRequest extends HttpBase<HttpRequest> {
 		return this.followRedirects;
 	}
 
+	/**
+	 * Defines if response body should be streamed instead of being read in memory.
+	 * Streamed body is available only as {@link HttpResponse#bodyStream() stream},
+	 * and connection remains in use until the stream is consumed or closed.
+	 */
+	public HttpRequest streamResponse(boolean streamResponse) {
+		this.streamResponse = streamResponse;
+		return this;
+	}
+
+	/**
+	 * Returns {@code true} if response body is streamed.
+	 */
+	public boolean isStreamResponse() {
+		return this.streamResponse;
+	}
+
 	// ---------------------------------------------------------------- send
 
 	protected HttpConnection httpConnection;
@@ -826,6 +846,9 @@ public class HttpRequest extends HttpBase<HttpRequest> {
 			int statusCode = httpResponse.statusCode();
 
 			if (HttpStatus.isRedirect(statusCode)) {
+				if (httpResponse.isStreamed()) {
+					StreamUtil.close(httpResponse.bodyStream());
+				}
 				_reset();
 				set(httpResponse.location());
 				continue;
@@ -835,6 +858,34 @@ public class HttpRequest extends HttpBase<HttpRequest> {
 		}
 	}
 
+	/**
+	 * {@link #send() Sends} request asynchronously, using the
+	 * {@link JoddHttp#executor() default executor}.
+	 * @see #sendAsync(Executor)
+	 */
+	public CompletableFuture<HttpResponse> sendAsync() {
+		return sendAsync(JoddHttp.get().executor());
+	}
+
+	/**
+	 * {@link #send() Sends} request asynchronously on given executor. This only
+	 * offloads the request from the calling thread: request is still sent and
+	 * response is read with blocking I/O, occupying one executor thread for the
+	 * whole exchange. Returned future completes with the response, or exceptionally
+	 * with {@link HttpException}, also when the executor rejects the request.
+	 * {@link HttpProgressListener Progress listener} is invoked from the executor thread.
+	 * Request should not be modified until the future completes.
+	 */
+	public CompletableFuture<HttpResponse> sendAsync(Executor executor) {
+		try {
+			return CompletableFuture.supplyAsync(this::send, executor);
+		} catch (RejectedExecutionException rejex) {
+			CompletableFuture<HttpResponse> future = new CompletableFuture<>();
+			future.completeExceptionally(new HttpException("Request rejected by the executor", rejex));
+			return future;
+		}
+	}
+
 	/**
 	 * Resets the request by resetting all additional values
 	 * added during the sending.
@@ -851,30 +902,114 @@ public class HttpRequest extends HttpBase<HttpRequest> {
 		// sends data
 		HttpResponse httpResponse;
 		try {
-			OutputStream outputStream = httpConnection.getOutputStream();
+			httpResponse = _exchange();
+		} catch (IOException ioex) {
+			boolean retry =
+				ioex instanceof HttpResponse.NoResponseException &&
+				httpConnectionProvider != null &&
+				isIdempotent();
 
-			sendTo(outputStream);
+			httpConnection.close();
+			httpConnection = null;
 
-			InputStream inputStream = httpConnection.getInputStream();
+			if (!retry) {
+				throw new HttpException(ioex);
+			}
 
-			httpResponse = HttpResponse.readFrom(inputStream);
+			// reused connection has been closed by the server in the meantime,
+			// so the request has not been processed and may be safely sent again
+			try {
+				httpConnection = httpConnectionProvider.createNewHttpConnection(this);
+
+				httpResponse = _exchange();
+			} catch (IOException ioex2) {
+				if (httpConnection != null) {
+					httpConnection.close();
+					httpConnection = null;
+				}
+				throw new HttpException(ioex2);
+			}
+		}
 
-			httpResponse.assignHttpRequest(this);
-		} catch (IOException ioex) {
-			throw new HttpException(ioex);
+		httpResponse.assignHttpRequest(this);
+
+		if (httpResponse.isStreamed()) {
+			// connection is in use until the body stream ends
+			final HttpConnection connection = httpConnection;
+			final HttpResponse response = httpResponse;
+
+			httpResponse.bodyInputStream.onEnd(reusable -> _release(response, connection, reusable));
+		}
+		else {
+			_release(httpResponse, httpConnection, true);
 		}
 
-		boolean keepAlive = httpResponse.isConnectionPersistent();
+		return httpResponse;
+	}
 
-		if (!keepAlive) {
-			// closes connection if keep alive is false, or if counter reached 0
+	/**
+	 * Returns <code>true</code> if request method is idempotent,
+	 * so the request may be repeated.
+	 */
+	private boolean isIdempotent() {
+		switch (method) {
+			case "GET":
+			case "HEAD":
+			case "PUT":
+			case "DELETE":
+			case "OPTIONS":
+			case "TRACE":
+				return true;
+			default:
+				return false;
+		}
+	}
+
+	/**
+	 * Sends the request and reads the response. Throws <code>IOException</code>
+	 * if sending fails or if response status line and headers can not be read.
+	 */
+	private HttpResponse _exchange() throws IOException {
+		OutputStream outputStream = httpConnection.getOutputStream();
+
+		sendTo(outputStream);
+
+		HttpParser parser = new HttpParser(httpConnection.getInputStream());
+
+		HttpResponse httpResponse = HttpResponse.readHead(parser, httpConnection.isReused());
+
+		try {
+			httpResponse.readBody(parser, streamResponse, method);
+		} catch (HttpException hex) {
 			httpConnection.close();
 			httpConnection = null;
+			throw hex;
 		}
 
 		return httpResponse;
 	}
 
+	/**
+	 * Closes the connection after the response, or keeps it open for the keep-alive
+	 * communication. Connection that can not be reused is always closed.
+	 */
+	private void _release(HttpResponse httpResponse, HttpConnection connection, boolean reusable) {
+		boolean keepAlive = reusable && httpResponse.isConnectionReusable();
+
+		if (!keepAlive) {
+			// closes connection if keep alive is false, or if counter reached 0
+			connection.close();
+		}
+		else if (httpConnectionProvider == null || !httpConnectionProvider.releaseHttpConnection(connection, httpResponse)) {
+			return;
+		}
+		// else: connection is taken back by the provider
+
+		if (httpConnection == connection) {
+			httpConnection = null;
+		}
+	}
+
 	// ---------------------------------------------------------------- buffer
 
 	/**
@@ -943,34 +1078,42 @@ public class HttpRequest extends HttpBase<HttpRequest> {
 		return readFrom(in, StringPool.ISO_8859_1);
 	}
 
+	/**
+	 * Parses input stream in given encoding and creates new <code>HttpRequest</code> object.
+	 * Returns <code>null</code> if encoding is not supported.
+	 */
 	public static HttpRequest readFrom(InputStream in, String encoding) {
-		BufferedReader reader;
+		Charset charset;
 		try {
-			reader = new BufferedReader(new InputStreamReader(in, encoding));
-		} catch (UnsupportedEncodingException uneex) {
+			charset = Charset.forName(encoding);
+		} catch (IllegalArgumentException iaex) {
 			return null;
 		}
 
+		HttpParser parser = new HttpParser(in, charset);
+
 		HttpRequest httpRequest = new HttpRequest();
 
 		String line;
 		try {
-			line = reader.readLine();
-		} catch (IOException ioex) {
-			throw new HttpException(ioex);
-		}
+			line = parser.readLine();
 
-		if (!StringUtil.isBlank(line)) {
-			String[] s = StringUtil.splitc(line, ' ');
+			if (!StringUtil.isBlank(line)) {
+				String[] s = StringUtil.splitc(line, ' ');
 
-			httpRequest.method(s[0]);
-			httpRequest.path(s[1]);
-			httpRequest.httpVersion(s[2]);
+				httpRequest.method(s[0]);
+				httpRequest.path(s[1]);
+				httpRequest.httpVersion(s[2]);
 
-			httpRequest.readHeaders(reader);
-			httpRequest.readBody(reader);
+				parser.readHeaders(httpRequest);
+				httpRequest.readBody(parser);
+			}
+		} catch (IOException ioex) {
+			throw new HttpException(ioex);
 		}
 
+		parser.release();
+
 		return httpRequest;
 	}
 
@@ -28,16 +28,19 @@ package jodd.http;
 import jodd.io.StreamUtil;
 import jodd.util.StringPool;
 
-import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.UnsupportedEncodingException;
+import java.io.PushbackInputStream;
+import java.net.SocketException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
 
 import static jodd.util.StringPool.CRLF;
 import static jodd.util.StringPool.SPACE;
@@ -133,32 +136,105 @@ public class HttpResponse extends HttpBase<HttpResponse> {
 	// ---------------------------------------------------------------- body
 
 	/**
-	 * Unzips GZip-ed body content, removes the content-encoding header
-	 * and sets the new content-length value.
+	 * Unzips GZip-ed or deflated body content, removes the content-encoding header
+	 * and sets the new content-length value. For {@link #isStreamed() streamed}
+	 * response, the body stream is decompressed on-the-fly and content-length
+	 * header is removed. Response without body, or with an empty body,
+	 * is not changed.
 	 */
 	public HttpResponse unzip() {
 		String contentEncoding = contentEncoding();
 
-		if (contentEncoding != null && contentEncoding().equals("gzip")) {
-			if (body != null) {
-				removeHeader(HEADER_CONTENT_ENCODING);
-				try {
-					ByteArrayInputStream in = new ByteArrayInputStream(body.getBytes(StringPool.ISO_8859_1));
-					GZIPInputStream gzipInputStream = new GZIPInputStream(in);
+		if (contentEncoding == null) {
+			return this;
+		}
+
+		boolean gzip = contentEncoding.equalsIgnoreCase("gzip");
+
+		if (!gzip && !contentEncoding.equalsIgnoreCase("deflate")) {
+			return this;
+		}
 
-					ByteArrayOutputStream out = new ByteArrayOutputStream();
+		if (bodyStream != null) {
+			try {
+				// decompressing stream reads the header immediately, so empty body is detected first
+				PushbackInputStream in = new PushbackInputStream(bodyStream);
+				int first = in.read();
 
-					StreamUtil.copy(gzipInputStream, out);
+				bodyStream = in;
 
-					body(out.toString(StringPool.ISO_8859_1));
-				} catch (IOException ioex) {
-					throw new HttpException(ioex);
+				if (first == -1) {
+					return this;
 				}
+				in.unread(first);
+
+				removeHeader(HEADER_CONTENT_ENCODING);
+				removeHeader(HEADER_CONTENT_LENGTH);
+
+				bodyStream = gzip ? new GZIPInputStream(in) : new InflaterInputStream(in);
+			} catch (IOException ioex) {
+				throw new HttpException(ioex);
+			}
+			return this;
+		}
+
+		if (body != null) {
+			removeHeader(HEADER_CONTENT_ENCODING);
+			try {
+				ByteArrayInputStream in = new ByteArrayInputStream(body.getBytes(StringPool.ISO_8859_1));
+				InputStream unzipInputStream = gzip ? new GZIPInputStream(in) : new InflaterInputStream(in);
+
+				ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+				StreamUtil.copy(unzipInputStream, out);
+
+				body(out.toString(StringPool.ISO_8859_1));
+			} catch (IOException ioex) {
+				throw new HttpException(ioex);
 			}
 		}
 		return this;
 	}
 
+	// ---------------------------------------------------------------- stream
+
+	protected HttpBodyInputStream bodyInputStream;
+	protected InputStream bodyStream;
+
+	/**
+	 * Returns <code>true</code> if response body is streamed, i.e. it is
+	 * not read in memory and is available only as a {@link #bodyStream() stream}.
+	 * @see HttpRequest#streamResponse(boolean)
+	 */
+	public boolean isStreamed() {
+		return bodyInputStream != null;
+	}
+
+	/**
+	 * Returns response body as an input stream. For {@link #isStreamed() streamed}
+	 * response, this is the live stream of the connection: chunked body is decoded
+	 * on-the-fly and, after {@link #unzip()}, decompressed as well. The stream may be
+	 * consumed only once and should be closed. When fully consumed, connection is
+	 * closed or released for the next request; when closed before that, connection
+	 * is closed. For the non-streamed response, new stream of {@link #bodyBytes() body bytes}
+	 * is returned.
+	 */
+	public InputStream bodyStream() {
+		if (bodyStream != null) {
+			return bodyStream;
+		}
+		byte[] bodyBytes = bodyBytes();
+
+		return new ByteArrayInputStream(bodyBytes != null ? bodyBytes : new byte[0]);
+	}
+
+	/**
+	 * Returns response {@link #bodyStream() body stream} as a channel.
+	 */
+	public ReadableByteChannel bodyChannel() {
+		return Channels.newChannel(bodyStream());
+	}
+
 	// ---------------------------------------------------------------- buffer
 
 
@@ -194,60 +270,196 @@ public class HttpResponse extends HttpBase<HttpResponse> {
 	 * Supports both streamed and chunked response.
 	 */
 	public static HttpResponse readFrom(InputStream in) {
-		InputStreamReader inputStreamReader;
-		try {
-			inputStreamReader = new InputStreamReader(in, StringPool.ISO_8859_1);
-		} catch (UnsupportedEncodingException unee) {
-			throw new HttpException(unee);
-		}
-		BufferedReader reader = new BufferedReader(inputStreamReader);
+		return readFrom(in, false);
+	}
 
-		HttpResponse httpResponse = new HttpResponse();
+	/**
+	 * Reads response input stream and returns {@link HttpResponse response}.
+	 * When <code>streamBody</code> is set, only the status line and headers
+	 * are read, while the body is available as {@link #bodyStream() stream}
+	 * that reads directly from the given input stream.
+	 */
+	public static HttpResponse readFrom(InputStream in, boolean streamBody) {
+		return readFrom(in, streamBody, null);
+	}
+
+	/**
+	 * Reads response to the request of given method. Response to the
+	 * "HEAD" request has no body, regardless of the headers.
+	 * @see #readFrom(InputStream, boolean)
+	 */
+	public static HttpResponse readFrom(InputStream in, boolean streamBody, String requestMethod) {
+		HttpParser parser = new HttpParser(in);
+
+		HttpResponse httpResponse;
 
-		// the first line
-		String line;
 		try {
-			line = reader.readLine();
+			httpResponse = readHead(parser, false);
 		} catch (IOException ioex) {
 			throw new HttpException(ioex);
 		}
 
-		if (line != null) {
+		httpResponse.readBody(parser, streamBody, requestMethod);
 
-			line = line.trim();
+		return httpResponse;
+	}
 
-			int ndx = line.indexOf(' ');
-			int ndx2;
+	/**
+	 * Reads the status line and headers. When status line is required,
+	 * throws {@link NoResponseException} if the stream ends or the connection
+	 * is reset before any byte of the response is received.
+	 */
+	static HttpResponse readHead(HttpParser parser, boolean requireStatusLine) throws IOException {
+		HttpResponse httpResponse = new HttpResponse();
 
-			if (ndx > -1) {
-				httpResponse.httpVersion(line.substring(0, ndx));
+		String statusLine;
 
-				ndx2 = line.indexOf(' ', ndx + 1);
-			}
-			else {
-				httpResponse.httpVersion(HTTP_1_1);
-				ndx2 = -1;
-				ndx = 0;
+		try {
+			statusLine = parser.readLine();
+		} catch (SocketException sex) {
+			if (requireStatusLine && !parser.isStarted()) {
+				throw new NoResponseException(sex);
 			}
+			throw sex;
+		}
+
+		if (statusLine == null && requireStatusLine) {
+			throw new NoResponseException(null);
+		}
+
+		httpResponse.readStatusLine(statusLine);
+		parser.readHeaders(httpResponse);
+
+		return httpResponse;
+	}
 
-			if (ndx2 == -1) {
-				ndx2 = line.length();
+	/**
+	 * Reads the body that follows the headers, or just prepares
+	 * the body stream.
+	 */
+	void readBody(HttpParser parser, boolean streamBody, String requestMethod) {
+		if (streamBody) {
+			bodyInputStream = createBodyInputStream(parser, requestMethod);
+			bodyStream = bodyInputStream;
+		}
+		else {
+			if (hasBody(requestMethod)) {
+				bodyEndsWithStream = isBodyEndedByStream();
+				readBody(parser);
 			}
+			parser.release();
+		}
+	}
+
+	/**
+	 * Parses the status line.
+	 */
+	protected void readStatusLine(String line) {
+		if (line == null) {
+			return;
+		}
+
+		line = line.trim();
+
+		int ndx = line.indexOf(' ');
+		int ndx2;
+
+		if (ndx > -1) {
+			httpVersion(line.substring(0, ndx));
+
+			ndx2 = line.indexOf(' ', ndx + 1);
+		}
+		else {
+			httpVersion(HTTP_1_1);
+			ndx2 = -1;
+			ndx = 0;
+		}
+
+		if (ndx2 == -1) {
+			ndx2 = line.length();
+		}
+
+		try {
+			statusCode(Integer.parseInt(line.substring(ndx, ndx2).trim()));
+		}
+		catch (NumberFormatException nfex) {
+			statusCode(-1);
+		}
+
+		statusPhrase(line.substring(ndx2).trim());
+	}
+
+	/**
+	 * Returns <code>true</code> if response to the request of given method has a body.
+	 * Response to the "HEAD" request, informational, "204 No Content" and
+	 * "304 Not Modified" responses have no body.
+	 */
+	protected boolean hasBody(String requestMethod) {
+		if ("HEAD".equalsIgnoreCase(requestMethod)) {
+			return false;
+		}
+		return !((statusCode >= 100 && statusCode < 200) || statusCode == 204 || statusCode == 304);
+	}
 
+	/**
+	 * Returns <code>true</code> if body is neither chunked nor of known
+	 * length, i.e. it ends when the server closes the connection.
+	 */
+	protected boolean isBodyEndedByStream() {
+		return !isChunked() && parseContentLength() < 0;
+	}
+
+	private boolean isChunked() {
+		String transferEncoding = header("Transfer-Encoding");
+		return transferEncoding != null && transferEncoding.equalsIgnoreCase("chunked");
+	}
+
+	private long parseContentLength() {
+		String contentLen = contentLength();
+
+		if (contentLen != null) {
 			try {
-				httpResponse.statusCode(Integer.parseInt(line.substring(ndx, ndx2).trim()));
+				return Long.parseLong(contentLen.trim());
 			}
-			catch (NumberFormatException nfex) {
-				httpResponse.statusCode(-1);
+			catch (NumberFormatException ignore) {
 			}
+		}
+		return -1;
+	}
 
-			httpResponse.statusPhrase(line.substring(ndx2).trim());
+	/**
+	 * Creates body input stream from the headers: chunked, of the
+	 * given content length or terminated by the end of the stream.
+	 * @see #hasBody(String)
+	 */
+	protected HttpBodyInputStream createBodyInputStream(HttpParser in, String requestMethod) {
+		if (!hasBody(requestMethod)) {
+			return new HttpBodyInputStream(in, this, false, 0);
 		}
 
-		httpResponse.readHeaders(reader);
-		httpResponse.readBody(reader);
+		if (isChunked()) {
+			return new HttpBodyInputStream(in, this, true, -1);
+		}
 
-		return httpResponse;
+		long contentLength = parseContentLength();
+
+		bodyEndsWithStream = contentLength < 0;
+
+		return new HttpBodyInputStream(in, this, false, contentLength);
+	}
+
+	protected boolean bodyEndsWithStream;
+
+	/**
+	 * Returns <code>true</code> if connection may be reused for the next request:
+	 * it is {@link #isConnectionPersistent() persistent}, the body does not end
+	 * by closing the connection and streamed body has been fully read.
+	 */
+	public boolean isConnectionReusable() {
+		if (bodyInputStream != null && !bodyInputStream.isReusable()) {
+			return false;
+		}
+		return !bodyEndsWithStream && isConnectionPersistent();
 	}
 
 	// ---------------------------------------------------------------- request
@@ -272,8 +484,15 @@ public class HttpResponse extends HttpBase<HttpResponse> {
 	 * Closes requests connection if it was open.
 	 * Should be called when using keep-alive connections.
 	 * Otherwise, connection will be already closed.
+	 * Closes the body stream of a {@link #isStreamed() streamed} response, too.
 	 */
 	public HttpResponse close() {
+		if (bodyStream != null) {
+			StreamUtil.close(bodyStream);
+		}
+		if (httpRequest == null) {
+			return this;
+		}
 		HttpConnection httpConnection = httpRequest.httpConnection;
 		if (httpConnection != null) {
 			httpConnection.close();
@@ -282,4 +501,15 @@ public class HttpResponse extends HttpBase<HttpResponse> {
 		return this;
 	}
 
-}
\ No newline at end of file
+	/**
+	 * Indicates that the connection has been closed or reset before any
+	 * byte of the response is received. Timeouts are not reported this way.
+	 */
+	static class NoResponseException extends EOFException {
+		NoResponseException(SocketException cause) {
+			super("Connection closed before the response");
+			initCause(cause);
+		}
+	}
+
+}
@@ -27,8 +27,14 @@ package jodd.http;
 
 import jodd.Jodd;
 import jodd.http.net.SocketHttpConnectionProvider;
+import jodd.util.ThreadUtil;
 
 import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Jodd HTTP module.
@@ -77,4 +83,38 @@ public class JoddHttp {
 		this.httpConnectionProvider = httpConnectionProvider;
 	}
 
+	private Executor executor;
+
+	/**
+	 * Returns default executor of {@link HttpRequest#sendAsync() asynchronous requests}.
+	 * Unless specified, bounded pool of daemon threads is created on the first use.
+	 * Pool and queue sizes are set in {@link JoddHttpDefaults defaults};
+	 * requests are rejected with {@link RejectedExecutionException} when
+	 * all threads are busy and the queue is full, and their futures
+	 * complete exceptionally.
+	 */
+	public synchronized Executor executor() {
+		if (executor == null) {
+			final int poolSize = defaults.getAsyncPoolSize();
+
+			ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(
+				poolSize, poolSize, 60L, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(defaults.getAsyncQueueSize()),
+				ThreadUtil.daemonThreadFactory("jodd-http"));
+
+			threadPoolExecutor.allowCoreThreadTimeOut(true);
+
+			executor = threadPoolExecutor;
+		}
+		return executor;
+	}
+
+	/**
+	 * Defines the default executor of asynchronous requests.
+	 */
+	public synchronized void executor(Executor executor) {
+		Objects.requireNonNull(executor);
+		this.executor = executor;
+	}
+
 }
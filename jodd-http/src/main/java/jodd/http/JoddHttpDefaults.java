@@ -37,6 +37,8 @@ public class JoddHttpDefaults {
 	private String secureEnabledProtocols = System.getProperty("https.protocols");
 	private String userAgent = "Jodd HTTP";
 	private boolean capitalizeHeaderKeys = true;
+	private int asyncPoolSize = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+	private int asyncQueueSize = 1000;
 
 	/**
 	 * Returns default query encoding.
@@ -137,4 +139,37 @@ public class JoddHttpDefaults {
 	public void setCapitalizeHeaderKeys(boolean capitalizeHeaderKeys) {
 		this.capitalizeHeaderKeys = capitalizeHeaderKeys;
 	}
+
+	/**
+	 * Returns maximal number of threads of the default async executor.
+	 */
+	public int getAsyncPoolSize() {
+		return asyncPoolSize;
+	}
+
+	/**
+	 * Sets maximal number of threads of the default executor of
+	 * asynchronous requests. By default, it is twice the number of
+	 * processors, but not less than 4.
+	 */
+	public void setAsyncPoolSize(int asyncPoolSize) {
+		this.asyncPoolSize = asyncPoolSize;
+	}
+
+	/**
+	 * Returns maximal number of queued requests of the default async executor.
+	 */
+	public int getAsyncQueueSize() {
+		return asyncQueueSize;
+	}
+
+	/**
+	 * Sets maximal number of asynchronous requests waiting for
+	 * the free thread of the default executor (1000). When the queue
+	 * is full, new requests are rejected and their futures complete
+	 * exceptionally.
+	 */
+	public void setAsyncQueueSize(int asyncQueueSize) {
+		this.asyncQueueSize = asyncQueueSize;
+	}
 }
@@ -0,0 +1,639 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.http.net;
+
+import jodd.http.HttpConnection;
+import jodd.http.HttpConnectionProvider;
+import jodd.http.HttpException;
+import jodd.http.HttpRequest;
+import jodd.http.HttpResponse;
+import jodd.http.ProxyInfo;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Connection provider that keeps persistent connections in a pool and reuses
+ * them for the following requests to the same route. Route is defined by the
+ * protocol, host, port and proxy, as well as by the security options of HTTPS
+ * requests. Connections are created by wrapped provider, by default by
+ * {@link SocketHttpConnectionProvider}, that also reuses SSL sessions.
+ * <p>
+ * All requests opened by this provider are switched to keep-alive mode.
+ * When the response is received, connection is returned to the pool,
+ * unless the server asked for closing it. Number of connections is limited
+ * per route and in total. Idle connections are closed after some time, and
+ * checked if they are still alive before they are reused.
+ * <p>
+ * Provider may be set as the {@link jodd.http.JoddHttp#httpConnectionProvider(HttpConnectionProvider) default one},
+ * so it is used transparently by all requests.
+ */
+public class PooledHttpConnectionProvider implements HttpConnectionProvider {
+
+	protected final HttpConnectionProvider provider;
+	protected ProxyInfo proxy = ProxyInfo.directProxy();
+
+	protected int maxTotal = 64;
+	protected int maxPerRoute = 8;
+	protected long acquireTimeout = 10000;
+	protected long idleTimeout = 60000;
+	protected long validateAfterInactivity = 2000;
+
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition available = lock.newCondition();
+	private final Map<String, Route> routes = new HashMap<>();
+	private int totalCount;
+	private int idleCount;
+	private boolean closed;
+
+	public PooledHttpConnectionProvider() {
+		this(new SocketHttpConnectionProvider());
+	}
+
+	/**
+	 * Creates pool of connections created by given provider.
+	 */
+	public PooledHttpConnectionProvider(HttpConnectionProvider provider) {
+		this.provider = provider;
+	}
+
+	// ---------------------------------------------------------------- config
+
+	/**
+	 * Defines max number of connections in the pool, both used and idle.
+	 */
+	public PooledHttpConnectionProvider maxTotal(int maxTotal) {
+		this.maxTotal = maxTotal;
+		return this;
+	}
+
+	/**
+	 * Defines max number of connections for single route.
+	 */
+	public PooledHttpConnectionProvider maxPerRoute(int maxPerRoute) {
+		this.maxPerRoute = maxPerRoute;
+		return this;
+	}
+
+	/**
+	 * Defines how long to wait for a connection when the pool is exhausted,
+	 * in milliseconds. A timeout of zero is interpreted as an infinite timeout.
+	 */
+	public PooledHttpConnectionProvider acquireTimeout(long milliseconds) {
+		this.acquireTimeout = milliseconds;
+		return this;
+	}
+
+	/**
+	 * Defines how long the connection may stay idle in the pool, in milliseconds.
+	 * A timeout of zero means idle connections are never closed by the pool.
+	 */
+	public PooledHttpConnectionProvider idleTimeout(long milliseconds) {
+		this.idleTimeout = milliseconds;
+		return this;
+	}
+
+	/**
+	 * Defines period of inactivity in milliseconds after which idle connection
+	 * is checked if it is still alive before it is reused. Negative value
+	 * disables the check.
+	 */
+	public PooledHttpConnectionProvider validateAfterInactivity(long milliseconds) {
+		this.validateAfterInactivity = milliseconds;
+		return this;
+	}
+
+	/**
+	 * Returns number of all connections in the pool.
+	 */
+	public int totalCount() {
+		lock.lock();
+		try {
+			return totalCount;
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns number of idle connections in the pool.
+	 */
+	public int idleCount() {
+		lock.lock();
+		try {
+			return idleCount;
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	// ---------------------------------------------------------------- provider
+
+	/**
+	 * Defines proxy for this and the wrapped provider.
+	 */
+	@Override
+	public void useProxy(ProxyInfo proxyInfo) {
+		this.proxy = proxyInfo;
+		provider.useProxy(proxyInfo);
+	}
+
+	/**
+	 * Returns idle connection of request route if there is any,
+	 * or creates a new one if limits allow.
+	 */
+	@Override
+	public HttpConnection createHttpConnection(HttpRequest httpRequest) throws IOException {
+		return createHttpConnection(httpRequest, true);
+	}
+
+	/**
+	 * Creates new connection, without reusing idle connections of the request route.
+	 * If route limit is reached, its least recently used idle connection is closed.
+	 */
+	@Override
+	public HttpConnection createNewHttpConnection(HttpRequest httpRequest) throws IOException {
+		return createHttpConnection(httpRequest, false);
+	}
+
+	private HttpConnection createHttpConnection(HttpRequest httpRequest, boolean reuse) throws IOException {
+		httpRequest.connectionKeepAlive(true);
+
+		String routeKey = resolveRouteKey(httpRequest);
+
+		while (true) {
+			PooledHttpConnection pooledConnection = acquire(routeKey, reuse);
+
+			if (pooledConnection.connection == null) {
+				try {
+					pooledConnection.connection = provider.createHttpConnection(httpRequest);
+				}
+				catch (IOException | RuntimeException ex) {
+					discard(pooledConnection);
+					throw ex;
+				}
+				return pooledConnection;
+			}
+
+			if (isStale(pooledConnection)) {
+				pooledConnection.close();
+				continue;
+			}
+
+			applyTimeout(pooledConnection.connection, httpRequest.timeout());
+			return pooledConnection;
+		}
+	}
+
+	/**
+	 * Returns pooled connection back to the pool. Connection is closed instead,
+	 * if it can not be reused after the response: when server asked for closing
+	 * it or when the response body ended by closing the connection.
+	 */
+	@Override
+	public boolean releaseHttpConnection(HttpConnection httpConnection, HttpResponse httpResponse) {
+		if (!(httpConnection instanceof PooledHttpConnection)) {
+			return false;
+		}
+		PooledHttpConnection pooledConnection = (PooledHttpConnection) httpConnection;
+
+		if (pooledConnection.pool() != this) {
+			return false;
+		}
+		if (!httpResponse.isConnectionReusable()) {
+			discard(pooledConnection);
+			return true;
+		}
+
+		boolean close = false;
+
+		lock.lock();
+		try {
+			if (pooledConnection.discarded) {
+				return false;
+			}
+			if (closed) {
+				close = unregister(pooledConnection);
+			}
+			else if (!pooledConnection.idle) {
+				pooledConnection.idle = true;
+				pooledConnection.reused = true;
+				pooledConnection.lastUsed = System.currentTimeMillis();
+				pooledConnection.route.idle.addFirst(pooledConnection);
+				idleCount++;
+				available.signalAll();
+			}
+		}
+		finally {
+			lock.unlock();
+		}
+
+		if (close) {
+			pooledConnection.connection.close();
+		}
+		return true;
+	}
+
+	/**
+	 * Resolves the key of request route.
+	 */
+	protected String resolveRouteKey(HttpRequest httpRequest) {
+		String protocol = httpRequest.protocol().toLowerCase();
+
+		StringBuilder key = new StringBuilder(64);
+		key.append(protocol).append("://")
+			.append(httpRequest.host()).append(':').append(httpRequest.port());
+
+		if (protocol.equals("https")) {
+			key.append(httpRequest.trustAllCertificates() ? "|trust-all" : "")
+				.append(httpRequest.verifyHttpsHost() ? "|verify-host" : "");
+		}
+
+		ProxyInfo proxyInfo = this.proxy;
+		if (proxyInfo.getProxyType() != ProxyInfo.ProxyType.NONE) {
+			key.append('|').append(proxyInfo.getProxyType())
+				.append(':').append(proxyInfo.getProxyUsername())
+				.append('@').append(proxyInfo.getProxyAddress())
+				.append(':').append(proxyInfo.getProxyPort());
+		}
+		return key.toString();
+	}
+
+	/**
+	 * Returns <code>true</code> if idle connection has been closed
+	 * by the server in the meantime. Only socket connections that were
+	 * idle long enough are checked.
+	 */
+	protected boolean isStale(PooledHttpConnection pooledConnection) {
+		if (validateAfterInactivity < 0) {
+			return false;
+		}
+		if (System.currentTimeMillis() - pooledConnection.lastUsed <= validateAfterInactivity) {
+			return false;
+		}
+		if (!(pooledConnection.connection instanceof SocketHttpConnection)) {
+			return false;
+		}
+
+		Socket socket = ((SocketHttpConnection) pooledConnection.connection).getSocket();
+
+		if (socket.isClosed() || socket.isInputShutdown() || socket.isOutputShutdown()) {
+			return true;
+		}
+
+		try {
+			int soTimeout = socket.getSoTimeout();
+			socket.setSoTimeout(1);
+			try {
+				// there must be nothing to read: EOF means closed connection,
+				// and any data would be out of request-response order
+				socket.getInputStream().read();
+				return true;
+			}
+			catch (SocketTimeoutException ignore) {
+				return false;
+			}
+			finally {
+				socket.setSoTimeout(soTimeout);
+			}
+		}
+		catch (IOException ioex) {
+			return true;
+		}
+	}
+
+	/**
+	 * Applies request timeout on reused connection.
+	 */
+	protected void applyTimeout(HttpConnection httpConnection, int timeout) throws IOException {
+		httpConnection.setTimeout(timeout);
+
+		if (httpConnection instanceof SocketHttpConnection) {
+			((SocketHttpConnection) httpConnection).getSocket().setSoTimeout(timeout >= 0 ? timeout : 0);
+		}
+	}
+
+	// ---------------------------------------------------------------- pool
+
+	/**
+	 * Closes idle connections that exceeded the idle timeout.
+	 * May be invoked periodically, as expired connections
+	 * are otherwise closed only when their route is used.
+	 */
+	public void closeExpiredConnections() {
+		List<HttpConnection> toClose = new ArrayList<>();
+
+		lock.lock();
+		try {
+			long now = System.currentTimeMillis();
+			for (Route route : new ArrayList<>(routes.values())) {
+				Iterator<PooledHttpConnection> iterator = route.idle.descendingIterator();
+				while (iterator.hasNext()) {
+					PooledHttpConnection pooledConnection = iterator.next();
+					if (!isExpired(pooledConnection, now)) {
+						break;
+					}
+					iterator.remove();
+					if (unregister(pooledConnection)) {
+						toClose.add(pooledConnection.connection);
+					}
+				}
+			}
+		}
+		finally {
+			lock.unlock();
+		}
+
+		toClose.forEach(HttpConnection::close);
+	}
+
+	/**
+	 * Closes the pool and all idle connections. Used connections
+	 * are closed when they are released.
+	 */
+	public void close() {
+		List<HttpConnection> toClose = new ArrayList<>();
+
+		lock.lock();
+		try {
+			closed = true;
+			for (Route route : new ArrayList<>(routes.values())) {
+				PooledHttpConnection pooledConnection;
+				while ((pooledConnection = route.idle.pollFirst()) != null) {
+					if (unregister(pooledConnection)) {
+						toClose.add(pooledConnection.connection);
+					}
+				}
+			}
+			available.signalAll();
+		}
+		finally {
+			lock.unlock();
+		}
+
+		toClose.forEach(HttpConnection::close);
+	}
+
+	/**
+	 * Takes idle connection from the route, if reuse is allowed, or reserves
+	 * the place for the new one. Waits if pool is exhausted.
+	 */
+	private PooledHttpConnection acquire(String routeKey, boolean reuse) {
+		List<HttpConnection> toClose = new ArrayList<>();
+
+		lock.lock();
+		try {
+			long nanos = TimeUnit.MILLISECONDS.toNanos(acquireTimeout);
+
+			while (true) {
+				if (closed) {
+					throw new HttpException("Connection pool is closed");
+				}
+
+				Route route = routes.computeIfAbsent(routeKey, Route::new);
+				long now = System.currentTimeMillis();
+
+				// reuse the most recently used idle connection
+
+				PooledHttpConnection pooledConnection;
+				while (reuse && (pooledConnection = route.idle.pollFirst()) != null) {
+					if (isExpired(pooledConnection, now)) {
+						if (unregister(pooledConnection)) {
+							toClose.add(pooledConnection.connection);
+						}
+						continue;
+					}
+					pooledConnection.idle = false;
+					idleCount--;
+					return pooledConnection;
+				}
+
+				// make room for the new connection
+
+				if (!reuse && route.count >= maxPerRoute) {
+					PooledHttpConnection eldest = route.idle.pollLast();
+					if (eldest != null && unregister(eldest)) {
+						toClose.add(eldest.connection);
+					}
+				}
+
+				if (route.count < maxPerRoute && totalCount >= maxTotal) {
+					PooledHttpConnection eldest = findEldestIdle();
+					if (eldest != null) {
+						eldest.route.idle.remove(eldest);
+						if (unregister(eldest)) {
+							toClose.add(eldest.connection);
+						}
+					}
+				}
+
+				// route is removed when its last connection is unregistered
+				route = routes.computeIfAbsent(routeKey, Route::new);
+
+				if (route.count < maxPerRoute && totalCount < maxTotal) {
+					route.count++;
+					totalCount++;
+					return new PooledHttpConnection(route);
+				}
+
+				// wait
+
+				try {
+					if (acquireTimeout == 0) {
+						available.await();
+					}
+					else {
+						if (nanos <= 0) {
+							throw new HttpException("Timeout waiting for connection from pool: " + routeKey);
+						}
+						nanos = available.awaitNanos(nanos);
+					}
+				}
+				catch (InterruptedException iex) {
+					Thread.currentThread().interrupt();
+					throw new HttpException(iex);
+				}
+			}
+		}
+		finally {
+			lock.unlock();
+			toClose.forEach(HttpConnection::close);
+		}
+	}
+
+	/**
+	 * Removes connection from the pool and closes it.
+	 */
+	private void discard(PooledHttpConnection pooledConnection) {
+		boolean close;
+
+		lock.lock();
+		try {
+			if (pooledConnection.idle) {
+				pooledConnection.route.idle.remove(pooledConnection);
+			}
+			close = unregister(pooledConnection);
+		}
+		finally {
+			lock.unlock();
+		}
+
+		if (close && pooledConnection.connection != null) {
+			pooledConnection.connection.close();
+		}
+	}
+
+	/**
+	 * Unregisters connection that is already removed from the idle queue.
+	 * Returns <code>false</code> if connection was already unregistered.
+	 * Must be invoked under the lock.
+	 */
+	private boolean unregister(PooledHttpConnection pooledConnection) {
+		if (pooledConnection.discarded) {
+			return false;
+		}
+		pooledConnection.discarded = true;
+		if (pooledConnection.idle) {
+			pooledConnection.idle = false;
+			idleCount--;
+		}
+
+		Route route = pooledConnection.route;
+		route.count--;
+		totalCount--;
+		if (route.count == 0) {
+			routes.remove(route.key);
+		}
+
+		available.signalAll();
+		return true;
+	}
+
+	private PooledHttpConnection findEldestIdle() {
+		PooledHttpConnection eldest = null;
+		for (Route route : routes.values()) {
+			PooledHttpConnection pooledConnection = route.idle.peekLast();
+			if (pooledConnection != null) {
+				if (eldest == null || pooledConnection.lastUsed < eldest.lastUsed) {
+					eldest = pooledConnection;
+				}
+			}
+		}
+		return eldest;
+	}
+
+	private boolean isExpired(PooledHttpConnection pooledConnection, long now) {
+		if (idleTimeout == 0) {
+			return false;
+		}
+		return now - pooledConnection.lastUsed > idleTimeout;
+	}
+
+	/**
+	 * Connections of single route.
+	 */
+	private static class Route {
+		final String key;
+		final ArrayDeque<PooledHttpConnection> idle = new ArrayDeque<>();
+		int count;
+
+		Route(String key) {
+			this.key = key;
+		}
+	}
+
+	/**
+	 * Pooled {@link HttpConnection}. Closing the connection removes it
+	 * from the pool.
+	 */
+	public class PooledHttpConnection implements HttpConnection {
+		private final Route route;
+		private HttpConnection connection;
+		private long lastUsed;
+		private boolean idle;
+		private boolean reused;
+		private boolean discarded;
+
+		private PooledHttpConnection(Route route) {
+			this.route = route;
+		}
+
+		private PooledHttpConnectionProvider pool() {
+			return PooledHttpConnectionProvider.this;
+		}
+
+		/**
+		 * Returns wrapped connection.
+		 */
+		public HttpConnection getHttpConnection() {
+			return connection;
+		}
+
+		@Override
+		public void init() throws IOException {
+			connection.init();
+		}
+
+		@Override
+		public OutputStream getOutputStream() throws IOException {
+			return connection.getOutputStream();
+		}
+
+		@Override
+		public InputStream getInputStream() throws IOException {
+			return connection.getInputStream();
+		}
+
+		@Override
+		public void close() {
+			discard(this);
+		}
+
+		@Override
+		public void setTimeout(int milliseconds) {
+			connection.setTimeout(milliseconds);
+		}
+
+		@Override
+		public boolean isReused() {
+			return reused;
+		}
+	}
+}
@@ -203,15 +203,23 @@ public class SocketHttpConnectionProvider implements HttpConnectionProvider {
 		return sslSocket;
 	}
 
+	private SSLSocketFactory trustAllSSLSocketFactory;
+
 	/**
 	 * Returns default SSL socket factory allowing setting trust managers.
+	 * Factory that trusts all certificates is created once, so its
+	 * SSL context may resume sessions of previous connections.
 	 */
 	protected SSLSocketFactory getDefaultSSLSocketFactory(boolean trustAllCertificates) throws IOException {
 		if (trustAllCertificates) {
+			if (trustAllSSLSocketFactory != null) {
+				return trustAllSSLSocketFactory;
+			}
 			try {
 				SSLContext sc = SSLContext.getInstance("SSL");
 				sc.init(null, TrustManagers.TRUST_ALL_CERTS, new java.security.SecureRandom());
-				return sc.getSocketFactory();
+				trustAllSSLSocketFactory = sc.getSocketFactory();
+				return trustAllSSLSocketFactory;
 			}
 			catch (NoSuchAlgorithmException | KeyManagementException e) {
 				throw new IOException(e);
@@ -0,0 +1,119 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.http;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Compares reading of HTTP responses with the byte-oriented {@link HttpParser}
+ * against the previous, <code>BufferedReader</code>-based, parsing.
+ *
+ * Run:
+ * <code>
+ * gw :jodd-http:HttpParserBenchmark
+ * </code>
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@State(Scope.Benchmark)
+public class HttpParserBenchmark {
+
+	private static final String HEAD =
+		"HTTP/1.1 200 OK\r\n" +
+		"Date: Sat, 23 Mar 2013 23:34:18 GMT\r\n" +
+		"Server: Apache\r\n" +
+		"Cache-Control: max-age=0, must-revalidate, no-cache, no-store, private\r\n" +
+		"Pragma: no-cache\r\n" +
+		"Expires: Thu, 01 Jan 1970 00:00:00 GMT\r\n" +
+		"Content-Type: text/html;charset=UTF-8\r\n" +
+		"Vary: Accept-Encoding\r\n" +
+		"X-Frame-Options: SAMEORIGIN\r\n" +
+		"Set-Cookie: JSESSIONID=1234567890ABCDEF; Path=/; HttpOnly\r\n" +
+		"Connection: keep-alive\r\n";
+
+	@Param({"content-length", "chunked"})
+	public String body;
+
+	private byte[] response;
+
+	@Setup
+	public void setup() {
+		StringBuilder content = new StringBuilder();
+		while (content.length() < 2048) {
+			content.append("<p>Lorem ipsum dolor sit amet, consectetur adipiscing elit.</p>\n");
+		}
+
+		StringBuilder sb = new StringBuilder(HEAD);
+
+		if (body.equals("chunked")) {
+			sb.append("Transfer-Encoding: chunked\r\n\r\n");
+			for (int i = 0; i < content.length(); i += 512) {
+				String chunk = content.substring(i, Math.min(i + 512, content.length()));
+				sb.append(Integer.toHexString(chunk.length())).append("\r\n").append(chunk).append("\r\n");
+			}
+			sb.append("0\r\n\r\n");
+		}
+		else {
+			sb.append("Content-Length: ").append(content.length()).append("\r\n\r\n").append(content);
+		}
+
+		response = sb.toString().getBytes(StandardCharsets.ISO_8859_1);
+	}
+
+	@Benchmark
+	public HttpResponse parser() {
+		return HttpResponse.readFrom(new ByteArrayInputStream(response));
+	}
+
+	@Benchmark
+	@SuppressWarnings("deprecation")
+	public HttpResponse reader() throws IOException {
+		BufferedReader reader = new BufferedReader(
+			new InputStreamReader(new ByteArrayInputStream(response), StandardCharsets.ISO_8859_1));
+
+		HttpResponse httpResponse = new HttpResponse();
+
+		httpResponse.readStatusLine(reader.readLine());
+		httpResponse.readHeaders(reader);
+		httpResponse.readBody(reader);
+
+		return httpResponse;
+	}
+}
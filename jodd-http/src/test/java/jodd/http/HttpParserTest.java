@@ -0,0 +1,145 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.http;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpParserTest {
+
+	/**
+	 * Input stream that returns a single byte per read.
+	 */
+	private static InputStream slow(String content) {
+		return new ByteArrayInputStream(content.getBytes(StandardCharsets.ISO_8859_1)) {
+			@Override
+			public synchronized int read(byte[] b, int off, int len) {
+				return super.read(b, off, Math.min(len, 1));
+			}
+		};
+	}
+
+	@Test
+	void testHeaders() throws IOException {
+		HttpParser parser = new HttpParser(slow(
+			"HTTP/1.1 200 OK\r\n" +
+			"Content-Type: text/plain\r\n" +
+			"connection:keep-alive  \r\n" +
+			"X-Custom:   some value\n" +
+			"\r\n" +
+			"body"));
+
+		HttpResponse response = new HttpResponse();
+
+		assertEquals("HTTP/1.1 200 OK", parser.readLine());
+		parser.readHeaders(response);
+
+		assertEquals("text/plain", response.mediaType());
+		assertEquals("keep-alive", response.header("Connection"));
+		assertEquals("some value", response.header("x-custom"));
+
+		// common names and values are shared
+		for (String name : response.headerNames()) {
+			if (name.equalsIgnoreCase("Content-Type")) {
+				assertSame("Content-Type", name);
+			}
+		}
+		assertSame("keep-alive", response.header("Connection"));
+
+		assertEquals("body", new String(parser.readBytes(10), StandardCharsets.ISO_8859_1));
+		assertEquals(-1, parser.read());
+	}
+
+	@Test
+	void testLongLine() throws IOException {
+		StringBuilder value = new StringBuilder();
+		for (int i = 0; i < 20000; i++) {
+			value.append((char) ('a' + i % 26));
+		}
+		HttpParser parser = new HttpParser(new ByteArrayInputStream(
+			("Cookie: " + value + "\r\n\r\n").getBytes(StandardCharsets.ISO_8859_1)));
+
+		HttpRequest request = new HttpRequest();
+		parser.readHeaders(request);
+
+		assertEquals(value.toString(), request.header("Cookie"));
+	}
+
+	@Test
+	void testInvalidHeader() {
+		HttpParser parser = new HttpParser(slow("no colon\r\n\r\n"));
+
+		assertThrows(HttpException.class, () -> parser.readHeaders(new HttpResponse()));
+	}
+
+	@Test
+	void testChunkSize() throws IOException {
+		HttpParser parser = new HttpParser(slow("1a\r\nFF;name=value\r\n  0  \r\nxyz\r\n"));
+
+		assertEquals(0x1a, parser.readChunkSize());
+		assertEquals(0xff, parser.readChunkSize());
+		assertEquals(0, parser.readChunkSize());
+		assertThrows(IOException.class, parser::readChunkSize);
+	}
+
+	@Test
+	void testReadRequest() {
+		String raw =
+			"POST /hello?a=1 HTTP/1.1\r\n" +
+			"Host: jodd.org\r\n" +
+			"Content-Type: application/x-www-form-urlencoded\r\n" +
+			"Content-Length: 13\r\n" +
+			"\r\n" +
+			"one=1&two=222";
+
+		HttpRequest request = HttpRequest.readFrom(slow(raw));
+
+		assertEquals("POST", request.method());
+		assertEquals("jodd.org", request.header("Host"));
+		assertEquals("1", request.query().get("a"));
+		assertEquals("1", request.form().get("one"));
+		assertEquals("222", request.form().get("two"));
+	}
+
+	@Test
+	void testReadRequestEncoding() {
+		byte[] raw = (
+			"POST / HTTP/1.1\r\n" +
+			"Content-Length: 16\r\n" +
+			"\r\n" +
+			"Ћирилица").getBytes(StandardCharsets.UTF_8);
+
+		HttpRequest request = HttpRequest.readFrom(new ByteArrayInputStream(raw), "UTF-8");
+
+		assertEquals("Ћирилица", request.body());
+	}
+}
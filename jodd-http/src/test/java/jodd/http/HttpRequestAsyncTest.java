@@ -0,0 +1,135 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.http;
+
+import jodd.http.net.PooledHttpConnectionProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpRequestAsyncTest {
+
+	PooledHttpConnectionProviderTest.KeepAliveServer server;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		server = new PooledHttpConnectionProviderTest.KeepAliveServer();
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		server.stop();
+	}
+
+	@Test
+	void testSendAsync() throws Exception {
+		HttpResponse response = HttpRequest
+			.get("http://localhost:" + server.port() + "/async")
+			.sendAsync()
+			.get();
+
+		assertEquals(200, response.statusCode());
+		assertEquals("/async", response.bodyText());
+	}
+
+	@Test
+	void testManyRequests() throws Exception {
+		ExecutorService executorService = Executors.newFixedThreadPool(4);
+		PooledHttpConnectionProvider pool = new PooledHttpConnectionProvider().maxPerRoute(4);
+
+		try {
+			List<CompletableFuture<String>> futures = new ArrayList<>();
+
+			for (int i = 0; i < 50; i++) {
+				futures.add(HttpRequest
+					.get("http://localhost:" + server.port() + "/" + i)
+					.withConnectionProvider(pool)
+					.sendAsync(executorService)
+					.thenApply(HttpResponse::bodyText));
+			}
+
+			CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get();
+
+			for (int i = 0; i < 50; i++) {
+				assertEquals("/" + i, futures.get(i).get());
+			}
+			assertTrue(server.connectionsCount.get() <= 4);
+		}
+		finally {
+			pool.close();
+			executorService.shutdown();
+		}
+	}
+
+	@Test
+	void testDefaultExecutorIsBounded() {
+		JoddHttpDefaults defaults = JoddHttp.get().defaults();
+		ThreadPoolExecutor executor = (ThreadPoolExecutor) JoddHttp.get().executor();
+
+		assertEquals(defaults.getAsyncPoolSize(), executor.getMaximumPoolSize());
+		assertEquals(defaults.getAsyncQueueSize(), executor.getQueue().remainingCapacity() + executor.getQueue().size());
+	}
+
+	@Test
+	void testRejected() {
+		CompletableFuture<HttpResponse> future = HttpRequest
+			.get("http://localhost:" + server.port() + "/rejected")
+			.sendAsync(command -> {
+				throw new RejectedExecutionException();
+			});
+
+		ExecutionException ex = assertThrows(ExecutionException.class, future::get);
+		assertTrue(ex.getCause() instanceof HttpException);
+		assertTrue(ex.getCause().getCause() instanceof RejectedExecutionException);
+		assertEquals(0, server.connectionsCount.get());
+	}
+
+	@Test
+	void testFailure() throws IOException {
+		int port;
+		try (ServerSocket serverSocket = new ServerSocket(0)) {
+			port = serverSocket.getLocalPort();
+		}
+
+		CompletableFuture<HttpResponse> future = HttpRequest.get("http://localhost:" + port + "/").sendAsync();
+
+		ExecutionException ex = assertThrows(ExecutionException.class, future::get);
+		assertTrue(ex.getCause() instanceof HttpException);
+	}
+}
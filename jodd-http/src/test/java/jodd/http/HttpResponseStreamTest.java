@@ -0,0 +1,261 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.http;
+
+import jodd.io.FileUtil;
+import jodd.io.StreamUtil;
+import jodd.util.StringUtil;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpResponseStreamTest {
+
+	private static InputStream stream(String head, byte[] body) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] headBytes = head.getBytes(StandardCharsets.ISO_8859_1);
+		out.write(headBytes, 0, headBytes.length);
+		out.write(body, 0, body.length);
+		return new ByteArrayInputStream(out.toByteArray());
+	}
+
+	private static String read(InputStream in) throws IOException {
+		return new String(StreamUtil.readBytes(in), StandardCharsets.UTF_8);
+	}
+
+	@Test
+	void testContentLength() throws IOException {
+		InputStream in = stream(
+			"HTTP/1.1 200 OK\r\nContent-Length: 5\r\n\r\n",
+			"HelloNEXT".getBytes(StandardCharsets.ISO_8859_1));
+
+		HttpResponse response = HttpResponse.readFrom(in, true);
+
+		assertTrue(response.isStreamed());
+		assertEquals(200, response.statusCode());
+		assertEquals("OK", response.statusPhrase());
+		assertNull(response.body());
+		assertEquals("Hello", read(response.bodyStream()));
+		assertTrue(response.bodyInputStream.isCompleted());
+	}
+
+	@Test
+	void testChunked() throws IOException {
+		URL data = RawTest.class.getResource("4-response.txt");
+
+		String fileContent = FileUtil.readString(data.getFile());
+
+		fileContent = StringUtil.replace(fileContent, "\n", "\r\n");
+		fileContent = StringUtil.replace(fileContent, "\r\r\n", "\r\n");
+
+		HttpResponse response = HttpResponse.readFrom(new ByteArrayInputStream(fileContent.getBytes("UTF-8")), true);
+
+		assertEquals(
+			"Wikipedia in\n" +
+			"\n" +
+			"chunks.", read(response.bodyStream()).replace("\r\n", "\n"));
+	}
+
+	@Test
+	void testChunkedWithTrailers() throws IOException {
+		InputStream in = stream(
+			"HTTP/1.1 200 OK\r\nTransfer-Encoding: chunked\r\n\r\n",
+			("3;ext=1\r\nabc\r\n" + "A\r\n0123456789\r\n" + "0\r\nX-Checksum: 42\r\n\r\n").getBytes(StandardCharsets.ISO_8859_1));
+
+		HttpResponse response = HttpResponse.readFrom(in, true);
+
+		assertNull(response.header("X-Checksum"));
+		assertEquals("abc0123456789", read(response.bodyStream()));
+		assertEquals("42", response.header("X-Checksum").trim());
+	}
+
+	@Test
+	void testUntilEndOfStream() throws IOException {
+		InputStream in = stream(
+			"HTTP/1.0 200 OK\r\n\r\n",
+			"all the rest".getBytes(StandardCharsets.ISO_8859_1));
+
+		HttpResponse response = HttpResponse.readFrom(in, true);
+
+		Boolean[] result = new Boolean[1];
+		response.bodyInputStream.onEnd(reusable -> result[0] = reusable);
+
+		assertEquals("HTTP/1.0", response.httpVersion());
+		assertEquals("all the rest", read(response.bodyStream()));
+		assertTrue(response.bodyInputStream.isCompleted());
+		assertEquals(Boolean.FALSE, result[0]);
+		assertFalse(response.isConnectionReusable());
+	}
+
+	@Test
+	void testUntilEndOfStreamNotStreamed() {
+		InputStream in = stream(
+			"HTTP/1.1 200 OK\r\n\r\n",
+			"all the rest".getBytes(StandardCharsets.ISO_8859_1));
+
+		HttpResponse response = HttpResponse.readFrom(in, false);
+
+		assertEquals("all the rest", response.body());
+		assertTrue(response.isConnectionPersistent());
+		assertFalse(response.isConnectionReusable());
+	}
+
+	@Test
+	void testHead() throws IOException {
+		for (boolean streamBody : new boolean[] {true, false}) {
+			InputStream in = stream(
+				"HTTP/1.1 200 OK\r\nContent-Length: 5000\r\n\r\n",
+				new byte[0]);
+
+			HttpResponse response = HttpResponse.readFrom(in, streamBody, "HEAD");
+
+			assertEquals("5000", response.contentLength());
+			assertEquals(-1, response.bodyStream().read());
+			assertTrue(response.isConnectionReusable());
+		}
+	}
+
+	@Test
+	void testNoContent() throws IOException {
+		InputStream in = stream("HTTP/1.1 204 No Content\r\n\r\n", new byte[0]);
+
+		HttpResponse response = HttpResponse.readFrom(in, true);
+
+		assertEquals(-1, response.bodyStream().read());
+		assertTrue(response.bodyInputStream.isCompleted());
+	}
+
+	@Test
+	void testGzipWithoutBody() throws IOException {
+		for (boolean streamBody : new boolean[] {true, false}) {
+			InputStream in = stream(
+				"HTTP/1.1 200 OK\r\nContent-Encoding: gzip\r\nContent-Length: 5000\r\n\r\n",
+				new byte[0]);
+
+			HttpResponse response = HttpResponse.readFrom(in, streamBody, "HEAD").unzip();
+
+			assertEquals(-1, response.bodyStream().read());
+			assertTrue(response.isConnectionReusable());
+		}
+
+		InputStream in = stream("HTTP/1.1 304 Not Modified\r\nContent-Encoding: gzip\r\n\r\n", new byte[0]);
+		assertEquals(-1, HttpResponse.readFrom(in, true).unzip().bodyStream().read());
+
+		in = stream("HTTP/1.1 200 OK\r\nContent-Encoding: gzip\r\nTransfer-Encoding: chunked\r\n\r\n", "0\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1));
+		assertEquals(-1, HttpResponse.readFrom(in, true).unzip().bodyStream().read());
+	}
+
+	@Test
+	void testGzipChunked() throws IOException {
+		ByteArrayOutputStream zipped = new ByteArrayOutputStream();
+		try (GZIPOutputStream gzip = new GZIPOutputStream(zipped)) {
+			gzip.write("Зипован текст".getBytes(StandardCharsets.UTF_8));
+		}
+		byte[] zippedBytes = zipped.toByteArray();
+
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		body.write((Integer.toHexString(10) + "\r\n").getBytes(StandardCharsets.ISO_8859_1));
+		body.write(zippedBytes, 0, 10);
+		body.write(("\r\n" + Integer.toHexString(zippedBytes.length - 10) + "\r\n").getBytes(StandardCharsets.ISO_8859_1));
+		body.write(zippedBytes, 10, zippedBytes.length - 10);
+		body.write("\r\n0\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1));
+
+		InputStream in = stream(
+			"HTTP/1.1 200 OK\r\nContent-Encoding: gzip\r\nTransfer-Encoding: chunked\r\n\r\n",
+			body.toByteArray());
+
+		HttpResponse response = HttpResponse.readFrom(in, true).unzip();
+
+		assertNull(response.contentEncoding());
+		assertEquals("Зипован текст", read(response.bodyStream()));
+	}
+
+	@Test
+	void testDeflateChannel() throws IOException {
+		ByteArrayOutputStream deflated = new ByteArrayOutputStream();
+		try (DeflaterOutputStream deflater = new DeflaterOutputStream(deflated)) {
+			deflater.write("deflated".getBytes(StandardCharsets.ISO_8859_1));
+		}
+
+		InputStream in = stream(
+			"HTTP/1.1 200 OK\r\nContent-Encoding: deflate\r\nContent-Length: " + deflated.size() + "\r\n\r\n",
+			deflated.toByteArray());
+
+		HttpResponse response = HttpResponse.readFrom(in, true).unzip();
+
+		assertNull(response.contentLength());
+
+		ReadableByteChannel channel = response.bodyChannel();
+		ByteBuffer buffer = ByteBuffer.allocate(100);
+		while (channel.read(buffer) != -1) {
+		}
+		buffer.flip();
+
+		assertEquals("deflated", StandardCharsets.ISO_8859_1.decode(buffer).toString());
+	}
+
+	@Test
+	void testCloseBeforeEnd() throws IOException {
+		InputStream in = stream(
+			"HTTP/1.1 200 OK\r\nContent-Length: 100000\r\n\r\n",
+			new byte[100000]);
+
+		HttpResponse response = HttpResponse.readFrom(in, true);
+
+		Boolean[] result = new Boolean[1];
+		response.bodyInputStream.onEnd(fullyRead -> result[0] = fullyRead);
+
+		assertEquals(0, response.bodyStream().read());
+		response.close();
+
+		assertEquals(Boolean.FALSE, result[0]);
+		assertThrows(IOException.class, () -> response.bodyStream().read());
+	}
+
+	@Test
+	void testNotStreamed() throws IOException {
+		InputStream in = stream(
+			"HTTP/1.1 200 OK\r\nContent-Length: 5\r\n\r\n",
+			"Hello".getBytes(StandardCharsets.ISO_8859_1));
+
+		HttpResponse response = HttpResponse.readFrom(in, false);
+
+		assertFalse(response.isStreamed());
+		assertEquals("Hello", response.body());
+		assertEquals("Hello", read(response.bodyStream()));
+	}
+}
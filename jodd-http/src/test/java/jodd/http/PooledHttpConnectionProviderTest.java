@@ -0,0 +1,322 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.http;
+
+import jodd.http.net.PooledHttpConnectionProvider;
+import jodd.io.StreamUtil;
+import jodd.util.ThreadUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PooledHttpConnectionProviderTest {
+
+	/**
+	 * Minimal server that serves many requests over single connection,
+	 * until a request with "Connection: close" comes. Requests to "/bye"
+	 * get keep-alive response, but the connection is closed afterwards.
+	 * Response to "/eof" has no content length, its body ends by closing
+	 * the connection. Response to "/slow" is delayed. Server records
+	 * paths of all received requests.
+	 */
+	static class KeepAliveServer {
+		final ServerSocket serverSocket;
+		final ExecutorService executorService = Executors.newCachedThreadPool();
+		final AtomicInteger connectionsCount = new AtomicInteger();
+		final List<String> paths = new CopyOnWriteArrayList<>();
+
+		KeepAliveServer() throws IOException {
+			serverSocket = new ServerSocket(0);
+			executorService.submit(this::accept);
+		}
+
+		int port() {
+			return serverSocket.getLocalPort();
+		}
+
+		void accept() {
+			while (!serverSocket.isClosed()) {
+				try {
+					Socket socket = serverSocket.accept();
+					connectionsCount.incrementAndGet();
+					executorService.submit(() -> serve(socket));
+				} catch (IOException ignore) {
+				}
+			}
+		}
+
+		void serve(Socket socket) {
+			try {
+				BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.ISO_8859_1));
+				OutputStream out = socket.getOutputStream();
+				while (true) {
+					String requestLine = in.readLine();
+					if (requestLine == null) {
+						break;
+					}
+					boolean close = false;
+					String line;
+					while (!(line = in.readLine()).isEmpty()) {
+						if (line.equalsIgnoreCase("Connection: close")) {
+							close = true;
+						}
+					}
+					String body = requestLine.split(" ")[1];
+					paths.add(body);
+					if (body.equals("/slow")) {
+						ThreadUtil.sleep(500);
+					}
+					if (body.equals("/eof")) {
+						out.write(("HTTP/1.1 200 OK\r\n\r\n" + body).getBytes(StandardCharsets.ISO_8859_1));
+						break;
+					}
+					String response =
+						"HTTP/1.1 200 OK\r\n" +
+						"Content-Length: " + body.length() + "\r\n" +
+						"Connection: " + (close ? "close" : "keep-alive") + "\r\n" +
+						"\r\n" + body;
+					out.write(response.getBytes(StandardCharsets.ISO_8859_1));
+					out.flush();
+					if (close || body.equals("/bye")) {
+						break;
+					}
+				}
+				socket.close();
+			} catch (IOException ignore) {
+			}
+		}
+
+		void stop() throws IOException {
+			serverSocket.close();
+			executorService.shutdownNow();
+		}
+	}
+
+	KeepAliveServer server;
+	PooledHttpConnectionProvider pool;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		server = new KeepAliveServer();
+		pool = new PooledHttpConnectionProvider();
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		pool.close();
+		server.stop();
+	}
+
+	@Test
+	void testReuse() {
+		for (int i = 0; i < 5; i++) {
+			HttpRequest request = HttpRequest.get("http://localhost:" + server.port() + "/hello" + i);
+			HttpResponse response = request.withConnectionProvider(pool).send();
+
+			assertEquals(200, response.statusCode());
+			assertEquals("/hello" + i, response.bodyText());
+			assertNull(request.connection());
+		}
+
+		assertEquals(1, server.connectionsCount.get());
+		assertEquals(1, pool.totalCount());
+		assertEquals(1, pool.idleCount());
+	}
+
+	@Test
+	void testServerClosesConnection() {
+		HttpRequest request = HttpRequest.get("http://localhost:" + server.port() + "/one");
+		request.withConnectionProvider(pool).send();
+
+		request = HttpRequest.get("http://localhost:" + server.port() + "/two");
+		request.withConnectionProvider(pool).open();
+		request.connectionKeepAlive(false);
+		request.send();
+
+		assertEquals(0, pool.totalCount());
+
+		request = HttpRequest.get("http://localhost:" + server.port() + "/three");
+		assertEquals("/three", request.withConnectionProvider(pool).send().bodyText());
+
+		assertEquals(2, server.connectionsCount.get());
+		assertEquals(1, pool.totalCount());
+	}
+
+	@Test
+	void testStaleConnection() {
+		pool.validateAfterInactivity(0);
+
+		HttpRequest request = HttpRequest.get("http://localhost:" + server.port() + "/bye");
+		request.withConnectionProvider(pool).send();
+		assertEquals(1, pool.idleCount());
+
+		ThreadUtil.sleep(100);
+
+		request = HttpRequest.get("http://localhost:" + server.port() + "/two");
+		assertEquals("/two", request.withConnectionProvider(pool).send().bodyText());
+
+		assertEquals(2, server.connectionsCount.get());
+		assertEquals(1, pool.totalCount());
+	}
+
+	@Test
+	void testRetryOnClosedConnection() {
+		pool.validateAfterInactivity(-1);
+
+		HttpRequest request = HttpRequest.get("http://localhost:" + server.port() + "/bye");
+		request.withConnectionProvider(pool).send();
+		assertEquals(1, pool.idleCount());
+
+		ThreadUtil.sleep(100);
+
+		request = HttpRequest.get("http://localhost:" + server.port() + "/two");
+		assertEquals("/two", request.withConnectionProvider(pool).send().bodyText());
+
+		assertEquals(2, server.connectionsCount.get());
+		assertEquals(1, pool.totalCount());
+		assertEquals(1, pool.idleCount());
+	}
+
+	@Test
+	void testNoRetryOfNonIdempotentRequest() {
+		pool.validateAfterInactivity(-1);
+
+		HttpRequest request = HttpRequest.get("http://localhost:" + server.port() + "/bye");
+		request.withConnectionProvider(pool).send();
+		assertEquals(1, pool.idleCount());
+
+		ThreadUtil.sleep(100);
+
+		HttpRequest post = HttpRequest.post("http://localhost:" + server.port() + "/post");
+		assertThrows(HttpException.class, () -> post.withConnectionProvider(pool).send());
+
+		assertEquals(1, server.connectionsCount.get());
+		assertEquals(0, pool.totalCount());
+	}
+
+	@Test
+	void testNoRetryOnTimeout() {
+		HttpRequest request = HttpRequest.get("http://localhost:" + server.port() + "/one");
+		request.withConnectionProvider(pool).send();
+		assertEquals(1, pool.idleCount());
+
+		HttpRequest slow = HttpRequest.get("http://localhost:" + server.port() + "/slow").timeout(100);
+		assertThrows(HttpException.class, () -> slow.withConnectionProvider(pool).send());
+
+		ThreadUtil.sleep(700);
+
+		assertEquals(1, Collections.frequency(server.paths, "/slow"));
+		assertEquals(1, server.connectionsCount.get());
+		assertEquals(0, pool.totalCount());
+	}
+
+	@Test
+	void testBodyUntilEndOfStream() throws IOException {
+		HttpRequest request = HttpRequest.get("http://localhost:" + server.port() + "/eof");
+		HttpResponse response = request.withConnectionProvider(pool).send();
+
+		assertEquals("/eof", response.bodyText());
+		assertFalse(response.isConnectionReusable());
+		assertEquals(0, pool.totalCount());
+
+		request = HttpRequest.get("http://localhost:" + server.port() + "/eof");
+		response = request.withConnectionProvider(pool).streamResponse(true).send();
+
+		assertEquals("/eof", new String(StreamUtil.readBytes(response.bodyStream()), StandardCharsets.ISO_8859_1));
+		assertFalse(response.isConnectionReusable());
+		assertEquals(0, pool.totalCount());
+
+		assertEquals(2, server.connectionsCount.get());
+	}
+
+	@Test
+	void testReleaseNotReusable() {
+		HttpRequest request = HttpRequest.get("http://localhost:" + server.port() + "/one");
+		HttpConnection connection = request.withConnectionProvider(pool).open().connection();
+		assertEquals(1, pool.totalCount());
+
+		HttpResponse response = new HttpResponse().header("Connection", "close");
+
+		assertTrue(pool.releaseHttpConnection(connection, response));
+		assertEquals(0, pool.totalCount());
+		assertEquals(0, pool.idleCount());
+	}
+
+	@Test
+	void testMaxPerRoute() {
+		pool.maxPerRoute(1).acquireTimeout(100);
+
+		HttpRequest request1 = HttpRequest.get("http://localhost:" + server.port() + "/one");
+		request1.withConnectionProvider(pool).open();
+
+		HttpRequest request2 = HttpRequest.get("http://localhost:" + server.port() + "/two");
+		assertThrows(HttpException.class, () -> request2.withConnectionProvider(pool).open());
+
+		request1.send();
+
+		assertEquals("/two", request2.withConnectionProvider(pool).send().bodyText());
+		assertEquals(1, server.connectionsCount.get());
+	}
+
+	@Test
+	void testStreamedResponse() throws IOException {
+		HttpRequest request = HttpRequest.get("http://localhost:" + server.port() + "/stream");
+		HttpResponse response = request.withConnectionProvider(pool).streamResponse(true).send();
+
+		assertEquals(0, pool.idleCount());
+
+		assertEquals("/stream", new String(StreamUtil.readBytes(response.bodyStream()), StandardCharsets.ISO_8859_1));
+		assertNull(request.connection());
+		assertEquals(1, pool.idleCount());
+
+		// closing unread small body drains it and keeps the connection
+		request = HttpRequest.get("http://localhost:" + server.port() + "/unread");
+		request.withConnectionProvider(pool).streamResponse(true).send().close();
+
+		assertEquals(1, pool.idleCount());
+		assertEquals(1, server.connectionsCount.get());
+	}
+}
@@ -0,0 +1,183 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.json;
+
+import jodd.introspector.ClassDescriptor;
+import jodd.introspector.ClassIntrospector;
+import jodd.introspector.CompiledSetter;
+import jodd.introspector.CtorDescriptor;
+import jodd.introspector.MethodDescriptor;
+import jodd.introspector.PropertyDescriptor;
+import jodd.introspector.Setter;
+import jodd.json.meta.JsonAnnotationManager;
+import jodd.util.collection.ClassMap;
+
+import java.lang.invoke.MethodType;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Binding plan of a bean type, used by {@link JsonParser} to parse JSON
+ * objects directly into beans. JSON names, annotation rules, property
+ * types and setters are resolved once per type. Public setters and
+ * constructors are invoked through generated lambdas.
+ */
+public final class BeanBinder {
+
+	private static final ClassMap<BeanBinder> BINDERS = new ClassMap<>();
+
+	/**
+	 * Returns binder for the given bean type.
+	 */
+	public static BeanBinder lookup(Class type) {
+		BeanBinder beanBinder = BINDERS.unsafeGet(type);
+
+		if (beanBinder == null) {
+			beanBinder = new BeanBinder(type);
+			BINDERS.put(type, beanBinder);
+		}
+
+		return beanBinder;
+	}
+
+	/**
+	 * Clears all binders.
+	 */
+	public static void clearCache() {
+		BINDERS.clear();
+	}
+
+	/**
+	 * Bean property bound to a JSON name.
+	 */
+	static final class Property {
+		final String name;
+		final Class type;
+		final Class valueType;
+		final Class keyType;
+		final Class componentType;
+		final boolean included;
+		final Setter setter;
+		final BiConsumer<Object, Object> setterLambda;
+
+		Property(PropertyDescriptor pd, boolean included) {
+			this.name = pd.getName();
+			this.type = pd.getType();
+			this.valueType = type.isPrimitive() ? MethodType.methodType(type).wrap().returnType() : type;
+			this.keyType = pd.resolveKeyType(true);
+			this.componentType = pd.resolveComponentType(true);
+			this.included = included;
+			this.setter = pd.getSetter(true);
+			Setter descriptor = setter instanceof CompiledSetter ? ((CompiledSetter) setter).getDescriptor() : setter;
+			this.setterLambda = descriptor instanceof MethodDescriptor ? LambdaAccessors.setter(((MethodDescriptor) descriptor).getMethod()) : null;
+		}
+
+		/**
+		 * Converts and injects value into the target bean.
+		 */
+		void inject(JsonParserBase jsonParser, Object target, Object value) {
+			if (value != null && !valueType.isInstance(value)) {
+				value = jsonParser.convertType(value, type);
+			}
+
+			try {
+				if (setterLambda != null) {
+					setterLambda.accept(target, value);
+				}
+				else if (setter != null) {
+					setter.invokeSetter(target, value);
+				}
+			}
+			catch (Exception ex) {
+				throw new JsonException(ex);
+			}
+		}
+	}
+
+	final Class type;
+	final JsonAnnotationManager.TypeData typeData;
+	private final Map<String, Property> properties;
+	private final Supplier<Object> ctor;
+
+	private BeanBinder(Class type) {
+		this.type = type;
+		this.typeData = JsonAnnotationManager.get().lookupTypeData(type);
+		this.properties = new HashMap<>();
+
+		ClassDescriptor cd = ClassIntrospector.get().lookup(type);
+
+		for (PropertyDescriptor pd : cd.getAllPropertyDescriptors()) {
+			String name = pd.getName();
+
+			// JSON keys resolve to real names as in regular parsing,
+			// so both the JSON and the real name are bound
+
+			bind(cd, typeData.resolveJsonName(name));
+			bind(cd, name);
+		}
+
+		CtorDescriptor ctorDescriptor = cd.getDefaultCtorDescriptor(true);
+
+		this.ctor = ctorDescriptor == null ? null : LambdaAccessors.constructor(ctorDescriptor.getConstructor());
+	}
+
+	private void bind(ClassDescriptor cd, String jsonName) {
+		if (properties.containsKey(jsonName)) {
+			return;
+		}
+
+		PropertyDescriptor pd = cd.getPropertyDescriptor(typeData.resolveRealName(jsonName), true);
+
+		if (pd != null) {
+			properties.put(jsonName, new Property(pd, typeData.rules.match(jsonName, !typeData.strict)));
+		}
+	}
+
+	/**
+	 * Returns property for the JSON name or <code>null</code> if property does not exist.
+	 */
+	Property property(String jsonName) {
+		return properties.get(jsonName);
+	}
+
+	/**
+	 * Creates new bean instance.
+	 */
+	Object newInstance(JsonParserBase jsonParser) {
+		if (ctor != null) {
+			try {
+				return ctor.get();
+			}
+			catch (Exception ex) {
+				throw new JsonException(ex);
+			}
+		}
+		return jsonParser.newObjectInstance(type);
+	}
+
+}
@@ -0,0 +1,240 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.json;
+
+import jodd.introspector.ClassDescriptor;
+import jodd.introspector.ClassIntrospector;
+import jodd.introspector.CompiledGetter;
+import jodd.introspector.FieldDescriptor;
+import jodd.introspector.Getter;
+import jodd.introspector.MethodDescriptor;
+import jodd.introspector.PropertyDescriptor;
+import jodd.json.impl.ValueJsonSerializer;
+import jodd.json.meta.JsonAnnotationManager;
+
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Bean serializer specialized for a single type. Properties, their JSON names,
+ * annotation rules and default type exclusions are resolved once, when
+ * the serializer is created. Public getters are invoked through generated
+ * lambdas instead of reflection. Produces the same output as {@link BeanSerializer}.
+ * <p>
+ * When {@link JsonSerializer} has no path rules and no path serializers,
+ * properties are serialized without {@link Path} bookkeeping, so
+ * {@link JsonContext#getPath()} does not contain bean properties.
+ *
+ * @see JoddJsonDefaults#setCompiledSerializers(boolean)
+ */
+public class CompiledBeanSerializer extends ValueJsonSerializer<Object> {
+
+	/**
+	 * Precompiled property.
+	 */
+	static final class Property {
+		final String name;
+		final String jsonName;
+		final Class type;
+		final Getter getter;
+		final Function<Object, Object> accessor;
+		final boolean include;
+		final boolean ignoredType;
+		final boolean includeWhenIncluded;
+		final boolean includeWhenExcluded;
+
+		Property(String name, String jsonName, Class type, Getter getter, boolean include, boolean ignoredType, JsonAnnotationManager.TypeData typeData) {
+			this.name = name;
+			this.jsonName = jsonName;
+			this.type = type;
+			this.getter = getter;
+			Getter descriptor = getter instanceof CompiledGetter ? ((CompiledGetter) getter).getDescriptor() : getter;
+			this.accessor = descriptor instanceof MethodDescriptor ? LambdaAccessors.getter(((MethodDescriptor) descriptor).getMethod()) : null;
+			this.include = include;
+			this.ignoredType = ignoredType;
+			this.includeWhenIncluded = typeData.rules.apply(jsonName, true, true);
+			this.includeWhenExcluded = typeData.rules.apply(jsonName, true, false);
+		}
+
+		/**
+		 * Reads property value.
+		 */
+		Object read(Object source) {
+			try {
+				if (accessor != null) {
+					return accessor.apply(source);
+				}
+				return getter.invokeGetter(source);
+			}
+			catch (Exception ex) {
+				throw new JsonException(ex);
+			}
+		}
+	}
+
+	protected final Class type;
+	protected final JsonAnnotationManager.TypeData typeData;
+	protected final Property[] properties;
+
+	public CompiledBeanSerializer(Class type) {
+		this.type = type;
+		this.typeData = JsonAnnotationManager.get().lookupTypeData(type);
+		this.properties = compile();
+	}
+
+	/**
+	 * Resolves serializable properties in the same order as {@link TypeJsonVisitor}.
+	 */
+	protected Property[] compile() {
+		ClassDescriptor classDescriptor = ClassIntrospector.get().lookup(type);
+
+		List<Property> list = new ArrayList<>();
+
+		for (PropertyDescriptor propertyDescriptor : classDescriptor.getAllPropertyDescriptors()) {
+			Getter getter = propertyDescriptor.getGetter(false);
+
+			if (getter == null) {
+				continue;
+			}
+
+			boolean isTransient = false;
+			FieldDescriptor fieldDescriptor = propertyDescriptor.getFieldDescriptor();
+
+			if (fieldDescriptor != null) {
+				isTransient = Modifier.isTransient(fieldDescriptor.getField().getModifiers());
+			}
+
+			Class propertyType = propertyDescriptor.getType();
+			ClassDescriptor propertyTypeClassDescriptor = ClassIntrospector.get().lookup(propertyType);
+
+			boolean ignoredType =
+				propertyTypeClassDescriptor.isArray() ||
+				propertyTypeClassDescriptor.isCollection() ||
+				propertyTypeClassDescriptor.isMap();
+
+			String name = propertyDescriptor.getName();
+
+			list.add(new Property(
+				name, typeData.resolveJsonName(name), propertyType, getter,
+				!typeData.strict && !isTransient, ignoredType, typeData));
+		}
+
+		return list.toArray(new Property[0]);
+	}
+
+	// ---------------------------------------------------------------- serialize
+
+	@Override
+	public void serializeValue(JsonContext jsonContext, Object value) {
+		jsonContext.writeOpenObject();
+
+		JsonSerializer jsonSerializer = jsonContext.jsonSerializer;
+
+		boolean trackPath = jsonSerializer.rules.hasRules() || jsonSerializer.pathSerializersMap != null;
+		boolean deep = jsonSerializer.deep;
+		boolean excludedTypes =
+			jsonSerializer.excludedTypes != null ||
+			jsonSerializer.excludedTypeNames != null ||
+			JoddJson.get().defaults().getExcludedTypes() != null ||
+			JoddJson.get().defaults().getExcludedTypeNames() != null;
+
+		int count = 0;
+
+		// class meta-data
+
+		String classMetadataName = jsonSerializer.classMetadataName;
+
+		if (classMetadataName != null) {
+			boolean include = typeData.rules.apply(classMetadataName, true, !typeData.strict);
+
+			if (trackPath) {
+				jsonContext.path.push(classMetadataName);
+				include = jsonContext.matchPathToQueries(include);
+			}
+
+			if (include) {
+				count = serializeProperty(jsonContext, classMetadataName, value.getClass().getName(), count);
+			}
+
+			if (trackPath) {
+				jsonContext.path.pop();
+			}
+		}
+
+		// properties
+
+		for (Property property : properties) {
+			boolean include = property.include;
+
+			if (include) {
+				if (!deep && property.ignoredType) {
+					include = false;
+				}
+				else if (excludedTypes) {
+					include = jsonContext.matchIgnoredPropertyTypes(property.type, true, true);
+				}
+			}
+
+			include = include ? property.includeWhenIncluded : property.includeWhenExcluded;
+
+			if (trackPath) {
+				jsonContext.path.push(property.name);
+				include = jsonContext.matchPathToQueries(include);
+			}
+
+			if (include) {
+				Object propertyValue = property.read(value);
+
+				if (propertyValue != null || !jsonContext.isExcludeNulls()) {
+					count = serializeProperty(jsonContext, property.jsonName, propertyValue, count);
+				}
+			}
+
+			if (trackPath) {
+				jsonContext.path.pop();
+			}
+		}
+
+		jsonContext.writeCloseObject();
+	}
+
+	/**
+	 * Serializes single property and returns new properties count.
+	 */
+	protected int serializeProperty(JsonContext jsonContext, String name, Object value, int count) {
+		jsonContext.pushName(name, count > 0);
+
+		jsonContext.serialize(value);
+
+		if (jsonContext.isNamePopped()) {
+			count++;
+		}
+		return count;
+	}
+
+}
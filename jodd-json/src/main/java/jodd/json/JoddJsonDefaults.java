@@ -41,6 +41,7 @@ public class JoddJsonDefaults {
 	private String[] excludedTypeNames = null;
 	private boolean serializationSubclassAware = true;
 	private boolean strictStringEncoding = false;
+	private boolean compiledSerializers = false;
 
 	/**
 	 * Returns the annotation used for marking the properties.
@@ -164,4 +165,21 @@ public class JoddJsonDefaults {
 	public void setStrictStringEncoding(boolean strictStringEncoding) {
 		this.strictStringEncoding = strictStringEncoding;
 	}
+
+	/**
+	 * @see #setCompiledSerializers(boolean)
+	 */
+	public boolean isCompiledSerializers() {
+		return compiledSerializers;
+	}
+
+	/**
+	 * Enables usage of {@link jodd.json.CompiledBeanSerializer compiled bean serializers}
+	 * for beans that do not have a registered serializer. Serializers are
+	 * created on first use and cached in {@link jodd.json.TypeJsonSerializerMap},
+	 * so this flag should be set before the serialization starts.
+	 */
+	public void setCompiledSerializers(boolean compiledSerializers) {
+		this.compiledSerializers = compiledSerializers;
+	}
 }
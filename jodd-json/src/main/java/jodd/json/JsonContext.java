@@ -29,6 +29,7 @@ import jodd.introspector.ClassDescriptor;
 import jodd.introspector.ClassIntrospector;
 import jodd.util.ClassUtil;
 import jodd.util.Wildcard;
+import jodd.util.buffer.FastByteBuffer;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -56,6 +57,14 @@ public class JsonContext extends JsonWriter {
 		this.excludeNulls = excludeNulls;
 	}
 
+	public JsonContext(JsonSerializer jsonSerializer, FastByteBuffer byteBuffer, boolean excludeNulls, boolean strictStringEncoding) {
+		super(byteBuffer, strictStringEncoding);
+		this.jsonSerializer = jsonSerializer;
+		this.bag = new ArrayList<>();
+		this.path = new Path();
+		this.excludeNulls = excludeNulls;
+	}
+
 	/**
 	 * Returns {@link jodd.json.JsonSerializer}.
 	 */
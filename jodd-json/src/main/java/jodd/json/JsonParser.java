@@ -30,10 +30,13 @@ import jodd.introspector.ClassIntrospector;
 import jodd.introspector.PropertyDescriptor;
 import jodd.json.meta.JsonAnnotationManager;
 import jodd.util.CharArraySequence;
-import jodd.util.CharUtil;
-import jodd.util.StringPool;
+import jodd.util.ClassLoaderUtil;
 
-import java.math.BigInteger;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
@@ -57,9 +60,13 @@ public class JsonParser extends JsonParserBase {
 		return new JsonParser();
 	}
 
-	private static final char[] T_RUE = new char[] {'r', 'u', 'e'};
-	private static final char[] F_ALSE = new char[] {'a', 'l', 's', 'e'};
-	private static final char[] N_ULL = new char[] {'u', 'l', 'l'};
+	/**
+	 * Static ctor of the lazy parser.
+	 * @see #lazy(boolean)
+	 */
+	public static JsonParser createLazyOne() {
+		return new JsonParser().lazy(true);
+	}
 
 	/**
 	 * Map keys.
@@ -70,18 +77,12 @@ public class JsonParser extends JsonParserBase {
 	 */
 	public static final String VALUES = "values";
 
-	protected int ndx = 0;
-	protected CharSequence input;
-	protected int total;
 	protected Path path;
 	protected boolean useAltPaths = JoddJson.get().defaults().isUseAltPathsByParser();
 	protected Class rootType;
 	protected MapToBean mapToBean;
-	protected boolean looseMode;
-
-	public JsonParser() {
-		text = new char[512];
-	}
+	protected boolean lazy;
+	protected JsonParser lazyDecoder;
 
 	/**
 	 * Resets JSON parser, so it can be reused.
@@ -97,6 +98,22 @@ public class JsonParser extends JsonParserBase {
 		if (classMetadataName != null) {
 			mapToBean = createMapToBean(classMetadataName);
 		}
+
+		this.lazyDecoder = null;
+		if (lazy && readerInput == null && rootType == null &&
+			mappings == null && convs == null && classMetadataName == null) {
+
+			// lazy values outlive this parser, so they use own decoder
+			JsonParser decoder = new JsonParser();
+			decoder.input = input;
+			decoder.total = total;
+			decoder.looseMode = looseMode;
+			decoder.path = new Path();
+			decoder.classMetadataName = null;
+			decoder.lazyDecoder = decoder;
+
+			this.lazyDecoder = decoder;
+		}
 	}
 
 	/**
@@ -121,6 +138,23 @@ public class JsonParser extends JsonParserBase {
 		return this;
 	}
 
+	/**
+	 * Enables lazy mode. In lazy mode, objects and arrays are only scanned
+	 * and returned as <code>Map</code> and <code>List</code> implementations
+	 * backed by offsets into the original input. Values, strings and nested
+	 * objects are decoded only when accessed, and syntax errors inside
+	 * them are detected only then. The input must not be modified while
+	 * lazy results are in use, and results are not thread-safe.
+	 * <p>
+	 * Lazy mode applies only to plain parsing of strings and char arrays,
+	 * without target types, mappings, value converters and class meta-data.
+	 * Otherwise, parsing is performed as usual.
+	 */
+	public JsonParser lazy(boolean lazy) {
+		this.lazy = lazy;
+		return this;
+	}
+
 	// ---------------------------------------------------------------- mappings
 
 	protected Map<Path, Class> mappings;
@@ -302,10 +336,50 @@ public class JsonParser extends JsonParserBase {
 		return _parse(CharArraySequence.of(input));
 	}
 
+	/**
+	 * Parses JSON from the reader as given type. Reader content is
+	 * streamed through a bounded buffer, so the input is never
+	 * materialized as a whole. Reader is not closed.
+	 */
+	public <T> T parse(Reader reader, Class<T> targetType) {
+		rootType = targetType;
+		return parse(reader);
+	}
+
+	/**
+	 * Parses JSON from the reader.
+	 * @see #parse(Reader, Class)
+	 */
+	public <T> T parse(Reader reader) {
+		readerInput = new ReaderCharSequence(reader);
+		try {
+			return _parse(readerInput);
+		}
+		finally {
+			readerInput = null;
+		}
+	}
+
+	/**
+	 * Parses UTF-8 encoded JSON from the input stream as given type.
+	 * @see #parse(Reader, Class)
+	 */
+	public <T> T parse(InputStream inputStream, Class<T> targetType) {
+		return parse(new InputStreamReader(inputStream, StandardCharsets.UTF_8), targetType);
+	}
+
+	/**
+	 * Parses UTF-8 encoded JSON from the input stream.
+	 * @see #parse(Reader, Class)
+	 */
+	public <T> T parse(InputStream inputStream) {
+		return parse(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+	}
+
 
 	private <T> T _parse(CharSequence input) {
 		this.input = input;
-		this.total = input.length();
+		this.total = input.length();		// unknown (max) for readers
 
 		reset();
 
@@ -323,7 +397,7 @@ public class JsonParser extends JsonParserBase {
 
 		skipWhiteSpaces();
 
-		if (ndx != total) {
+		if (!isEOF()) {
 			syntaxError("Trailing chars");
 			return null;
 		}
@@ -374,10 +448,21 @@ public class JsonParser extends JsonParserBase {
 
 			case '{':
 				ndx++;
+				if (lazyDecoder != null) {
+					// root object is indexed right away, saving one scan
+					HashMap<String, Object> index = new HashMap<>();
+					indexLazyObject(ndx, index);
+					return new LazyJsonMap(lazyDecoder, index);
+				}
 				return parseObjectContent(targetType, keyType, componentType);
 
 			case '[':
 				ndx++;
+				if (lazyDecoder != null) {
+					ArrayList<Object> index = new ArrayList<>();
+					indexLazyArray(ndx, index);
+					return new LazyJsonList(lazyDecoder, index);
+				}
 				return parseArrayContent(targetType, componentType);
 
 			case '0':
@@ -468,273 +553,6 @@ public class JsonParser extends JsonParserBase {
 		return null;
 	}
 
-	// ---------------------------------------------------------------- string
-
-	protected char[] text;
-	protected int textLen;
-
-	/**
-	 * Parses a string.
-	 */
-	protected String parseString() {
-		char quote = '\"';
-		if (looseMode) {
-			quote = consumeOneOf('\"', '\'');
-			if (quote == 0) {
-				return parseUnquotedStringContent();
-			}
-		} else {
-			consume(quote);
-		}
-
-		return parseStringContent(quote);
-	}
-
-	/**
-	 * Parses string content, once when starting quote has been consumer.
-	 */
-	protected String parseStringContent(final char quote) {
-		int startNdx = ndx;
-
-		// roll-out until the end of the string or the escape char
-		while (true) {
-			char c = input.charAt(ndx);
-
-			if (c == quote) {
-				// no escapes found, just use existing string
-				ndx++;
-				return input.subSequence(startNdx, ndx - 1).toString();
-			}
-
-			if (c == '\\') {
-				break;
-			}
-
-			ndx++;
-		}
-
-		// escapes found, proceed differently
-
-		textLen = ndx - startNdx;
-
-		growEmpty();
-
-		for (int i = startNdx, j = 0; j < textLen; i++, j++) {
-			text[j] = input.charAt(i);
-		}
-		//System.arraycopy(input, startNdx, text, 0, textLen);
-
-		// escape char, process everything until the end
-		while (true) {
-			char c = input.charAt(ndx);
-
-			if (c == quote) {
-				// done
-				ndx++;
-				final String str = new String(text, 0, textLen);
-				textLen = 0;
-				return str;
-			}
-
-			if (c == '\\') {
-				// escape char found
-				ndx++;
-
-				c = input.charAt(ndx);
-
-				switch (c) {
-					case '\"' : c = '\"'; break;
-					case '\\' : c = '\\'; break;
-					case '/' : c = '/'; break;
-					case 'b' : c = '\b'; break;
-					case 'f' : c = '\f'; break;
-					case 'n' : c = '\n'; break;
-					case 'r' : c = '\r'; break;
-					case 't' : c = '\t'; break;
-					case 'u' :
-						ndx++;
-						c = parseUnicode();
-						break;
-					default:
-						if (looseMode) {
-							if (c != '\'') {
-								c = '\\';
-								ndx--;
-							}
-						}
-						else {
-							syntaxError("Invalid escape char: " + c);
-						}
-				}
-			}
-
-			text[textLen] = c;
-
-			textLen++;
-
-			growAndCopy();
-
-			ndx++;
-		}
-	}
-
-	/**
-	 * Grows empty text array.
-	 */
-	protected void growEmpty() {
-		if (textLen >= text.length) {
-			int newSize = textLen << 1;
-
-			text = new char[newSize];
-		}
-	}
-
-	/**
-	 * Grows text array when {@code text.length == textLen}.
-	 */
-	protected void growAndCopy() {
-		if (textLen == text.length) {
-			int newSize = text.length << 1;
-
-			char[] newText = new char[newSize];
-
-			if (textLen > 0) {
-				System.arraycopy(text, 0, newText, 0, textLen);
-			}
-
-			text = newText;
-		}
-	}
-
-	/**
-	 * Parses 4 characters and returns unicode character.
-	 */
-	protected char parseUnicode() {
-		int i0 = CharUtil.hex2int(input.charAt(ndx++));
-		int i1 = CharUtil.hex2int(input.charAt(ndx++));
-		int i2 = CharUtil.hex2int(input.charAt(ndx++));
-		int i3 = CharUtil.hex2int(input.charAt(ndx));
-
-		return (char) ((i0 << 12) + (i1 << 8) + (i2 << 4) + i3);
-	}
-
-	// ---------------------------------------------------------------- un-quoted
-
-	private final static char[] UNQOUTED_DELIMETERS = ",:[]{}\\\"'".toCharArray();
-
-	/**
-	 * Parses un-quoted string content.
-	 */
-	protected String parseUnquotedStringContent() {
-		int startNdx = ndx;
-
-		while (true) {
-			char c = input.charAt(ndx);
-
-			if (c <= ' ' || CharUtil.equalsOne(c, UNQOUTED_DELIMETERS)) {
-				int currentNdx = ndx;
-
-				// done
-				skipWhiteSpaces();
-
-				return input.subSequence(startNdx, currentNdx).toString();
-			}
-
-			ndx++;
-		}
-	}
-
-
-	// ---------------------------------------------------------------- number
-
-	/**
-	 * Parses JSON numbers.
-	 */
-	protected Number parseNumber() {
-		int startIndex = ndx;
-
-		char c = input.charAt(ndx);
-
-		boolean isDouble = false;
-		boolean isExp = false;
-
-		if (c == '-') {
-			ndx++;
-		}
-
-		while (true) {
-			if (isEOF()) {
-				break;
-			}
-
-			c = input.charAt(ndx);
-
-			if (c >= '0' && c <= '9') {
-				ndx++;
-				continue;
-			}
-			if (c <= 32) {		// white space
-				break;
-			}
-			if (c == ',' || c == '}' || c == ']') {	// delimiter
-				break;
-			}
-
-			if (c == '.') {
-				isDouble = true;
-			}
-			else if (c == 'e' || c == 'E') {
-				isExp = true;
-			}
-			ndx++;
-		}
-
-
-		final String value = input.subSequence(startIndex, ndx).toString();
-
-		if (isDouble) {
-			return Double.valueOf(value);
-		}
-
-		long longNumber;
-
-		if (isExp) {
-			longNumber = Double.valueOf(value).longValue();
-		}
-		else {
-			if (value.length() >= 19) {
-				// if string is 19 chars and longer, it can be over the limit
-				BigInteger bigInteger = new BigInteger(value);
-
-				if (isGreaterThenLong(bigInteger)) {
-					return bigInteger;
-				}
-				longNumber = bigInteger.longValue();
-			}
-			else {
-				longNumber = Long.parseLong(value);
-			}
-		}
-
-		if ((longNumber >= Integer.MIN_VALUE) && (longNumber <= Integer.MAX_VALUE)) {
-			return Integer.valueOf((int) longNumber);
-		}
-		return Long.valueOf(longNumber);
-	}
-
-	private static boolean isGreaterThenLong(BigInteger bigInteger) {
-		if (bigInteger.compareTo(MAX_LONG) > 0) {
-			return true;
-		}
-		if (bigInteger.compareTo(MIN_LONG) < 0) {
-			return true;
-		}
-		return false;
-	}
-
-	private static final BigInteger MAX_LONG = BigInteger.valueOf(Long.MAX_VALUE);
-	private static final BigInteger MIN_LONG = BigInteger.valueOf(Long.MIN_VALUE);
-
 	// ---------------------------------------------------------------- array
 
 	/**
@@ -820,6 +638,30 @@ public class JsonParser extends JsonParserBase {
 
 		targetType = replaceWithMappedTypeForPath(targetType);
 
+		// bind directly into beans
+
+		if (classMetadataName == null) {
+			if (targetType != null && !Map.class.isAssignableFrom(targetType)) {
+				return parseBeanContent(BeanBinder.lookup(targetType), false);
+			}
+		}
+		else {
+			BeanBinder beanBinder = lookupMetadataBinder();
+
+			if (beanBinder != null) {
+				skipWhiteSpaces();
+
+				if (input.charAt(ndx) == '}') {
+					ndx++;
+					return beanBinder.newInstance(this);
+				}
+
+				consume(',');
+
+				return parseBeanContent(beanBinder, true);
+			}
+		}
+
 		Object target;
 		boolean isTargetTypeMap = true;
 		boolean isTargetRealTypeMap = true;
@@ -970,101 +812,263 @@ public class JsonParser extends JsonParserBase {
 		return target;
 	}
 
-	// ---------------------------------------------------------------- scanning tools
+	// ---------------------------------------------------------------- bean
 
 	/**
-	 * Consumes char at current position. If char is different, throws the exception.
+	 * Parses object content directly into the bean, once when open
+	 * bracket has been consumed. Intermediate maps are not created.
+	 * @param koma <code>true</code> if comma has been already consumed
 	 */
-	protected void consume(char c) {
-		if (input.charAt(ndx) != c) {
-			syntaxError("Invalid char: expected " + c);
+	protected Object parseBeanContent(BeanBinder beanBinder, boolean koma) {
+		Object target = beanBinder.newInstance(this);
+
+		while (true) {
+			skipWhiteSpaces();
+
+			char c = input.charAt(ndx);
+
+			if (c == '}') {
+				if (koma) {
+					syntaxError("Trailing comma");
+				}
+
+				ndx++;
+				break;
+			}
+
+			koma = false;
+
+			String key = parseString();
+
+			skipWhiteSpaces();
+
+			consume(':');
+
+			skipWhiteSpaces();
+
+			BeanBinder.Property property = beanBinder.property(key);
+
+			if (property == null) {
+				// unknown property, value is parsed and ignored
+				path.push(beanBinder.typeData.resolveRealName(key));
+
+				parseValue(null, null, null);
+
+				path.pop();
+			}
+			else {
+				path.push(property.name);
+
+				Object value = parseValue(property.type, property.keyType, property.componentType);
+
+				path.pop();
+
+				if (property.included) {
+					property.inject(this, target, value);
+				}
+			}
+
+			skipWhiteSpaces();
+
+			c = input.charAt(ndx);
+
+			if (c == '}') {
+				ndx++;
+				break;
+			}
+			if (c != ',') {
+				syntaxError("Invalid char: expected } or ,");
+			}
+
+			ndx++;
+			koma = true;
 		}
 
-		ndx++;
+		return target;
 	}
 
 	/**
-	 * Consumes one of the allowed char at current position.
-	 * If char is different, return <code>0</code>.
-	 * If matched, returns matched char.
+	 * Returns binder for the bean type specified by class meta-data, when
+	 * the meta-data is the first property of the current object. Position
+	 * is moved after the meta-data value. Otherwise, returns <code>null</code>
+	 * and the position is not changed.
 	 */
-	protected char consumeOneOf(char c1, char c2) {
+	protected BeanBinder lookupMetadataBinder() {
+		skipWhiteSpaces();
+
+		int start = ndx;
+
 		char c = input.charAt(ndx);
 
-		if ((c != c1) && (c != c2)) {
-			return 0;
+		if (c != '\"' && c != '\'') {
+			return null;
+		}
+
+		String key = parseString();
+
+		if (!key.equals(classMetadataName)) {
+			ndx = start;
+			return null;
+		}
+
+		// white spaces are skipped without releasing the input
+		while (input.charAt(ndx) <= 32) {
+			ndx++;
+		}
+
+		consume(':');
+
+		while (input.charAt(ndx) <= 32) {
+			ndx++;
+		}
+
+		c = input.charAt(ndx);
+
+		if (c != '\"' && c != '\'') {
+			ndx = start;
+			return null;
+		}
+
+		String className = parseString();
+
+		Class type;
+
+		try {
+			type = ClassLoaderUtil.loadClass(className);
+		} catch (ClassNotFoundException cnfex) {
+			throw new JsonException(cnfex);
 		}
 
-		ndx++;
+		if (Map.class.isAssignableFrom(type)) {
+			ndx = start;
+			return null;
+		}
 
-		return c;
+		return BeanBinder.lookup(type);
 	}
 
+	// ---------------------------------------------------------------- lazy
+
 	/**
-	 * Returns <code>true</code> if scanning is at the end.
+	 * Decodes lazy value at given offset.
 	 */
-	protected boolean isEOF() {
-		return ndx >= total;
+	Object decodeLazyValue(int offset) {
+		ndx = offset;
+		try {
+			return parseValue(null, null, null);
+		}
+		catch (IndexOutOfBoundsException iofbex) {
+			syntaxError("End of JSON");
+			return null;
+		}
 	}
 
 	/**
-	 * Skips whitespaces. For the simplification, whitespaces are
-	 * considered any characters less or equal to 32 (space).
+	 * Indexes lazy object content: keys are decoded, while
+	 * strings and numbers are just marked.
 	 */
-	protected final void skipWhiteSpaces() {
-		while (true) {
-			if (isEOF()) {
+	void indexLazyObject(int start, Map<String, Object> target) {
+		ndx = start;
+		try {
+			skipWhiteSpaces();
+
+			if (input.charAt(ndx) == '}') {
+				ndx++;
 				return;
 			}
-			if (input.charAt(ndx) > 32) {
-				return;
+
+			while (true) {
+				skipWhiteSpaces();
+
+				String key = parseString();
+
+				skipWhiteSpaces();
+
+				consume(':');
+
+				target.put(key, indexLazyValue());
+
+				skipWhiteSpaces();
+
+				switch (input.charAt(ndx++)) {
+					case '}': return;
+					case ',': break;
+					default: ndx--; syntaxError("Invalid char: expected } or ,");
+				}
 			}
-			ndx++;
 		}
-    }
+		catch (IndexOutOfBoundsException iofbex) {
+			syntaxError("End of JSON");
+		}
+	}
 
 	/**
-	 * Matches char buffer with content on given location.
+	 * Indexes lazy array content.
+	 * @see #indexLazyObject(int, Map)
 	 */
-	protected final boolean match(char[] target) {
-		for (char c : target) {
-			if (input.charAt(ndx) != c) {
-				return false;
+	void indexLazyArray(int start, List<Object> target) {
+		ndx = start;
+		try {
+			skipWhiteSpaces();
+
+			if (input.charAt(ndx) == ']') {
+				ndx++;
+				return;
 			}
-			ndx++;
-		}
 
-		return true;
-	}
+			while (true) {
+				target.add(indexLazyValue());
 
+				skipWhiteSpaces();
 
-	// ---------------------------------------------------------------- error
+				switch (input.charAt(ndx++)) {
+					case ']': return;
+					case ',': break;
+					default: ndx--; syntaxError("Invalid char: expected ] or ,");
+				}
+			}
+		}
+		catch (IndexOutOfBoundsException iofbex) {
+			syntaxError("End of JSON");
+		}
+	}
 
 	/**
-	 * Throws {@link jodd.json.JsonException} indicating a syntax error.
+	 * Indexes single lazy value. Objects and arrays are only
+	 * scanned, literals are cheap, so only strings and numbers
+	 * are left for later.
 	 */
-	protected void syntaxError(String message) {
-		String left = "...";
-		String right = "...";
-		int offset = 10;
-
-		int from = ndx - offset;
-		if (from < 0) {
-			from = 0;
-			left = StringPool.EMPTY;
+	private Object indexLazyValue() {
+		skipWhiteSpaces();
+
+		char c = input.charAt(ndx);
+
+		if (c == '{' || c == '[') {
+			ndx++;
+			int start = ndx;
+			skipContainerContent();
+			if (c == '{') {
+				return new LazyJsonMap(lazyDecoder, start);
+			}
+			return new LazyJsonList(lazyDecoder, start);
 		}
 
-		int to = ndx + offset;
-		if (to > input.length()) {
-			to = input.length();
-			right = StringPool.EMPTY;
+		switch (c) {
+			case 't':
+			case 'f':
+			case 'n':
+				return parseValue(null, null, null);
 		}
 
-		CharSequence str = input.subSequence(from, to);
+		int offset = ndx;
+
+		skipRawValue();
+
+		if (ndx == offset) {
+			syntaxError("Value expected");
+		}
 
-		throw new JsonException(
-				"Syntax error! " + message + "\n" +
-				"offset: " + ndx + " near: \"" + left + str + right + "\"");
+		return new LazyJsonMap.Unparsed(offset);
 	}
 
-}
\ No newline at end of file
+}
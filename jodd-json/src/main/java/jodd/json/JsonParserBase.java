@@ -31,7 +31,10 @@ import jodd.introspector.CtorDescriptor;
 import jodd.introspector.PropertyDescriptor;
 import jodd.introspector.Setter;
 import jodd.typeconverter.TypeConverterManager;
+import jodd.util.CharUtil;
+import jodd.util.StringPool;
 
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -42,10 +45,20 @@ import java.util.Set;
 
 /**
  * Just a base class of {@link jodd.json.JsonParser} that contains
- * various utilities, to reduce the size of a parser.
+ * various utilities and the input scanning code, to reduce the size of a parser.
  */
 public abstract class JsonParserBase {
 
+	protected static final char[] T_RUE = new char[] {'r', 'u', 'e'};
+	protected static final char[] F_ALSE = new char[] {'a', 'l', 's', 'e'};
+	protected static final char[] N_ULL = new char[] {'u', 'l', 'l'};
+
+	protected int ndx = 0;
+	protected CharSequence input;
+	protected int total;
+	protected ReaderCharSequence readerInput;
+	protected boolean looseMode;
+
 	/**
 	 * Creates new instance of {@link jodd.json.MapToBean}.
 	 */
@@ -145,4 +158,470 @@ public abstract class JsonParserBase {
 		}
 	}
 
-}
\ No newline at end of file
+	// ---------------------------------------------------------------- string
+
+	protected char[] text = new char[512];
+	protected int textLen;
+
+	/**
+	 * Parses a string.
+	 */
+	protected String parseString() {
+		char quote = '\"';
+		if (looseMode) {
+			quote = consumeOneOf('\"', '\'');
+			if (quote == 0) {
+				return parseUnquotedStringContent();
+			}
+		} else {
+			consume(quote);
+		}
+
+		return parseStringContent(quote);
+	}
+
+	/**
+	 * Parses string content, once when starting quote has been consumer.
+	 */
+	protected String parseStringContent(final char quote) {
+		int startNdx = ndx;
+
+		// roll-out until the end of the string or the escape char
+		while (true) {
+			char c = input.charAt(ndx);
+
+			if (c == quote) {
+				// no escapes found, just use existing string
+				ndx++;
+				return input.subSequence(startNdx, ndx - 1).toString();
+			}
+
+			if (c == '\\') {
+				break;
+			}
+
+			ndx++;
+		}
+
+		// escapes found, proceed differently
+
+		textLen = ndx - startNdx;
+
+		growEmpty();
+
+		for (int i = startNdx, j = 0; j < textLen; i++, j++) {
+			text[j] = input.charAt(i);
+		}
+		//System.arraycopy(input, startNdx, text, 0, textLen);
+
+		// escape char, process everything until the end
+		while (true) {
+			char c = input.charAt(ndx);
+
+			if (c == quote) {
+				// done
+				ndx++;
+				final String str = new String(text, 0, textLen);
+				textLen = 0;
+				return str;
+			}
+
+			if (c == '\\') {
+				// escape char found
+				ndx++;
+
+				c = input.charAt(ndx);
+
+				switch (c) {
+					case '\"' : c = '\"'; break;
+					case '\\' : c = '\\'; break;
+					case '/' : c = '/'; break;
+					case 'b' : c = '\b'; break;
+					case 'f' : c = '\f'; break;
+					case 'n' : c = '\n'; break;
+					case 'r' : c = '\r'; break;
+					case 't' : c = '\t'; break;
+					case 'u' :
+						ndx++;
+						c = parseUnicode();
+						break;
+					default:
+						if (looseMode) {
+							if (c != '\'') {
+								c = '\\';
+								ndx--;
+							}
+						}
+						else {
+							syntaxError("Invalid escape char: " + c);
+						}
+				}
+			}
+
+			text[textLen] = c;
+
+			textLen++;
+
+			growAndCopy();
+
+			ndx++;
+		}
+	}
+
+	/**
+	 * Grows empty text array.
+	 */
+	protected void growEmpty() {
+		if (textLen >= text.length) {
+			int newSize = textLen << 1;
+
+			text = new char[newSize];
+		}
+	}
+
+	/**
+	 * Grows text array when {@code text.length == textLen}.
+	 */
+	protected void growAndCopy() {
+		if (textLen == text.length) {
+			int newSize = text.length << 1;
+
+			char[] newText = new char[newSize];
+
+			if (textLen > 0) {
+				System.arraycopy(text, 0, newText, 0, textLen);
+			}
+
+			text = newText;
+		}
+	}
+
+	/**
+	 * Parses 4 characters and returns unicode character.
+	 */
+	protected char parseUnicode() {
+		int i0 = CharUtil.hex2int(input.charAt(ndx++));
+		int i1 = CharUtil.hex2int(input.charAt(ndx++));
+		int i2 = CharUtil.hex2int(input.charAt(ndx++));
+		int i3 = CharUtil.hex2int(input.charAt(ndx));
+
+		return (char) ((i0 << 12) + (i1 << 8) + (i2 << 4) + i3);
+	}
+
+	// ---------------------------------------------------------------- un-quoted
+
+	private final static char[] UNQOUTED_DELIMETERS = ",:[]{}\\\"'".toCharArray();
+
+	/**
+	 * Parses un-quoted string content.
+	 */
+	protected String parseUnquotedStringContent() {
+		int startNdx = ndx;
+
+		while (true) {
+			char c = input.charAt(ndx);
+
+			if (c <= ' ' || CharUtil.equalsOne(c, UNQOUTED_DELIMETERS)) {
+				final String str = input.subSequence(startNdx, ndx).toString();
+
+				// done
+				skipWhiteSpaces();
+
+				return str;
+			}
+
+			ndx++;
+		}
+	}
+
+
+	// ---------------------------------------------------------------- number
+
+	/**
+	 * Parses JSON numbers.
+	 */
+	protected Number parseNumber() {
+		int startIndex = ndx;
+
+		char c = input.charAt(ndx);
+
+		boolean isDouble = false;
+		boolean isExp = false;
+
+		if (c == '-') {
+			ndx++;
+		}
+
+		while (true) {
+			if (isEOF()) {
+				break;
+			}
+
+			c = input.charAt(ndx);
+
+			if (c >= '0' && c <= '9') {
+				ndx++;
+				continue;
+			}
+			if (c <= 32) {		// white space
+				break;
+			}
+			if (c == ',' || c == '}' || c == ']') {	// delimiter
+				break;
+			}
+
+			if (c == '.') {
+				isDouble = true;
+			}
+			else if (c == 'e' || c == 'E') {
+				isExp = true;
+			}
+			ndx++;
+		}
+
+
+		final String value = input.subSequence(startIndex, ndx).toString();
+
+		if (isDouble) {
+			return Double.valueOf(value);
+		}
+
+		long longNumber;
+
+		if (isExp) {
+			longNumber = Double.valueOf(value).longValue();
+		}
+		else {
+			if (value.length() >= 19) {
+				// if string is 19 chars and longer, it can be over the limit
+				BigInteger bigInteger = new BigInteger(value);
+
+				if (isGreaterThenLong(bigInteger)) {
+					return bigInteger;
+				}
+				longNumber = bigInteger.longValue();
+			}
+			else {
+				longNumber = Long.parseLong(value);
+			}
+		}
+
+		if ((longNumber >= Integer.MIN_VALUE) && (longNumber <= Integer.MAX_VALUE)) {
+			return Integer.valueOf((int) longNumber);
+		}
+		return Long.valueOf(longNumber);
+	}
+
+	private static boolean isGreaterThenLong(BigInteger bigInteger) {
+		if (bigInteger.compareTo(MAX_LONG) > 0) {
+			return true;
+		}
+		if (bigInteger.compareTo(MIN_LONG) < 0) {
+			return true;
+		}
+		return false;
+	}
+
+	private static final BigInteger MAX_LONG = BigInteger.valueOf(Long.MAX_VALUE);
+	private static final BigInteger MIN_LONG = BigInteger.valueOf(Long.MIN_VALUE);
+
+	// ---------------------------------------------------------------- scanning tools
+
+	/**
+	 * Consumes char at current position. If char is different, throws the exception.
+	 */
+	protected void consume(char c) {
+		if (input.charAt(ndx) != c) {
+			syntaxError("Invalid char: expected " + c);
+		}
+
+		ndx++;
+	}
+
+	/**
+	 * Consumes one of the allowed char at current position.
+	 * If char is different, return <code>0</code>.
+	 * If matched, returns matched char.
+	 */
+	protected char consumeOneOf(char c1, char c2) {
+		char c = input.charAt(ndx);
+
+		if ((c != c1) && (c != c2)) {
+			return 0;
+		}
+
+		ndx++;
+
+		return c;
+	}
+
+	/**
+	 * Returns <code>true</code> if scanning is at the end.
+	 */
+	protected boolean isEOF() {
+		if (readerInput != null) {
+			return readerInput.isEOF(ndx);
+		}
+		return ndx >= total;
+	}
+
+	/**
+	 * Skips whitespaces. For the simplification, whitespaces are
+	 * considered any characters less or equal to 32 (space).
+	 */
+	protected final void skipWhiteSpaces() {
+		while (true) {
+			if (isEOF()) {
+				break;
+			}
+			if (input.charAt(ndx) > 32) {
+				break;
+			}
+			ndx++;
+		}
+
+		if (readerInput != null) {
+			// no token is pending, previous chars are not needed
+			readerInput.release(ndx);
+		}
+    }
+
+	/**
+	 * Matches char buffer with content on given location.
+	 */
+	protected final boolean match(char[] target) {
+		for (char c : target) {
+			if (input.charAt(ndx) != c) {
+				return false;
+			}
+			ndx++;
+		}
+
+		return true;
+	}
+
+
+	// ---------------------------------------------------------------- skipping
+
+	/**
+	 * Skips a value at current position without decoding it. Skipped
+	 * content is only scanned for strings and brackets nesting.
+	 */
+	protected void skipRawValue() {
+		skipWhiteSpaces();
+
+		char c = input.charAt(ndx);
+
+		switch (c) {
+			case '{':
+			case '[':
+				ndx++;
+				skipContainerContent();
+				break;
+			case '"':
+			case '\'':
+				ndx++;
+				skipStringContent(c);
+				break;
+			default:
+				// number or literal
+				while (!isEOF()) {
+					c = input.charAt(ndx);
+
+					if (c <= ' ' || c == ',' || c == '}' || c == ']') {
+						break;
+					}
+					ndx++;
+				}
+		}
+	}
+
+	/**
+	 * Skips the content of an object or an array, once
+	 * when open bracket has been consumed.
+	 */
+	protected void skipContainerContent() {
+		int level = 1;
+
+		while (level > 0) {
+			char c = input.charAt(ndx++);
+
+			switch (c) {
+				case '"':
+				case '\'':
+					skipStringContent(c);
+					break;
+				case '{':
+				case '[':
+					level++;
+					break;
+				case '}':
+				case ']':
+					level--;
+					break;
+			}
+
+			if (readerInput != null) {
+				readerInput.release(ndx);
+			}
+		}
+	}
+
+	/**
+	 * Skips string content, once when starting quote has been consumed.
+	 */
+	protected void skipStringContent(char quote) {
+		while (true) {
+			char c = input.charAt(ndx++);
+
+			if (c == quote) {
+				return;
+			}
+			if (c == '\\') {
+				ndx++;
+			}
+			if (readerInput != null) {
+				readerInput.release(ndx);
+			}
+		}
+	}
+
+	// ---------------------------------------------------------------- error
+
+	/**
+	 * Throws {@link jodd.json.JsonException} indicating a syntax error.
+	 */
+	protected void syntaxError(String message) {
+		String left = "...";
+		String right = "...";
+		int offset = 10;
+
+		int start = 0;
+		int length = input.length();
+
+		if (readerInput != null) {
+			readerInput.isEOF(ndx + offset);
+			start = readerInput.start();
+			length = readerInput.end();
+		}
+
+		int from = ndx - offset;
+		if (from < start) {
+			from = start;
+			left = StringPool.EMPTY;
+		}
+
+		int to = ndx + offset;
+		if (to > length) {
+			to = length;
+			right = StringPool.EMPTY;
+		}
+
+		CharSequence str = input.subSequence(from, to);
+
+		throw new JsonException(
+				"Syntax error! " + message + "\n" +
+				"offset: " + ndx + " near: \"" + left + str + right + "\"");
+	}
+
+}
@@ -0,0 +1,532 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.json;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static jodd.json.JsonParser.VALUES;
+
+/**
+ * Pull-style JSON reader. Reads JSON token by token, using the same scanning
+ * code as {@link JsonParser}, without building the object graph.
+ * Values may be read as a whole or skipped. Skipped values are scanned
+ * without creating any objects; note that skipped content is validated only
+ * loosely: just the strings and the brackets nesting.
+ * <p>
+ * Reader tracks the {@link Path path} of the current value. Like in
+ * {@link JsonParser#map(String, Class) parser mappings}, array elements
+ * have the {@link JsonParser#VALUES values} path element. Paths are
+ * used for {@link #extract(String, Consumer) extraction} of selected values.
+ */
+public class JsonReader extends JsonParserBase {
+
+	/**
+	 * JSON tokens.
+	 */
+	public enum Token {
+		BEGIN_OBJECT,
+		END_OBJECT,
+		BEGIN_ARRAY,
+		END_ARRAY,
+		NAME,
+		STRING,
+		NUMBER,
+		BOOLEAN,
+		NULL,
+		END_DOCUMENT
+	}
+
+	private static final int OBJECT_EMPTY = 1;		// after '{'
+	private static final int OBJECT_NAME = 2;		// after name, before the value
+	private static final int OBJECT_NEXT = 3;		// after the value
+	private static final int ARRAY_EMPTY = 4;		// after '['
+	private static final int ARRAY_NEXT = 5;		// after the value
+
+	protected final Path path = new Path();
+	protected int[] stack = new int[16];
+	protected int depth;
+	protected boolean started;
+	protected Token token;
+	protected String name;
+	protected Object value;
+
+	/**
+	 * Creates reader of JSON string.
+	 */
+	public JsonReader(CharSequence input) {
+		this.input = input;
+		this.total = input.length();
+	}
+
+	/**
+	 * Creates reader of JSON char array.
+	 */
+	public JsonReader(char[] input) {
+		this(new String(input));
+	}
+
+	/**
+	 * Creates reader of JSON content that is streamed
+	 * from the reader through a bounded buffer.
+	 */
+	public JsonReader(Reader reader) {
+		this.readerInput = new ReaderCharSequence(reader);
+		this.input = readerInput;
+		this.total = Integer.MAX_VALUE;
+	}
+
+	/**
+	 * Creates reader of UTF-8 encoded JSON input stream.
+	 * @see #JsonReader(Reader)
+	 */
+	public JsonReader(InputStream inputStream) {
+		this(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Enables 'loose' mode for the strings.
+	 * @see JsonParser#looseMode(boolean)
+	 */
+	public JsonReader looseMode(boolean looseMode) {
+		this.looseMode = looseMode;
+		return this;
+	}
+
+	// ---------------------------------------------------------------- state
+
+	/**
+	 * Returns current token or <code>null</code> if there is no current token,
+	 * i.e. before the first read or after the skipped value.
+	 */
+	public Token token() {
+		return token;
+	}
+
+	/**
+	 * Returns property name of the last {@link Token#NAME} token.
+	 */
+	public String name() {
+		return name;
+	}
+
+	/**
+	 * Returns value of the current string, number, boolean or null token.
+	 */
+	public Object value() {
+		return value;
+	}
+
+	/**
+	 * Returns path of the current value.
+	 */
+	public Path path() {
+		return path;
+	}
+
+	// ---------------------------------------------------------------- pull
+
+	/**
+	 * Reads the next token.
+	 */
+	public Token next() {
+		try {
+			Token next = advance();
+
+			if (next == null) {
+				next = readValueToken();
+			}
+			return token = next;
+		}
+		catch (IndexOutOfBoundsException iofbex) {
+			syntaxError("End of JSON");
+			return null;
+		}
+	}
+
+	/**
+	 * Returns <code>true</code> if current object or array has more
+	 * elements, or if the value of the last name is not read yet.
+	 */
+	public boolean hasNext() {
+		if (depth == 0) {
+			return !started;
+		}
+		if (stack[depth - 1] == OBJECT_NAME) {
+			return true;
+		}
+
+		skipWhiteSpaces();
+
+		if (isEOF()) {
+			return false;
+		}
+
+		char c = input.charAt(ndx);
+
+		return c != '}' && c != ']';
+	}
+
+	/**
+	 * Skips a value. If current token is the beginning of an object or an array,
+	 * skips the rest of it, including the end token. If current token is a name,
+	 * skips its value. Otherwise, skips the next value, including its name
+	 * when inside an object. Skipped content is only scanned.
+	 */
+	public void skipValue() {
+		try {
+			if (token == Token.BEGIN_OBJECT || token == Token.BEGIN_ARRAY) {
+				skipContainerContent();
+				endContainer();
+				return;
+			}
+			skipNextValue();
+		}
+		catch (IndexOutOfBoundsException iofbex) {
+			syntaxError("End of JSON");
+		}
+	}
+
+	/**
+	 * Reads a value as a whole: object is read as <code>Map</code> and
+	 * array as <code>List</code>. If current token is the beginning of an
+	 * object or an array, reads the rest of it. If current token is a name,
+	 * reads its value. Otherwise, reads the next value.
+	 */
+	public Object readValue() {
+		Token t = token;
+
+		if (t != Token.BEGIN_OBJECT && t != Token.BEGIN_ARRAY) {
+			t = next();
+		}
+		return readValue(t);
+	}
+
+	/**
+	 * Reads all values at paths that match the query, skipping
+	 * all other subtrees. Query has the same syntax as the path
+	 * query: dot-separated path elements, with <code>*</code>
+	 * as a wildcard. For example: <code>items.values.id</code>
+	 * or <code>items.*.id</code>. Matched values are read as a whole.
+	 */
+	public void extract(String query, Consumer<Object> consumer) {
+		PathQuery pathQuery = new PathQuery(query, false);
+
+		try {
+			extractValue(pathQuery, consumer);
+		}
+		catch (IndexOutOfBoundsException iofbex) {
+			syntaxError("End of JSON");
+		}
+	}
+
+	/**
+	 * Returns list of all values at paths that match the query.
+	 * @see #extract(String, Consumer)
+	 */
+	public List<Object> extract(String query) {
+		List<Object> values = new ArrayList<>();
+
+		extract(query, values::add);
+
+		return values;
+	}
+
+	// ---------------------------------------------------------------- internal
+
+	/**
+	 * Moves to the next token. Returns the structural token or
+	 * <code>null</code> when the value is next.
+	 */
+	protected Token advance() {
+		skipWhiteSpaces();
+
+		if (depth == 0) {
+			if (started) {
+				if (!isEOF()) {
+					syntaxError("Trailing chars");
+				}
+				return Token.END_DOCUMENT;
+			}
+			started = true;
+			return null;
+		}
+
+		int state = stack[depth - 1];
+
+		switch (state) {
+			case OBJECT_NAME:
+				stack[depth - 1] = OBJECT_NEXT;
+				return null;
+
+			case OBJECT_EMPTY:
+			case OBJECT_NEXT:
+				char c = input.charAt(ndx);
+
+				if (state == OBJECT_NEXT) {
+					path.pop();
+
+					if (c != '}') {
+						consume(',');
+						skipWhiteSpaces();
+
+						if (input.charAt(ndx) == '}') {
+							syntaxError("Trailing comma");
+						}
+					}
+				}
+				if (c == '}') {
+					ndx++;
+					depth--;
+					return Token.END_OBJECT;
+				}
+
+				name = parseString();
+				skipWhiteSpaces();
+				consume(':');
+
+				path.push(name);
+				stack[depth - 1] = OBJECT_NAME;
+				return Token.NAME;
+
+			default:
+				c = input.charAt(ndx);
+
+				if (c == ']') {
+					ndx++;
+					depth--;
+					path.pop();
+					return Token.END_ARRAY;
+				}
+				if (state == ARRAY_NEXT) {
+					consume(',');
+					skipWhiteSpaces();
+
+					if (input.charAt(ndx) == ']') {
+						syntaxError("Trailing comma");
+					}
+				}
+				stack[depth - 1] = ARRAY_NEXT;
+				return null;
+		}
+	}
+
+	/**
+	 * Reads the value token at current position.
+	 */
+	protected Token readValueToken() {
+		char c = input.charAt(ndx);
+
+		value = null;
+
+		switch (c) {
+			case '{':
+				ndx++;
+				push(OBJECT_EMPTY);
+				return Token.BEGIN_OBJECT;
+
+			case '[':
+				ndx++;
+				push(ARRAY_EMPTY);
+				path.push(VALUES);
+				return Token.BEGIN_ARRAY;
+
+			case '"':
+				ndx++;
+				value = parseStringContent(c);
+				return Token.STRING;
+
+			case '\'':
+				if (!looseMode) {
+					break;
+				}
+				ndx++;
+				value = parseStringContent(c);
+				return Token.STRING;
+
+			case '0':
+			case '1':
+			case '2':
+			case '3':
+			case '4':
+			case '5':
+			case '6':
+			case '7':
+			case '8':
+			case '9':
+			case '-':
+				value = parseNumber();
+				return Token.NUMBER;
+
+			case 'n':
+				ndx++;
+				if (match(N_ULL)) {
+					return Token.NULL;
+				}
+				break;
+
+			case 't':
+				ndx++;
+				if (match(T_RUE)) {
+					value = Boolean.TRUE;
+					return Token.BOOLEAN;
+				}
+				break;
+
+			case 'f':
+				ndx++;
+				if (match(F_ALSE)) {
+					value = Boolean.FALSE;
+					return Token.BOOLEAN;
+				}
+				break;
+		}
+
+		syntaxError("Invalid char: " + input.charAt(ndx));
+		return null;
+	}
+
+	private void push(int state) {
+		if (depth == stack.length) {
+			int[] newStack = new int[depth << 1];
+			System.arraycopy(stack, 0, newStack, 0, depth);
+			stack = newStack;
+		}
+		stack[depth++] = state;
+	}
+
+	/**
+	 * Ends current object or array, once when its content has been skipped.
+	 */
+	private void endContainer() {
+		int state = stack[--depth];
+
+		if (state == OBJECT_NEXT || state == OBJECT_NAME) {
+			path.pop();
+		}
+
+		if (state >= ARRAY_EMPTY) {
+			path.pop();
+			token = Token.END_ARRAY;
+		}
+		else {
+			token = Token.END_OBJECT;
+		}
+	}
+
+	/**
+	 * Reads value that starts with the given token.
+	 */
+	protected Object readValue(Token t) {
+		switch (t) {
+			case BEGIN_OBJECT:
+				Map<String, Object> map = new HashMap<>();
+
+				while (next() == Token.NAME) {
+					String key = name;
+					map.put(key, readValue(next()));
+				}
+				return map;
+
+			case BEGIN_ARRAY:
+				List<Object> list = new ArrayList<>();
+
+				while (hasNext()) {
+					list.add(readValue(next()));
+				}
+				next();
+				return list;
+
+			case STRING:
+			case NUMBER:
+			case BOOLEAN:
+			case NULL:
+				return value;
+
+			default:
+				syntaxError("Value expected, found: " + t);
+				return null;
+		}
+	}
+
+	/**
+	 * Skips the next value, including its name when inside an object.
+	 */
+	protected void skipNextValue() {
+		Token t = advance();
+
+		if (t == Token.NAME) {
+			t = advance();
+		}
+		if (t != null) {
+			syntaxError("Value expected, found: " + t);
+		}
+
+		skipRawValue();
+
+		token = null;
+		value = null;
+	}
+
+	/**
+	 * Extracts matching values, once positioned before the value.
+	 */
+	private void extractValue(PathQuery pathQuery, Consumer<Object> consumer) {
+		if (path.length() > 0) {
+			if (pathQuery.matches(path)) {
+				consumer.accept(readValue(next()));
+				return;
+			}
+			if (!pathQuery.matchesPrefix(path)) {
+				skipNextValue();
+				return;
+			}
+		}
+
+		Token t = next();
+
+		if (t == Token.BEGIN_OBJECT) {
+			while (hasNext()) {
+				next();
+				extractValue(pathQuery, consumer);
+			}
+			next();
+		}
+		else if (t == Token.BEGIN_ARRAY) {
+			while (hasNext()) {
+				extractValue(pathQuery, consumer);
+			}
+			next();
+		}
+	}
+}
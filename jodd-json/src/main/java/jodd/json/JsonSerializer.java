@@ -26,9 +26,12 @@
 package jodd.json;
 
 import jodd.util.ArraysUtil;
+import jodd.util.buffer.FastByteBuffer;
 import jodd.util.buffer.FastCharBuffer;
 import jodd.util.inex.InExRules;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -260,6 +263,66 @@ public class JsonSerializer {
 		return fastCharBuffer;
 	}
 
+	/**
+	 * Serializes object into provided byte buffer as UTF-8 encoded JSON.
+	 * Strings are escaped and encoded directly into the buffer.
+	 */
+	public void serialize(Object source, FastByteBuffer target) {
+		JsonContext jsonContext = createUtf8JsonContext(target);
+
+		jsonContext.serialize(source);
+	}
+
+	/**
+	 * Serializes object to the output stream as UTF-8 encoded JSON.
+	 * JSON is first written to a reusable per-thread byte buffer and
+	 * then copied to the stream. Stream is not closed.
+	 */
+	public void serializeToStream(Object source, OutputStream outputStream) {
+		FastByteBuffer buffer = BYTE_BUFFER.get();
+
+		buffer.clear();
+
+		try {
+			serialize(source, buffer);
+
+			int lastIndex = buffer.index();
+
+			for (int i = 0; i < lastIndex; i++) {
+				byte[] chunk = buffer.array(i);
+				outputStream.write(chunk, 0, chunk.length);
+			}
+			if (lastIndex >= 0) {
+				outputStream.write(buffer.array(lastIndex), 0, buffer.offset());
+			}
+		}
+		catch (IOException ioex) {
+			throw new JsonException(ioex);
+		}
+		finally {
+			if (buffer.size() > MAX_REUSED_BUFFER_SIZE) {
+				BYTE_BUFFER.remove();
+			}
+			else {
+				buffer.clear();
+			}
+		}
+	}
+
+	/**
+	 * Serializes object to UTF-8 encoded bytes.
+	 */
+	public byte[] serializeToBytes(Object source) {
+		FastByteBuffer fastByteBuffer = new FastByteBuffer();
+
+		serialize(source, fastByteBuffer);
+
+		return fastByteBuffer.toArray();
+	}
+
+	private static final int MAX_REUSED_BUFFER_SIZE = 1024 * 1024;
+	private static final ThreadLocal<FastByteBuffer> BYTE_BUFFER = ThreadLocal.withInitial(() -> new FastByteBuffer(8192));
+
 	// ---------------------------------------------------------------- json context
 
 	/**
@@ -268,4 +331,11 @@ public class JsonSerializer {
 	public JsonContext createJsonContext(Appendable appendable) {
 		return new JsonContext(this, appendable, excludeNulls, strictStringEncoding);
 	}
+
+	/**
+	 * Creates new JSON context that writes UTF-8 encoded bytes.
+	 */
+	public JsonContext createUtf8JsonContext(FastByteBuffer byteBuffer) {
+		return new JsonContext(this, byteBuffer, excludeNulls, strictStringEncoding);
+	}
 }
\ No newline at end of file
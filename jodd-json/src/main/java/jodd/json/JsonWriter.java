@@ -27,21 +27,37 @@ package jodd.json;
 
 import jodd.util.CharUtil;
 import jodd.util.StringPool;
+import jodd.util.buffer.FastByteBuffer;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static jodd.util.StringPool.NULL;
 
 /**
- * Simple JSON writer.
+ * Simple JSON writer. Writes characters to an <code>Appendable</code>,
+ * or UTF-8 encoded bytes directly to a <code>FastByteBuffer</code>.
  */
 public class JsonWriter {
 
 	protected final Appendable out;
+	protected final FastByteBuffer bytes;
 	protected final boolean strictStringEncoding;
 
 	public JsonWriter(Appendable out, boolean strictStringEncoding) {
 		this.out = out;
+		this.bytes = null;
+		this.strictStringEncoding = strictStringEncoding;
+	}
+
+	/**
+	 * Creates writer that writes UTF-8 encoded JSON to a byte buffer.
+	 */
+	public JsonWriter(FastByteBuffer out, boolean strictStringEncoding) {
+		this.out = null;
+		this.bytes = out;
 		this.strictStringEncoding = strictStringEncoding;
 	}
 
@@ -108,6 +124,10 @@ public class JsonWriter {
 	 * Writes object's property name: string and a colon.
 	 */
 	public void writeName(String name) {
+		if (bytes != null && name != null) {
+			bytes.append(nameBytes(name));
+			return;
+		}
 		if (name != null) {
 			writeString(name);
 		}
@@ -139,6 +159,11 @@ public class JsonWriter {
 	public void writeString(String value) {
 		popName();
 
+		if (bytes != null) {
+			writeStringBytes(value);
+			return;
+		}
+
 		write(StringPool.QUOTE);
 
 		int len = value.length();
@@ -217,6 +242,14 @@ public class JsonWriter {
 	 */
 	public void write(CharSequence charSequence) {
 		popName();
+		if (bytes != null) {
+			int len = charSequence.length();
+			for (int i = 0; i < len; i++) {
+				writeByte(charSequence.charAt(i));
+			}
+			flushSurrogate();
+			return;
+		}
 		try {
 			out.append(charSequence);
 		} catch (IOException ioex) {
@@ -236,6 +269,10 @@ public class JsonWriter {
 	 * Appends char to the buffer. Used internally.
 	 */
 	protected void write(char c) {
+		if (bytes != null) {
+			writeByte(c);
+			return;
+		}
 		try {
 			out.append(c);
 		} catch (IOException ioex) {
@@ -243,4 +280,127 @@ public class JsonWriter {
 		}
 	}
 
-}
\ No newline at end of file
+	// ---------------------------------------------------------------- bytes
+
+	private static final int NAMES_CACHE_SIZE = 4096;
+	private static final Map<String, byte[]> NAMES = new ConcurrentHashMap<>();
+
+	/**
+	 * Returns escaped and encoded name, with quotes and colon.
+	 * Encoded names are shared, up to the cache limit.
+	 */
+	protected byte[] nameBytes(String name) {
+		byte[] nameBytes = NAMES.get(name);
+
+		if (nameBytes != null) {
+			return nameBytes;
+		}
+
+		StringBuilder sb = new StringBuilder(name.length() + 3);
+		new JsonWriter(sb, strictStringEncoding).writeName(name);
+		nameBytes = sb.toString().getBytes(StandardCharsets.UTF_8);
+
+		// solidus encoding depends on the strict mode
+		if (NAMES.size() < NAMES_CACHE_SIZE && name.indexOf('/') == -1) {
+			NAMES.put(name, nameBytes);
+		}
+
+		return nameBytes;
+	}
+
+	private char highSurrogate;
+
+	/**
+	 * Writes UTF-8 encoded char to the byte buffer. Surrogate pairs
+	 * are combined across the invocations; unpaired surrogates
+	 * are replaced with '?', as by the <code>String</code> encoder.
+	 */
+	protected void writeByte(char c) {
+		if (highSurrogate != 0) {
+			char high = highSurrogate;
+			highSurrogate = 0;
+
+			if (Character.isLowSurrogate(c)) {
+				int codePoint = Character.toCodePoint(high, c);
+				bytes.append((byte) (0xF0 | (codePoint >> 18)));
+				bytes.append((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+				bytes.append((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+				bytes.append((byte) (0x80 | (codePoint & 0x3F)));
+				return;
+			}
+			bytes.append((byte) '?');
+		}
+
+		if (c < 0x80) {
+			bytes.append((byte) c);
+		}
+		else if (c < 0x800) {
+			bytes.append((byte) (0xC0 | (c >> 6)));
+			bytes.append((byte) (0x80 | (c & 0x3F)));
+		}
+		else if (Character.isHighSurrogate(c)) {
+			highSurrogate = c;
+		}
+		else if (Character.isLowSurrogate(c)) {
+			bytes.append((byte) '?');
+		}
+		else {
+			bytes.append((byte) (0xE0 | (c >> 12)));
+			bytes.append((byte) (0x80 | ((c >> 6) & 0x3F)));
+			bytes.append((byte) (0x80 | (c & 0x3F)));
+		}
+	}
+
+	/**
+	 * Writes pending, unpaired, high surrogate.
+	 */
+	protected void flushSurrogate() {
+		if (highSurrogate != 0) {
+			highSurrogate = 0;
+			bytes.append((byte) '?');
+		}
+	}
+
+	/**
+	 * Writes quoted and escaped string as UTF-8 bytes.
+	 */
+	protected void writeStringBytes(String value) {
+		bytes.append((byte) '"');
+
+		int len = value.length();
+
+		for (int i = 0; i < len; i++) {
+			char c = value.charAt(i);
+
+			if (c < 0x80) {
+				switch (c) {
+					case '"': bytes.append((byte) '\\').append((byte) '"'); continue;
+					case '\\': bytes.append((byte) '\\').append((byte) '\\'); continue;
+					case '/':
+						if (strictStringEncoding) {
+							bytes.append((byte) '\\');
+						}
+						bytes.append((byte) '/');
+						continue;
+					case '\b': bytes.append((byte) '\\').append((byte) 'b'); continue;
+					case '\f': bytes.append((byte) '\\').append((byte) 'f'); continue;
+					case '\n': bytes.append((byte) '\\').append((byte) 'n'); continue;
+					case '\r': bytes.append((byte) '\\').append((byte) 'r'); continue;
+					case '\t': bytes.append((byte) '\\').append((byte) 't'); continue;
+				}
+			}
+
+			if (Character.isISOControl(c)) {
+				unicode(c);
+			}
+			else {
+				writeByte(c);
+			}
+		}
+
+		flushSurrogate();
+
+		bytes.append((byte) '"');
+	}
+
+}
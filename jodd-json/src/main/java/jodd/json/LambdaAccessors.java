@@ -0,0 +1,151 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.json;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Generates lambdas that invoke public getters, setters and constructors
+ * without reflection. All methods return <code>null</code> when the member
+ * can not be accessed this way, so reflection has to be used instead.
+ */
+final class LambdaAccessors {
+
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+	private LambdaAccessors() {
+	}
+
+	/**
+	 * Creates getter function for public method.
+	 */
+	static Function<Object, Object> getter(Method method) {
+		if (!isAccessible(method.getModifiers(), method.getDeclaringClass()) || !isVisible(method.getReturnType())) {
+			return null;
+		}
+		try {
+			MethodHandle methodHandle = LOOKUP.unreflect(method);
+
+			return (Function<Object, Object>) metafactory(
+				"apply", Function.class, MethodType.methodType(Object.class, Object.class), methodHandle).invoke();
+		}
+		catch (Throwable ignore) {
+			return null;
+		}
+	}
+
+	/**
+	 * Creates setter consumer for public method with single argument.
+	 */
+	static BiConsumer<Object, Object> setter(Method method) {
+		if (!isAccessible(method.getModifiers(), method.getDeclaringClass()) || !isVisible(method.getParameterTypes()[0])) {
+			return null;
+		}
+		try {
+			MethodHandle methodHandle = LOOKUP.unreflect(method);
+
+			return (BiConsumer<Object, Object>) metafactory(
+				"accept", BiConsumer.class, MethodType.methodType(void.class, Object.class, Object.class), methodHandle).invoke();
+		}
+		catch (Throwable ignore) {
+			return null;
+		}
+	}
+
+	/**
+	 * Creates supplier for public default constructor.
+	 */
+	static Supplier<Object> constructor(Constructor constructor) {
+		if (!isAccessible(constructor.getModifiers(), constructor.getDeclaringClass()) ||
+			Modifier.isAbstract(constructor.getDeclaringClass().getModifiers())) {
+			return null;
+		}
+		try {
+			MethodHandle methodHandle = LOOKUP.unreflectConstructor(constructor);
+
+			return (Supplier<Object>) metafactory(
+				"get", Supplier.class, MethodType.methodType(Object.class), methodHandle).invoke();
+		}
+		catch (Throwable ignore) {
+			return null;
+		}
+	}
+
+	private static MethodHandle metafactory(String name, Class functionalInterface, MethodType samType, MethodHandle methodHandle) throws Throwable {
+		MethodType instantiatedType = methodHandle.type().wrap();
+
+		if (samType.returnType() == void.class) {
+			instantiatedType = instantiatedType.changeReturnType(void.class);
+		}
+
+		CallSite callSite = LambdaMetafactory.metafactory(
+			LOOKUP,
+			name,
+			MethodType.methodType(functionalInterface),
+			samType,
+			methodHandle,
+			instantiatedType);
+
+		return callSite.getTarget();
+	}
+
+	private static boolean isAccessible(int modifiers, Class declaringClass) {
+		return
+			Modifier.isPublic(modifiers) &&
+			Modifier.isPublic(declaringClass.getModifiers()) &&
+			isVisible(declaringClass);
+	}
+
+	/**
+	 * Returns <code>true</code> if type can be resolved from this class loader,
+	 * as generated lambdas are defined there.
+	 */
+	private static boolean isVisible(Class type) {
+		while (type.isArray()) {
+			type = type.getComponentType();
+		}
+		if (type.isPrimitive()) {
+			return true;
+		}
+		try {
+			return Class.forName(type.getName(), false, LambdaAccessors.class.getClassLoader()) == type;
+		}
+		catch (ClassNotFoundException ignore) {
+			return false;
+		}
+	}
+
+}
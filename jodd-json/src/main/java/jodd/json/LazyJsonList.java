@@ -0,0 +1,107 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.json;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.RandomAccess;
+
+/**
+ * JSON array created by the lazy {@link JsonParser}. Array content is
+ * kept as offset into the original input. Elements are indexed on the
+ * first access; values are decoded only when they are accessed.
+ * Not thread-safe.
+ */
+final class LazyJsonList extends AbstractList<Object> implements RandomAccess {
+
+	private final JsonParser decoder;
+	private final int start;
+	private ArrayList<Object> list;
+
+	LazyJsonList(JsonParser decoder, int start) {
+		this.decoder = decoder;
+		this.start = start;
+	}
+
+	LazyJsonList(JsonParser decoder, ArrayList<Object> list) {
+		this.decoder = decoder;
+		this.start = -1;
+		this.list = list;
+	}
+
+	/**
+	 * Indexes elements on first access.
+	 */
+	private ArrayList<Object> list() {
+		if (list == null) {
+			list = new ArrayList<>();
+			decoder.indexLazyArray(start, list);
+		}
+		return list;
+	}
+
+	// ---------------------------------------------------------------- list
+
+	@Override
+	public Object get(int index) {
+		ArrayList<Object> list = list();
+
+		Object value = list.get(index);
+
+		if (value instanceof LazyJsonMap.Unparsed) {
+			value = decoder.decodeLazyValue(((LazyJsonMap.Unparsed) value).offset);
+			list.set(index, value);
+		}
+		return value;
+	}
+
+	@Override
+	public int size() {
+		return list().size();
+	}
+
+	@Override
+	public Object set(int index, Object element) {
+		Object old = get(index);
+		list.set(index, element);
+		return old;
+	}
+
+	@Override
+	public void add(int index, Object element) {
+		list().add(index, element);
+		modCount++;
+	}
+
+	@Override
+	public Object remove(int index) {
+		Object old = get(index);
+		list.remove(index);
+		modCount++;
+		return old;
+	}
+
+}
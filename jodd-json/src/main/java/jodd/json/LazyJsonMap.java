@@ -0,0 +1,157 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.json;
+
+import java.util.AbstractMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * JSON object created by the lazy {@link JsonParser}. Object content is
+ * kept as offset into the original input. Keys are indexed on the first
+ * access (root object is indexed while parsing); values are decoded only when they are accessed.
+ * Once decoded, map behaves like a regular <code>HashMap</code>.
+ * Not thread-safe.
+ */
+final class LazyJsonMap extends AbstractMap<String, Object> {
+
+	/**
+	 * Position of undecoded value in the input.
+	 */
+	static final class Unparsed {
+		final int offset;
+
+		Unparsed(int offset) {
+			this.offset = offset;
+		}
+	}
+
+	private final JsonParser decoder;
+	private final int start;
+	private HashMap<String, Object> map;
+	private boolean decoded;
+
+	LazyJsonMap(JsonParser decoder, int start) {
+		this.decoder = decoder;
+		this.start = start;
+	}
+
+	LazyJsonMap(JsonParser decoder, HashMap<String, Object> map) {
+		this.decoder = decoder;
+		this.start = -1;
+		this.map = map;
+	}
+
+	/**
+	 * Indexes keys on first access.
+	 */
+	private HashMap<String, Object> map() {
+		if (map == null) {
+			map = new HashMap<>();
+			decoder.indexLazyObject(start, map);
+		}
+		return map;
+	}
+
+	/**
+	 * Decodes all values.
+	 */
+	private HashMap<String, Object> decodedMap() {
+		HashMap<String, Object> map = map();
+
+		if (!decoded) {
+			for (Entry<String, Object> entry : map.entrySet()) {
+				Object value = entry.getValue();
+				if (value instanceof Unparsed) {
+					entry.setValue(decoder.decodeLazyValue(((Unparsed) value).offset));
+				}
+			}
+			decoded = true;
+		}
+		return map;
+	}
+
+	// ---------------------------------------------------------------- map
+
+	@Override
+	public Object get(Object key) {
+		HashMap<String, Object> map = map();
+
+		Object value = map.get(key);
+
+		if (value instanceof Unparsed) {
+			value = decoder.decodeLazyValue(((Unparsed) value).offset);
+			map.put((String) key, value);
+		}
+		return value;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return map().containsKey(key);
+	}
+
+	@Override
+	public int size() {
+		return map().size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return map().isEmpty();
+	}
+
+	@Override
+	public Object put(String key, Object value) {
+		Object old = get(key);
+		map.put(key, value);
+		return old;
+	}
+
+	@Override
+	public Object remove(Object key) {
+		Object old = get(key);
+		map.remove(key);
+		return old;
+	}
+
+	@Override
+	public void clear() {
+		map().clear();
+	}
+
+	@Override
+	public Set<String> keySet() {
+		return map().keySet();
+	}
+
+	@Override
+	public Set<Entry<String, Object>> entrySet() {
+		return decodedMap().entrySet();
+	}
+
+}
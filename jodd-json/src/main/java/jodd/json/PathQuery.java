@@ -105,6 +105,28 @@ public class PathQuery {
 		}
 	}
 
+	/**
+	 * Returns <code>true</code> if path is a prefix of some path
+	 * that matches the query, i.e. if path may lead to a match.
+	 * Wildcard matches any number of path elements.
+	 */
+	public boolean matchesPrefix(Path path) {
+		return matchesPrefix(path, 0, 0);
+	}
+
+	private boolean matchesPrefix(Path path, int pathNdx, int exprNdx) {
+		if (pathNdx == path.length()) {
+			return true;
+		}
+		if (exprNdx == expression.length) {
+			return false;
+		}
+		if (expression[exprNdx].equals(STAR)) {
+			return matchesPrefix(path, pathNdx, exprNdx + 1) || matchesPrefix(path, pathNdx + 1, exprNdx);
+		}
+		return expression[exprNdx].contentEquals(path.get(pathNdx)) && matchesPrefix(path, pathNdx + 1, exprNdx + 1);
+	}
+
 	/**
 	 * Returns <code>true</code> if this query contains a wildcard.
 	 */
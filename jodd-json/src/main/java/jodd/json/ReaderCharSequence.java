@@ -0,0 +1,164 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.json;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Char sequence of a <code>Reader</code> content, used for streaming parsing.
+ * Content is read on demand into a sliding buffer: when buffer is refilled,
+ * characters before the {@link #release(int) released index} are discarded.
+ * Buffer grows only when a single token does not fit in it.
+ * <p>
+ * Sequence length is not known until the reader is exhausted, hence
+ * {@link #length()} returns <code>Integer.MAX_VALUE</code> until then.
+ * Accessing characters after the end of the content throws
+ * <code>IndexOutOfBoundsException</code>.
+ */
+final class ReaderCharSequence implements CharSequence {
+
+	private static final int BUFFER_SIZE = 8192;
+
+	private final Reader reader;
+	private char[] buffer;
+	private int offset;			// index of the first buffered char
+	private int len;			// number of buffered chars
+	private int released;		// chars before this index may be discarded
+	private boolean eof;
+
+	ReaderCharSequence(Reader reader) {
+		this.reader = reader;
+		this.buffer = new char[BUFFER_SIZE];
+	}
+
+	/**
+	 * Marks that characters before the index are not going to be accessed any more.
+	 */
+	void release(int index) {
+		released = index;
+	}
+
+	/**
+	 * Returns <code>true</code> if there is no character at given index,
+	 * reading the content as needed.
+	 */
+	boolean isEOF(int index) {
+		while (index >= offset + len) {
+			if (!fill()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns index of the first buffered character.
+	 */
+	int start() {
+		return offset;
+	}
+
+	/**
+	 * Returns index after the last buffered character.
+	 */
+	int end() {
+		return offset + len;
+	}
+
+	@Override
+	public int length() {
+		return eof ? offset + len : Integer.MAX_VALUE;
+	}
+
+	@Override
+	public char charAt(int index) {
+		int i = index - offset;
+
+		if (i >= 0 && i < len) {
+			return buffer[i];
+		}
+		if (i < 0 || isEOF(index)) {
+			throw new IndexOutOfBoundsException(String.valueOf(index));
+		}
+		return buffer[index - offset];
+	}
+
+	@Override
+	public CharSequence subSequence(int start, int end) {
+		if (start < offset || end < start || (end > start && isEOF(end - 1))) {
+			throw new IndexOutOfBoundsException(start + "-" + end);
+		}
+		return new String(buffer, start - offset, end - start);
+	}
+
+	@Override
+	public String toString() {
+		return new String(buffer, 0, len);
+	}
+
+	/**
+	 * Reads more characters, discarding the released ones.
+	 * Returns <code>false</code> if the end of content is reached.
+	 */
+	private boolean fill() {
+		if (eof) {
+			return false;
+		}
+
+		int discard = released - offset;
+
+		if (discard > 0) {
+			if (discard > len) {
+				discard = len;
+			}
+			System.arraycopy(buffer, discard, buffer, 0, len - discard);
+			offset += discard;
+			len -= discard;
+		}
+
+		if (len == buffer.length) {
+			char[] newBuffer = new char[buffer.length << 1];
+			System.arraycopy(buffer, 0, newBuffer, 0, len);
+			buffer = newBuffer;
+		}
+
+		int n;
+		try {
+			n = reader.read(buffer, len, buffer.length - len);
+		}
+		catch (IOException ioex) {
+			throw new JsonException(ioex);
+		}
+
+		if (n == -1) {
+			eof = true;
+			return false;
+		}
+		len += n;
+		return true;
+	}
+}
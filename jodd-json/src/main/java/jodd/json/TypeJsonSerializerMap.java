@@ -202,6 +202,13 @@ public class TypeJsonSerializerMap {
 		cache.clear();
 	}
 
+	/**
+	 * Clears cached lookups.
+	 */
+	public void clearCache() {
+		cache.clear();
+	}
+
 	/**
 	 * Lookups for the {@link jodd.json.TypeJsonSerializer serializer} for given type.
 	 * If serializer not found, then all interfaces and subclasses of the type are checked.
@@ -279,8 +286,31 @@ public class TypeJsonSerializerMap {
 
 			// nothing found, go with the Object
 
-			return lookupSerializer(Object.class);
+			return lookupObjectSerializer(type);
 		}
 	}
 
+	/**
+	 * Returns serializer for objects that have no registered serializer.
+	 * When {@link JoddJsonDefaults#isCompiledSerializers() enabled}, default
+	 * object serializer is replaced with the {@link CompiledBeanSerializer}
+	 * of the type. Compiled serializers are shared with the default map.
+	 */
+	protected TypeJsonSerializer lookupObjectSerializer(Class type) {
+		TypeJsonSerializer tjs = lookupSerializer(Object.class);
+
+		if (tjs == null || tjs.getClass() != ObjectJsonSerializer.class) {
+			return tjs;
+		}
+		if (!JoddJson.get().defaults().isCompiledSerializers()) {
+			return tjs;
+		}
+
+		if (defaultSerializerMap != null && map.unsafeGet(Object.class) == null) {
+			return defaultSerializerMap.lookup(type);
+		}
+
+		return new CompiledBeanSerializer(type);
+	}
+
 }
\ No newline at end of file
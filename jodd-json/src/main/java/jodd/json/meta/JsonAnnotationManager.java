@@ -30,6 +30,7 @@ import jodd.introspector.ClassIntrospector;
 import jodd.introspector.FieldDescriptor;
 import jodd.introspector.MethodDescriptor;
 import jodd.introspector.PropertyDescriptor;
+import jodd.json.BeanBinder;
 import jodd.json.JoddJson;
 import jodd.util.ArraysUtil;
 import jodd.util.inex.InExRules;
@@ -117,10 +118,13 @@ public class JsonAnnotationManager {
 	}
 
 	/**
-	 * Resets type data map.
+	 * Resets type data map. Cached serializers and bean binders
+	 * are cleared as well, as they hold the type data.
 	 */
 	public void reset() {
 		typeDataMap.clear();
+		JoddJson.get().typeSerializers().clearCache();
+		BeanBinder.clearCache();
 	}
 
 	/**
@@ -0,0 +1,159 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.json;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares regular and lazy {@link JsonParser} when only
+ * few keys of the parsed JSON object are read, and
+ * measures parsing directly into beans.
+ *
+ * Run:
+ * <code>
+ * gw :jodd-json:JsonParserBenchmark
+ * </code>
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@State(Scope.Benchmark)
+public class JsonParserBenchmark {
+
+	public static class Order {
+		private int id;
+		private String user;
+		private List<Item> items;
+		private String note;
+
+		public int getId() {
+			return id;
+		}
+		public void setId(int id) {
+			this.id = id;
+		}
+		public String getUser() {
+			return user;
+		}
+		public void setUser(String user) {
+			this.user = user;
+		}
+		public List<Item> getItems() {
+			return items;
+		}
+		public void setItems(List<Item> items) {
+			this.items = items;
+		}
+		public String getNote() {
+			return note;
+		}
+		public void setNote(String note) {
+			this.note = note;
+		}
+	}
+
+	public static class Item {
+		private String sku;
+		private double price;
+		private List<String> tags;
+		private boolean available;
+
+		public String getSku() {
+			return sku;
+		}
+		public void setSku(String sku) {
+			this.sku = sku;
+		}
+		public double getPrice() {
+			return price;
+		}
+		public void setPrice(double price) {
+			this.price = price;
+		}
+		public List<String> getTags() {
+			return tags;
+		}
+		public void setTags(List<String> tags) {
+			this.tags = tags;
+		}
+		public boolean isAvailable() {
+			return available;
+		}
+		public void setAvailable(boolean available) {
+			this.available = available;
+		}
+	}
+
+	private char[] json;
+
+	@Setup
+	public void setup() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("{\"id\": 173, \"user\": \"jodd\", \"items\": [");
+		for (int i = 0; i < 100; i++) {
+			if (i != 0) {
+				sb.append(',');
+			}
+			sb.append("{\"sku\": \"SKU-").append(i)
+				.append("\", \"price\": ").append(i * 1.5)
+				.append(", \"tags\": [\"one\", \"two\", \"three\"], \"available\": true}");
+		}
+		sb.append("], \"note\": \"Lorem ipsum dolor sit amet, consectetur adipiscing elit.\"}");
+		json = sb.toString().toCharArray();
+	}
+
+	@Benchmark
+	public Object parse() {
+		Map<String, Object> map = new JsonParser().parse(json);
+		return read(map);
+	}
+
+	@Benchmark
+	public Object parseLazy() {
+		Map<String, Object> map = JsonParser.createLazyOne().parse(json);
+		return read(map);
+	}
+
+	@Benchmark
+	public Object parseBean() {
+		Order order = new JsonParser().parse(json, Order.class);
+		return order.getItems().get(99).getSku();
+	}
+
+	private Object read(Map<String, Object> map) {
+		return map.get("user").toString() + map.get("id");
+	}
+
+}
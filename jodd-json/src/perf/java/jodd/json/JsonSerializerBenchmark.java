@@ -0,0 +1,132 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.json;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares reflective and compiled bean serialization,
+ * and writing of UTF-8 encoded JSON to a stream.
+ *
+ * Run:
+ * <code>
+ * gw :jodd-json:JsonSerializerBenchmark
+ * </code>
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@State(Scope.Benchmark)
+public class JsonSerializerBenchmark {
+
+	public static class Item {
+		private String sku;
+		private double price;
+		private int quantity;
+		private boolean available;
+
+		public String getSku() {
+			return sku;
+		}
+		public void setSku(String sku) {
+			this.sku = sku;
+		}
+		public double getPrice() {
+			return price;
+		}
+		public void setPrice(double price) {
+			this.price = price;
+		}
+		public int getQuantity() {
+			return quantity;
+		}
+		public void setQuantity(int quantity) {
+			this.quantity = quantity;
+		}
+		public boolean isAvailable() {
+			return available;
+		}
+		public void setAvailable(boolean available) {
+			this.available = available;
+		}
+	}
+
+	@Param({"false", "true"})
+	public boolean compiled;
+
+	private List<Item> items;
+
+	@Setup
+	public void setup() {
+		JoddJson.get().defaults().setCompiledSerializers(compiled);
+		TypeJsonSerializerMap.get().clearCache();
+
+		items = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			Item item = new Item();
+			item.setSku("SKU-" + i);
+			item.setPrice(i * 1.5);
+			item.setQuantity(i);
+			item.setAvailable(i % 2 == 0);
+			items.add(item);
+		}
+	}
+
+	private final ByteArrayOutputStream out = new ByteArrayOutputStream(16 * 1024);
+
+	@Benchmark
+	public String serialize() {
+		return JsonSerializer.create().serialize(items);
+	}
+
+	@Benchmark
+	public int serializeStringToStream() throws IOException {
+		out.reset();
+		out.write(JsonSerializer.create().serialize(items).getBytes(StandardCharsets.UTF_8));
+		return out.size();
+	}
+
+	@Benchmark
+	public int serializeToStream() {
+		out.reset();
+		JsonSerializer.create().serializeToStream(items, out);
+		return out.size();
+	}
+
+}
@@ -0,0 +1,170 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.json;
+
+import jodd.json.fixtures.mock.Location;
+import jodd.json.meta.JSON;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BeanBinderTest {
+
+	@JSON(strict = true)
+	public static class Order {
+		@JSON
+		private String id;
+		private long total;
+		private List<Item> items;
+		private String secret;
+
+		public String getId() {
+			return id;
+		}
+		public void setId(String id) {
+			this.id = id;
+		}
+		@JSON
+		public long getTotal() {
+			return total;
+		}
+		private void setTotal(long total) {
+			this.total = total;
+		}
+		@JSON
+		public List<Item> getItems() {
+			return items;
+		}
+		public void setItems(List<Item> items) {
+			this.items = items;
+		}
+		public String getSecret() {
+			return secret;
+		}
+		public void setSecret(String secret) {
+			this.secret = secret;
+		}
+	}
+
+	public static class Item {
+		private String name;
+		private int count;
+
+		public String getName() {
+			return name;
+		}
+		public void setName(String name) {
+			this.name = name;
+		}
+		public int getCount() {
+			return count;
+		}
+		public void setCount(int count) {
+			this.count = count;
+		}
+	}
+
+	@Test
+	void testBinder() {
+		BeanBinder beanBinder = BeanBinder.lookup(Order.class);
+
+		assertSame(beanBinder, BeanBinder.lookup(Order.class));
+
+		assertNotNull(beanBinder.property("id").setterLambda);
+		assertNull(beanBinder.property("total").setterLambda);
+		assertNotNull(beanBinder.property("total").setter);
+		assertTrue(beanBinder.property("items").included);
+		assertEquals(Item.class, beanBinder.property("items").componentType);
+		assertEquals(false, beanBinder.property("secret").included);
+		assertNull(beanBinder.property("unknown"));
+
+		beanBinder = BeanBinder.lookup(Location.class);
+
+		assertSame(beanBinder.property("lat").name, beanBinder.property("latitude").name);
+		assertEquals("longitude", beanBinder.property("lng").name);
+	}
+
+	@Test
+	void testParseIntoBean() {
+		String json = "{\"id\": \"o1\", \"total\": \"173\", \"secret\": \"x\", \"unknown\": {\"a\": [1, 2]}," +
+			"\"items\": [{\"name\": \"one\", \"count\": 1}, {\"name\": \"two\", \"count\": 2.0}]}";
+
+		Order order = new JsonParser().parse(json, Order.class);
+
+		assertEquals("o1", order.getId());
+		assertEquals(173, order.getTotal());
+		assertNull(order.getSecret());
+		assertEquals(2, order.getItems().size());
+		assertEquals("two", order.getItems().get(1).getName());
+		assertEquals(2, order.getItems().get(1).getCount());
+
+		assertThrows(JsonException.class, () -> new JsonParser().parse("{\"id\": \"o1\",}", Order.class));
+		assertThrows(JsonException.class, () -> new JsonParser().parse("{\"total\": \"many\"}", Order.class));
+	}
+
+	@Test
+	void testParseWithClassMetadata() {
+		String className = Item.class.getName();
+
+		Item item = new JsonParser()
+			.setClassMetadataName("class")
+			.parse("{ \"class\" : \"" + className + "\", \"name\": \"one\", \"count\": 1}");
+
+		assertEquals("one", item.getName());
+		assertEquals(1, item.getCount());
+
+		item = new JsonParser()
+			.setClassMetadataName("class")
+			.parse("{\"name\": \"two\", \"class\": \"" + className + "\"}");
+
+		assertEquals("two", item.getName());
+
+		item = new JsonParser()
+			.setClassMetadataName("class")
+			.parse("{\"class\": \"" + className + "\"}");
+
+		assertNull(item.getName());
+
+		Map<String, Object> map = new JsonParser()
+			.setClassMetadataName("class")
+			.parse("{\"class\": \"java.util.HashMap\", \"name\": \"three\"}");
+
+		assertEquals("three", map.get("name"));
+
+		assertThrows(JsonException.class, () -> new JsonParser()
+			.setClassMetadataName("class")
+			.parse("{\"class\": \"" + className + "\",}"));
+	}
+
+}
@@ -73,6 +73,27 @@ class CatalogTest {
 		assertCatalog(catalog);
 	}
 
+	@Test
+	void testParseCatalogAsObjectFromStream() throws IOException {
+		try (FileInputStream fis = new FileInputStream(new File(dataRoot, "citm_catalog.json.gz"))) {
+			Catalog catalog = new JsonParser().parse(new GZIPInputStream(fis), Catalog.class);
+
+			assertCatalog(catalog);
+		}
+	}
+
+	@Test
+	void testParseCatalogLazy() throws IOException {
+		String json = loadJSON("citm_catalog");
+
+		Map<String, Object> map = new JsonParser().parse(json);
+		Map<String, Object> lazyMap = JsonParser.createLazyOne().parse(json);
+
+		assertEquals(map.size(), lazyMap.size());
+		assertEquals(map.get("areaNames"), lazyMap.get("areaNames"));
+		assertEquals(map, lazyMap);
+	}
+
 	@Test
 	void testParseCatalogAsObjectWithClassname() throws IOException {
 		String json = loadJSON("citm_catalog");
@@ -0,0 +1,113 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.json;
+
+import jodd.json.fixtures.mock.Mountain;
+import jodd.json.fixtures.mock.Network;
+import jodd.json.fixtures.mock.Person;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompiledBeanSerializerTest {
+
+	@BeforeEach
+	void setUp() {
+		JoddJson.get().defaults().setCompiledSerializers(true);
+		TypeJsonSerializerMap.get().clearCache();
+	}
+
+	@AfterEach
+	void tearDown() {
+		JoddJson.get().defaults().setCompiledSerializers(false);
+		TypeJsonSerializerMap.get().clearCache();
+	}
+
+	@Test
+	void testLookup() {
+		TypeJsonSerializer serializer = TypeJsonSerializerMap.get().lookup(Person.class);
+
+		assertTrue(serializer instanceof CompiledBeanSerializer);
+		assertSame(serializer, TypeJsonSerializerMap.get().lookup(Person.class));
+
+		// child maps share compiled serializers
+		assertSame(serializer, new TypeJsonSerializerMap(TypeJsonSerializerMap.get()).lookup(Person.class));
+
+		CompiledBeanSerializer compiled = (CompiledBeanSerializer) serializer;
+
+		for (CompiledBeanSerializer.Property property : compiled.properties) {
+			assertNotNull(property.accessor, property.name);
+		}
+	}
+
+	@Test
+	void testSameOutput() {
+		DataCreator dataCreator = new DataCreator();
+		Person jodder = dataCreator.createJodder();
+		Network network = dataCreator.createNetwork("net", jodder, dataCreator.createModesty());
+
+		Mountain mountain = new Mountain();
+		mountain.setName("bbb");
+		mountain.setHeight("123");
+		mountain.setWild(true);
+
+		assertSameOutput(JsonSerializer::new, jodder);
+		assertSameOutput(() -> new JsonSerializer().deep(true), jodder);
+		assertSameOutput(() -> new JsonSerializer().deep(true).excludeNulls(true), network);
+		assertSameOutput(() -> new JsonSerializer().include("phones").exclude("home.zipcode"), jodder);
+		assertSameOutput(() -> new JsonSerializer().deep(true).exclude("people.values.hobbies"), network);
+		assertSameOutput(() -> new JsonSerializer().withClassMetadata(true), jodder);
+		assertSameOutput(() -> new JsonSerializer().excludeTypes(String.class), jodder);
+		assertSameOutput(() -> new JsonSerializer()
+			.withSerializer("work.city", (jsonContext, value) -> {
+				jsonContext.writeString("*");
+				return true;
+			}), jodder);
+		assertSameOutput(JsonSerializer::new, mountain);
+	}
+
+	private void assertSameOutput(Supplier<JsonSerializer> jsonSerializerSupplier, Object object) {
+		String json = jsonSerializerSupplier.get().serialize(object);
+
+		JoddJson.get().defaults().setCompiledSerializers(false);
+		TypeJsonSerializerMap.get().clearCache();
+
+		String expected = jsonSerializerSupplier.get().serialize(object);
+
+		JoddJson.get().defaults().setCompiledSerializers(true);
+		TypeJsonSerializerMap.get().clearCache();
+
+		assertEquals(expected, json);
+	}
+
+}
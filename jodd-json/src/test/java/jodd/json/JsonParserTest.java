@@ -37,12 +37,16 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
 import java.math.BigInteger;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 import java.util.zip.GZIPInputStream;
@@ -52,6 +56,7 @@ import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -852,4 +857,86 @@ class JsonParserTest {
 		assertTrue(hitList.getNumbers().contains(Integer.valueOf(22)));
 	}
 
+	// ---------------------------------------------------------------- reader
+
+	/**
+	 * Reader that returns a single char per read.
+	 */
+	private static Reader slowReader(String string) {
+		return new StringReader(string) {
+			@Override
+			public int read(char[] cbuf, int off, int len) throws IOException {
+				return super.read(cbuf, off, Math.min(len, 1));
+			}
+		};
+	}
+
+	@Test
+	void testParseReader() {
+		StringBuilder longString = new StringBuilder();
+		for (int i = 0; i < 20000; i++) {
+			longString.append((char) ('a' + i % 26));
+		}
+
+		StringBuilder json = new StringBuilder("[");
+		for (int i = 0; i < 1000; i++) {
+			if (i > 0) {
+				json.append(", ");
+			}
+			json.append("{\"id\": ").append(i).append(", \"name\": \"n\\u0041\\\"").append(i).append("\", \"ok\": true}");
+		}
+		json.append(", \"").append(longString).append("\", 12345678901234567890, -1.5e3, null]");
+
+		List<Object> expected = new JsonParser().parse(json.toString());
+		List<Object> list = new JsonParser().parse(slowReader(json.toString()));
+
+		assertEquals(1003 + 1, list.size());
+		assertEquals(expected, list);
+		assertEquals("nA\"999", ((Map) list.get(999)).get("name"));
+		assertEquals(longString.toString(), list.get(1000));
+	}
+
+	@Test
+	void testParseReaderWithMappings() {
+		String json = "{\"names\":[\"Pig\",\"Joe\"],\"numbers\":[173,22]}";
+
+		HitList hitList = new JsonParser().parse(slowReader(json), HitList.class);
+
+		assertTrue(hitList.getNames().contains("Joe"));
+		assertTrue(hitList.getNumbers().contains(Integer.valueOf(173)));
+
+		Map<String, Object> map = new JsonParser()
+			.useAltPaths()
+			.map("numbers.values", Long.class)
+			.parse(slowReader(json));
+
+		assertEquals(Long.valueOf(22), ((List) map.get("numbers")).get(1));
+
+		map = new JsonParser()
+			.withValueConverter("values.values", data -> data.toString() + '!')
+			.parse(slowReader(json));
+
+		assertEquals("Pig!", ((List) map.get("names")).get(0));
+		assertEquals("22!", ((List) map.get("numbers")).get(1));
+	}
+
+	@Test
+	void testParseInputStream() {
+		String json = "{\"text\": \"Ћирилица \u20ac\"}";
+
+		Map<String, Object> map = new JsonParser().parse(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+		assertEquals("Ћирилица \u20ac", map.get("text"));
+	}
+
+	@Test
+	void testParseReaderErrors() {
+		JsonException jsonException = assertThrows(JsonException.class,
+			() -> new JsonParser().parse(slowReader("[1, 2, 3] 4")));
+		assertTrue(jsonException.getMessage().contains("Trailing chars"));
+
+		jsonException = assertThrows(JsonException.class,
+			() -> new JsonParser().parse(slowReader("{\"a\": [1, 2")));
+		assertTrue(jsonException.getMessage().contains("End of JSON"));
+	}
 }
@@ -0,0 +1,169 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.json;
+
+import jodd.json.JsonReader.Token;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonReaderTest {
+
+	private static final String JSON =
+		"{\"name\": \"catalog\", \"count\": 3, \"ok\": true, \"none\": null," +
+		" \"items\": [" +
+		"  {\"id\": 1, \"tags\": [\"a\", \"b\"], \"meta\": {\"x\": \"}]\\\"\"}}," +
+		"  {\"id\": 2, \"tags\": []}," +
+		"  {\"meta\": {\"id\": 99}, \"id\": 3}" +
+		" ]," +
+		" \"tail\": -1.5}";
+
+	@Test
+	void testTokens() {
+		JsonReader reader = new JsonReader("{\"a\": [1, \"two\", false, null], \"b\": {}}");
+
+		assertEquals(Token.BEGIN_OBJECT, reader.next());
+		assertEquals(Token.NAME, reader.next());
+		assertEquals("a", reader.name());
+		assertEquals(Token.BEGIN_ARRAY, reader.next());
+		assertEquals("[a.values]", reader.path().toString());
+		assertEquals(Token.NUMBER, reader.next());
+		assertEquals(1, reader.value());
+		assertEquals(Token.STRING, reader.next());
+		assertEquals("two", reader.value());
+		assertEquals(Token.BOOLEAN, reader.next());
+		assertEquals(Boolean.FALSE, reader.value());
+		assertEquals(Token.NULL, reader.next());
+		assertNull(reader.value());
+		assertFalse(reader.hasNext());
+		assertEquals(Token.END_ARRAY, reader.next());
+		assertEquals(Token.NAME, reader.next());
+		assertEquals("[b]", reader.path().toString());
+		assertEquals(Token.BEGIN_OBJECT, reader.next());
+		assertEquals(Token.END_OBJECT, reader.next());
+		assertEquals(Token.END_OBJECT, reader.next());
+		assertEquals(Token.END_DOCUMENT, reader.next());
+		assertEquals(Token.END_DOCUMENT, reader.next());
+	}
+
+	@Test
+	void testSkipValue() {
+		JsonReader reader = new JsonReader(JSON);
+
+		assertEquals(Token.BEGIN_OBJECT, reader.next());
+
+		while (reader.next() == Token.NAME) {
+			if (reader.name().equals("tail")) {
+				assertEquals(Token.NUMBER, reader.next());
+				assertEquals(-1.5, reader.value());
+			}
+			else {
+				reader.skipValue();
+			}
+		}
+
+		assertEquals(Token.END_OBJECT, reader.token());
+		assertEquals(Token.END_DOCUMENT, reader.next());
+	}
+
+	@Test
+	void testSkipStartedValue() {
+		JsonReader reader = new JsonReader("[[1, [2]], {\"a\": {}}, 3]");
+
+		assertEquals(Token.BEGIN_ARRAY, reader.next());
+		assertEquals(Token.BEGIN_ARRAY, reader.next());
+		reader.skipValue();
+		assertEquals(Token.END_ARRAY, reader.token());
+
+		reader.skipValue();
+		assertNull(reader.token());
+
+		assertEquals(Token.NUMBER, reader.next());
+		assertEquals(3, reader.value());
+		assertEquals(Token.END_ARRAY, reader.next());
+	}
+
+	@Test
+	void testReadValue() {
+		JsonReader reader = new JsonReader(JSON);
+
+		reader.next();
+		reader.next();
+		reader.skipValue();			// name
+		reader.skipValue();			// count
+		reader.skipValue();			// ok
+		reader.skipValue();			// none
+		reader.next();
+		assertEquals("items", reader.name());
+
+		List<Object> items = (List<Object>) reader.readValue();
+
+		assertEquals(new JsonParser().parse(JSON, Map.class).get("items"), items);
+	}
+
+	@Test
+	void testExtract() {
+		assertEquals(Arrays.asList(1, 2, 3), new JsonReader(JSON).extract("items.values.id"));
+		assertEquals(Arrays.asList(1, 2, 99, 3), new JsonReader(JSON).extract("items.*.id"));
+		assertEquals(Arrays.asList("catalog"), new JsonReader(JSON).extract("name"));
+		assertEquals(Arrays.asList(Arrays.asList("a", "b"), Arrays.asList()), new JsonReader(new StringReader(JSON)).extract("items.values.tags"));
+		assertEquals(Arrays.asList(), new JsonReader(JSON).extract("nothing.here"));
+	}
+
+	@Test
+	void testExtractFromReader() {
+		StringBuilder json = new StringBuilder("{\"items\": [");
+		for (int i = 0; i < 10000; i++) {
+			if (i > 0) {
+				json.append(',');
+			}
+			json.append("{\"payload\": {\"text\": \"").append(i).append(" some long text\", \"list\": [1,2,3]}, \"id\": ").append(i).append('}');
+		}
+		json.append("]}");
+
+		List<Object> ids = new JsonReader(new StringReader(json.toString())).extract("items.values.id");
+
+		assertEquals(10000, ids.size());
+		assertEquals(9999, ids.get(9999));
+	}
+
+	@Test
+	void testErrors() {
+		assertThrows(JsonException.class, () -> new JsonReader("[1, 2").extract("x"));
+		assertThrows(JsonException.class, () -> new JsonReader("[1, 2,]").readValue());
+		assertThrows(JsonException.class, () -> new JsonReader("{\"a\" 1}").readValue());
+		assertThrows(JsonException.class, () -> {
+			JsonReader reader = new JsonReader("[1] [2]");
+			reader.readValue();
+			reader.next();
+		});
+	}
+}
@@ -33,7 +33,9 @@ import jodd.json.meta.JsonAnnotationManager;
 import jodd.util.SystemUtil;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -628,4 +630,23 @@ class JsonSerializerTest {
 		assertEquals("123", json);
 
 	}
+
+	@Test
+	void testSerializeToBytes() {
+		Map<String, Object> map = new LinkedHashMap<>();
+		map.put("name", "Ћирилица \u20ac");
+		map.put("list", ints(1, 2, 3));
+		map.put("empty", null);
+
+		JsonSerializer jsonSerializer = JsonSerializer.create().deep(true);
+		String json = jsonSerializer.serialize(map);
+
+		assertEquals(json, new String(jsonSerializer.serializeToBytes(map), StandardCharsets.UTF_8));
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		jsonSerializer.serializeToStream(map, out);
+		jsonSerializer.serializeToStream(map, out);
+
+		assertEquals(json + json, new String(out.toByteArray(), StandardCharsets.UTF_8));
+	}
 }
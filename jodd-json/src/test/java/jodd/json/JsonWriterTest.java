@@ -25,8 +25,11 @@
 
 package jodd.json;
 
+import jodd.util.buffer.FastByteBuffer;
 import org.junit.jupiter.api.Test;
 
+import java.nio.charset.StandardCharsets;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 class JsonWriterTest {
@@ -46,4 +49,31 @@ class JsonWriterTest {
 
 		assertEquals("{\"one\":123,\"two\":\"UberLight\"}", sb.toString());
 	}
+
+	@Test
+	void testJsonWriterBytes() {
+		FastByteBuffer fastByteBuffer = new FastByteBuffer();
+		JsonWriter jsonWriter = new JsonWriter(fastByteBuffer, true);
+
+		String text = "\"\\/\b\f\n\r\t\u0001 Ćирилица \u20ac \uD83D\uDE00";
+
+		jsonWriter.writeOpenObject();
+		jsonWriter.writeName("one");
+		jsonWriter.writeNumber(Long.valueOf(123));
+		jsonWriter.writeComma();
+		jsonWriter.writeName("two/\u20ac");
+		jsonWriter.writeString(text);
+		jsonWriter.writeComma();
+		jsonWriter.writeName("three");
+		jsonWriter.writeString("\uD83D!\uDE00");
+		jsonWriter.writeCloseObject();
+
+		StringBuilder sb = new StringBuilder();
+		JsonWriter charWriter = new JsonWriter(sb, true);
+		charWriter.writeString(text);
+
+		assertEquals(
+			"{\"one\":123,\"two\\/\u20ac\":" + sb + ",\"three\":\"?!?\"}",
+			new String(fastByteBuffer.toArray(), StandardCharsets.UTF_8));
+	}
 }
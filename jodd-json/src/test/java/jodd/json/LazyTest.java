@@ -0,0 +1,137 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.json;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LazyTest {
+
+	@Test
+	void testLazyMap() {
+		String json = "{\"name\": \"Jodd\", \"age\" : 42, \"ok\": true, \"none\": null," +
+			"\"list\": [1, \"two\", {\"three\": 3.0}], \"inner\": {\"a\": \"\\u0041\\\"\"}}";
+
+		Map<String, Object> map = JsonParser.createLazyOne().parse(json);
+
+		assertEquals(LazyJsonMap.class, map.getClass());
+		assertEquals(6, map.size());
+		assertTrue(map.containsKey("inner"));
+		assertFalse(map.containsKey("outer"));
+
+		assertEquals("Jodd", map.get("name"));
+		assertEquals(42, map.get("age"));
+		assertEquals(Boolean.TRUE, map.get("ok"));
+		assertNull(map.get("none"));
+		assertTrue(map.containsKey("none"));
+
+		List<Object> list = (List<Object>) map.get("list");
+		assertEquals(LazyJsonList.class, list.getClass());
+		assertEquals(3, list.size());
+		assertEquals(1, list.get(0));
+		assertEquals("two", list.get(1));
+		assertEquals(3.0, ((Map) list.get(2)).get("three"));
+
+		assertEquals("A\"", ((Map) map.get("inner")).get("a"));
+
+		assertEquals(new JsonParser().parse(json), map);
+	}
+
+	@Test
+	void testLazyList() {
+		List<Object> list = JsonParser.createLazyOne().parse(" [ ] ");
+		assertTrue(list.isEmpty());
+		assertTrue(((Map) JsonParser.createLazyOne().parse("{ }")).isEmpty());
+
+		list = JsonParser.createLazyOne().parse("[1, [2, [3]], \"4\"]");
+
+		assertEquals(Arrays.asList(1, Arrays.asList(2, Arrays.asList(3)), "4"), list);
+	}
+
+	@Test
+	void testLazyModify() {
+		Map<String, Object> map = JsonParser.createLazyOne().parse("{\"a\": 1, \"b\": [1, 2]}");
+
+		assertEquals(1, map.put("a", "one"));
+		assertEquals("one", map.get("a"));
+		assertEquals("one", map.remove("a"));
+		assertFalse(map.containsKey("a"));
+
+		List<Object> list = (List<Object>) map.get("b");
+		list.add(3);
+		assertEquals(1, list.remove(0));
+		assertEquals(2, list.set(0, "two"));
+		assertEquals(Arrays.asList("two", 3), new ArrayList<>(list));
+
+		Map<String, Object> expected = new HashMap<>();
+		expected.put("b", Arrays.asList("two", 3));
+		assertEquals(expected, map);
+	}
+
+	@Test
+	void testLazyIsUsedOnlyForPlainParsing() {
+		String json = "{\"a\": 1}";
+
+		assertEquals(HashMap.class, JsonParser.createLazyOne().parse(json, Map.class).getClass());
+		assertEquals(HashMap.class, JsonParser.createLazyOne().map("values", Long.class).parse(json).getClass());
+		assertEquals(LazyJsonMap.class, JsonParser.createLazyOne().parse(json.toCharArray()).getClass());
+		assertEquals(HashMap.class, JsonParser.createLazyOne().parse(new StringReader(json)).getClass());
+	}
+
+	@Test
+	void testLazyErrors() {
+		assertThrows(JsonException.class, () -> JsonParser.createLazyOne().parse("{\"a\": 1"));
+		assertThrows(JsonException.class, () -> JsonParser.createLazyOne().parse("{\"a\": 1} 2"));
+
+		Map<String, Object> map = JsonParser.createLazyOne().parse("{\"a\": \"\\q\", \"b\": {\"c\" 1}, \"d\": [1,]}");
+
+		assertThrows(JsonException.class, () -> map.get("a"));
+		assertThrows(JsonException.class, () -> ((Map) map.get("b")).size());
+		assertThrows(JsonException.class, () -> ((List) map.get("d")).size());
+	}
+
+	@Test
+	void testLazyLooseMode() {
+		Map<String, Object> map = JsonParser.createLazyOne().looseMode(true).parse("{a: 'x]}', b: [yes, 'no']}");
+
+		assertEquals("x]}", map.get("a"));
+		assertEquals(Arrays.asList("yes", "no"), map.get("b"));
+	}
+
+}
@@ -61,4 +61,17 @@ class PathQueryTest {
 		assertFalse(new PathQuery("one.two", false).matches(Path.parse("one.two.three")));
 	}
 
+	@Test
+	void testPathPrefixMatching() {
+		assertTrue(new PathQuery("one.two", false).matchesPrefix(Path.parse("one")));
+		assertTrue(new PathQuery("one.two", false).matchesPrefix(Path.parse("one.two")));
+		assertFalse(new PathQuery("one.two", false).matchesPrefix(Path.parse("one.three")));
+		assertFalse(new PathQuery("one.two", false).matchesPrefix(Path.parse("one.two.three")));
+
+		assertTrue(new PathQuery("items.*.id", false).matchesPrefix(Path.parse("items.values")));
+		assertTrue(new PathQuery("items.*.id", false).matchesPrefix(Path.parse("items.values.foo.bar")));
+		assertFalse(new PathQuery("items.*.id", false).matchesPrefix(Path.parse("other.values")));
+		assertTrue(new PathQuery("*.id", false).matchesPrefix(Path.parse("a.b.c")));
+	}
+
 }
@@ -66,6 +66,7 @@ public class BeanDefinition<T> {
 	protected InitMethodPoint[] initMethods;
 	protected DestroyMethodPoint[] destroyMethods;
 	protected String[] params;
+	protected BeanFactory factory;
 
 	// ---------------------------------------------------------------- definition getters
 
@@ -158,6 +159,13 @@ public class BeanDefinition<T> {
 		return params;
 	}
 
+	/**
+	 * Returns compiled bean factory, if compiled.
+	 */
+	public BeanFactory factory() {
+		return factory;
+	}
+
 	// ---------------------------------------------------------------- scope delegates
 
 	/**
@@ -192,6 +200,8 @@ public class BeanDefinition<T> {
 	 * Adds property injection point.
 	 */
 	protected void addPropertyInjectionPoint(PropertyInjectionPoint pip) {
+		factory = null;
+
 		if (properties == null) {
 			properties = new PropertyInjectionPoint[1];
 			properties[0] = pip;
@@ -204,6 +214,8 @@ public class BeanDefinition<T> {
 	 * Adds set injection point.
 	 */
 	protected void addSetInjectionPoint(SetInjectionPoint sip) {
+		factory = null;
+
 		if (sets == null) {
 			sets = new SetInjectionPoint[1];
 			sets[0] = sip;
@@ -216,6 +228,8 @@ public class BeanDefinition<T> {
 	 * Adds method injection point.
 	 */
 	protected void addMethodInjectionPoint(MethodInjectionPoint mip) {
+		factory = null;
+
 		if (methods == null) {
 			methods = new MethodInjectionPoint[1];
 			methods[0] = mip;
@@ -228,6 +242,8 @@ public class BeanDefinition<T> {
 	 * Adds init methods.
 	 */
 	protected void addInitMethodPoints(InitMethodPoint[] methods) {
+		factory = null;
+
 		if (initMethods == null) {
 			initMethods = methods;
 		} else {
@@ -239,6 +255,8 @@ public class BeanDefinition<T> {
 	 * Adds destroy methods.
 	 */
 	protected void addDestroyMethodPoints(DestroyMethodPoint[] methods) {
+		factory = null;
+
 		if (destroyMethods == null) {
 			destroyMethods = methods;
 		} else {
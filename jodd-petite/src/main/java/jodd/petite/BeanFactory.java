@@ -0,0 +1,359 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.petite;
+
+import jodd.bean.BeanPath;
+import jodd.bean.BeanUtil;
+import jodd.introspector.AccessorStrategy;
+import jodd.introspector.Setter;
+import jodd.petite.def.BeanReferences;
+import jodd.petite.def.InitMethodPoint;
+import jodd.petite.def.MethodInjectionPoint;
+import jodd.petite.def.PropertyInjectionPoint;
+import jodd.petite.def.SetInjectionPoint;
+import jodd.petite.meta.InitMethodInvocationStrategy;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Compiled bean factory. Creates, wires and initializes beans of a
+ * {@link BeanDefinition} exactly as {@link PetiteContainer} does,
+ * but with all injection points resolved in advance: constructor,
+ * methods and init methods are invoked by <code>MethodHandle</code>s,
+ * properties are set by compiled setters and parameters are
+ * injected using compiled {@link BeanPath bean paths}.
+ * <p>
+ * Bean references are still looked up on each creation, as
+ * referenced beans may live in different scopes.
+ */
+public class BeanFactory {
+
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+	private static final MethodHandle CONSTRUCTOR_NEW_INSTANCE;
+	private static final MethodHandle METHOD_INVOKE;
+	private static final MethodType METHOD_INVOKE_VOID = MethodType.methodType(void.class, Object.class, Object[].class);
+	private static final Object[] NO_ARGS = new Object[0];
+
+	static {
+		try {
+			CONSTRUCTOR_NEW_INSTANCE = LOOKUP.findVirtual(Constructor.class, "newInstance",
+				MethodType.methodType(Object.class, Object[].class));
+			METHOD_INVOKE = LOOKUP.findVirtual(Method.class, "invoke",
+				MethodType.methodType(Object.class, Object.class, Object[].class));
+		} catch (ReflectiveOperationException rex) {
+			throw new ExceptionInInitializerError(rex);
+		}
+	}
+
+	protected final BeanDefinition def;
+
+	private final MethodHandle ctor;
+	private final BeanReferences[] ctorReferences;
+	private final PropertyInjectionPoint[] properties;
+	private final Setter[] propertySetters;
+	private final SetInjectionPoint[] sets;
+	private final Setter[] setSetters;
+	private final MethodInjectionPoint[] methods;
+	private final MethodHandle[] methodHandles;
+	private final InitMethodPoint[][] initMethods;
+	private final MethodHandle[][] initMethodHandles;
+	private final String[] params;
+	private final BeanPath[] paramPaths;
+
+	/**
+	 * Compiles bean definition. All injection points of the definition
+	 * must be already resolved.
+	 */
+	protected BeanFactory(BeanDefinition def) {
+		this.def = def;
+
+		this.ctor = handle(def.ctor.constructor);
+		this.ctorReferences = def.ctor.references;
+
+		this.properties = def.properties != null ? def.properties : PropertyInjectionPoint.EMPTY;
+		this.propertySetters = new Setter[properties.length];
+		for (int i = 0; i < properties.length; i++) {
+			propertySetters[i] = AccessorStrategy.LAMBDA.compile(properties[i].propertyDescriptor.getSetter(true));
+		}
+
+		this.sets = def.sets != null ? def.sets : SetInjectionPoint.EMPTY;
+		this.setSetters = new Setter[sets.length];
+		for (int i = 0; i < sets.length; i++) {
+			setSetters[i] = AccessorStrategy.LAMBDA.compile(sets[i].propertyDescriptor.getSetter(true));
+		}
+
+		this.methods = def.methods != null ? def.methods : MethodInjectionPoint.EMPTY;
+		this.methodHandles = new MethodHandle[methods.length];
+		for (int i = 0; i < methods.length; i++) {
+			methodHandles[i] = handle(methods[i].method);
+		}
+
+		InitMethodInvocationStrategy[] strategies = InitMethodInvocationStrategy.values();
+
+		this.initMethods = new InitMethodPoint[strategies.length][];
+		this.initMethodHandles = new MethodHandle[strategies.length][];
+
+		for (InitMethodInvocationStrategy strategy : strategies) {
+			List<InitMethodPoint> points = new ArrayList<>();
+			for (InitMethodPoint initMethod : def.initMethods) {
+				if (initMethod.invocationStrategy == strategy) {
+					points.add(initMethod);
+				}
+			}
+			int ndx = strategy.ordinal();
+			initMethods[ndx] = points.toArray(new InitMethodPoint[0]);
+			initMethodHandles[ndx] = new MethodHandle[points.size()];
+			for (int i = 0; i < points.size(); i++) {
+				initMethodHandles[ndx][i] = handle(points.get(i).method);
+			}
+		}
+
+		if (def.name != null && def.params != null) {
+			this.params = def.params;
+			this.paramPaths = new BeanPath[params.length];
+
+			int len = def.name.length() + 1;
+			for (int i = 0; i < params.length; i++) {
+				paramPaths[i] = BeanUtil.declared.compilePath(params[i].substring(len));
+			}
+		}
+		else {
+			this.params = null;
+			this.paramPaths = null;
+		}
+	}
+
+	/**
+	 * Returns bean definition of this factory.
+	 */
+	public BeanDefinition definition() {
+		return def;
+	}
+
+	// ---------------------------------------------------------------- create
+
+	/**
+	 * Creates new bean instance, registers it in the scope, wires it,
+	 * injects parameters and invokes init methods.
+	 */
+	@SuppressWarnings("unchecked")
+	public Object create(PetiteContainer petiteContainer) {
+		Object bean = newInstance(petiteContainer);
+
+		def.scopeRegister(bean);
+		invokeInitMethods(bean, InitMethodInvocationStrategy.POST_CONSTRUCT);
+
+		if (def.wiringMode != WiringMode.NONE) {
+			wireProperties(petiteContainer, bean);
+			wireMethods(petiteContainer, bean);
+		}
+
+		invokeInitMethods(bean, InitMethodInvocationStrategy.POST_DEFINE);
+		injectParams(petiteContainer, bean);
+		invokeInitMethods(bean, InitMethodInvocationStrategy.POST_INITIALIZE);
+
+		petiteContainer.invokeConsumerIfRegistered(bean, def);
+
+		return bean;
+	}
+
+	protected Object newInstance(PetiteContainer petiteContainer) {
+		int paramNo = ctorReferences.length;
+		Object[] args = paramNo == 0 ? NO_ARGS : new Object[paramNo];
+
+		if (def.wiringMode != WiringMode.NONE) {
+			for (int i = 0; i < paramNo; i++) {
+				args[i] = petiteContainer.getBean(ctorReferences[i]);
+				if (args[i] == null) {
+					if ((def.wiringMode == WiringMode.STRICT)) {
+						throw new PetiteException(
+								"Wiring constructor failed. References '" + ctorReferences[i] +
+								"' not found for constructor: " + def.ctor.constructor);
+					}
+				}
+			}
+		}
+
+		try {
+			return (Object) ctor.invokeExact(args);
+		}
+		catch (Throwable throwable) {
+			throw new PetiteException("Failed to create new bean instance '" + def.type.getName() + "' using constructor: " + def.ctor.constructor, wrap(throwable));
+		}
+	}
+
+	protected void wireProperties(PetiteContainer petiteContainer, Object bean) {
+		for (int i = 0; i < properties.length; i++) {
+			PropertyInjectionPoint pip = properties[i];
+
+			Object value = petiteContainer.getWiredBean(def, pip.references);
+
+			if (value == null) {
+				if ((def.wiringMode == WiringMode.STRICT)) {
+					throw new PetiteException("Wiring failed. Beans references: '" +
+							pip.references + "' not found for property: "+ def.type.getName() +
+							'#' + pip.propertyDescriptor.getName());
+				}
+				continue;
+			}
+
+			try {
+				propertySetters[i].invokeSetter(bean, value);
+			}
+			catch (Exception ex) {
+				throw new PetiteException("Wiring failed", ex);
+			}
+		}
+
+		for (int i = 0; i < sets.length; i++) {
+			Collection beans = petiteContainer.getWiredBeans(def, sets[i]);
+
+			try {
+				setSetters[i].invokeSetter(bean, beans);
+			}
+			catch (Exception ex) {
+				throw new PetiteException("Wiring failed", ex);
+			}
+		}
+	}
+
+	protected void wireMethods(PetiteContainer petiteContainer, Object bean) {
+		for (int m = 0; m < methods.length; m++) {
+			MethodInjectionPoint methodRef = methods[m];
+			BeanReferences[] refNames = methodRef.references;
+			Object[] args = new Object[refNames.length];
+
+			for (int i = 0; i < refNames.length; i++) {
+				Object value = petiteContainer.getWiredBean(def, refNames[i]);
+
+				args[i] = value;
+				if (value == null) {
+					if ((def.wiringMode == WiringMode.STRICT)) {
+						throw new PetiteException("Wiring failed. Beans references: '" +
+								refNames[i] + "' not found for method: " + def.type.getName() + '#' + methodRef.method.getName());
+					}
+				}
+			}
+
+			try {
+				methodHandles[m].invokeExact(bean, args);
+			}
+			catch (Throwable throwable) {
+				throw new PetiteException(wrap(throwable));
+			}
+		}
+	}
+
+	protected void invokeInitMethods(Object bean, InitMethodInvocationStrategy invocationStrategy) {
+		int ndx = invocationStrategy.ordinal();
+		MethodHandle[] handles = initMethodHandles[ndx];
+
+		for (int i = 0; i < handles.length; i++) {
+			try {
+				handles[i].invokeExact(bean, NO_ARGS);
+			}
+			catch (Throwable throwable) {
+				throw new PetiteException("Invalid init method: " + initMethods[ndx][i], wrap(throwable));
+			}
+		}
+	}
+
+	protected void injectParams(PetiteContainer petiteContainer, Object bean) {
+		if (params == null) {
+			return;
+		}
+		for (int i = 0; i < params.length; i++) {
+			Object value = petiteContainer.getParameter(params[i]);
+			try {
+				paramPaths[i].set(bean, value);
+			} catch (Exception ex) {
+				throw new PetiteException("Unable to set parameter: '" + params[i] + "' to bean: " + def.name, ex);
+			}
+		}
+	}
+
+	// ---------------------------------------------------------------- handles
+
+	/**
+	 * Returns constructor handle of type <code>(Object[])Object</code>.
+	 * Falls back to reflection if constructor is not accessible.
+	 */
+	private static MethodHandle handle(Constructor constructor) {
+		int paramNo = constructor.getParameterCount();
+		try {
+			return LOOKUP.unreflectConstructor(constructor)
+				.asFixedArity()
+				.asType(MethodType.genericMethodType(paramNo))
+				.asSpreader(Object[].class, paramNo);
+		} catch (IllegalAccessException iaex) {
+			return CONSTRUCTOR_NEW_INSTANCE.bindTo(constructor);
+		}
+	}
+
+	/**
+	 * Returns method handle of type <code>(Object, Object[])void</code>,
+	 * as the results of injection and init methods are ignored.
+	 * Falls back to reflection if method is not accessible.
+	 */
+	private static MethodHandle handle(Method method) {
+		int paramNo = method.getParameterCount();
+		try {
+			return LOOKUP.unreflect(method)
+				.asFixedArity()
+				.asType(MethodType.genericMethodType(paramNo + 1).changeReturnType(void.class))
+				.asSpreader(Object[].class, paramNo);
+		} catch (IllegalAccessException iaex) {
+			return METHOD_INVOKE.bindTo(method).asType(METHOD_INVOKE_VOID);
+		}
+	}
+
+	/**
+	 * Wraps exceptions thrown by the invoked constructor or method into
+	 * <code>InvocationTargetException</code>, as reflection would do.
+	 * Exceptions of the invocation itself, and exceptions already wrapped
+	 * by the reflection fallback, are returned as they are. Errors are rethrown.
+	 */
+	private static Throwable wrap(Throwable throwable) {
+		if (throwable instanceof Error) {
+			throw (Error) throwable;
+		}
+		// includes InvocationTargetException of the reflection fallback
+		if (throwable instanceof ReflectiveOperationException || throwable instanceof WrongMethodTypeException) {
+			return throwable;
+		}
+		return new InvocationTargetException(throwable);
+	}
+
+}
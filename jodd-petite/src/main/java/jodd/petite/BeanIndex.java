@@ -0,0 +1,193 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.petite;
+
+import jodd.petite.scope.SingletonScope;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Immutable index of bean definitions of a {@link PetiteBeans#freeze() frozen}
+ * container. Each bean definition gets an index. Bean names, including
+ * alternative ones, are resolved to the definition index using open addressing
+ * table, so lookups don't lock nor walk the hash map entries. Initialized
+ * singletons are cached by definition index. Index also tracks definitions
+ * whose first bean instance has been fully created, i.e. whose injection
+ * points are all resolved.
+ */
+final class BeanIndex {
+
+	private final String[] names;
+	private final int[] indexes;
+	private final int mask;
+
+	private final BeanDefinition[] definitions;
+	private final boolean[] singletons;
+	private final AtomicReferenceArray<Object> instances;
+	private final AtomicIntegerArray created;
+
+	BeanIndex(Map<String, BeanDefinition> beans, Map<String, BeanDefinition> beansAlt) {
+		Map<BeanDefinition, Integer> definitionIndexes = new IdentityHashMap<>();
+		for (BeanDefinition def : beans.values()) {
+			definitionIndexes.putIfAbsent(def, definitionIndexes.size());
+		}
+
+		int total = definitionIndexes.size();
+
+		this.definitions = new BeanDefinition[total];
+		this.singletons = new boolean[total];
+		this.instances = new AtomicReferenceArray<>(total);
+		this.created = new AtomicIntegerArray(total);
+
+		for (Map.Entry<BeanDefinition, Integer> entry : definitionIndexes.entrySet()) {
+			BeanDefinition def = entry.getKey();
+			int ndx = entry.getValue();
+
+			definitions[ndx] = def;
+
+			if (def.scope instanceof SingletonScope) {
+				singletons[ndx] = true;
+
+				// singletons are never in creation while container is being frozen
+				instances.set(ndx, def.scopeLookup());
+			}
+		}
+
+		int capacity = 16;
+		while (capacity < (beans.size() + beansAlt.size()) * 2) {
+			capacity <<= 1;
+		}
+
+		this.names = new String[capacity];
+		this.indexes = new int[capacity];
+		this.mask = capacity - 1;
+
+		for (Map.Entry<String, BeanDefinition> entry : beans.entrySet()) {
+			put(entry.getKey(), definitionIndexes.get(entry.getValue()));
+		}
+		for (Map.Entry<String, BeanDefinition> entry : beansAlt.entrySet()) {
+			if (beans.containsKey(entry.getKey())) {
+				continue;
+			}
+			BeanDefinition def = entry.getValue();
+
+			// duplicated alternative names are stored, but not resolved
+			Integer ndx = def != null ? definitionIndexes.get(def) : null;
+
+			put(entry.getKey(), ndx != null ? ndx : -1);
+		}
+	}
+
+	private void put(String name, int ndx) {
+		int slot = hash(name) & mask;
+		while (names[slot] != null) {
+			slot = (slot + 1) & mask;
+		}
+		names[slot] = name;
+		indexes[slot] = ndx;
+	}
+
+	private static int hash(String name) {
+		int h = name.hashCode();
+		return h ^ (h >>> 16);
+	}
+
+	// ---------------------------------------------------------------- lookup
+
+	/**
+	 * Returns index of bean definition with given name or alternative name,
+	 * or <code>-1</code> if bean is not registered.
+	 */
+	int indexOf(String name) {
+		int slot = hash(name) & mask;
+
+		while (true) {
+			String slotName = names[slot];
+
+			if (slotName == null) {
+				return -1;
+			}
+			if (slotName == name || slotName.equals(name)) {
+				return indexes[slot];
+			}
+			slot = (slot + 1) & mask;
+		}
+	}
+
+	/**
+	 * Returns bean definition of given index.
+	 */
+	BeanDefinition definition(int ndx) {
+		return definitions[ndx];
+	}
+
+	/**
+	 * Returns <code>true</code> if bean of given index is a singleton.
+	 */
+	boolean isSingleton(int ndx) {
+		return singletons[ndx];
+	}
+
+	/**
+	 * Returns initialized singleton of given index, or <code>null</code>.
+	 */
+	Object instance(int ndx) {
+		return instances.get(ndx);
+	}
+
+	/**
+	 * Publishes fully initialized singleton.
+	 */
+	void instance(int ndx, Object bean) {
+		instances.set(ndx, bean);
+	}
+
+	/**
+	 * Returns <code>true</code> if the first bean instance of given index
+	 * has been fully created, so its definition is completely resolved.
+	 */
+	boolean isCreated(int ndx) {
+		return created.get(ndx) != 0;
+	}
+
+	/**
+	 * Marks that the first bean instance of given index has been fully created.
+	 */
+	void created(int ndx) {
+		created.set(ndx, 1);
+	}
+
+	/**
+	 * Returns number of indexed bean definitions.
+	 */
+	int size() {
+		return definitions.length;
+	}
+
+}
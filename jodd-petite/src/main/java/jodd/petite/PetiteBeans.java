@@ -51,10 +51,12 @@ import jodd.util.StringPool;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 
 /**
@@ -88,7 +90,12 @@ public abstract class PetiteBeans {
 	/**
 	 * Map of all bean collections.
 	 */
-	protected final Map<Class, String[]> beanCollections = new HashMap<>();
+	protected final Map<Class, String[]> beanCollections = new ConcurrentHashMap<>();
+
+	/**
+	 * Index of bean definitions, created when container is frozen.
+	 */
+	volatile BeanIndex beanIndex;
 
 	/**
 	 * {@link PetiteConfig Petite configuration}.
@@ -166,6 +173,7 @@ public abstract class PetiteBeans {
 	 * using container-depended scopes.
 	 */
 	public void registerScope(Class<? extends Scope> scopeType, Scope scope) {
+		checkNotFrozen();
 		scopes.put(scopeType, scope);
 	}
 
@@ -176,6 +184,14 @@ public abstract class PetiteBeans {
 	 * Returns <code>null</code> if bean name doesn't exist.
 	 */
 	public BeanDefinition lookupBeanDefinition(String name) {
+		BeanIndex beanIndex = this.beanIndex;
+
+		if (beanIndex != null) {
+			int ndx = beanIndex.indexOf(name);
+
+			return ndx == -1 ? null : beanIndex.definition(ndx);
+		}
+
 		BeanDefinition beanDefinition = beans.get(name);
 
 		// try alt bean names
@@ -276,6 +292,7 @@ public abstract class PetiteBeans {
 			boolean define,
 			Consumer<T> consumer
 	) {
+		checkNotFrozen();
 
 		if (name == null) {
 			name = resolveBeanName(type);
@@ -415,6 +432,8 @@ public abstract class PetiteBeans {
 	 * Returns bean definition of removed bean or <code>null</code>.
 	 */
 	public BeanDefinition removeBean(String name) {
+		checkNotFrozen();
+
 		BeanDefinition bd = beans.remove(name);
 		if (bd == null) {
 			return null;
@@ -465,6 +484,8 @@ public abstract class PetiteBeans {
 	 * @param references references for arguments
 	 */
 	public void registerPetiteCtorInjectionPoint(String beanName, Class[] paramTypes, String[] references) {
+		checkNotFrozen();
+
 		BeanDefinition beanDefinition = lookupExistingBeanDefinition(beanName);
 
 		ClassDescriptor cd = ClassIntrospector.get().lookup(beanDefinition.type);
@@ -493,6 +514,7 @@ public abstract class PetiteBeans {
 		BeanReferences[] ref = referencesResolver.resolveReferenceFromValues(constructor, references);
 
 		beanDefinition.ctor = new CtorInjectionPoint(constructor, ref);
+		beanDefinition.factory = null;
 	}
 
 	/**
@@ -503,6 +525,8 @@ public abstract class PetiteBeans {
 	 * @param reference explicit injection reference, may be <code>null</code>
 	 */
 	public void registerPetitePropertyInjectionPoint(String beanName, String property, String reference) {
+		checkNotFrozen();
+
 		BeanDefinition beanDefinition = lookupExistingBeanDefinition(beanName);
 
 		ClassDescriptor cd = ClassIntrospector.get().lookup(beanDefinition.type);
@@ -526,6 +550,8 @@ public abstract class PetiteBeans {
 	 * @param property set property name
 	 */
 	public void registerPetiteSetInjectionPoint(String beanName, String property) {
+		checkNotFrozen();
+
 		BeanDefinition beanDefinition = lookupExistingBeanDefinition(beanName);
 		ClassDescriptor cd = ClassIntrospector.get().lookup(beanDefinition.type);
 
@@ -549,6 +575,8 @@ public abstract class PetiteBeans {
 	 * @param references injection references
 	 */
 	public void registerPetiteMethodInjectionPoint(String beanName, String methodName, Class[] arguments, String[] references) {
+		checkNotFrozen();
+
 		BeanDefinition beanDefinition = lookupExistingBeanDefinition(beanName);
 
 		ClassDescriptor cd = ClassIntrospector.get().lookup(beanDefinition.type);
@@ -588,6 +616,8 @@ public abstract class PetiteBeans {
 	 * @param initMethodNames init method names
 	 */
 	public void registerPetiteInitMethods(String beanName, InitMethodInvocationStrategy invocationStrategy, String... initMethodNames) {
+		checkNotFrozen();
+
 		BeanDefinition beanDefinition = lookupExistingBeanDefinition(beanName);
 
 		ClassDescriptor cd = ClassIntrospector.get().lookup(beanDefinition.type);
@@ -617,6 +647,8 @@ public abstract class PetiteBeans {
 	 * @param destroyMethodNames destroy method names
 	 */
 	public void registerPetiteDestroyMethods(String beanName, String... destroyMethodNames) {
+		checkNotFrozen();
+
 		BeanDefinition beanDefinition = lookupExistingBeanDefinition(beanName);
 
 		ClassDescriptor cd = ClassIntrospector.get().lookup(beanDefinition.type);
@@ -650,6 +682,8 @@ public abstract class PetiteBeans {
 	 * @param arguments method argument types
 	 */
 	public void registerPetiteProvider(String providerName, String beanName, String methodName, Class[] arguments) {
+		checkNotFrozen();
+
 		BeanDefinition beanDefinition = lookupBeanDefinition(beanName);
 
 		if (beanDefinition == null) {
@@ -679,6 +713,8 @@ public abstract class PetiteBeans {
 	 * @param arguments method argument types
 	 */
 	public void registerPetiteProvider(String providerName, Class type, String staticMethodName, Class[] arguments) {
+		checkNotFrozen();
+
 		ClassDescriptor cd = ClassIntrospector.get().lookup(type);
 		MethodDescriptor md = cd.getMethodDescriptor(staticMethodName, arguments, true);
 
@@ -691,6 +727,48 @@ public abstract class PetiteBeans {
 		providers.put(providerName, providerDefinition);
 	}
 
+	// ---------------------------------------------------------------- freeze
+
+	/**
+	 * Freezes the container once it is configured, before it is used by many threads.
+	 * Frozen container resolves bean names by index of immutable lookup structures,
+	 * caches initialized singletons by bean index and creates each singleton only once,
+	 * so beans may be fetched concurrently without external locking.
+	 * Beans, scopes, providers, injection points and parameters can not be
+	 * registered or removed after container is frozen.
+	 * <p>
+	 * Singletons, and the first instances of other beans, are created under
+	 * a single container lock. Therefore, bean constructor or init method
+	 * must not wait for another thread that fetches a bean from the same
+	 * container, as that would deadlock.
+	 */
+	public void freeze() {
+		if (beanIndex != null) {
+			return;
+		}
+		beanIndex = new BeanIndex(beans, petiteConfig.isUseAltBeanNames() ? beansAlt : Collections.emptyMap());
+
+		if (log.isDebugEnabled()) {
+			log.debug("Petite container frozen with " + beanIndex.size() + " beans");
+		}
+	}
+
+	/**
+	 * Returns <code>true</code> if container is {@link #freeze() frozen}.
+	 */
+	public boolean isFrozen() {
+		return beanIndex != null;
+	}
+
+	/**
+	 * Throws an exception if container is frozen.
+	 */
+	protected void checkNotFrozen() {
+		if (beanIndex != null) {
+			throw new PetiteException("Petite container is frozen");
+		}
+	}
+
 	// ---------------------------------------------------------------- statistics
 
 	/**
@@ -746,6 +824,7 @@ public abstract class PetiteBeans {
 	 * Defines new parameter. Parameters with same name will be replaced.
 	 */
 	public void defineParameter(String name, Object value) {
+		checkNotFrozen();
 		paramManager.put(name, value);
 	}
 
@@ -767,6 +846,8 @@ public abstract class PetiteBeans {
 	 * Defines many parameters at once.
 	 */
 	public void defineParameters(Map<?, ?> properties) {
+		checkNotFrozen();
+
 		for (Map.Entry<?, ?> entry : properties.entrySet()) {
 			defineParameter(entry.getKey().toString(), entry.getValue());
 		}
@@ -776,6 +857,8 @@ public abstract class PetiteBeans {
 	 * Defines many parameters at once from {@link jodd.props.Props}.
 	 */
 	public void defineParameters(Props props) {
+		checkNotFrozen();
+
 		Map<?, ?> map = new HashMap<>();
 		props.extractProps(map);
 		defineParameters(map);
@@ -40,6 +40,7 @@ public class PetiteConfig {
 		wireScopedProxy = false;
 		detectMixedScopes = false;
 		useAltBeanNames = true;
+		compileBeanFactories = false;
 	}
 
 	// ----------------------------------------------------------------
@@ -205,4 +206,25 @@ public class PetiteConfig {
 		this.detectMixedScopes = detectMixedScopes;
 		return this;
 	}
+
+	// ----------------------------------------------------------------
+
+	protected boolean compileBeanFactories;
+
+	public boolean isCompileBeanFactories() {
+		return compileBeanFactories;
+	}
+
+	/**
+	 * Defines if bean definitions should be compiled into {@link BeanFactory bean factories}
+	 * once the bean is created for the second time, so beans of e.g. prototype or request
+	 * scope, and beans made by {@link PetiteContainer#createBean(Class)} are created
+	 * without re-resolving and reflection. Compiled factories do not invoke
+	 * overridden container methods that create and wire beans.
+	 */
+	public PetiteConfig setCompileBeanFactories(boolean compileBeanFactories) {
+		this.compileBeanFactories = compileBeanFactories;
+		return this;
+	}
+
 }
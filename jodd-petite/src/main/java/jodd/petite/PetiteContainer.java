@@ -40,6 +40,8 @@ import jodd.petite.scope.Scope;
 import jodd.petite.scope.SingletonScope;
 
 import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Petite IOC container.
@@ -59,6 +61,13 @@ public class PetiteContainer extends PetiteBeans {
 
 	protected final ScopedProxyManager scopedProxyManager;
 
+	/**
+	 * Definitions of beans created by {@link #createBean(Class, WiringMode)},
+	 * per wiring mode. Used only when bean factories are compiled.
+	 */
+	@SuppressWarnings("unchecked")
+	protected final Map<Class, BeanDefinition>[] createdBeanDefinitions = new Map[WiringMode.values().length];
+
 	/**
 	 * Creates new Petite container using {@link PetiteConfig default configuration}.
 	 */
@@ -74,6 +83,10 @@ public class PetiteContainer extends PetiteBeans {
 
 		scopedProxyManager = new ScopedProxyManager();
 
+		for (int i = 0; i < createdBeanDefinitions.length; i++) {
+			createdBeanDefinitions[i] = new ConcurrentHashMap<>();
+		}
+
 		if (log.isDebugEnabled()) {
 			log.debug("Petite container created");
 		}
@@ -130,6 +143,48 @@ public class PetiteContainer extends PetiteBeans {
 		wireMethods(bean, def);
 	}
 
+	/**
+	 * Returns bean to be wired into the bean of given definition. When scopes are
+	 * mixed, the scoped proxy may be returned instead. Returns {@code null}
+	 * if bean is not found.
+	 */
+	protected Object getWiredBean(BeanDefinition def, BeanReferences refNames) {
+		boolean mixing = petiteConfig.wireScopedProxy || petiteConfig.detectMixedScopes;
+
+		if (mixing) {
+			BeanDefinition refBeanDefinition = lookupBeanDefinitions(refNames);
+
+			if (refBeanDefinition != null) {
+				Object value = scopedProxyManager.lookupValue(this, def, refBeanDefinition);
+
+				if (value != null) {
+					return value;
+				}
+			}
+		}
+
+		return getBean(refNames);
+	}
+
+	/**
+	 * Returns set of all beans of set injection point type, except
+	 * the bean of given definition.
+	 */
+	@SuppressWarnings("unchecked")
+	protected Collection getWiredBeans(BeanDefinition def, SetInjectionPoint sip) {
+		String[] beanNames = resolveBeanNamesForType(sip.targetClass);
+
+		Collection beans = sip.createSet(beanNames.length);
+
+		for (String beanName : beanNames) {
+			if (!beanName.equals(def.name)) {
+				Object value = getBean(beanName);
+				beans.add(value);
+			}
+		}
+		return beans;
+	}
+
 	/**
 	 * Wires properties.
 	 */
@@ -138,24 +193,10 @@ public class PetiteContainer extends PetiteBeans {
 			def.properties = petiteResolvers.resolvePropertyInjectionPoint(def.type, def.wiringMode == WiringMode.AUTOWIRE);
 		}
 
-		boolean mixing = petiteConfig.wireScopedProxy || petiteConfig.detectMixedScopes;
-
 		for (PropertyInjectionPoint pip : def.properties) {
 			BeanReferences refNames = pip.references;
 
-			Object value = null;
-
-			if (mixing) {
-				BeanDefinition refBeanDefinition = lookupBeanDefinitions(refNames);
-
-				if (refBeanDefinition != null) {
-					value = scopedProxyManager.lookupValue(this, def, refBeanDefinition);
-				}
-			}
-
-			if (value == null) {
-				value = getBean(refNames);
-			}
+			Object value = getWiredBean(def, refNames);
 
 			if (value == null) {
 				if ((def.wiringMode == WiringMode.STRICT)) {
@@ -183,16 +224,7 @@ public class PetiteContainer extends PetiteBeans {
 		}
 		for (SetInjectionPoint sip : def.sets) {
 
-			String[] beanNames = resolveBeanNamesForType(sip.targetClass);
-
-			Collection beans = sip.createSet(beanNames.length);
-
-			for (String beanName : beanNames) {
-				if (!beanName.equals(def.name)) {
-					Object value = getBean(beanName);
-					beans.add(value);
-				}
-			}
+			Collection beans = getWiredBeans(def, sip);
 
 			//BeanUtil.setDeclaredProperty(bean, sip.field.getName(), beans);
 
@@ -218,21 +250,7 @@ public class PetiteContainer extends PetiteBeans {
 			Object[] args = new Object[refNames.length];
 			for (int i = 0; i < refNames.length; i++) {
 				BeanReferences refName = refNames[i];
-				Object value = null;
-
-				boolean mixing = petiteConfig.wireScopedProxy || petiteConfig.detectMixedScopes;
-
-				if (mixing) {
-					BeanDefinition refBeanDefinition = lookupBeanDefinitions(refName);
-
-					if (refBeanDefinition != null) {
-						value = scopedProxyManager.lookupValue(this, def, refBeanDefinition);
-					}
-				}
-
-				if (value == null) {
-					value = getBean(refName);
-				}
+				Object value = getWiredBean(def, refName);
 
 				args[i] = value;
 				if (value == null) {
@@ -348,30 +366,138 @@ public class PetiteContainer extends PetiteBeans {
 	 */
 	public <T> T getBean(String name) {
 
-		// Lookup for registered bean definition.
-		BeanDefinition def = lookupBeanDefinition(name);
+		// Lookup frozen container.
+		BeanIndex beanIndex = this.beanIndex;
 
-		if (def == null) {
+		if (beanIndex != null) {
+			int ndx = beanIndex.indexOf(name);
 
-			// try provider
-			ProviderDefinition providerDefinition = providers.get(name);
+			if (ndx != -1) {
+				return (T) getBean(beanIndex, ndx);
+			}
+		}
+		else {
+			// Lookup for registered bean definition.
+			BeanDefinition def = lookupBeanDefinition(name);
 
-			if (providerDefinition != null) {
-				return (T) invokeProvider(providerDefinition);
+			if (def != null) {
+				// Find the bean in its scope
+				Object bean = def.scopeLookup();
+
+				if (bean == null) {
+					// Create new bean in the scope
+					bean = createBeanInstance(def);
+				}
+
+				return (T) bean;
 			}
-			return null;
 		}
 
-		// Find the bean in its scope
-		Object bean = def.scopeLookup();
+		// try provider
+		ProviderDefinition providerDefinition = providers.get(name);
+
+		if (providerDefinition != null) {
+			return (T) invokeProvider(providerDefinition);
+		}
+		return null;
+	}
+
+	/**
+	 * Returns bean of frozen container. Initialized singletons are returned
+	 * from the index. Otherwise, singletons are created under the lock, so each
+	 * one is created only once and published only after it is fully initialized.
+	 * Single lock is used since the beans being created may depend on each other.
+	 * Until the first instance of other beans is fully created, instances are
+	 * also created under the lock, as the creation resolves the injection points
+	 * of the definition.
+	 */
+	private Object getBean(BeanIndex beanIndex, int ndx) {
+		Object bean = beanIndex.instance(ndx);
+
+		if (bean != null) {
+			return bean;
+		}
+
+		BeanDefinition def = beanIndex.definition(ndx);
+
+		if (beanIndex.isSingleton(ndx)) {
+			synchronized (beanIndex) {
+				bean = def.scopeLookup();
+
+				if (bean != null) {
+					// created by other thread, or still in creation in this one
+					return bean;
+				}
+				bean = createBeanInstance(def);
+			}
+			beanIndex.instance(ndx, bean);
+			return bean;
+		}
+
+		bean = def.scopeLookup();
 
 		if (bean == null) {
-			// Create new bean in the scope
-			bean = newBeanInstance(def);
-			registerBeanAndWireAndInjectParamsAndInvokeInitMethods(def, bean);
+			if (!beanIndex.isCreated(ndx)) {
+				synchronized (beanIndex) {
+					bean = createBeanInstance(def);
+				}
+				beanIndex.created(ndx);
+			}
+			else {
+				bean = createBeanInstance(def);
+			}
+		}
+		return bean;
+	}
+
+	/**
+	 * Creates new bean instance, registers it in the scope, wires it, injects params and
+	 * invokes init methods. When {@link PetiteConfig#setCompileBeanFactories(boolean) enabled},
+	 * bean definition is compiled into {@link BeanFactory} once all its injection points are
+	 * resolved, i.e. after the first bean instance is created.
+	 */
+	protected Object createBeanInstance(BeanDefinition def) {
+		BeanFactory factory = def.factory;
+
+		if (factory == null && petiteConfig.compileBeanFactories && def.initMethods != null && def.destroyMethods != null) {
+			factory = compileBeanFactory(def);
+			def.factory = factory;
+		}
+
+		if (factory != null) {
+			return factory.create(this);
 		}
 
-		return (T) bean;
+		Object bean = newBeanInstance(def);
+		registerBeanAndWireAndInjectParamsAndInvokeInitMethods(def, bean);
+		return bean;
+	}
+
+	/**
+	 * Resolves remaining injection points of bean definition, the same way
+	 * the bean creation does, and compiles it into the {@link BeanFactory}.
+	 */
+	protected BeanFactory compileBeanFactory(BeanDefinition def) {
+		if (def.ctor == null) {
+			def.ctor = petiteResolvers.resolveCtorInjectionPoint(def.type);
+		}
+		if (def.wiringMode != WiringMode.NONE) {
+			boolean autowire = def.wiringMode == WiringMode.AUTOWIRE;
+
+			if (def.properties == null) {
+				def.properties = petiteResolvers.resolvePropertyInjectionPoint(def.type, autowire);
+			}
+			if (def.sets == null) {
+				def.sets = petiteResolvers.resolveSetInjectionPoint(def.type, autowire);
+			}
+			if (def.methods == null) {
+				def.methods = petiteResolvers.resolveMethodInjectionPoint(def.type);
+			}
+		}
+		if (def.name != null && def.params == null) {
+			def.params = resolveBeanParams(def.name, petiteConfig.getResolveReferenceParameters());
+		}
+		return new BeanFactory(def);
 	}
 
 	/**
@@ -426,6 +552,16 @@ public class PetiteContainer extends PetiteBeans {
 	@SuppressWarnings({"unchecked"})
 	public <E> E createBean(Class<E> type, WiringMode wiringMode) {
 		wiringMode = petiteConfig.resolveWiringMode(wiringMode);
+
+		if (petiteConfig.compileBeanFactories) {
+			final WiringMode mode = wiringMode;
+
+			BeanDefinition def = createdBeanDefinitions[mode.ordinal()]
+				.computeIfAbsent(type, t -> new BeanDefinition(null, t, null, mode, null));
+
+			return (E) createBeanInstance(def);
+		}
+
 		BeanDefinition def = new BeanDefinition(null, type, null, wiringMode, null);
 		Object bean = newBeanInstance(def);
 		registerBeanAndWireAndInjectParamsAndInvokeInitMethods(def, bean);
@@ -567,6 +703,8 @@ public class PetiteContainer extends PetiteBeans {
 	 * Shutdowns container. After container is down, it can't be used anymore.
 	 */
 	public void shutdown() {
+		beanIndex = null;
+
 		for (Scope scope : scopes.values()) {
 			scope.shutdown();
 		}
@@ -576,6 +714,10 @@ public class PetiteContainer extends PetiteBeans {
 		scopes.clear();
 		providers.clear();
 		beanCollections.clear();
+
+		for (Map<Class, BeanDefinition> definitions : createdBeanDefinitions) {
+			definitions.clear();
+		}
 	}
 
 }
\ No newline at end of file
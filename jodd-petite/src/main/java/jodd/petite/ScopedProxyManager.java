@@ -38,8 +38,8 @@ import jodd.util.ArraysUtil;
 import jodd.util.ClassUtil;
 
 import java.lang.reflect.Field;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Manager for mixing scopes.
@@ -62,8 +62,8 @@ public class ScopedProxyManager {
 
 	protected ProxyAspect aspect = new ProxyAspect(ScopedProxyAdvice.class, new AllMethodsPointcut());
 
-	protected Map<Class, Class> proxyClasses = new HashMap<>();
-	protected Map<String, Object> proxies = new HashMap<>();
+	protected Map<Class, Class> proxyClasses = new ConcurrentHashMap<>();
+	protected Map<String, Object> proxies = new ConcurrentHashMap<>();
 
 	public ScopedProxyManager() {
 		log.debug("ScopedProxyManager created");
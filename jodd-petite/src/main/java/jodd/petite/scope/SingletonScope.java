@@ -29,8 +29,8 @@ import jodd.petite.BeanData;
 import jodd.petite.BeanDefinition;
 import jodd.petite.PetiteUtil;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Singleton scope pools all bean instances so they will be created only once in
@@ -38,7 +38,7 @@ import java.util.Map;
  */
 public class SingletonScope implements Scope {
 
-	protected Map<String, BeanData> instances = new HashMap<>();
+	protected Map<String, BeanData> instances = new ConcurrentHashMap<>();
 
 	@Override
 	public Object lookup(String name) {
@@ -0,0 +1,123 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.petite;
+
+import jodd.petite.meta.PetiteInitMethod;
+import jodd.petite.meta.PetiteInject;
+import jodd.petite.scope.ProtoScope;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares creation of prototype beans with and without
+ * compiled bean factories, and with plain <code>new</code>.
+ *
+ * Run:
+ * <code>
+ * gw :jodd-petite:BeanFactoryBenchmark
+ * </code>
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@State(Scope.Benchmark)
+public class BeanFactoryBenchmark {
+
+	public static class Dao {
+	}
+
+	public static class Service {
+		@PetiteInject
+		Dao dao;
+
+		String name;
+		boolean initialized;
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		@PetiteInitMethod
+		public void init() {
+			initialized = true;
+		}
+	}
+
+	private PetiteContainer reflectionContainer;
+	private PetiteContainer compiledContainer;
+	private Dao dao;
+
+	@Setup
+	public void setup() {
+		reflectionContainer = createContainer(false);
+		compiledContainer = createContainer(true);
+		dao = compiledContainer.getBean("dao");
+	}
+
+	private PetiteContainer createContainer(boolean compile) {
+		PetiteContainer pc = new PetiteContainer();
+		pc.config().setCompileBeanFactories(compile);
+		pc.registerPetiteBean(Dao.class, "dao", null, null, false, null);
+		pc.registerPetiteBean(Service.class, "service", ProtoScope.class, null, false, null);
+		pc.defineParameter("service.name", "jodd");
+		return pc;
+	}
+
+	@Benchmark
+	public Service proto_reflection() {
+		return reflectionContainer.getBean("service");
+	}
+
+	@Benchmark
+	public Service proto_compiled() {
+		return compiledContainer.getBean("service");
+	}
+
+	@Benchmark
+	public Service createBean_reflection() {
+		return reflectionContainer.createBean(Service.class);
+	}
+
+	@Benchmark
+	public Service createBean_compiled() {
+		return compiledContainer.createBean(Service.class);
+	}
+
+	@Benchmark
+	public Service manual() {
+		Service service = new Service();
+		service.dao = dao;
+		service.setName("jodd");
+		service.init();
+		return service;
+	}
+
+}
@@ -0,0 +1,124 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.petite;
+
+import jodd.petite.meta.PetiteInject;
+import jodd.petite.scope.ProtoScope;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares bean lookups of configured and frozen container,
+ * fetched concurrently by several threads.
+ *
+ * Run:
+ * <code>
+ * gw :jodd-petite:PetiteContainerBenchmark
+ * </code>
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Threads(4)
+@State(Scope.Benchmark)
+public class PetiteContainerBenchmark {
+
+	public interface Repository {
+	}
+
+	public static class DefaultRepository implements Repository {
+	}
+
+	public static class Filler {
+	}
+
+	public static class Service {
+		@PetiteInject
+		Repository repository;
+	}
+
+	private PetiteContainer container;
+	private PetiteContainer frozenContainer;
+
+	@Setup
+	public void setup() {
+		container = createContainer();
+		frozenContainer = createContainer();
+		frozenContainer.freeze();
+	}
+
+	private PetiteContainer createContainer() {
+		PetiteContainer pc = new PetiteContainer();
+		pc.config().setCompileBeanFactories(true);
+
+		for (int i = 0; i < 100; i++) {
+			pc.registerPetiteBean(Filler.class, "filler" + i, null, null, false, null);
+		}
+		pc.registerPetiteBean(DefaultRepository.class, "defaultRepository", null, null, false, null);
+		pc.registerPetiteBean(Service.class, "service", ProtoScope.class, null, false, null);
+
+		pc.getBean("defaultRepository");
+		pc.getBean("service");
+		return pc;
+	}
+
+	@Benchmark
+	public Object singleton() {
+		return container.getBean("defaultRepository");
+	}
+
+	@Benchmark
+	public Object singleton_frozen() {
+		return frozenContainer.getBean("defaultRepository");
+	}
+
+	@Benchmark
+	public Object singleton_altName() {
+		return container.getBean("repository");
+	}
+
+	@Benchmark
+	public Object singleton_altName_frozen() {
+		return frozenContainer.getBean("repository");
+	}
+
+	@Benchmark
+	public Object proto() {
+		return container.getBean("service");
+	}
+
+	@Benchmark
+	public Object proto_frozen() {
+		return frozenContainer.getBean("service");
+	}
+
+}
@@ -0,0 +1,251 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.petite;
+
+import jodd.petite.meta.PetiteInitMethod;
+import jodd.petite.meta.PetiteInject;
+import jodd.petite.scope.ProtoScope;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static jodd.petite.meta.InitMethodInvocationStrategy.POST_CONSTRUCT;
+import static jodd.petite.meta.InitMethodInvocationStrategy.POST_DEFINE;
+import static jodd.petite.meta.InitMethodInvocationStrategy.POST_INITIALIZE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class BeanFactoryTest {
+
+	public static class Dao {
+	}
+
+	public static class Service {
+		final Dao ctorDao;
+		final List<String> calls = new ArrayList<>();
+
+		@PetiteInject
+		Dao dao;
+
+		@PetiteInject
+		Set<Dao> daos;
+
+		Dao methodDao;
+		String name;
+
+		@PetiteInject
+		public Service(Dao dao) {
+			this.ctorDao = dao;
+		}
+
+		@PetiteInject
+		public void inject(Dao dao) {
+			methodDao = dao;
+			calls.add("method");
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		@PetiteInitMethod(invoke = POST_CONSTRUCT)
+		void construct() {
+			calls.add("construct:" + dao);
+		}
+
+		@PetiteInitMethod(invoke = POST_DEFINE)
+		void define() {
+			calls.add("define:" + name);
+		}
+
+		@PetiteInitMethod(invoke = POST_INITIALIZE)
+		void init() {
+			calls.add("init:" + name);
+		}
+	}
+
+	public static class Failing {
+		@PetiteInitMethod(invoke = POST_INITIALIZE)
+		void init() {
+			throw new IllegalStateException();
+		}
+	}
+
+	public static class Erroneous {
+		@PetiteInitMethod(invoke = POST_INITIALIZE)
+		void init() {
+			throw new StackOverflowError();
+		}
+	}
+
+	public static class Varargs {
+		final Dao[] ctorDaos;
+		Dao[] methodDaos;
+
+		@PetiteInject("daos")
+		public Varargs(Dao... daos) {
+			this.ctorDaos = daos;
+		}
+
+		@PetiteInject("daos")
+		public void inject(Dao... daos) {
+			this.methodDaos = daos;
+		}
+	}
+
+	@Test
+	void testProtoBeans() {
+		PetiteContainer pc = new PetiteContainer();
+		pc.config().setCompileBeanFactories(true);
+
+		pc.registerPetiteBean(Dao.class, "dao", null, null, false, null);
+		pc.registerPetiteBean(Service.class, "service", ProtoScope.class, null, false, null);
+		pc.defineParameter("service.name", "jodd");
+
+		Dao dao = pc.getBean("dao");
+		BeanDefinition def = pc.lookupBeanDefinition("service");
+
+		assertNull(def.factory());
+
+		Service service1 = pc.getBean("service");
+		Service service2 = pc.getBean("service");
+
+		assertNotNull(def.factory());
+		assertSame(def.factory(), pc.lookupBeanDefinition("service").factory());
+
+		Service service3 = pc.getBean("service");
+
+		assertNotSame(service2, service3);
+		assertNull(pc.lookupBeanDefinition("dao").factory());
+
+		for (Service service : Arrays.asList(service1, service2, service3)) {
+			assertSame(dao, service.ctorDao);
+			assertSame(dao, service.dao);
+			assertSame(dao, service.methodDao);
+			assertEquals(1, service.daos.size());
+			assertTrue(service.daos.contains(dao));
+			assertEquals("jodd", service.name);
+			assertEquals(Arrays.asList("construct:null", "method", "define:null", "init:jodd"), service.calls);
+		}
+	}
+
+	@Test
+	void testCreateBean() {
+		PetiteContainer pc = new PetiteContainer();
+		pc.config().setCompileBeanFactories(true);
+
+		pc.registerPetiteBean(Dao.class, "dao", null, null, false, null);
+
+		Dao dao = pc.getBean("dao");
+
+		for (int i = 0; i < 3; i++) {
+			Service service = pc.createBean(Service.class);
+
+			assertSame(dao, service.ctorDao);
+			assertSame(dao, service.dao);
+			assertSame(dao, service.methodDao);
+			assertNull(service.name);
+			assertEquals(Arrays.asList("construct:null", "method", "define:null", "init:null"), service.calls);
+		}
+
+		Service service = pc.createBean(Service.class, WiringMode.NONE);
+
+		assertNull(service.ctorDao);
+		assertNull(service.dao);
+		assertEquals(Arrays.asList("construct:null", "define:null", "init:null"), service.calls);
+	}
+
+	@Test
+	void testFailures() {
+		PetiteContainer pc = new PetiteContainer();
+		pc.config().setCompileBeanFactories(true);
+
+		pc.registerPetiteBean(Failing.class, "failing", ProtoScope.class, null, false, null);
+
+		for (int i = 0; i < 3; i++) {
+			try {
+				pc.getBean("failing");
+				fail("error");
+			} catch (PetiteException pex) {
+				assertTrue(pex.getMessage().startsWith("Invalid init method"));
+				assertTrue(pex.getCause() instanceof InvocationTargetException);
+				assertTrue(pex.getCause().getCause() instanceof IllegalStateException);
+			}
+		}
+
+		// errors are not wrapped by the compiled factory
+		BeanDefinition def = pc.registerPetiteBean(Erroneous.class, "erroneous", ProtoScope.class, null, false, null);
+
+		assertThrows(PetiteException.class, () -> pc.getBean("erroneous"));
+		assertThrows(StackOverflowError.class, () -> pc.getBean("erroneous"));
+		assertNotNull(def.factory());
+		assertThrows(StackOverflowError.class, () -> def.factory().create(pc));
+
+		pc.registerPetiteBean(Service.class, "service", ProtoScope.class, null, false, null);
+
+		for (int i = 0; i < 3; i++) {
+			try {
+				pc.getBean("service");
+				fail("error");
+			} catch (PetiteException pex) {
+				assertTrue(pex.getMessage().startsWith("Wiring constructor failed"));
+			}
+		}
+	}
+
+	@Test
+	void testVarargs() {
+		PetiteContainer pc = new PetiteContainer();
+		pc.config().setCompileBeanFactories(true);
+
+		Dao[] daos = new Dao[] {new Dao(), new Dao()};
+		pc.addBean("daos", daos);
+		pc.registerPetiteBean(Varargs.class, "varargs", ProtoScope.class, null, false, null);
+
+		for (int i = 0; i < 3; i++) {
+			Varargs varargs = pc.getBean("varargs");
+
+			assertSame(daos, varargs.ctorDaos);
+			assertSame(daos, varargs.methodDaos);
+		}
+		assertNotNull(pc.lookupBeanDefinition("varargs").factory());
+
+		Varargs varargs = pc.createBean(Varargs.class);
+
+		assertSame(daos, varargs.ctorDaos);
+		assertSame(daos, varargs.methodDaos);
+	}
+}
@@ -0,0 +1,275 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.petite;
+
+import jodd.petite.meta.PetiteInitMethod;
+import jodd.petite.meta.PetiteInject;
+import jodd.petite.scope.ProtoScope;
+import jodd.petite.scope.Scope;
+import jodd.petite.scope.SingletonScope;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static jodd.petite.meta.InitMethodInvocationStrategy.POST_CONSTRUCT;
+import static jodd.petite.meta.InitMethodInvocationStrategy.POST_INITIALIZE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FreezeTest {
+
+	public interface Repository {
+	}
+
+	public static class DefaultRepository implements Repository {
+	}
+
+	public static class Service {
+		@PetiteInject
+		Repository repository;
+	}
+
+	public static class Slow {
+		static final AtomicInteger instances = new AtomicInteger();
+
+		@PetiteInject
+		Repository repository;
+
+		volatile boolean initialized;
+
+		public Slow() {
+			instances.incrementAndGet();
+		}
+
+		@PetiteInitMethod
+		void init() throws InterruptedException {
+			Thread.sleep(50);
+			initialized = true;
+		}
+	}
+
+	public static class SlowProto {
+		@PetiteInject
+		Repository repository;
+
+		Repository methodRepository;
+
+		volatile boolean initialized;
+
+		@PetiteInject
+		public void inject(Repository repository) {
+			this.methodRepository = repository;
+		}
+
+		@PetiteInitMethod(invoke = POST_CONSTRUCT)
+		void construct() throws InterruptedException {
+			Thread.sleep(50);
+		}
+
+		@PetiteInitMethod(invoke = POST_INITIALIZE)
+		void init() {
+			initialized = true;
+		}
+	}
+
+	public static class Alpha {
+		@PetiteInject
+		Beta beta;
+	}
+
+	public static class Beta {
+		@PetiteInject
+		Alpha alpha;
+	}
+
+	@Test
+	void testFrozenLookups() {
+		PetiteContainer pc = new PetiteContainer();
+
+		pc.registerPetiteBean(DefaultRepository.class, "defaultRepository", null, null, false, null);
+		pc.registerPetiteBean(Service.class, "service", ProtoScope.class, null, false, null);
+
+		Repository repository = pc.getBean("defaultRepository");
+
+		assertFalse(pc.isFrozen());
+		pc.freeze();
+		assertTrue(pc.isFrozen());
+
+		assertSame(repository, pc.getBean("defaultRepository"));
+		assertSame(repository, pc.getBean("repository"));
+		assertSame(repository, pc.getBean(DefaultRepository.class));
+		assertNull(pc.getBean("unknown"));
+		assertNull(pc.lookupBeanDefinition("unknown"));
+		assertEquals("service", pc.lookupBeanDefinition("service").name());
+
+		Service service1 = pc.getBean("service");
+		Service service2 = pc.getBean("service");
+
+		assertNotSame(service1, service2);
+		assertSame(repository, service1.repository);
+		assertSame(repository, service2.repository);
+
+		assertThrows(PetiteException.class, () -> pc.registerPetiteBean(Slow.class, null, null, null, false, null));
+		assertThrows(PetiteException.class, () -> pc.removeBean("service"));
+		assertThrows(PetiteException.class, () -> pc.defineParameter("service.name", "jodd"));
+		assertThrows(PetiteException.class, () -> pc.addBean("other", new DefaultRepository()));
+
+		assertEquals(2, pc.beansCount());
+
+		pc.shutdown();
+
+		assertFalse(pc.isFrozen());
+		assertEquals(0, pc.beansCount());
+	}
+
+	public static class CustomSingletonScope extends SingletonScope {
+	}
+
+	@Test
+	void testSingletonsCreatedOnce() throws Exception {
+		assertSingletonCreatedOnce(null);
+		assertSingletonCreatedOnce(CustomSingletonScope.class);
+	}
+
+	private void assertSingletonCreatedOnce(Class<? extends Scope> scopeType) throws Exception {
+		PetiteContainer pc = new PetiteContainer();
+
+		pc.registerPetiteBean(DefaultRepository.class, "repository", null, null, false, null);
+		pc.registerPetiteBean(Slow.class, "slow", scopeType, null, false, null);
+		pc.freeze();
+
+		Slow.instances.set(0);
+
+		int threads = 8;
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executorService = Executors.newFixedThreadPool(threads);
+
+		try {
+			List<Future<Slow>> futures = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				futures.add(executorService.submit((Callable<Slow>) () -> {
+					start.await();
+					return pc.getBean("slow");
+				}));
+			}
+
+			start.countDown();
+
+			Slow slow = futures.get(0).get();
+			assertNotNull(slow);
+
+			for (Future<Slow> future : futures) {
+				Slow bean = future.get();
+				assertSame(slow, bean);
+				assertTrue(bean.initialized);
+				assertNotNull(bean.repository);
+			}
+		}
+		finally {
+			executorService.shutdown();
+		}
+
+		assertEquals(1, Slow.instances.get());
+	}
+
+	@Test
+	void testPrototypesCreatedConcurrently() throws Exception {
+		assertPrototypesCreatedConcurrently(false);
+		assertPrototypesCreatedConcurrently(true);
+	}
+
+	private void assertPrototypesCreatedConcurrently(boolean compileBeanFactories) throws Exception {
+		PetiteContainer pc = new PetiteContainer();
+		pc.config().setCompileBeanFactories(compileBeanFactories);
+
+		pc.registerPetiteBean(DefaultRepository.class, "repository", null, null, false, null);
+		pc.registerPetiteBean(SlowProto.class, "slowProto", ProtoScope.class, null, false, null);
+		pc.freeze();
+
+		Repository repository = pc.getBean("repository");
+
+		int threads = 8;
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executorService = Executors.newFixedThreadPool(threads);
+
+		try {
+			List<Future<SlowProto>> futures = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				futures.add(executorService.submit((Callable<SlowProto>) () -> {
+					start.await();
+					return pc.getBean("slowProto");
+				}));
+			}
+
+			start.countDown();
+
+			for (Future<SlowProto> future : futures) {
+				SlowProto bean = future.get();
+				assertTrue(bean.initialized);
+				assertSame(repository, bean.repository);
+				assertSame(repository, bean.methodRepository);
+			}
+		}
+		finally {
+			executorService.shutdown();
+		}
+
+		assertEquals(compileBeanFactories, pc.lookupBeanDefinition("slowProto").factory() != null);
+
+		SlowProto bean = pc.getBean("slowProto");
+		assertTrue(bean.initialized);
+		assertSame(repository, bean.repository);
+		assertSame(repository, bean.methodRepository);
+	}
+
+	@Test
+	void testCyclicSingletons() {
+		PetiteContainer pc = new PetiteContainer();
+
+		pc.registerPetiteBean(Alpha.class, "alpha", null, null, false, null);
+		pc.registerPetiteBean(Beta.class, "beta", null, null, false, null);
+		pc.freeze();
+
+		Alpha alpha = pc.getBean("alpha");
+		Beta beta = pc.getBean("beta");
+
+		assertSame(beta, alpha.beta);
+		assertSame(alpha, beta.alpha);
+	}
+}